@@ -17,9 +17,7 @@
 package org.apache.commons.logging.impl;
 
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Hashtable;
-import java.util.Map;
 import java.util.Vector;
 
 import org.apache.commons.logging.Log;
@@ -27,6 +25,7 @@ import org.apache.commons.logging.LogConfigurationException;
 import org.apache.commons.logging.LogFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.ConcurrentRegistry;
 import org.slf4j.spi.LocationAwareLogger;
 
 /**
@@ -57,13 +56,23 @@ public class SLF4JLogFactory extends LogFactory {
    * The {@link org.apache.commons.logging.Log}instances that have already been
    * created, keyed by logger name.
    */
-  Map loggerMap;
+  final ConcurrentRegistry loggerRegistry = new ConcurrentRegistry();
+
+  private final ConcurrentRegistry.Creator logCreator = new ConcurrentRegistry.Creator() {
+    public Object create(String name) {
+      Logger logger = LoggerFactory.getLogger(name);
+      if (logger instanceof LocationAwareLogger) {
+        return new SLF4JLocationAwareLog((LocationAwareLogger) logger);
+      } else {
+        return new SLF4JLog(logger);
+      }
+    }
+  };
 
   /**
    * Public no-arguments constructor required by the lookup mechanism.
    */
   public SLF4JLogFactory() {
-    loggerMap = new HashMap();
   }
 
   // ----------------------------------------------------- Manifest Constants
@@ -147,22 +156,7 @@ public class SLF4JLogFactory extends LogFactory {
    *              if a suitable <code>Log</code> instance cannot be returned
    */
   public Log getInstance(String name) throws LogConfigurationException {
-    Log instance = null;
-    // protect against concurrent access of loggerMap
-    synchronized (this) {
-      instance = (Log) loggerMap.get(name);
-      if (instance == null) {
-        Logger logger = LoggerFactory.getLogger(name);
-        if(logger instanceof LocationAwareLogger) {
-          instance = new SLF4JLocationAwareLog((LocationAwareLogger) logger);
-        } else {
-          instance = new SLF4JLog(logger);
-        }
-        loggerMap.put(name, instance);
-      }
-    }
-    return (instance);
-
+    return (Log) loggerRegistry.getOrCreate(name, logCreator);
   }
 
   /**
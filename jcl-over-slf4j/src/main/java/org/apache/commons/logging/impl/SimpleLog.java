@@ -29,6 +29,7 @@ import java.util.Properties;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogConfigurationException;
+import org.slf4j.helpers.ThrowableRenderer;
 
 /**
  * <p>
@@ -60,6 +61,10 @@ import org.apache.commons.logging.LogConfigurationException;
  * <code>java.text.SimpleDateFormat</code>. If the format is not specified or is
  * invalid, the default format is used. The default format is
  * <code>yyyy/MM/dd HH:mm:ss:SSS zzz</code>.</li>
+ * <li><code>org.apache.commons.logging.simplelog.abbreviateRepeatedStackTraces</code>
+ * - Set to <code>true</code> if you want repeats of a stack trace to be
+ * printed as a one-line reference to its first occurrence. Defaults to
+ * <code>false</code>.</li>
  * </ul>
  * 
  * <p>
@@ -104,6 +109,8 @@ public class SimpleLog implements Log, Serializable {
   static protected String dateTimeFormat = DEFAULT_DATE_TIME_FORMAT;
   /** Used to format times */
   static protected DateFormat dateFormatter = null;
+  /** Used to render stack traces, caching the frames of each distinct trace */
+  static protected ThrowableRenderer throwableRenderer;
 
   // ---------------------------------------------------- Log Level Constants
 
@@ -168,6 +175,8 @@ public class SimpleLog implements Log, Serializable {
         showShortName);
     showDateTime = getBooleanProperty(systemPrefix + "showdatetime",
         showDateTime);
+    throwableRenderer = new ThrowableRenderer(getBooleanProperty(systemPrefix
+        + "abbreviateRepeatedStackTraces", false));
 
     if (showDateTime) {
       dateTimeFormat = getStringProperty(systemPrefix + "dateTimeFormat",
@@ -336,11 +345,7 @@ public class SimpleLog implements Log, Serializable {
       buf.append(t.toString());
       buf.append(">");
 
-      java.io.StringWriter sw = new java.io.StringWriter(1024);
-      java.io.PrintWriter pw = new java.io.PrintWriter(sw);
-      t.printStackTrace(pw);
-      pw.close();
-      buf.append(sw.toString());
+      throwableRenderer.render(buf, t);
     }
 
     // Print to the appropriate destination
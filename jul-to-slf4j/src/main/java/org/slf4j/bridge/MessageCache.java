@@ -0,0 +1,150 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.bridge;
+
+import java.text.MessageFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.WeakHashMap;
+
+/**
+ * Caches the parsed message formats and the resource bundle lookups of j.u.l.
+ * records, so that records logged over and over do not have their pattern
+ * parsed and their key looked up each time.
+ * 
+ * <p>
+ * As {@link MessageFormat} is not thread-safe, instances of this class are
+ * confined to a single thread, see {@link #getInstance()}. Both caches are
+ * bounded, the least recently used entries being evicted first.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+final class MessageCache {
+
+  static final int MAX_CACHED_FORMATS = 256;
+  static final int MAX_CACHED_KEYS_PER_BUNDLE = 256;
+
+  // stands for a key missing from a bundle
+  private static final String MISSING = new String("missing");
+
+  private static final ThreadLocal INSTANCE = new ThreadLocal();
+
+  /**
+   * A pattern parsed for a given locale.
+   */
+  private static final class CachedFormat {
+    final Locale locale;
+    final MessageFormat format;
+
+    CachedFormat(Locale locale, MessageFormat format) {
+      this.locale = locale;
+      this.format = format;
+    }
+  }
+
+  // pattern -> CachedFormat
+  private final Map formats = newLruMap(MAX_CACHED_FORMATS);
+  // bundle -> (key -> value or MISSING), bundles being compared by identity
+  private final Map bundles = new WeakHashMap();
+  private final StringBuffer buf = new StringBuffer(128);
+  // whether 'buf' is being formatted into, in which case a parameter's
+  // toString() method is logging in turn
+  private boolean bufInUse;
+
+  /**
+   * Return the instance of the calling thread.
+   */
+  static MessageCache getInstance() {
+    MessageCache cache = (MessageCache) INSTANCE.get();
+    if (cache == null) {
+      cache = new MessageCache();
+      INSTANCE.set(cache);
+    }
+    return cache;
+  }
+
+  private static Map newLruMap(final int maxSize) {
+    return new LinkedHashMap(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      protected boolean removeEldestEntry(Map.Entry eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Return the value of 'key' in 'bundle', or null if 'bundle' has no such
+   * key.
+   */
+  String getString(ResourceBundle bundle, String key) {
+    Map values = (Map) bundles.get(bundle);
+    if (values == null) {
+      values = newLruMap(MAX_CACHED_KEYS_PER_BUNDLE);
+      bundles.put(bundle, values);
+    }
+    String value = (String) values.get(key);
+    if (value == null) {
+      try {
+        value = bundle.getString(key);
+      } catch (MissingResourceException e) {
+        value = MISSING;
+      }
+      values.put(key, value);
+    }
+    return (value == MISSING) ? null : value;
+  }
+
+  /**
+   * Equivalent to {@link MessageFormat#format(String, Object[])}, reusing the
+   * parsed form of 'pattern' for the default locale. Re-entrant calls, made
+   * by parameters which log when formatted, format into a buffer of their
+   * own.
+   */
+  String format(String pattern, Object[] params) {
+    Locale locale = Locale.getDefault();
+    CachedFormat cached = (CachedFormat) formats.get(pattern);
+    if (cached == null || !cached.locale.equals(locale)) {
+      cached = new CachedFormat(locale, new MessageFormat(pattern, locale));
+      formats.put(pattern, cached);
+    }
+    if (bufInUse) {
+      StringBuffer nestedBuf = new StringBuffer(128);
+      cached.format.format(params, nestedBuf, null);
+      return nestedBuf.toString();
+    }
+    bufInUse = true;
+    try {
+      cached.format.format(params, buf, null);
+      return buf.toString();
+    } finally {
+      buf.setLength(0);
+      bufInUse = false;
+    }
+  }
+}
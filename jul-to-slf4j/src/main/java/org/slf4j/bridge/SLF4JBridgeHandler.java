@@ -31,16 +31,17 @@
 
 package org.slf4j.bridge;
 
-import java.text.MessageFormat;
-import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.LogManager;
 import java.util.logging.LogRecord;
 
+import org.slf4j.ILoggerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.ConcurrentRegistry;
+import org.slf4j.helpers.SubstituteLoggerFactory;
 import org.slf4j.spi.LocationAwareLogger;
 
 // Based on http://bugzilla.slf4j.org/show_bug.cgi?id=38
@@ -106,6 +107,14 @@ public class SLF4JBridgeHandler extends Handler {
   private static final int INFO_LEVEL_THRESHOLD = Level.INFO.intValue();
   private static final int WARN_LEVEL_THRESHOLD = Level.WARNING.intValue();
 
+  /**
+   * The SLF4J loggers resolved so far, by j.u.l. logger name. Lookups do not
+   * lock, which keeps threads logging through the bridge from contending on
+   * the binding's logger map. The substitute loggers handed out while SLF4J
+   * is being initialized are not kept.
+   */
+  private final ConcurrentRegistry loggers = new ConcurrentRegistry();
+
   /**
    * Adds a SLF4JBridgeHandler instance to jul's root logger.
    * 
@@ -162,32 +171,62 @@ public class SLF4JBridgeHandler extends Handler {
   }
 
   /**
-   * Return the Logger instance that will be used for logging.
+   * Return the Logger instance that will be used for logging. Loggers are
+   * obtained from the {@link ILoggerFactory} once per name and then reused,
+   * except while SLF4J is being initialized.
    */
   protected Logger getSLF4JLogger(LogRecord record) {
     String name = record.getLoggerName();
     if (name == null) {
       name = UNKNOWN_LOGGER_NAME;
     }
-    return LoggerFactory.getLogger(name);
+    Logger logger = (Logger) loggers.get(name);
+    if (logger == null) {
+      ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+      logger = loggerFactory.getLogger(name);
+      if (!(loggerFactory instanceof SubstituteLoggerFactory)) {
+        loggers.putIfAbsent(name, logger);
+      }
+    }
+    return logger;
   }
 
-  protected void callLocationAwareLogger(LocationAwareLogger lal,
-      LogRecord record) {
-    int julLevelValue = record.getLevel().intValue();
-    int slf4jLevel;
-
+  /**
+   * Map a j.u.l. level value to the corresponding SLF4J level, one of the
+   * <code>LocationAwareLogger.XXX_INT</code> constants.
+   */
+  private static int toSLF4JLevel(int julLevelValue) {
     if (julLevelValue <= TRACE_LEVEL_THRESHOLD) {
-      slf4jLevel = LocationAwareLogger.TRACE_INT;
+      return LocationAwareLogger.TRACE_INT;
     } else if (julLevelValue <= DEBUG_LEVEL_THRESHOLD) {
-      slf4jLevel = LocationAwareLogger.DEBUG_INT;
+      return LocationAwareLogger.DEBUG_INT;
     } else if (julLevelValue <= INFO_LEVEL_THRESHOLD) {
-      slf4jLevel = LocationAwareLogger.INFO_INT;
+      return LocationAwareLogger.INFO_INT;
     } else if (julLevelValue <= WARN_LEVEL_THRESHOLD) {
-      slf4jLevel = LocationAwareLogger.WARN_INT;
+      return LocationAwareLogger.WARN_INT;
     } else {
-      slf4jLevel = LocationAwareLogger.ERROR_INT;
+      return LocationAwareLogger.ERROR_INT;
     }
+  }
+
+  private static boolean isEnabled(Logger slf4jLogger, int slf4jLevel) {
+    switch (slf4jLevel) {
+    case LocationAwareLogger.TRACE_INT:
+      return slf4jLogger.isTraceEnabled();
+    case LocationAwareLogger.DEBUG_INT:
+      return slf4jLogger.isDebugEnabled();
+    case LocationAwareLogger.INFO_INT:
+      return slf4jLogger.isInfoEnabled();
+    case LocationAwareLogger.WARN_INT:
+      return slf4jLogger.isWarnEnabled();
+    default:
+      return slf4jLogger.isErrorEnabled();
+    }
+  }
+
+  protected void callLocationAwareLogger(LocationAwareLogger lal,
+      LogRecord record) {
+    int slf4jLevel = toSLF4JLevel(record.getLevel().intValue());
     String i18nMessage = getMessageI18N(record);
     lal.log(null, FQCN, slf4jLevel, i18nMessage, record.getThrown());
   }
@@ -209,7 +248,8 @@ public class SLF4JBridgeHandler extends Handler {
   }
 
   /**
-   * Get the record's message, possibly via a resource bundle.
+   * Get the record's message, possibly via a resource bundle. Bundle lookups
+   * and parsed message formats are cached, see {@link MessageCache}.
    * 
    * @param record
    * @return
@@ -222,15 +262,19 @@ public class SLF4JBridgeHandler extends Handler {
     }
 
     ResourceBundle bundle = record.getResourceBundle();
+    Object[] params = record.getParameters();
+    if (bundle == null && params == null) {
+      return message;
+    }
+    MessageCache cache = MessageCache.getInstance();
     if (bundle != null) {
-      try {
-        message = bundle.getString(message);
-      } catch (MissingResourceException e) {
+      String localizedMessage = cache.getString(bundle, message);
+      if (localizedMessage != null) {
+        message = localizedMessage;
       }
     }
-    Object[] params = record.getParameters();
     if (params != null) {
-      message = MessageFormat.format(message, params);
+      message = cache.format(message, params);
     }
     return message;
   }
@@ -242,7 +286,9 @@ public class SLF4JBridgeHandler extends Handler {
    * initialized the LogRecord and forwarded it here.
    * <p>
    * This handler ignores the Level attached to the LogRecord, as SLF4J cares
-   * about discarding log statements.
+   * about discarding log statements. Records whose level is disabled in the
+   * SLF4J logger are discarded before their message is localized or
+   * formatted.
    * 
    * @param record
    *          Description of the log event. A null record is silently ignored
@@ -255,6 +301,9 @@ public class SLF4JBridgeHandler extends Handler {
     }
 
     Logger slf4jLogger = getSLF4JLogger(record);
+    if (!isEnabled(slf4jLogger, toSLF4JLevel(record.getLevel().intValue()))) {
+      return;
+    }
     String message = record.getMessage(); // can be null!
     // this is a check to avoid calling the underlying logging system
     // with a null message. While it is legitimate to invoke j.u.l. with
@@ -0,0 +1,74 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.bridge;
+
+import java.text.MessageFormat;
+import java.util.ResourceBundle;
+
+import junit.framework.TestCase;
+
+/**
+ * Compares the time taken to localize and format the message of a
+ * parameterized j.u.l. record with and without {@link MessageCache}.
+ */
+public class MessageCachePerfTest extends TestCase {
+
+  static final int RUN_LENGTH = 100 * 1000;
+
+  ResourceBundle bundle = ResourceBundle
+      .getBundle("org.slf4j.bridge.testLogStrings");
+  Object[] params = new Object[] { "foo", new Integer(42) };
+
+  public MessageCachePerfTest(String name) {
+    super(name);
+  }
+
+  public void testFormattingTime() {
+    uncachedLoop(RUN_LENGTH);
+    cachedLoop(RUN_LENGTH);
+    double uncachedDuration = uncachedLoop(RUN_LENGTH);
+    double cachedDuration = cachedLoop(RUN_LENGTH);
+    System.out.println(RUN_LENGTH + " messages: uncached " + uncachedDuration
+        + " millis, MessageCache " + cachedDuration + " millis");
+  }
+
+  double uncachedLoop(int len) {
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      String message = bundle.getString("resource_key_2");
+      MessageFormat.format(message, params);
+    }
+    return System.currentTimeMillis() - start;
+  }
+
+  double cachedLoop(int len) {
+    MessageCache cache = MessageCache.getInstance();
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      String message = cache.getString(bundle, "resource_key_2");
+      cache.format(message, params);
+    }
+    return System.currentTimeMillis() - start;
+  }
+}
@@ -0,0 +1,147 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.bridge;
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import junit.framework.TestCase;
+
+public class MessageCacheTest extends TestCase {
+
+  /**
+   * Counts the lookups of its keys, of which only "key" is defined.
+   */
+  static class CountingBundle extends ResourceBundle {
+    int lookupCount;
+
+    protected Object handleGetObject(String key) {
+      lookupCount++;
+      return "key".equals(key) ? "value {0}" : null;
+    }
+
+    public Enumeration getKeys() {
+      return Collections.enumeration(Collections.singletonList("key"));
+    }
+  }
+
+  MessageCache cache = new MessageCache();
+  Locale defaultLocale;
+
+  public MessageCacheTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    defaultLocale = Locale.getDefault();
+  }
+
+  protected void tearDown() throws Exception {
+    Locale.setDefault(defaultLocale);
+    super.tearDown();
+  }
+
+  public void testFormat() {
+    Object[] params = new Object[] { "a", new Integer(1234) };
+    String pattern = "{0} and {1}, '{quoted}' {0}";
+    assertEquals(MessageFormat.format(pattern, params), cache.format(pattern,
+        params));
+    assertEquals(MessageFormat.format(pattern, params), cache.format(pattern,
+        params));
+    params = new Object[] { "b", new Integer(5) };
+    assertEquals(MessageFormat.format(pattern, params), cache.format(pattern,
+        params));
+  }
+
+  public void testLocaleChange() {
+    Object[] params = new Object[] { new Double(1234.5) };
+    String pattern = "value {0,number}";
+    Locale.setDefault(Locale.US);
+    assertEquals("value 1,234.5", cache.format(pattern, params));
+    Locale.setDefault(Locale.GERMANY);
+    assertEquals("value 1.234,5", cache.format(pattern, params));
+  }
+
+  public void testDateFormat() {
+    Object[] params = new Object[] { new Date(0) };
+    String pattern = "at {0,date,yyyy}";
+    assertEquals(MessageFormat.format(pattern, params), cache.format(pattern,
+        params));
+  }
+
+  public void testInvalidPattern() {
+    try {
+      cache.format("{x", new Object[] { "a" });
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // as MessageFormat.format
+    }
+  }
+
+  public void testBundleLookups() {
+    CountingBundle bundle = new CountingBundle();
+    assertEquals("value {0}", cache.getString(bundle, "key"));
+    assertEquals("value {0}", cache.getString(bundle, "key"));
+    assertEquals(1, bundle.lookupCount);
+
+    assertNull(cache.getString(bundle, "missing"));
+    int count = bundle.lookupCount;
+    assertNull(cache.getString(bundle, "missing"));
+    assertEquals(count, bundle.lookupCount);
+  }
+
+  public void testBundlesAreDistinct() {
+    CountingBundle bundle1 = new CountingBundle();
+    CountingBundle bundle2 = new CountingBundle();
+    cache.getString(bundle1, "key");
+    cache.getString(bundle2, "key");
+    assertEquals(1, bundle1.lookupCount);
+    assertEquals(1, bundle2.lookupCount);
+  }
+
+  public void testFormatCacheIsBounded() {
+    Object[] params = new Object[] { "x" };
+    for (int i = 0; i < MessageCache.MAX_CACHED_FORMATS * 2; i++) {
+      assertEquals(i + " x", cache.format(i + " {0}", params));
+    }
+  }
+
+  public void testPerThreadInstance() throws InterruptedException {
+    final MessageCache[] other = new MessageCache[1];
+    Thread thread = new Thread() {
+      public void run() {
+        other[0] = MessageCache.getInstance();
+      }
+    };
+    thread.start();
+    thread.join();
+    assertSame(MessageCache.getInstance(), MessageCache.getInstance());
+    assertNotSame(MessageCache.getInstance(), other[0]);
+  }
+}
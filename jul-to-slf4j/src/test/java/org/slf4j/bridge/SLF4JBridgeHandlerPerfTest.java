@@ -26,17 +26,20 @@ package org.slf4j.bridge;
 
 import java.util.logging.Handler;
 import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
 
 import junit.framework.TestCase;
 
 import org.apache.log4j.FileAppender;
 import org.apache.log4j.PatternLayout;
+import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class SLF4JBridgeHandlerPerfTest extends TestCase {
 
   static String LOGGER_NAME = "yay";
   static int RUN_LENGTH = 100*1000;
+  static int THREAD_COUNT = 4;
 
 
   // set to false to test enabled logging performance
@@ -53,6 +56,16 @@ public class SLF4JBridgeHandlerPerfTest extends TestCase {
   
   Handler[] existingHandlers;
 
+  /**
+   * Resolves the SLF4J logger of each record through the LoggerFactory, as
+   * SLF4JBridgeHandler did before caching loggers.
+   */
+  static class UncachedBridgeHandler extends SLF4JBridgeHandler {
+    protected Logger getSLF4JLogger(LogRecord record) {
+      return LoggerFactory.getLogger(record.getLoggerName());
+    }
+  }
+
   public SLF4JBridgeHandlerPerfTest(String arg0) {
     super(arg0);
   }
@@ -112,4 +125,48 @@ public class SLF4JBridgeHandlerPerfTest extends TestCase {
     System.out.println("Average cost per call (SLF4J->log4j): "+slf4jAvg +" nanos");
     System.out.println("Ratio "+(julAvg/slf4jAvg));
   }
+
+  /**
+   * Run julLoggerLoop() in 'threadCount' threads at once.
+   * 
+   * @return the elapsed time per call, in nanoseconds
+   */
+  double multiThreadedJulLoggerLoop(int threadCount)
+      throws InterruptedException {
+    Thread[] threads = new Thread[threadCount];
+    for (int i = 0; i < threadCount; i++) {
+      threads[i] = new Thread() {
+        public void run() {
+          julLoggerLoop();
+        }
+      };
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < threadCount; i++) {
+      threads[i].start();
+    }
+    for (int i = 0; i < threadCount; i++) {
+      threads[i].join();
+    }
+    long end = System.nanoTime();
+    return (end - start) * 1.0 / (threadCount * RUN_LENGTH);
+  }
+
+  public void testMultiThreadedPerf() throws InterruptedException {
+    if (disabledLogger) {
+      log4jRoot.setLevel(org.apache.log4j.Level.ERROR);
+    }
+    SLF4JBridgeHandler.install();
+    multiThreadedJulLoggerLoop(THREAD_COUNT);
+    double cachedAvg = multiThreadedJulLoggerLoop(THREAD_COUNT);
+    SLF4JBridgeHandler.uninstall();
+
+    julRootLogger.addHandler(new UncachedBridgeHandler());
+    multiThreadedJulLoggerLoop(THREAD_COUNT);
+    double uncachedAvg = multiThreadedJulLoggerLoop(THREAD_COUNT);
+
+    System.out.println(THREAD_COUNT + " threads, elapsed time per call "
+        + "(JUL->SLF4J->log4j): cached loggers " + cachedAvg
+        + " nanos, uncached loggers " + uncachedAvg + " nanos");
+  }
 }
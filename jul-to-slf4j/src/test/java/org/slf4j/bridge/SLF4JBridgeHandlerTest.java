@@ -25,8 +25,11 @@
 package org.slf4j.bridge;
 
 import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
+import java.util.logging.LogRecord;
 
 import junit.framework.TestCase;
 
@@ -168,6 +171,89 @@ public class SLF4JBridgeHandlerTest extends TestCase {
     assertEquals(expectedMsg3, le.getMessage());
   }
 
+  /**
+   * Counts the lookups of its keys, which all map to "localized {0}".
+   */
+  static class CountingBundle extends ResourceBundle {
+    int lookupCount;
+
+    protected Object handleGetObject(String key) {
+      lookupCount++;
+      return "localized {0}";
+    }
+
+    public Enumeration getKeys() {
+      return Collections.enumeration(Collections.EMPTY_LIST);
+    }
+  }
+
+  /**
+   * Counts the calls to its toString() method.
+   */
+  static class CountingParameter {
+    int toStringCount;
+
+    public String toString() {
+      toStringCount++;
+      return "param";
+    }
+  }
+
+  public void testDisabledLevelNotFormatted() {
+    SLF4JBridgeHandler.install();
+    log4jRoot.setLevel(org.apache.log4j.Level.INFO);
+    julLogger.setLevel(Level.ALL);
+
+    CountingBundle bundle = new CountingBundle();
+    CountingParameter param = new CountingParameter();
+    LogRecord record = new LogRecord(Level.FINE, "key");
+    record.setLoggerName(LOGGER_NAME);
+    record.setResourceBundle(bundle);
+    record.setParameters(new Object[] { param });
+    julLogger.log(record);
+
+    assertEquals(0, listAppender.list.size());
+    assertEquals(0, bundle.lookupCount);
+    assertEquals(0, param.toStringCount);
+
+    record = new LogRecord(Level.INFO, "key");
+    record.setLoggerName(LOGGER_NAME);
+    record.setResourceBundle(bundle);
+    record.setParameters(new Object[] { param });
+    julLogger.log(record);
+
+    assertEquals(1, listAppender.list.size());
+    LoggingEvent le = (LoggingEvent) listAppender.list.get(0);
+    assertEquals("localized param", le.getMessage());
+  }
+
+  /**
+   * A parameter logging through j.u.l. when formatted.
+   */
+  class LoggingParameter {
+    public String toString() {
+      julLogger.log(Level.INFO, "inner {0}", "message");
+      return "param";
+    }
+  }
+
+  public void testParameterLoggingWhenFormatted() {
+    SLF4JBridgeHandler.install();
+    julLogger.log(Level.INFO, "outer {0} and {1}", new Object[] {
+        new LoggingParameter(), "more" });
+
+    // the parameter is formatted by the bridge, and possibly by other
+    // handlers of the root logger such as the console handler
+    int last = listAppender.list.size() - 1;
+    assertTrue(last > 0);
+    for (int i = 0; i < last; i++) {
+      LoggingEvent inner = (LoggingEvent) listAppender.list.get(i);
+      assertEquals("inner message", inner.getMessage());
+    }
+    LoggingEvent outer = (LoggingEvent) listAppender.list.get(last);
+    assertEquals("outer param and more", outer.getMessage());
+  }
+
   void assertLevel(int index, org.apache.log4j.Level expectedLevel) {
     LoggingEvent le = (LoggingEvent) listAppender.list.get(index);
     assertEquals(expectedLevel, le.getLevel());
@@ -16,15 +16,14 @@
 
 package org.apache.log4j;
 
-import java.util.Hashtable;
-
+import org.slf4j.helpers.ConcurrentRegistry;
 import org.slf4j.helpers.Util;
 
 /**
  * This class is a factory that creates and maintains org.apache.log4j.Loggers
  * wrapping org.slf4j.Loggers.
  * 
- * It keeps a hashtable of all created org.apache.log4j.Logger instances so that
+ * It keeps a registry of all created org.apache.log4j.Logger instances so that
  * all newly created instances are not dulpicates of existing loggers.
  * 
  * @author S&eacute;bastien Pennec
@@ -32,7 +31,13 @@ import org.slf4j.helpers.Util;
 class Log4jLoggerFactory {
 
   // String, Logger
-  private static Hashtable log4jLoggers = new Hashtable();
+  private static final ConcurrentRegistry log4jLoggers = new ConcurrentRegistry();
+
+  private static final ConcurrentRegistry.Creator LOGGER_CREATOR = new ConcurrentRegistry.Creator() {
+    public Object create(String name) {
+      return new Logger(name);
+    }
+  };
 
   private static final String LOG4J_DELEGATION_LOOP_URL = "http://www.slf4j.org/codes.html#log4jDelegationLoop";
   
@@ -52,15 +57,8 @@ class Log4jLoggerFactory {
     }
   }
 
-  public static synchronized Logger getLogger(String name) {
-    if (log4jLoggers.containsKey(name)) {
-      return (org.apache.log4j.Logger) log4jLoggers.get(name);
-    } else {
-      Logger log4jLogger = new Logger(name);
-
-      log4jLoggers.put(name, log4jLogger);
-      return log4jLogger;
-    }
+  public static Logger getLogger(String name) {
+    return (Logger) log4jLoggers.getOrCreate(name, LOGGER_CREATOR);
   }
 
 }
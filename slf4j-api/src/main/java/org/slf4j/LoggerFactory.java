@@ -31,6 +31,7 @@ import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.List;
 
+import org.slf4j.helpers.ConcurrentRegistry;
 import org.slf4j.helpers.SubstituteLoggerFactory;
 import org.slf4j.helpers.Util;
 import org.slf4j.impl.StaticLoggerBinder;
@@ -72,9 +73,46 @@ public final class LoggerFactory {
   static final int GET_SINGLETON_INEXISTENT = 1;
   static final int GET_SINGLETON_EXISTS = 2;
 
-  static int INITIALIZATION_STATE = UNINITIALIZED;
+  // volatile so that threads other than the initializing one see a
+  // completely initialized binding once the state reads as successful
+  static volatile int INITIALIZATION_STATE = UNINITIALIZED;
   static int GET_SINGLETON_METHOD = UNINITIALIZED;
   static SubstituteLoggerFactory TEMP_FACTORY = new SubstituteLoggerFactory();
+  // the thread performing the initialization, guarded by LoggerFactory.class
+  static Thread INITIALIZING_THREAD = null;
+
+  /**
+   * How long threads other than the initializing one wait for the
+   * initialization to complete, after which they are given substitute loggers.
+   * Waiting without limit would deadlock should the initialization itself
+   * wait for such a thread.
+   */
+  static final long INITIALIZATION_TIMEOUT_MILLIS = 1000;
+
+  /**
+   * The number of loggers kept by {@link #getLogger(String)}. Past that
+   * number, e.g. when logger names are built per tenant or per request, loggers
+   * are obtained from the bound factory, which keeps loggers on its own.
+   */
+  static final int MAX_CACHED_LOGGERS = 4096;
+
+  static volatile LoggerCache LOGGER_CACHE = null;
+
+  /**
+   * Loggers already returned by {@link #getLogger(String)}, up to
+   * {@link #MAX_CACHED_LOGGERS} of them, along with the
+   * {@link ILoggerFactory} which created them. Should the bound factory ever
+   * return a different ILoggerFactory instance, e.g. because the logging
+   * system selects its context per application, the cache is discarded.
+   */
+  static final class LoggerCache {
+    final ILoggerFactory loggerFactory;
+    final ConcurrentRegistry registry = new ConcurrentRegistry();
+
+    LoggerCache(ILoggerFactory loggerFactory) {
+      this.loggerFactory = loggerFactory;
+    }
+  }
 
   /**
    * It is LoggerFactory's responsibility to track version changes and manage
@@ -103,9 +141,13 @@ public final class LoggerFactory {
    * You are strongly discouraged from calling this method in production code.
    */
   static void reset() {
-    INITIALIZATION_STATE = UNINITIALIZED;
     GET_SINGLETON_METHOD = UNINITIALIZED;
     TEMP_FACTORY = new SubstituteLoggerFactory();
+    LOGGER_CACHE = null;
+    synchronized (LoggerFactory.class) {
+      INITIALIZING_THREAD = null;
+      INITIALIZATION_STATE = UNINITIALIZED;
+    }
   }
 
   private final static void performInitialization() {
@@ -120,6 +162,7 @@ public final class LoggerFactory {
       // the next line does the binding
       getSingleton();
       INITIALIZATION_STATE = SUCCESSFUL_INITILIZATION;
+      resolveSubstituteLoggers();
       emitSubstituteLoggerWarning();
     } catch (NoClassDefFoundError ncde) {
       INITIALIZATION_STATE = FAILED_INITILIZATION;
@@ -140,13 +183,21 @@ public final class LoggerFactory {
     }
   }
 
+  /**
+   * Make the substitute loggers handed out during the initialization delegate
+   * to the bound factory's loggers.
+   */
+  static void resolveSubstituteLoggers() {
+    TEMP_FACTORY.resolve(getSingleton().getLoggerFactory());
+  }
+
   private final static void emitSubstituteLoggerWarning() {
     List loggerNameList = TEMP_FACTORY.getLoggerNameList();
     if (loggerNameList.size() == 0) {
       return;
     }
     Util
-        .reportFailure("The following loggers will not work becasue they were created");
+        .reportFailure("The following loggers dropped the events logged through them");
     Util
         .reportFailure("during the default configuration phase of the underlying logging system.");
     Util.reportFailure("See also " + SUBSTITUTE_LOGGER_URL);
@@ -246,7 +297,28 @@ public final class LoggerFactory {
    */
   public static Logger getLogger(String name) {
     ILoggerFactory iLoggerFactory = getILoggerFactory();
-    return iLoggerFactory.getLogger(name);
+    if (iLoggerFactory == TEMP_FACTORY || name == null) {
+      // substitute loggers are never cached
+      return iLoggerFactory.getLogger(name);
+    }
+
+    LoggerCache cache = LOGGER_CACHE;
+    if (cache == null || cache.loggerFactory != iLoggerFactory) {
+      cache = new LoggerCache(iLoggerFactory);
+      LOGGER_CACHE = cache;
+    }
+    Logger logger = (Logger) cache.registry.get(name);
+    if (logger == null) {
+      logger = iLoggerFactory.getLogger(name);
+      if (cache.registry.size() >= MAX_CACHED_LOGGERS) {
+        return logger;
+      }
+      Logger existing = (Logger) cache.registry.putIfAbsent(name, logger);
+      if (existing != null) {
+        logger = existing;
+      }
+    }
+    return logger;
   }
 
   /**
@@ -270,10 +342,9 @@ public final class LoggerFactory {
    * @return the ILoggerFactory instance in use
    */
   public static ILoggerFactory getILoggerFactory() {
-    if (INITIALIZATION_STATE == UNINITIALIZED) {
-      INITIALIZATION_STATE = ONGOING_INITILIZATION;
-      performInitialization();
-
+    if (INITIALIZATION_STATE == UNINITIALIZED
+        || INITIALIZATION_STATE == ONGOING_INITILIZATION) {
+      awaitInitialization();
     }
     switch (INITIALIZATION_STATE) {
     case SUCCESSFUL_INITILIZATION:
@@ -287,4 +358,52 @@ public final class LoggerFactory {
     }
     throw new IllegalStateException("Unreachable code");
   }
+
+  /**
+   * Initialize the binding if no other thread has started doing so, or else
+   * wait for that thread to finish, for at most
+   * {@link #INITIALIZATION_TIMEOUT_MILLIS}. Initialization is performed
+   * outside the lock, as it may involve other threads requesting loggers.
+   * Calls re-entering from the initializing thread, timed out waits and
+   * interrupted waits return before initialization is over, in which case
+   * substitute loggers are handed out.
+   */
+  private static void awaitInitialization() {
+    Thread currentThread = Thread.currentThread();
+    synchronized (LoggerFactory.class) {
+      if (INITIALIZATION_STATE == UNINITIALIZED) {
+        INITIALIZATION_STATE = ONGOING_INITILIZATION;
+        INITIALIZING_THREAD = currentThread;
+      } else {
+        long deadline = System.currentTimeMillis()
+            + INITIALIZATION_TIMEOUT_MILLIS;
+        while (INITIALIZATION_STATE == ONGOING_INITILIZATION
+            && INITIALIZING_THREAD != currentThread) {
+          long remaining = deadline - System.currentTimeMillis();
+          if (remaining <= 0) {
+            return;
+          }
+          try {
+            LoggerFactory.class.wait(remaining);
+          } catch (InterruptedException e) {
+            currentThread.interrupt();
+            return;
+          }
+        }
+        return;
+      }
+    }
+    try {
+      performInitialization();
+    } finally {
+      synchronized (LoggerFactory.class) {
+        if (INITIALIZATION_STATE == ONGOING_INITILIZATION) {
+          // an unexpected error escaped from the binding
+          INITIALIZATION_STATE = FAILED_INITILIZATION;
+        }
+        INITIALIZING_THREAD = null;
+        LoggerFactory.class.notifyAll();
+      }
+    }
+  }
 }
@@ -44,7 +44,48 @@ import java.util.Set;
  */
 public class BasicMDCAdapter implements MDCAdapter {
 
-  private InheritableThreadLocal inheritableThreadLocal = new InheritableThreadLocal();
+  private final ThreadLocal threadLocal;
+  private final boolean compact;
+
+  /**
+   * Create an adapter whose context maps are inherited by child threads.
+   */
+  public BasicMDCAdapter() {
+    this(true);
+  }
+
+  /**
+   * @param inheritable
+   *                whether child threads should inherit the context map of
+   *                the thread creating them. Inheritance is useless with
+   *                thread pools, see
+   *                <code>org.slf4j.ext.MDCExecutors</code>, and turning it
+   *                off spares thread creation the cost of copying the
+   *                context.
+   * @since 1.5.11
+   */
+  public BasicMDCAdapter(boolean inheritable) {
+    this(inheritable, false);
+  }
+
+  /**
+   * @param inheritable
+   *                whether child threads should inherit the context map of
+   *                the thread creating them
+   * @param compact
+   *                whether context maps should be backed by a compact
+   *                array-based representation, which occupies less memory
+   *                than a {@link HashMap} as long as a context holds few keys
+   * @since 1.5.11
+   */
+  public BasicMDCAdapter(boolean inheritable, boolean compact) {
+    threadLocal = inheritable ? new InheritableThreadLocal() : new ThreadLocal();
+    this.compact = compact;
+  }
+
+  private Map newMap() {
+    return compact ? (Map) new CompactContextMap() : new HashMap();
+  }
 
   /**
    * Put a context value (the <code>val</code> parameter) as identified with
@@ -62,10 +103,10 @@ public class BasicMDCAdapter implements MDCAdapter {
     if (key == null) {
       throw new IllegalArgumentException("key cannot be null");
     }
-    HashMap map = (HashMap) inheritableThreadLocal.get();
+    Map map = (Map) threadLocal.get();
     if (map == null) {
-      map = new HashMap();
-      inheritableThreadLocal.set(map);
+      map = newMap();
+      threadLocal.set(map);
     }
     map.put(key, val);
   }
@@ -74,9 +115,9 @@ public class BasicMDCAdapter implements MDCAdapter {
    * Get the context identified by the <code>key</code> parameter.
    */
   public String get(String key) {
-    HashMap hashMap = (HashMap) inheritableThreadLocal.get();
-    if ((hashMap != null) && (key != null)) {
-      return (String) hashMap.get(key);
+    Map map = (Map) threadLocal.get();
+    if ((map != null) && (key != null)) {
+      return (String) map.get(key);
     } else {
       return null;
     }
@@ -86,7 +127,7 @@ public class BasicMDCAdapter implements MDCAdapter {
    * Remove the the context identified by the <code>key</code> parameter.
    */
   public void remove(String key) {
-    HashMap map = (HashMap) inheritableThreadLocal.get();
+    Map map = (Map) threadLocal.get();
     if (map != null) {
       map.remove(key);
     }
@@ -96,12 +137,12 @@ public class BasicMDCAdapter implements MDCAdapter {
    * Clear all entries in the MDC.
    */
   public void clear() {
-    HashMap hashMap = (HashMap) inheritableThreadLocal.get();
-    if (hashMap != null) {
-      hashMap.clear();
-      // the InheritableThreadLocal.remove method was introduced in JDK 1.5
+    Map map = (Map) threadLocal.get();
+    if (map != null) {
+      map.clear();
+      // the ThreadLocal.remove method was introduced in JDK 1.5
       // Thus, invoking clear() on previous JDK's will fail
-      inheritableThreadLocal.remove();
+      threadLocal.remove();
     }
   }
 
@@ -112,9 +153,9 @@ public class BasicMDCAdapter implements MDCAdapter {
    * @return the keys in the MDC
    */
   public Set getKeys() {
-    HashMap hashMap = (HashMap) inheritableThreadLocal.get();
-    if (hashMap != null) {
-      return hashMap.keySet();
+    Map map = (Map) threadLocal.get();
+    if (map != null) {
+      return map.keySet();
     } else {
       return null;
     }
@@ -125,22 +166,23 @@ public class BasicMDCAdapter implements MDCAdapter {
    * 
    */
   public Map getCopyOfContextMap() {
-    HashMap hashMap = (HashMap) inheritableThreadLocal.get();
-    if (hashMap != null) {
-      return new HashMap(hashMap);
+    Map map = (Map) threadLocal.get();
+    if (map != null) {
+      return new HashMap(map);
     } else {
       return null;
     }
   }
 
   public void setContextMap(Map contextMap) {
-    HashMap hashMap = (HashMap) inheritableThreadLocal.get();
-    if (hashMap != null) {
-      hashMap.clear();
-      hashMap.putAll(contextMap);
+    Map map = (Map) threadLocal.get();
+    if (map != null) {
+      map.clear();
+      map.putAll(contextMap);
     } else {
-      hashMap = new HashMap(contextMap);
-      inheritableThreadLocal.set(hashMap);
+      map = newMap();
+      map.putAll(contextMap);
+      threadLocal.set(map);
     }
   }
 
@@ -24,16 +24,35 @@
 
 package org.slf4j.helpers;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Vector;
+import java.util.Set;
 
 import org.slf4j.Marker;
 
 /**
  * A simple implementation of the {@link Marker} interface.
  * 
+ * <p>
+ * The list of references is copied on each modification, so that reading it
+ * requires no locking. Moreover, the names of all the markers a marker
+ * contains, directly or transitively, are computed once and cached, so that
+ * the <code>contains</code> methods amount to a set lookup regardless of the
+ * depth of the marker hierarchy. Each marker carries a version, incremented
+ * when its references change. A cache remembers the version of every marker
+ * it was computed from and is recomputed once any of them has changed, so
+ * that modifying a marker does not affect the caches of unrelated markers.
+ * 
+ * <p>
+ * Markers attached to a {@link BasicMarkerFactory} carry an integer ID, see
+ * {@link #getId()}, allowing filters to test membership with a bit set.
+ * 
  * @author Ceki G&uuml;lc&uuml;
  * @author Joern Huxhorn
  */
@@ -41,73 +60,165 @@ public class BasicMarker implements Marker {
 
   private static final long serialVersionUID = 1803952589649545191L;
 
+  /**
+   * The ID of markers which were not created attached to a factory.
+   */
+  public static final int DETACHED_ID = -1;
+
   private final String name;
-  private List refereceList;
+  // not serialized, as deserialized markers are detached
+  private transient int id;
+  // never modified once assigned, null if there are no references
+  private volatile List refereceList;
+  // incremented after each modification of refereceList, under the lock of
+  // this marker
+  private transient volatile int version;
+
+  // the names this marker contains, null if not yet computed or if the
+  // hierarchy includes markers of another implementation
+  private transient volatile ContainedNames containedNames;
+
+  private static final class ContainedNames {
+    final Set names;
+    final BitSet ids;
+    // the markers the names were collected from, and their versions
+    final BasicMarker[] markers;
+    final int[] versions;
+
+    ContainedNames(Set names, BitSet ids, List markers, List versions) {
+      this.names = names;
+      this.ids = ids;
+      this.markers = (BasicMarker[]) markers.toArray(new BasicMarker[markers
+          .size()]);
+      this.versions = new int[versions.size()];
+      for (int i = 0; i < this.versions.length; i++) {
+        this.versions[i] = ((Integer) versions.get(i)).intValue();
+      }
+    }
+
+    boolean isValid() {
+      for (int i = 0; i < markers.length; i++) {
+        if (markers[i].version != versions[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
 
   BasicMarker(String name) {
+    this(name, DETACHED_ID);
+  }
+
+  BasicMarker(String name, int id) {
     if (name == null) {
       throw new IllegalArgumentException("A merker name cannot be null");
     }
     this.name = name;
+    this.id = id;
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException,
+      ClassNotFoundException {
+    in.defaultReadObject();
+    id = DETACHED_ID;
   }
 
   public String getName() {
     return name;
   }
 
-  public synchronized void add(Marker reference) {
+  /**
+   * Return the ID of this marker. The markers attached to a given
+   * {@link BasicMarkerFactory} are numbered from zero upwards, in the order
+   * of their creation, so that sets of markers can be represented as bit
+   * sets indexed by ID. IDs are not reused.
+   * 
+   * @return the ID of this marker, or {@link #DETACHED_ID} if this marker was
+   *         not created attached to a factory
+   * @since 1.5.11
+   */
+  public int getId() {
+    return id;
+  }
+
+  public void add(Marker reference) {
     if (reference == null) {
       throw new IllegalArgumentException(
           "A null value cannot be added to a Marker as reference.");
     }
 
-    // no point in adding the reference multiple times
-    if (this.contains(reference)) {
-      return;
+    // the cycle check is atomic with respect to modifications of this
+    // marker, but not of the markers it references
+    synchronized (this) {
+      // no point in adding the reference multiple times
+      if (this.contains(reference)) {
+        return;
 
-    } else if (reference.contains(this)) { // avoid recursion
-      // a potential reference should not its future "parent" as a reference
-      return;
-    } else {
-      // let's add the reference
-      if (refereceList == null) {
-        refereceList = new Vector();
+      } else if (reference.contains(this)) { // avoid recursion
+        // a potential reference should not its future "parent" as a reference
+        return;
+      } else {
+        // let's add the reference
+        List newList;
+        if (refereceList == null) {
+          newList = new ArrayList(1);
+        } else {
+          newList = new ArrayList(refereceList);
+        }
+        newList.add(reference);
+        refereceList = newList;
+        version++;
       }
-      refereceList.add(reference);
     }
-
   }
 
-  public synchronized boolean hasReferences() {
-    return ((refereceList != null) && (refereceList.size() > 0));
+  public boolean hasReferences() {
+    List list = refereceList;
+    return ((list != null) && (list.size() > 0));
   }
   
   public boolean hasChildren() {
     return hasReferences();
   }
 
-  public synchronized Iterator iterator() {
-    if (refereceList != null) {
-      return refereceList.iterator();
+  /**
+   * Returns an iterator over the references of this marker, as they were
+   * when this method was invoked. The iterator does not support removal.
+   */
+  public Iterator iterator() {
+    List list = refereceList;
+    if (list != null) {
+      return Collections.unmodifiableList(list).iterator();
     } else {
       return Collections.EMPTY_LIST.iterator();
     }
   }
 
-  public synchronized boolean remove(Marker referenceToRemove) {
-    if (refereceList == null) {
-      return false;
-    }
+  public boolean remove(Marker referenceToRemove) {
+    synchronized (this) {
+      List list = refereceList;
+      if (list == null) {
+        return false;
+      }
 
-    int size = refereceList.size();
-    for (int i = 0; i < size; i++) {
-      Marker m = (Marker) refereceList.get(i);
-      if (referenceToRemove.equals(m)) {
-        refereceList.remove(i);
-        return true;
+      int size = list.size();
+      for (int i = 0; i < size; i++) {
+        Marker m = (Marker) list.get(i);
+        if (referenceToRemove.equals(m)) {
+          if (size == 1) {
+            refereceList = null;
+          } else {
+            List newList = new ArrayList(list);
+            newList.remove(i);
+            refereceList = newList;
+          }
+          version++;
+          return true;
+        }
       }
+      return false;
     }
-    return false;
   }
 
   public boolean contains(Marker other) {
@@ -119,12 +230,18 @@ public class BasicMarker implements Marker {
       return true;
     }
 
-    if (hasReferences()) {
-      for (int i = 0; i < refereceList.size(); i++) {
-        Marker ref = (Marker) refereceList.get(i);
-        if (ref.contains(other)) {
-          return true;
-        }
+    List list = refereceList;
+    if (list == null) {
+      return false;
+    }
+    Set names = getContainedNames();
+    if (names != null) {
+      return names.contains(other.getName());
+    }
+    for (int i = 0; i < list.size(); i++) {
+      Marker ref = (Marker) list.get(i);
+      if (ref.contains(other)) {
+        return true;
       }
     }
     return false;
@@ -142,17 +259,125 @@ public class BasicMarker implements Marker {
       return true;
     }
 
-    if (hasReferences()) {
-      for (int i = 0; i < refereceList.size(); i++) {
-        Marker ref = (Marker) refereceList.get(i);
-        if (ref.contains(name)) {
-          return true;
-        }
+    List list = refereceList;
+    if (list == null) {
+      return false;
+    }
+    Set names = getContainedNames();
+    if (names != null) {
+      return names.contains(name);
+    }
+    for (int i = 0; i < list.size(); i++) {
+      Marker ref = (Marker) list.get(i);
+      if (ref.contains(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Does this marker contain, directly or transitively, the attached marker
+   * with the given ID? Markers contain themselves. Note that IDs are only
+   * meaningful within the factory which created the markers.
+   * 
+   * @param id
+   *          the ID of an attached marker
+   * @return true if this marker contains the marker with the given ID
+   * @since 1.5.11
+   */
+  public boolean containsId(int id) {
+    if (id < 0) {
+      return false;
+    }
+    if (this.id == id) {
+      return true;
+    }
+    if (refereceList == null) {
+      return false;
+    }
+    ContainedNames cached = getContainedNamesCache();
+    if (cached != null) {
+      return cached.ids.get(id);
+    }
+    // the hierarchy includes other Marker implementations, which carry no IDs
+    List list = refereceList;
+    for (int i = 0; list != null && i < list.size(); i++) {
+      Object ref = list.get(i);
+      if (ref instanceof BasicMarker && ((BasicMarker) ref).containsId(id)) {
+        return true;
       }
     }
     return false;
   }
 
+  /**
+   * Return the names of the markers this marker contains, itself included,
+   * or null if they cannot be cached.
+   */
+  private Set getContainedNames() {
+    ContainedNames cached = getContainedNamesCache();
+    return cached != null ? cached.names : null;
+  }
+
+  private ContainedNames getContainedNamesCache() {
+    ContainedNames cached = containedNames;
+    if (cached != null && cached.isValid()) {
+      return cached;
+    }
+    Set names = new HashSet();
+    BitSet ids = new BitSet();
+    List markers = new ArrayList();
+    List versions = new ArrayList();
+    if (!collectNames(this, names, ids, markers, versions)) {
+      return null;
+    }
+    // if a modification occurred in the meantime, the cache will be
+    // recomputed on next access
+    cached = new ContainedNames(names, ids, markers, versions);
+    containedNames = cached;
+    return cached;
+  }
+
+  /**
+   * Add the names and IDs of 'marker' and of the markers it contains to
+   * 'names' and 'ids', and the markers themselves along with their versions
+   * to 'markers' and 'versions'. Return false if a marker other than a
+   * BasicMarker was encountered, as its modifications cannot be tracked.
+   */
+  private static boolean collectNames(BasicMarker marker, Set names,
+      BitSet ids, List markers, List versions) {
+    for (int i = 0; i < markers.size(); i++) {
+      if (markers.get(i) == marker) {
+        // already visited
+        return true;
+      }
+    }
+    // the version is read before the references, which are written before
+    // the version is incremented, so that a concurrent modification is
+    // detected by the next validation
+    markers.add(marker);
+    versions.add(new Integer(marker.version));
+    names.add(marker.name);
+    if (marker.id >= 0) {
+      ids.set(marker.id);
+    }
+    List list = marker.refereceList;
+    if (list == null) {
+      return true;
+    }
+    for (int i = 0; i < list.size(); i++) {
+      Object ref = list.get(i);
+      if (!(ref instanceof BasicMarker)) {
+        return false;
+      }
+      if (!collectNames((BasicMarker) ref, names, ids, markers, versions)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private static String OPEN = "[ ";
   private static String CLOSE = " ]";
   private static String SEP = ", ";
@@ -24,9 +24,6 @@
 
 package org.slf4j.helpers;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.slf4j.IMarkerFactory;
 import org.slf4j.Marker;
 
@@ -36,12 +33,26 @@ import org.slf4j.Marker;
  * 
  * <p>Simple logging systems can conform to the SLF4J API by binding
  * {@link org.slf4j.MarkerFactory} with an instance of this class.
+ * 
+ * <p>Retrieving an existing marker does not involve any locking. Each 
+ * marker created by this factory is given the next integer ID, see
+ * {@link BasicMarker#getId()}.
  *
  * @author Ceki G&uuml;lc&uuml;
  */
 public class BasicMarkerFactory implements IMarkerFactory {
 
-  Map markerMap = new HashMap();
+  final ConcurrentRegistry markerRegistry = new ConcurrentRegistry();
+
+  // only accessed by markerCreator, which the registry invokes while
+  // holding its lock
+  private int nextId;
+
+  private final ConcurrentRegistry.Creator markerCreator = new ConcurrentRegistry.Creator() {
+    public Object create(String name) {
+      return new BasicMarker(name, nextId++);
+    }
+  };
   
   /**
    * Regular users should <em>not</em> create
@@ -59,34 +70,28 @@ public class BasicMarkerFactory implements IMarkerFactory {
    * @param name the name of the marker to be created
    * @return a Marker instance
    */
-  public synchronized Marker getMarker(String name) {
+  public Marker getMarker(String name) {
     if (name == null) {
       throw new IllegalArgumentException("Marker name cannot be null");
     }
-
-    Marker marker = (Marker) markerMap.get(name);
-    if (marker == null) {
-      marker = new BasicMarker(name);
-      markerMap.put(name, marker);
-    }
-    return marker;
+    return (Marker) markerRegistry.getOrCreate(name, markerCreator);
   }
   
   /**
    * Does the name marked already exist?
    */
-  public synchronized boolean exists(String name) {
+  public boolean exists(String name) {
     if (name == null) {
       return false;
     }
-    return markerMap.containsKey(name);
+    return markerRegistry.get(name) != null;
   }
 
   public boolean detachMarker(String name) {
     if(name == null) {
       return false;
     }
-    return (markerMap.remove(name) != null);
+    return (markerRegistry.remove(name) != null);
   }
 
   
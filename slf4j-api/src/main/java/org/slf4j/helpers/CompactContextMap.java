@@ -0,0 +1,341 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.helpers;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map from String keys to values, tuned for the handful of keys an MDC
+ * context usually holds.
+ * 
+ * <p>
+ * Up to {@link #MAX_FLAT_SIZE} keys are kept in two small parallel arrays
+ * using open addressing with linear probing. Keys are compared by reference
+ * before being compared with <code>equals</code>, so that the usual literal,
+ * hence interned, keys are matched without examining their characters.
+ * Compared to a {@link HashMap}, no entry object is allocated per key, and
+ * the whole map occupies three objects.
+ * 
+ * <p>
+ * Once more keys are added, the map switches to a {@link HashMap} for good.
+ * 
+ * <p>
+ * This class is not thread safe.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+class CompactContextMap extends AbstractMap {
+
+  static final int CAPACITY = 8;
+  static final int MAX_FLAT_SIZE = 6;
+
+  // marks the slot of a removed key, so that probing continues past it
+  private static final Object REMOVED = new Object();
+
+  // lazily allocated, null once switched to 'hashMap'
+  private Object[] keys;
+  private Object[] values;
+  private int size;
+  // number of slots holding a key or REMOVED
+  private int usedSlots;
+
+  private HashMap hashMap;
+
+  private transient Set entrySet;
+
+  CompactContextMap() {
+  }
+
+  private static int indexFor(Object key) {
+    int h = key.hashCode();
+    return (h ^ (h >>> 16) ^ (h >>> 3)) & (CAPACITY - 1);
+  }
+
+  /**
+   * Return the slot holding 'key', or -1 if absent.
+   */
+  private int find(Object key) {
+    if (keys == null || key == null) {
+      return -1;
+    }
+    int index = indexFor(key);
+    for (int i = 0; i < CAPACITY; i++) {
+      Object k = keys[index];
+      if (k == null) {
+        return -1;
+      }
+      if (k == key || (k != REMOVED && k.equals(key))) {
+        return index;
+      }
+      index = (index + 1) & (CAPACITY - 1);
+    }
+    return -1;
+  }
+
+  public int size() {
+    return hashMap != null ? hashMap.size() : size;
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  public boolean containsKey(Object key) {
+    if (hashMap != null) {
+      return hashMap.containsKey(key);
+    }
+    return find(key) >= 0;
+  }
+
+  public Object get(Object key) {
+    if (hashMap != null) {
+      return hashMap.get(key);
+    }
+    int index = find(key);
+    return index >= 0 ? values[index] : null;
+  }
+
+  public Object put(Object key, Object value) {
+    if (hashMap != null) {
+      return hashMap.put(key, value);
+    }
+    if (key == null) {
+      throw new IllegalArgumentException("key cannot be null");
+    }
+    int index = find(key);
+    if (index >= 0) {
+      Object old = values[index];
+      values[index] = value;
+      return old;
+    }
+    if (size == MAX_FLAT_SIZE) {
+      switchToHashMap();
+      return hashMap.put(key, value);
+    }
+    if (keys == null) {
+      keys = new Object[CAPACITY];
+      values = new Object[CAPACITY];
+    } else if (usedSlots == MAX_FLAT_SIZE) {
+      // too many removed slots, probing would no longer terminate early
+      rehash();
+    }
+    index = indexFor(key);
+    while (keys[index] != null && keys[index] != REMOVED) {
+      index = (index + 1) & (CAPACITY - 1);
+    }
+    if (keys[index] == null) {
+      usedSlots++;
+    }
+    keys[index] = key;
+    values[index] = value;
+    size++;
+    return null;
+  }
+
+  public Object remove(Object key) {
+    if (hashMap != null) {
+      return hashMap.remove(key);
+    }
+    int index = find(key);
+    if (index < 0) {
+      return null;
+    }
+    Object old = values[index];
+    removeSlot(index);
+    return old;
+  }
+
+  private void removeSlot(int index) {
+    keys[index] = REMOVED;
+    values[index] = null;
+    size--;
+    if (size == 0) {
+      // no need to keep the removal marks around
+      for (int i = 0; i < CAPACITY; i++) {
+        keys[i] = null;
+      }
+      usedSlots = 0;
+    }
+  }
+
+  public void clear() {
+    keys = null;
+    values = null;
+    size = 0;
+    usedSlots = 0;
+    hashMap = null;
+  }
+
+  private void rehash() {
+    Object[] oldKeys = keys;
+    Object[] oldValues = values;
+    keys = new Object[CAPACITY];
+    values = new Object[CAPACITY];
+    usedSlots = size;
+    for (int i = 0; i < CAPACITY; i++) {
+      Object k = oldKeys[i];
+      if (k != null && k != REMOVED) {
+        int index = indexFor(k);
+        while (keys[index] != null) {
+          index = (index + 1) & (CAPACITY - 1);
+        }
+        keys[index] = k;
+        values[index] = oldValues[i];
+      }
+    }
+  }
+
+  private void switchToHashMap() {
+    HashMap map = new HashMap();
+    for (int i = 0; i < CAPACITY; i++) {
+      Object k = keys[i];
+      if (k != null && k != REMOVED) {
+        map.put(k, values[i]);
+      }
+    }
+    keys = null;
+    values = null;
+    size = 0;
+    usedSlots = 0;
+    hashMap = map;
+  }
+
+  public Set entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  private final class EntrySet extends AbstractSet {
+    public int size() {
+      return CompactContextMap.this.size();
+    }
+
+    public Iterator iterator() {
+      if (hashMap != null) {
+        return hashMap.entrySet().iterator();
+      }
+      return new FlatIterator();
+    }
+  }
+
+  private final class FlatIterator implements Iterator {
+    // the arrays being iterated, discarded by clear() or a switch
+    final Object[] iteratedKeys = keys;
+    int next = -1;
+    int current = -1;
+
+    FlatIterator() {
+      advance();
+    }
+
+    private void advance() {
+      next++;
+      if (iteratedKeys == null) {
+        next = CAPACITY;
+        return;
+      }
+      while (next < CAPACITY
+          && (iteratedKeys[next] == null || iteratedKeys[next] == REMOVED)) {
+        next++;
+      }
+    }
+
+    public boolean hasNext() {
+      return next < CAPACITY;
+    }
+
+    public Object next() {
+      if (next >= CAPACITY) {
+        throw new NoSuchElementException();
+      }
+      current = next;
+      advance();
+      return new FlatEntry(current);
+    }
+
+    public void remove() {
+      if (current < 0 || iteratedKeys != keys || keys[current] == null
+          || keys[current] == REMOVED) {
+        throw new IllegalStateException();
+      }
+      removeSlot(current);
+    }
+  }
+
+  private final class FlatEntry implements Map.Entry {
+    final int index;
+    final Object key;
+
+    FlatEntry(int index) {
+      this.index = index;
+      this.key = keys[index];
+    }
+
+    public Object getKey() {
+      return key;
+    }
+
+    public Object getValue() {
+      return keys != null && keys[index] == key ? values[index] : null;
+    }
+
+    public Object setValue(Object value) {
+      if (keys == null || keys[index] != key) {
+        throw new IllegalStateException("entry no longer in map");
+      }
+      Object old = values[index];
+      values[index] = value;
+      return old;
+    }
+
+    public boolean equals(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry e = (Map.Entry) o;
+      Object value = getValue();
+      return key.equals(e.getKey())
+          && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+    }
+
+    public int hashCode() {
+      Object value = getValue();
+      return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+    }
+
+    public String toString() {
+      return key + "=" + getValue();
+    }
+  }
+}
@@ -0,0 +1,366 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.helpers;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A map from names to objects, typically loggers, allowing lookups without
+ * any locking. Insertions are serialized by a lock, which is only entered
+ * when the name is not registered yet. Bindings and bridges use this class to
+ * keep track of the loggers they have handed out.
+ * 
+ * <p>
+ * Names are kept in chained hash buckets whose entries are never modified
+ * once published. A reader thus always sees a consistent bucket, even while
+ * another thread inserts a new entry or resizes the table. A reader which
+ * misses a concurrently inserted entry simply falls back to the locked path,
+ * where the entry is found.
+ * 
+ * <p>
+ * Optionally, registered objects can be held through weak references, in
+ * which case they are removed from the registry once no longer referenced
+ * elsewhere.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+public class ConcurrentRegistry {
+
+  /**
+   * Creates the object to be registered under a given name, see
+   * {@link ConcurrentRegistry#getOrCreate(String, Creator)}.
+   */
+  public interface Creator {
+    /**
+     * @param name
+     *          the name the returned object will be registered under
+     * @return a non-null object
+     */
+    public Object create(String name);
+  }
+
+  private static final int DEFAULT_INITIAL_CAPACITY = 64;
+
+  private static final class Entry {
+    final String name;
+    final int hash;
+    // the registered object, or a WeakValue referring to it
+    final Object value;
+    final Entry next;
+
+    Entry(String name, int hash, Object value, Entry next) {
+      this.name = name;
+      this.hash = hash;
+      this.value = value;
+      this.next = next;
+    }
+  }
+
+  private static final class WeakValue extends WeakReference {
+    final int hash;
+
+    WeakValue(Object referent, int hash, ReferenceQueue queue) {
+      super(referent, queue);
+      this.hash = hash;
+    }
+  }
+
+  private volatile Entry[] table;
+  // guarded by this
+  private int size;
+  // null unless values are weakly referenced
+  private final ReferenceQueue queue;
+
+  public ConcurrentRegistry() {
+    this(DEFAULT_INITIAL_CAPACITY, false);
+  }
+
+  /**
+   * @param initialCapacity
+   *          the number of names which can be registered before the table
+   *          needs to be resized
+   */
+  public ConcurrentRegistry(int initialCapacity) {
+    this(initialCapacity, false);
+  }
+
+  /**
+   * @param initialCapacity
+   *          the number of names which can be registered before the table
+   *          needs to be resized
+   * @param weakValues
+   *          whether registered objects should be referenced weakly
+   */
+  public ConcurrentRegistry(int initialCapacity, boolean weakValues) {
+    int capacity = 1;
+    while (capacity < initialCapacity) {
+      capacity <<= 1;
+    }
+    table = new Entry[capacity];
+    queue = weakValues ? new ReferenceQueue() : null;
+  }
+
+  private static int hash(String name) {
+    int h = name.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static Object find(Entry[] tab, String name, int hash) {
+    Entry e = tab[hash & (tab.length - 1)];
+    while (e != null) {
+      if (e.hash == hash && name.equals(e.name)) {
+        Object value = e.value;
+        if (value instanceof WeakValue) {
+          // null if already collected
+          return ((WeakValue) value).get();
+        }
+        return value;
+      }
+      e = e.next;
+    }
+    return null;
+  }
+
+  /**
+   * Return the object registered under 'name', or null if there is none. This
+   * method never blocks.
+   * 
+   * @param name
+   *          a non-null name
+   */
+  public Object get(String name) {
+    return find(table, name, hash(name));
+  }
+
+  /**
+   * Register 'value' under 'name' unless an object is already registered
+   * under that name.
+   * 
+   * @param name
+   *          a non-null name
+   * @param value
+   *          a non-null value
+   * @return the object previously registered under 'name', or null if 'value'
+   *         was registered
+   */
+  public Object putIfAbsent(String name, Object value) {
+    if (value == null) {
+      throw new IllegalArgumentException("value cannot be null");
+    }
+    int hash = hash(name);
+    synchronized (this) {
+      Object existing = find(table, name, hash);
+      if (existing != null) {
+        return existing;
+      }
+      insert(name, hash, value);
+      return null;
+    }
+  }
+
+  /**
+   * Return the object registered under 'name', asking 'creator' to create
+   * and register one if there is none. Lookups of registered names never
+   * block. The creator is invoked while holding the registry's lock, at most
+   * once per name, unless it causes the same name to be registered in turn,
+   * in which case the object registered first prevails.
+   * 
+   * @param name
+   *          a non-null name
+   * @param creator
+   *          creates the object if needed
+   * @return the object registered under 'name'
+   */
+  public Object getOrCreate(String name, Creator creator) {
+    int hash = hash(name);
+    Object value = find(table, name, hash);
+    if (value != null) {
+      return value;
+    }
+    synchronized (this) {
+      value = find(table, name, hash);
+      if (value != null) {
+        return value;
+      }
+      Object created = creator.create(name);
+      // re-check, the creator may have registered 'name' itself
+      value = find(table, name, hash);
+      if (value != null) {
+        return value;
+      }
+      insert(name, hash, created);
+      return created;
+    }
+  }
+
+  // must be called while holding the lock
+  private void insert(String name, int hash, Object value) {
+    expungeStaleEntries();
+    Entry[] tab = table;
+    if (size >= (tab.length >> 1) + (tab.length >> 2)) {
+      tab = resize(tab);
+    }
+    Object storedValue = value;
+    if (queue != null) {
+      storedValue = new WeakValue(value, hash, queue);
+    }
+    int index = hash & (tab.length - 1);
+    Entry first = tab[index];
+    // drop a stale entry for the same name, if any
+    for (Entry e = first; e != null; e = e.next) {
+      if (e.hash == hash && name.equals(e.name)) {
+        first = removeFromChain(first, e);
+        size--;
+        break;
+      }
+    }
+    tab[index] = new Entry(name, hash, storedValue, first);
+    size++;
+    // volatile write, publishes the new entry
+    table = tab;
+  }
+
+  /**
+   * Remove the object registered under 'name', if any.
+   * 
+   * @param name
+   *          a non-null name
+   * @return the object which was registered under 'name', or null if there
+   *         was none
+   */
+  public synchronized Object remove(String name) {
+    int hash = hash(name);
+    Entry[] tab = table;
+    int index = hash & (tab.length - 1);
+    for (Entry e = tab[index]; e != null; e = e.next) {
+      if (e.hash == hash && name.equals(e.name)) {
+        Object value = e.value;
+        if (value instanceof WeakValue) {
+          value = ((WeakValue) value).get();
+        }
+        tab[index] = removeFromChain(tab[index], e);
+        size--;
+        // volatile write, publishes the new chain
+        table = tab;
+        return value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Remove the entries whose weakly referenced value has been collected.
+   */
+  private void expungeStaleEntries() {
+    if (queue == null) {
+      return;
+    }
+    Reference ref;
+    while ((ref = queue.poll()) != null) {
+      WeakValue weakValue = (WeakValue) ref;
+      Entry[] tab = table;
+      int index = weakValue.hash & (tab.length - 1);
+      for (Entry e = tab[index]; e != null; e = e.next) {
+        if (e.value == weakValue) {
+          tab[index] = removeFromChain(tab[index], e);
+          size--;
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Return a chain equivalent to the one starting at 'first' but without
+   * 'removed'. Entries preceding 'removed' are copied, as readers may still be
+   * traversing the original chain.
+   */
+  private static Entry removeFromChain(Entry first, Entry removed) {
+    Entry newFirst = removed.next;
+    for (Entry e = first; e != removed; e = e.next) {
+      newFirst = new Entry(e.name, e.hash, e.value, newFirst);
+    }
+    return newFirst;
+  }
+
+  /**
+   * Return a new table twice the size of the old one. The old table remains
+   * untouched, as readers may still be traversing it.
+   */
+  private static Entry[] resize(Entry[] oldTab) {
+    Entry[] newTab = new Entry[oldTab.length << 1];
+    int mask = newTab.length - 1;
+    for (int i = 0; i < oldTab.length; i++) {
+      for (Entry e = oldTab[i]; e != null; e = e.next) {
+        int index = e.hash & mask;
+        newTab[index] = new Entry(e.name, e.hash, e.value, newTab[index]);
+      }
+    }
+    return newTab;
+  }
+
+  /**
+   * Return the number of registered names. With weakly referenced values,
+   * names whose object was collected recently may still be counted.
+   */
+  public synchronized int size() {
+    expungeStaleEntries();
+    return size;
+  }
+
+  /**
+   * Return a snapshot of the registered objects, in no particular order.
+   * Objects registered concurrently may or may not be included.
+   */
+  public List values() {
+    Entry[] tab = table;
+    List result = new ArrayList();
+    for (int i = 0; i < tab.length; i++) {
+      for (Entry e = tab[i]; e != null; e = e.next) {
+        Object value = e.value;
+        if (value instanceof WeakValue) {
+          value = ((WeakValue) value).get();
+        }
+        if (value != null) {
+          result.add(value);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Remove all registered names.
+   */
+  public synchronized void clear() {
+    table = new Entry[table.length];
+    size = 0;
+  }
+}
@@ -0,0 +1,224 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.helpers;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.spi.MDCAdapter;
+
+/**
+ * An MDC implementation where each thread's context map is never modified
+ * once published. Instead, {@link #put} and {@link #remove} install a new map
+ * reflecting the change.
+ * 
+ * <p>
+ * Updates cost a copy of the context map, but taking a snapshot of the
+ * context does not. {@link #getContextSnapshot()} returns the current map
+ * itself, so that capturing the context for each logging event or for each
+ * task handed over to another thread amounts to reading a reference. This
+ * trade-off pays off when the context is read more often than it is
+ * modified. Snapshots handed back to {@link #setContextMap(Map)} are
+ * installed as they are, without copying.
+ * 
+ * <p>
+ * As required by the {@link MDCAdapter} contract,
+ * {@link #getCopyOfContextMap()} returns a modifiable copy of the context.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+public class CopyOnWriteMDCAdapter implements MDCAdapter {
+
+  // the values are Snapshot instances and can thus be shared with child
+  // threads
+  private final ThreadLocal threadLocal;
+
+  /**
+   * Create an adapter whose context maps are inherited by child threads.
+   */
+  public CopyOnWriteMDCAdapter() {
+    this(true);
+  }
+
+  /**
+   * @param inheritable
+   *                whether child threads should inherit the context map of
+   *                the thread creating them
+   */
+  public CopyOnWriteMDCAdapter(boolean inheritable) {
+    threadLocal = inheritable ? new InheritableThreadLocal() : new ThreadLocal();
+  }
+
+  /**
+   * Put a context value (the <code>val</code> parameter) as identified with
+   * the <code>key</code> parameter into the current thread's context map.
+   * Note that contrary to log4j, the <code>val</code> parameter can be null.
+   * 
+   * @throws IllegalArgumentException
+   *                 in case the "key" parameter is null
+   */
+  public void put(String key, String val) {
+    if (key == null) {
+      throw new IllegalArgumentException("key cannot be null");
+    }
+    Map oldMap = (Map) threadLocal.get();
+    HashMap newMap;
+    if (oldMap == null) {
+      newMap = new HashMap();
+    } else {
+      newMap = new HashMap(oldMap);
+    }
+    newMap.put(key, val);
+    threadLocal.set(new Snapshot(newMap));
+  }
+
+  /**
+   * Get the context identified by the <code>key</code> parameter.
+   */
+  public String get(String key) {
+    Map map = (Map) threadLocal.get();
+    if ((map != null) && (key != null)) {
+      return (String) map.get(key);
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Remove the the context identified by the <code>key</code> parameter.
+   */
+  public void remove(String key) {
+    Map oldMap = (Map) threadLocal.get();
+    if (oldMap == null || !oldMap.containsKey(key)) {
+      return;
+    }
+    if (oldMap.size() == 1) {
+      threadLocal.remove();
+      return;
+    }
+    HashMap newMap = new HashMap(oldMap);
+    newMap.remove(key);
+    threadLocal.set(new Snapshot(newMap));
+  }
+
+  /**
+   * Clear all entries in the MDC.
+   */
+  public void clear() {
+    // the ThreadLocal.remove method was introduced in JDK 1.5
+    // Thus, invoking clear() on previous JDK's will fail
+    threadLocal.remove();
+  }
+
+  /**
+   * Returns the keys in the MDC as a read-only {@link Set} of {@link String}s
+   * The returned value can be null.
+   * 
+   * @return the keys in the MDC
+   */
+  public Set getKeys() {
+    Map map = (Map) threadLocal.get();
+    if (map != null) {
+      return map.keySet();
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Return a copy of the current thread's context map. Returned value may be
+   * null.
+   */
+  public Map getCopyOfContextMap() {
+    Map map = (Map) threadLocal.get();
+    if (map != null) {
+      return new HashMap(map);
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Return a read-only snapshot of the current thread's context map, which
+   * is not affected by subsequent changes to the MDC. No copying is
+   * involved. Returned value may be null.
+   */
+  public Map getContextSnapshot() {
+    return (Map) threadLocal.get();
+  }
+
+  /**
+   * Set the current thread's context map to a copy of 'contextMap', or to
+   * 'contextMap' itself if it is a snapshot returned by
+   * {@link #getContextSnapshot()}.
+   */
+  public void setContextMap(Map contextMap) {
+    if (contextMap instanceof Snapshot) {
+      threadLocal.set(contextMap);
+    } else {
+      threadLocal.set(new Snapshot(new HashMap(contextMap)));
+    }
+  }
+
+  /**
+   * A read-only context map. Being never modified, instances can be shared
+   * between threads and adopted by {@link #setContextMap(Map)} as is.
+   */
+  private static final class Snapshot extends AbstractMap {
+    private final Map map;
+
+    Snapshot(HashMap map) {
+      this.map = Collections.unmodifiableMap(map);
+    }
+
+    public int size() {
+      return map.size();
+    }
+
+    public boolean isEmpty() {
+      return map.isEmpty();
+    }
+
+    public boolean containsKey(Object key) {
+      return map.containsKey(key);
+    }
+
+    public Object get(Object key) {
+      return map.get(key);
+    }
+
+    public Set keySet() {
+      return map.keySet();
+    }
+
+    public Set entrySet() {
+      return map.entrySet();
+    }
+  }
+}
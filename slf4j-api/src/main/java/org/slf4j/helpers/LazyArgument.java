@@ -0,0 +1,63 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.helpers;
+
+/**
+ * A message argument whose value is computed only when the message is
+ * actually formatted. {@link MessageFormatter} substitutes the value returned
+ * by {@link #evaluate()} in place of the <code>LazyArgument</code> instance
+ * itself.
+ * 
+ * <p>
+ * Since parameterized logging methods format their message only if the
+ * relevant level is enabled, an expensive argument wrapped as a
+ * <code>LazyArgument</code> costs nothing beyond the level check when that
+ * level is disabled. For example,
+ * 
+ * <pre>
+ * logger.debug(&quot;Cache contents: {}&quot;, new LazyArgument() {
+ *   public Object evaluate() {
+ *     return cache.dump();
+ *   }
+ * });
+ * </pre>
+ * 
+ * <p>
+ * The <code>evaluate</code> method is invoked at most once per formatted
+ * message, but may be invoked once for each enabled logger the argument is
+ * passed to.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+public interface LazyArgument {
+
+  /**
+   * Compute the value to be substituted in place of this argument.
+   * 
+   * @return the actual argument value, possibly null
+   */
+  public Object evaluate();
+}
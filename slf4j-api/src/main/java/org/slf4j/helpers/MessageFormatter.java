@@ -85,6 +85,13 @@ import java.util.Map;
  * larger context of the complete logging processing chain.
  * 
  * <p>
+ * Message patterns are parsed once and then kept in a bounded cache, so that
+ * formatting a recurring (constant) pattern does not require scanning it
+ * again. Callers wishing to reuse their own buffer can format directly into
+ * it by way of the {@link #appendTo(StringBuffer, String, Object)} family of
+ * methods.
+ * 
+ * <p>
  * See also {@link #format(String, Object)},
  * {@link #format(String, Object, Object)} and
  * {@link #arrayFormat(String, Object[])} methods for more details.
@@ -97,6 +104,12 @@ final public class MessageFormatter {
   static final String DELIM_STR = "{}";
   private static final char ESCAPE_CHAR = '\\';
 
+  // must be a power of two
+  static final int TEMPLATE_CACHE_SIZE = 1024;
+  // overly long patterns are most probably not constant
+  static final int MAX_CACHED_PATTERN_LENGTH = 2048;
+  private static final MessageTemplate[] TEMPLATE_CACHE = new MessageTemplate[TEMPLATE_CACHE_SIZE];
+
   /**
    * Performs single argument substitution for the 'messagePattern' passed as
    * parameter.
@@ -117,7 +130,16 @@ final public class MessageFormatter {
    * @return The formatted message
    */
   final public static String format(String messagePattern, Object arg) {
-    return arrayFormat(messagePattern, new Object[] { arg });
+    if (messagePattern == null) {
+      return null;
+    }
+    MessageTemplate template = getTemplate(messagePattern);
+    if (template.getAnchorCount() == 0) {
+      return template.segments[0];
+    }
+    StringBuffer sbuf = new StringBuffer(messagePattern.length() + 50);
+    appendTemplate(sbuf, template, 1, arg, null, null);
+    return sbuf.toString();
   }
 
   /**
@@ -145,7 +167,16 @@ final public class MessageFormatter {
    */
   final public static String format(final String messagePattern, Object arg1,
       Object arg2) {
-    return arrayFormat(messagePattern, new Object[] { arg1, arg2 });
+    if (messagePattern == null) {
+      return null;
+    }
+    MessageTemplate template = getTemplate(messagePattern);
+    if (template.getAnchorCount() == 0) {
+      return template.segments[0];
+    }
+    StringBuffer sbuf = new StringBuffer(messagePattern.length() + 50);
+    appendTemplate(sbuf, template, 2, arg1, arg2, null);
+    return sbuf.toString();
   }
 
   /**
@@ -165,52 +196,293 @@ final public class MessageFormatter {
     if (messagePattern == null) {
       return null;
     }
-    if (argArray == null) {
+    if (argArray == null || argArray.length == 0) {
       return messagePattern;
     }
-    int i = 0;
-    int j;
+    MessageTemplate template = getTemplate(messagePattern);
+    if (template.getAnchorCount() == 0) {
+      // this is a simple string, save for possible escaped delimiters
+      return template.segments[0];
+    }
     StringBuffer sbuf = new StringBuffer(messagePattern.length() + 50);
+    appendTemplate(sbuf, template, argArray.length, null, null, argArray);
+    return sbuf.toString();
+  }
+
+  /**
+   * Performs single argument substitution for the 'messagePattern' passed as
+   * parameter, appending the result to <code>sbuf</code>.
+   * 
+   * <p>
+   * Contrary to {@link #format(String, Object)}, this method does not create
+   * any intermediary objects, which makes it suitable for callers reusing the
+   * same buffer from one message to the next. A null 'messagePattern' is
+   * appended as "null".
+   * 
+   * @param sbuf
+   *          The buffer the formatted message is appended to
+   * @param messagePattern
+   *          The message pattern which will be parsed and formatted
+   * @param arg
+   *          The argument to be substituted in place of the formatting anchor
+   * @since 1.5.11
+   */
+  final public static void appendTo(StringBuffer sbuf, String messagePattern,
+      Object arg) {
+    if (messagePattern == null) {
+      sbuf.append((String) null);
+      return;
+    }
+    appendTemplate(sbuf, getTemplate(messagePattern), 1, arg, null, null);
+  }
 
-    for (int L = 0; L < argArray.length; L++) {
+  /**
+   * Performs a two argument substitution for the 'messagePattern' passed as
+   * parameter, appending the result to <code>sbuf</code>.
+   * 
+   * @param sbuf
+   *          The buffer the formatted message is appended to
+   * @param messagePattern
+   *          The message pattern which will be parsed and formatted
+   * @param arg1
+   *          The argument to be substituted in place of the first formatting
+   *          anchor
+   * @param arg2
+   *          The argument to be substituted in place of the second formatting
+   *          anchor
+   * @see #appendTo(StringBuffer, String, Object)
+   * @since 1.5.11
+   */
+  final public static void appendTo(StringBuffer sbuf, String messagePattern,
+      Object arg1, Object arg2) {
+    if (messagePattern == null) {
+      sbuf.append((String) null);
+      return;
+    }
+    appendTemplate(sbuf, getTemplate(messagePattern), 2, arg1, arg2, null);
+  }
 
-      j = messagePattern.indexOf(DELIM_STR, i);
+  /**
+   * Same principle as the {@link #appendTo(StringBuffer, String, Object)} and
+   * {@link #appendTo(StringBuffer, String, Object, Object)} methods except
+   * that any number of arguments can be passed in an array.
+   * 
+   * @param sbuf
+   *          The buffer the formatted message is appended to
+   * @param messagePattern
+   *          The message pattern which will be parsed and formatted
+   * @param argArray
+   *          An array of arguments to be substituted in place of formatting
+   *          anchors
+   * @since 1.5.11
+   */
+  final public static void arrayAppendTo(StringBuffer sbuf,
+      String messagePattern, Object[] argArray) {
+    if (messagePattern == null) {
+      sbuf.append((String) null);
+      return;
+    }
+    if (argArray == null) {
+      sbuf.append(messagePattern);
+      return;
+    }
+    appendTemplate(sbuf, getTemplate(messagePattern), argArray.length, null,
+        null, argArray);
+  }
 
-      if (j == -1) {
-        // no more variables
-        if (i == 0) { // this is a simple string
-          return messagePattern;
-        } else { // add the tail string which contains no variables and return
-          // the result.
-          sbuf.append(messagePattern.substring(i, messagePattern.length()));
-          return sbuf.toString();
-        }
+  /**
+   * Substitute the arguments into the template. Arguments are taken from
+   * 'argArray' if non-null, from 'arg1' and 'arg2' otherwise, which spares the
+   * one and two argument forms the creation of an array.
+   */
+  private static void appendTemplate(StringBuffer sbuf,
+      MessageTemplate template, int argCount, Object arg1, Object arg2,
+      Object[] argArray) {
+    final String messagePattern = template.pattern;
+    if (argCount == 0) {
+      sbuf.append(messagePattern);
+      return;
+    }
+    final String[] segments = template.segments;
+    final int anchorCount = template.getAnchorCount();
+    final int L = (argCount < anchorCount) ? argCount : anchorCount;
+    for (int k = 0; k < L; k++) {
+      sbuf.append(segments[k]);
+      Object arg;
+      if (argArray != null) {
+        arg = argArray[k];
       } else {
-        if (isEscapedDelimeter(messagePattern, j)) {
-          if (!isDoubleEscaped(messagePattern, j)) {
-            L--; // DELIM_START was escaped, thus should not be incremented
-            sbuf.append(messagePattern.substring(i, j - 1));
-            sbuf.append(DELIM_START);
-            i = j + 1;
-          } else {
-            // The escape character preceding the delimiter start is
-            // itself escaped: "abc x:\\{}"
-            // we have to consume one backward slash
-            sbuf.append(messagePattern.substring(i, j - 1));
-            deeplyAppendParameter(sbuf, argArray[L], new HashMap());
-            i = j + 2;
-          }
-        } else {
-          // normal case
-          sbuf.append(messagePattern.substring(i, j));
-          deeplyAppendParameter(sbuf, argArray[L], new HashMap());
-          i = j + 2;
-        }
+        arg = (k == 0) ? arg1 : arg2;
       }
+      deeplyAppendParameter(sbuf, arg, null);
     }
-    // append the characters following the last {} pair.
-    sbuf.append(messagePattern.substring(i, messagePattern.length()));
-    return sbuf.toString();
+    appendTail(sbuf, template, argCount);
+  }
+
+  /**
+   * Append whatever follows the last substituted anchor, 'argCount' being the
+   * number of arguments supplied by the caller.
+   */
+  private static void appendTail(StringBuffer sbuf, MessageTemplate template,
+      int argCount) {
+    final int anchorCount = template.getAnchorCount();
+    if (argCount > anchorCount) {
+      // append the characters following the last {} pair.
+      sbuf.append(template.segments[anchorCount]);
+    } else {
+      // no more arguments, the rest of the pattern is copied as is
+      final String messagePattern = template.pattern;
+      final int len = messagePattern.length();
+      for (int i = template.tailIndexes[argCount - 1]; i < len; i++) {
+        sbuf.append(messagePattern.charAt(i));
+      }
+    }
+  }
+
+  /**
+   * Performs single argument substitution of a <code>long</code> value,
+   * appending the result to <code>sbuf</code>. The value is rendered directly,
+   * without being wrapped in a {@link Long} first. Values of type
+   * <code>int</code>, <code>short</code> and <code>byte</code> are handled by
+   * this method as well.
+   * 
+   * @param sbuf
+   *          The buffer the formatted message is appended to
+   * @param messagePattern
+   *          The message pattern which will be parsed and formatted
+   * @param arg
+   *          The argument to be substituted in place of the formatting anchor
+   * @since 1.5.11
+   */
+  final public static void appendTo(StringBuffer sbuf, String messagePattern,
+      long arg) {
+    MessageTemplate template = getPrimitiveTemplate(sbuf, messagePattern);
+    if (template != null) {
+      sbuf.append(template.segments[0]);
+      sbuf.append(arg);
+      appendTail(sbuf, template, 1);
+    }
+  }
+
+  /**
+   * Performs single argument substitution of a <code>double</code> value,
+   * appending the result to <code>sbuf</code>. Values of type
+   * <code>float</code> are handled by this method as well.
+   * 
+   * @see #appendTo(StringBuffer, String, long)
+   * @since 1.5.11
+   */
+  final public static void appendTo(StringBuffer sbuf, String messagePattern,
+      double arg) {
+    MessageTemplate template = getPrimitiveTemplate(sbuf, messagePattern);
+    if (template != null) {
+      sbuf.append(template.segments[0]);
+      sbuf.append(arg);
+      appendTail(sbuf, template, 1);
+    }
+  }
+
+  /**
+   * Performs single argument substitution of a <code>boolean</code> value,
+   * appending the result to <code>sbuf</code>.
+   * 
+   * @see #appendTo(StringBuffer, String, long)
+   * @since 1.5.11
+   */
+  final public static void appendTo(StringBuffer sbuf, String messagePattern,
+      boolean arg) {
+    MessageTemplate template = getPrimitiveTemplate(sbuf, messagePattern);
+    if (template != null) {
+      sbuf.append(template.segments[0]);
+      sbuf.append(arg);
+      appendTail(sbuf, template, 1);
+    }
+  }
+
+  /**
+   * Performs a two argument substitution of <code>long</code> values,
+   * appending the result to <code>sbuf</code>.
+   * 
+   * @see #appendTo(StringBuffer, String, long)
+   * @since 1.5.11
+   */
+  final public static void appendTo(StringBuffer sbuf, String messagePattern,
+      long arg1, long arg2) {
+    MessageTemplate template = getPrimitiveTemplate(sbuf, messagePattern);
+    if (template != null) {
+      sbuf.append(template.segments[0]);
+      sbuf.append(arg1);
+      if (template.getAnchorCount() > 1) {
+        sbuf.append(template.segments[1]);
+        sbuf.append(arg2);
+      }
+      appendTail(sbuf, template, 2);
+    }
+  }
+
+  /**
+   * Performs a two argument substitution where the second argument is a
+   * <code>long</code> value, appending the result to <code>sbuf</code>.
+   * 
+   * @see #appendTo(StringBuffer, String, long)
+   * @since 1.5.11
+   */
+  final public static void appendTo(StringBuffer sbuf, String messagePattern,
+      Object arg1, long arg2) {
+    MessageTemplate template = getPrimitiveTemplate(sbuf, messagePattern);
+    if (template != null) {
+      sbuf.append(template.segments[0]);
+      deeplyAppendParameter(sbuf, arg1, null);
+      if (template.getAnchorCount() > 1) {
+        sbuf.append(template.segments[1]);
+        sbuf.append(arg2);
+      }
+      appendTail(sbuf, template, 2);
+    }
+  }
+
+  /**
+   * Return the template for 'messagePattern' if it contains at least one
+   * anchor. Otherwise, the message is appended as is and null is returned.
+   */
+  private static MessageTemplate getPrimitiveTemplate(StringBuffer sbuf,
+      String messagePattern) {
+    if (messagePattern == null) {
+      sbuf.append((String) null);
+      return null;
+    }
+    MessageTemplate template = getTemplate(messagePattern);
+    if (template.getAnchorCount() == 0) {
+      sbuf.append(template.segments[0]);
+      return null;
+    }
+    return template;
+  }
+
+  /**
+   * Return the parsed form of the pattern passed as parameter.
+   * 
+   * <p>
+   * Parsed patterns are kept in a direct-mapped cache indexed by the hash code
+   * of the pattern. A slot is simply overwritten when another pattern hashes
+   * to it, which bounds the cache without any bookkeeping. Since
+   * {@link MessageTemplate} instances are immutable, concurrent readers and
+   * writers need no synchronization: at worst, a pattern is parsed twice.
+   */
+  static MessageTemplate getTemplate(final String messagePattern) {
+    int h = messagePattern.hashCode();
+    int index = (h ^ (h >>> 16)) & (TEMPLATE_CACHE_SIZE - 1);
+    MessageTemplate template = TEMPLATE_CACHE[index];
+    if (template != null
+        && (template.pattern == messagePattern || template.pattern
+            .equals(messagePattern))) {
+      return template;
+    }
+    template = MessageTemplate.parse(messagePattern);
+    if (messagePattern.length() <= MAX_CACHED_PATTERN_LENGTH) {
+      TEMPLATE_CACHE[index] = template;
+    }
+    return template;
   }
 
   final static boolean isEscapedDelimeter(String messagePattern,
@@ -240,6 +512,9 @@ final public class MessageFormatter {
   // special treatment of array values was suggested by 'lizongbo'
   private static void deeplyAppendParameter(StringBuffer sbuf, Object o,
       Map seenMap) {
+    if (o instanceof LazyArgument) {
+      o = safeEvaluate((LazyArgument) o);
+    }
     if (o == null) {
       sbuf.append("null");
       return;
@@ -285,11 +560,29 @@ final public class MessageFormatter {
 
   }
 
+  private static Object safeEvaluate(LazyArgument lazyArgument) {
+    try {
+      return lazyArgument.evaluate();
+    } catch (Throwable t) {
+      System.err
+          .println("SLF4J: Failed evaluate() invocation on an object of type ["
+              + lazyArgument.getClass().getName() + "]");
+      t.printStackTrace();
+      return "[FAILED evaluate()]";
+    }
+  }
+
   private static void objectArrayAppend(StringBuffer sbuf, Object[] a,
       Map seenMap) {
     sbuf.append('[');
-    if (!seenMap.containsKey(a)) {
-      seenMap.put(a, null);
+    if (seenMap == null || !seenMap.containsKey(a)) {
+      // cycle detection is only needed once Object arrays are nested
+      if (seenMap == null && containsObjectArray(a)) {
+        seenMap = new HashMap();
+      }
+      if (seenMap != null) {
+        seenMap.put(a, null);
+      }
       final int len = a.length;
       for (int i = 0; i < len; i++) {
         deeplyAppendParameter(sbuf, a[i], seenMap);
@@ -297,13 +590,24 @@ final public class MessageFormatter {
           sbuf.append(", ");
       }
       // allow repeats in siblings
-      seenMap.remove(a);
+      if (seenMap != null) {
+        seenMap.remove(a);
+      }
     } else {
       sbuf.append("...");
     }
     sbuf.append(']');
   }
 
+  private static boolean containsObjectArray(Object[] a) {
+    for (int i = 0; i < a.length; i++) {
+      if (a[i] instanceof Object[]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private static void booleanArrayAppend(StringBuffer sbuf, boolean[] a) {
     sbuf.append('[');
     final int len = a.length;
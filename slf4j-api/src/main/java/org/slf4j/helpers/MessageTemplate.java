@@ -0,0 +1,121 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.helpers;
+
+/**
+ * A message pattern as parsed by {@link MessageFormatter}. The pattern is cut
+ * into literal segments separated by formatting anchors, with escaped anchors
+ * already resolved, so that formatting amounts to copying segments and
+ * arguments in turn.
+ * 
+ * <p>
+ * Instances are immutable and can thus be shared freely between threads.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ */
+final class MessageTemplate {
+
+  final String pattern;
+
+  /**
+   * Literal text preceding each anchor. The last element holds the text
+   * following the last anchor, escapes resolved.
+   */
+  final String[] segments;
+
+  /**
+   * For each anchor, the index in the pattern where the text following it
+   * starts. The text after the last substituted anchor is copied verbatim from
+   * that index when arguments run out.
+   */
+  final int[] tailIndexes;
+
+  private MessageTemplate(String pattern, String[] segments, int[] tailIndexes) {
+    this.pattern = pattern;
+    this.segments = segments;
+    this.tailIndexes = tailIndexes;
+  }
+
+  /**
+   * Number of formatting anchors in the pattern.
+   */
+  int getAnchorCount() {
+    return tailIndexes.length;
+  }
+
+  /**
+   * Parse the pattern following the same rules as previously applied on each
+   * call of {@link MessageFormatter#arrayFormat(String, Object[])}.
+   */
+  static MessageTemplate parse(final String messagePattern) {
+    int anchorCount = 0;
+    int[] tailIndexes = new int[4];
+    String[] segments = new String[5];
+
+    int i = 0;
+    int j;
+    StringBuffer sbuf = new StringBuffer(messagePattern.length());
+
+    while ((j = messagePattern.indexOf(MessageFormatter.DELIM_STR, i)) != -1) {
+      if (MessageFormatter.isEscapedDelimeter(messagePattern, j)) {
+        if (!MessageFormatter.isDoubleEscaped(messagePattern, j)) {
+          // literal "{", the anchor does not count
+          sbuf.append(messagePattern.substring(i, j - 1));
+          sbuf.append(MessageFormatter.DELIM_START);
+          i = j + 1;
+          continue;
+        }
+        // The escape character preceding the delimiter start is
+        // itself escaped: "abc x:\\{}"
+        // we have to consume one backward slash
+        sbuf.append(messagePattern.substring(i, j - 1));
+      } else {
+        sbuf.append(messagePattern.substring(i, j));
+      }
+      i = j + 2;
+
+      if (anchorCount == tailIndexes.length) {
+        int[] newTailIndexes = new int[anchorCount * 2];
+        System.arraycopy(tailIndexes, 0, newTailIndexes, 0, anchorCount);
+        tailIndexes = newTailIndexes;
+        String[] newSegments = new String[anchorCount * 2 + 1];
+        System.arraycopy(segments, 0, newSegments, 0, anchorCount);
+        segments = newSegments;
+      }
+      segments[anchorCount] = sbuf.toString();
+      tailIndexes[anchorCount] = i;
+      anchorCount++;
+      sbuf.setLength(0);
+    }
+    sbuf.append(messagePattern.substring(i, messagePattern.length()));
+    segments[anchorCount] = sbuf.toString();
+
+    String[] finalSegments = new String[anchorCount + 1];
+    System.arraycopy(segments, 0, finalSegments, 0, anchorCount + 1);
+    int[] finalTailIndexes = new int[anchorCount];
+    System.arraycopy(tailIndexes, 0, finalTailIndexes, 0, anchorCount);
+    return new MessageTemplate(messagePattern, finalSegments, finalTailIndexes);
+  }
+}
@@ -35,6 +35,7 @@ package org.slf4j.helpers;
 
 import org.slf4j.Logger;
 import org.slf4j.helpers.MarkerIgnoringBase;
+import org.slf4j.spi.PrimitiveArgLogger;
 
 
 /**
@@ -42,7 +43,8 @@ import org.slf4j.helpers.MarkerIgnoringBase;
  *
  * @author Ceki G&uuml;lc&uuml;
  */
-public class NOPLogger extends MarkerIgnoringBase {
+public class NOPLogger extends MarkerIgnoringBase implements
+    PrimitiveArgLogger {
 
   private static final long serialVersionUID = -517220405410904473L;
 
@@ -235,4 +237,129 @@ public class NOPLogger extends MarkerIgnoringBase {
   final public void error(String msg, Throwable t) {
     // NOP
   }
+
+  /** A NOP implementation. */
+  final public void trace(String format, long arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void trace(String format, double arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void trace(String format, boolean arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void trace(String format, long arg1, long arg2) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void trace(String format, Object arg1, long arg2) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void debug(String format, long arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void debug(String format, double arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void debug(String format, boolean arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void debug(String format, long arg1, long arg2) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void debug(String format, Object arg1, long arg2) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void info(String format, long arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void info(String format, double arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void info(String format, boolean arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void info(String format, long arg1, long arg2) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void info(String format, Object arg1, long arg2) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void warn(String format, long arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void warn(String format, double arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void warn(String format, boolean arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void warn(String format, long arg1, long arg2) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void warn(String format, Object arg1, long arg2) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void error(String format, long arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void error(String format, double arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void error(String format, boolean arg) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void error(String format, long arg1, long arg2) {
+    // NOP
+  }
+
+  /** A NOP implementation. */
+  final public void error(String format, Object arg1, long arg2) {
+    // NOP
+  }
 }
@@ -41,7 +41,8 @@ import org.slf4j.Logger;
 
 /**
  * SubstituteLoggerFactory is an trivial implementation of {@link
- * ILoggerFactory} which always returns the unique instance of NOPLogger.
+ * ILoggerFactory} which returns {@link SubstituteLogger} instances, discarding
+ * events until they are resolved.
  * 
  * <p>
  * It used as a temporary substitute for the real ILoggerFactory during its
@@ -54,14 +55,44 @@ public class SubstituteLoggerFactory implements ILoggerFactory {
 
   // keep a record of requested logger names
   final List loggerNameList = new ArrayList();
+  // the following fields are guarded by 'loggerNameList'
+  final List loggers = new ArrayList();
+  ILoggerFactory resolvedFactory;
 
   public Logger getLogger(String name) {
-    loggerNameList.add(name);
-    return NOPLogger.NOP_LOGGER;
+    synchronized (loggerNameList) {
+      if (resolvedFactory != null) {
+        // requested by a thread which gave up waiting for the initialization
+        return resolvedFactory.getLogger(name);
+      }
+      loggerNameList.add(name);
+      SubstituteLogger logger = new SubstituteLogger(name);
+      loggers.add(logger);
+      return logger;
+    }
   }
 
   public List getLoggerNameList() {
-    return loggerNameList;
+    List copy = new ArrayList();
+    synchronized (loggerNameList) {
+      copy.addAll(loggerNameList);
+    }
+    return copy;
+  }
+
+  /**
+   * Make the loggers returned so far delegate to the loggers of the same name
+   * returned by 'loggerFactory', which also serves later requests.
+   */
+  public void resolve(ILoggerFactory loggerFactory) {
+    synchronized (loggerNameList) {
+      resolvedFactory = loggerFactory;
+      for (int i = 0; i < loggers.size(); i++) {
+        SubstituteLogger logger = (SubstituteLogger) loggers.get(i);
+        logger.resolve(loggerFactory.getLogger(logger.getName()));
+      }
+      loggers.clear();
+    }
   }
 
 }
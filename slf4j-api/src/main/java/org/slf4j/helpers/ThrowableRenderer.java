@@ -0,0 +1,415 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.helpers;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders stack traces in the format of {@link Throwable#printStackTrace()},
+ * caching the rendered frames of each distinct trace. Bindings and bridges
+ * writing stack traces as text use this class, as the same exception tends to
+ * be logged many times over, e.g. while a resource is unavailable.
+ * 
+ * <p>
+ * A trace is identified by the class names and stack frames of a throwable
+ * and of its causes. The first time a trace is rendered, its frames are
+ * formatted, each frame itself being cached, and kept. Later renderings of
+ * the same trace only format the <code>toString()</code> representation of
+ * the throwables, their messages being likely to differ.
+ * 
+ * <p>
+ * Optionally, repeats of a trace can be abbreviated to a single line
+ * referring to its first rendering, e.g. (wrapped here)
+ * 
+ * <pre>
+ * java.io.IOException: Connection refused [stack trace #1a2b3c4d]
+ *   at ...
+ * java.io.IOException: Connection refused [same stack trace as #1a2b3c4d,
+ *   seen 517 times]
+ * </pre>
+ * 
+ * <p>
+ * Throwables with suppressed exceptions or circular causes are printed by
+ * <code>printStackTrace</code> itself, uncached. Throwables overriding
+ * <code>printStackTrace</code> are rendered as any other.
+ * 
+ * <p>
+ * As this class is part of slf4j-api, which runs on JDK 1.3, the methods of
+ * {@link Throwable} introduced in JDK 1.4 are called reflectively. On JDK 1.3,
+ * stack traces are printed by <code>printStackTrace</code>, uncached.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+public class ThrowableRenderer {
+
+  public static final int DEFAULT_MAX_CACHED_TRACES = 1000;
+  public static final int DEFAULT_MAX_CACHED_FRAMES = 10000;
+
+  private static final String LINE_SEPARATOR = getLineSeparator();
+
+  // Throwable.getCause() and getStackTrace(), introduced in JDK 1.4
+  private static final Method GET_CAUSE = getThrowableMethod("getCause");
+  private static final Method GET_STACK_TRACE = getThrowableMethod(
+      "getStackTrace");
+  // Throwable.getSuppressed(), introduced in JDK 1.7
+  private static final Method GET_SUPPRESSED = getThrowableMethod(
+      "getSuppressed");
+
+  /**
+   * The class names and stack frames of a throwable and of its causes. Frames
+   * are StackTraceElement instances.
+   */
+  private static final class TraceKey {
+    final String[] classNames;
+    final Object[][] stacks;
+    final int hash;
+
+    TraceKey(String[] classNames, Object[][] stacks) {
+      this.classNames = classNames;
+      this.stacks = stacks;
+      int h = 0;
+      for (int i = 0; i < classNames.length; i++) {
+        h = 31 * h + classNames[i].hashCode();
+        Object[] stack = stacks[i];
+        for (int j = 0; j < stack.length; j++) {
+          h = 31 * h + stack[j].hashCode();
+        }
+      }
+      hash = h;
+    }
+
+    public int hashCode() {
+      return hash;
+    }
+
+    public boolean equals(Object o) {
+      if (!(o instanceof TraceKey)) {
+        return false;
+      }
+      TraceKey other = (TraceKey) o;
+      if (hash != other.hash || classNames.length != other.classNames.length) {
+        return false;
+      }
+      for (int i = 0; i < classNames.length; i++) {
+        if (!classNames[i].equals(other.classNames[i])) {
+          return false;
+        }
+        Object[] stack = stacks[i];
+        Object[] otherStack = other.stacks[i];
+        if (stack.length != otherStack.length) {
+          return false;
+        }
+        for (int j = 0; j < stack.length; j++) {
+          if (!stack[j].equals(otherStack[j])) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+  }
+
+  private static final class Trace {
+    final String id;
+    // the rendered frames of the throwable and of each cause
+    final String[] frames;
+    int count;
+
+    Trace(String id, String[] frames) {
+      this.id = id;
+      this.frames = frames;
+    }
+  }
+
+  private final boolean abbreviateRepeats;
+  // the following caches are guarded by 'this'
+  private final LruCache traces;
+  private final LruCache frames;
+
+  /**
+   * @param abbreviateRepeats
+   *          whether repeats of a trace should be rendered as a reference to
+   *          its first rendering
+   */
+  public ThrowableRenderer(boolean abbreviateRepeats) {
+    this(abbreviateRepeats, DEFAULT_MAX_CACHED_TRACES,
+        DEFAULT_MAX_CACHED_FRAMES);
+  }
+
+  /**
+   * @param abbreviateRepeats
+   *          whether repeats of a trace should be rendered as a reference to
+   *          its first rendering
+   * @param maxCachedTraces
+   *          the number of distinct traces kept, the least recently rendered
+   *          being evicted first. An evicted trace is rendered in full again.
+   * @param maxCachedFrames
+   *          the number of distinct frames kept
+   */
+  public ThrowableRenderer(boolean abbreviateRepeats, int maxCachedTraces,
+      int maxCachedFrames) {
+    this.abbreviateRepeats = abbreviateRepeats;
+    this.traces = new LruCache(maxCachedTraces);
+    this.frames = new LruCache(maxCachedFrames);
+  }
+
+  /**
+   * Append the stack trace of 't' to 'buf', each line being followed by the
+   * line separator.
+   */
+  public void render(StringBuffer buf, Throwable t) {
+    Throwable[] chain = getChain(t);
+    if (chain == null) {
+      printStackTrace(buf, t);
+      return;
+    }
+    String[] classNames = new String[chain.length];
+    Object[][] stacks = new Object[chain.length][];
+    for (int i = 0; i < chain.length; i++) {
+      classNames[i] = chain[i].getClass().getName();
+      stacks[i] = (Object[]) invoke(GET_STACK_TRACE, chain[i]);
+      if (stacks[i] == null) {
+        printStackTrace(buf, t);
+        return;
+      }
+    }
+    TraceKey key = new TraceKey(classNames, stacks);
+    Trace trace;
+    int count;
+    synchronized (this) {
+      trace = (Trace) traces.get(key);
+      if (trace == null) {
+        trace = new Trace(Integer.toHexString(key.hash), renderFrames(stacks));
+        traces.put(key, trace);
+      }
+      count = ++trace.count;
+    }
+
+    buf.append(chain[0].toString());
+    if (abbreviateRepeats) {
+      if (count > 1) {
+        buf.append(" [same stack trace as #").append(trace.id);
+        buf.append(", seen ").append(count).append(" times]");
+        buf.append(LINE_SEPARATOR);
+        return;
+      }
+      buf.append(" [stack trace #").append(trace.id).append(']');
+    }
+    buf.append(LINE_SEPARATOR);
+    buf.append(trace.frames[0]);
+    for (int i = 1; i < chain.length; i++) {
+      buf.append("Caused by: ").append(chain[i].toString());
+      buf.append(LINE_SEPARATOR);
+      buf.append(trace.frames[i]);
+    }
+  }
+
+  private static void printStackTrace(StringBuffer buf, Throwable t) {
+    StringWriter stackTrace = new StringWriter();
+    t.printStackTrace(new PrintWriter(stackTrace));
+    buf.append(stackTrace.toString());
+  }
+
+  /**
+   * Return 't' followed by its causes, or null if 't' should be printed by
+   * <code>printStackTrace</code>.
+   */
+  private static Throwable[] getChain(Throwable t) {
+    if (GET_STACK_TRACE == null) {
+      return null;
+    }
+    List chain = new ArrayList(4);
+    for (Throwable cause = t; cause != null; cause = (Throwable) invoke(
+        GET_CAUSE, cause)) {
+      for (int i = 0; i < chain.size(); i++) {
+        if (chain.get(i) == cause) {
+          // circular causes
+          return null;
+        }
+      }
+      if (hasSuppressed(cause)) {
+        return null;
+      }
+      chain.add(cause);
+    }
+    return (Throwable[]) chain.toArray(new Throwable[chain.size()]);
+  }
+
+  private static boolean hasSuppressed(Throwable t) {
+    Object[] suppressed = (Object[]) invoke(GET_SUPPRESSED, t);
+    return suppressed != null && suppressed.length > 0;
+  }
+
+  /**
+   * Call a method of {@link Throwable} without arguments, returning null if
+   * the method is not available or fails.
+   */
+  private static Object invoke(Method method, Throwable t) {
+    if (method == null) {
+      return null;
+    }
+    try {
+      return method.invoke(t, (Object[]) null);
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  /**
+   * Render the frames of each throwable of a chain. As done by
+   * <code>printStackTrace</code>, the frames a cause has in common with the
+   * throwable it caused are elided.
+   */
+  private String[] renderFrames(Object[][] stacks) {
+    String[] rendered = new String[stacks.length];
+    StringBuffer buf = new StringBuffer(1024);
+    for (int i = 0; i < stacks.length; i++) {
+      Object[] stack = stacks[i];
+      int last = stack.length - 1;
+      if (i > 0) {
+        Object[] enclosing = stacks[i - 1];
+        int j = enclosing.length - 1;
+        while (last >= 0 && j >= 0 && stack[last].equals(enclosing[j])) {
+          last--;
+          j--;
+        }
+      }
+      buf.setLength(0);
+      for (int j = 0; j <= last; j++) {
+        buf.append(renderFrame(stack[j]));
+      }
+      int framesInCommon = stack.length - 1 - last;
+      if (framesInCommon != 0) {
+        buf.append("\t... ").append(framesInCommon).append(" more");
+        buf.append(LINE_SEPARATOR);
+      }
+      rendered[i] = buf.toString();
+    }
+    return rendered;
+  }
+
+  // called with the lock held
+  private String renderFrame(Object frame) {
+    String rendered = (String) frames.get(frame);
+    if (rendered == null) {
+      rendered = "\tat " + frame + LINE_SEPARATOR;
+      frames.put(frame, rendered);
+    }
+    return rendered;
+  }
+
+  private static String getLineSeparator() {
+    try {
+      String separator = System.getProperty("line.separator");
+      if (separator != null) {
+        return separator;
+      }
+    } catch (SecurityException e) {
+      // use the default
+    }
+    return "\n";
+  }
+
+  private static Method getThrowableMethod(String name) {
+    try {
+      return Throwable.class.getMethod(name, (Class[]) null);
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  /**
+   * A map of bounded size evicting its least recently used entry, as
+   * LinkedHashMap is not available on JDK 1.3.
+   */
+  private static final class LruCache {
+
+    private static final class Entry {
+      final Object key;
+      final Object value;
+      Entry previous;
+      Entry next;
+
+      Entry(Object key, Object value) {
+        this.key = key;
+        this.value = value;
+      }
+    }
+
+    private final int maxSize;
+    private final Map entries = new HashMap();
+    // the sentinel of a circular list, from the least to the most recently
+    // used entry
+    private final Entry head = new Entry(null, null);
+
+    LruCache(int maxSize) {
+      this.maxSize = maxSize;
+      head.previous = head;
+      head.next = head;
+    }
+
+    Object get(Object key) {
+      Entry entry = (Entry) entries.get(key);
+      if (entry == null) {
+        return null;
+      }
+      unlink(entry);
+      linkLast(entry);
+      return entry.value;
+    }
+
+    void put(Object key, Object value) {
+      Entry entry = new Entry(key, value);
+      Entry previous = (Entry) entries.put(key, entry);
+      if (previous != null) {
+        unlink(previous);
+      }
+      linkLast(entry);
+      if (entries.size() > maxSize) {
+        Entry eldest = head.next;
+        unlink(eldest);
+        entries.remove(eldest.key);
+      }
+    }
+
+    private void linkLast(Entry entry) {
+      entry.previous = head.previous;
+      entry.next = head;
+      head.previous.next = entry;
+      head.previous = entry;
+    }
+
+    private static void unlink(Entry entry) {
+      entry.previous.next = entry.next;
+      entry.next.previous = entry.previous;
+    }
+  }
+}
@@ -0,0 +1,350 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.spi;
+
+import org.slf4j.Logger;
+
+/**
+ * An <b>optional</b> interface for loggers accepting arguments of primitive
+ * type. Calling, for example, <code>logger.debug("latency={} bytes={}",
+ * nanos, size)</code> through the {@link Logger} interface boxes both values
+ * into {@link Long} instances even if the DEBUG level is disabled. The methods
+ * of this interface take primitive values as is and render them without any
+ * wrapper objects.
+ * 
+ * <p>
+ * Values of type <code>int</code>, <code>short</code> and <code>byte</code>
+ * are widened to <code>long</code> by the compiler, and <code>float</code>
+ * values to <code>double</code>. Note that <code>char</code> values are also
+ * widened, and thus rendered as numbers; wrap them in a {@link Character} if
+ * that is not what you want.
+ * 
+ * <pre>
+ * Logger logger = LoggerFactory.getLogger(Wombat.class);
+ * if (logger instanceof PrimitiveArgLogger) {
+ *   ((PrimitiveArgLogger) logger).debug(&quot;latency={} bytes={}&quot;, nanos, size);
+ * }
+ * </pre>
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+public interface PrimitiveArgLogger extends Logger {
+
+  /**
+   * Log a message at the TRACE level according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void trace(String format, long arg);
+
+  /**
+   * Log a message at the TRACE level according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void trace(String format, double arg);
+
+  /**
+   * Log a message at the TRACE level according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void trace(String format, boolean arg);
+
+  /**
+   * Log a message at the TRACE level according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg1
+   *          the first argument
+   * @param arg2
+   *          the second argument
+   */
+  public void trace(String format, long arg1, long arg2);
+
+  /**
+   * Log a message at the TRACE level according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg1
+   *          the first argument
+   * @param arg2
+   *          the second argument
+   */
+  public void trace(String format, Object arg1, long arg2);
+
+  /**
+   * Log a message at the DEBUG level according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void debug(String format, long arg);
+
+  /**
+   * Log a message at the DEBUG level according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void debug(String format, double arg);
+
+  /**
+   * Log a message at the DEBUG level according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void debug(String format, boolean arg);
+
+  /**
+   * Log a message at the DEBUG level according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg1
+   *          the first argument
+   * @param arg2
+   *          the second argument
+   */
+  public void debug(String format, long arg1, long arg2);
+
+  /**
+   * Log a message at the DEBUG level according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg1
+   *          the first argument
+   * @param arg2
+   *          the second argument
+   */
+  public void debug(String format, Object arg1, long arg2);
+
+  /**
+   * Log a message at the INFO level according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void info(String format, long arg);
+
+  /**
+   * Log a message at the INFO level according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void info(String format, double arg);
+
+  /**
+   * Log a message at the INFO level according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void info(String format, boolean arg);
+
+  /**
+   * Log a message at the INFO level according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg1
+   *          the first argument
+   * @param arg2
+   *          the second argument
+   */
+  public void info(String format, long arg1, long arg2);
+
+  /**
+   * Log a message at the INFO level according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg1
+   *          the first argument
+   * @param arg2
+   *          the second argument
+   */
+  public void info(String format, Object arg1, long arg2);
+
+  /**
+   * Log a message at the WARN level according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void warn(String format, long arg);
+
+  /**
+   * Log a message at the WARN level according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void warn(String format, double arg);
+
+  /**
+   * Log a message at the WARN level according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void warn(String format, boolean arg);
+
+  /**
+   * Log a message at the WARN level according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg1
+   *          the first argument
+   * @param arg2
+   *          the second argument
+   */
+  public void warn(String format, long arg1, long arg2);
+
+  /**
+   * Log a message at the WARN level according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg1
+   *          the first argument
+   * @param arg2
+   *          the second argument
+   */
+  public void warn(String format, Object arg1, long arg2);
+
+  /**
+   * Log a message at the ERROR level according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void error(String format, long arg);
+
+  /**
+   * Log a message at the ERROR level according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void error(String format, double arg);
+
+  /**
+   * Log a message at the ERROR level according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg
+   *          the argument
+   */
+  public void error(String format, boolean arg);
+
+  /**
+   * Log a message at the ERROR level according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg1
+   *          the first argument
+   * @param arg2
+   *          the second argument
+   */
+  public void error(String format, long arg1, long arg2);
+
+  /**
+   * Log a message at the ERROR level according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   * 
+   * @param format
+   *          the format string
+   * @param arg1
+   *          the first argument
+   * @param arg2
+   *          the second argument
+   */
+  public void error(String format, Object arg1, long arg2);
+}
@@ -28,6 +28,7 @@ import java.util.Iterator;
 
 import junit.framework.TestCase;
 
+import org.slf4j.helpers.BasicMarker;
 import org.slf4j.helpers.BasicMarkerFactory;
 
 /**
@@ -192,5 +193,86 @@ public class BasicMarkerTest extends TestCase {
     
     assertTrue(parent.remove(otherChild));
   }
+
+  public void testModifiedHomonymIsSeen() {
+    final String diffPrefix = "modifiedHomonym" + diff;
+    Marker parent = factory.getMarker(diffPrefix + PARENT_MARKER_STR);
+    Marker child = factory.getMarker(diffPrefix + CHILD_MARKER_STR);
+    Marker middle = factory.getMarker(diffPrefix + "MIDDLE");
+    Marker otherChild = factory.getDetachedMarker(diffPrefix
+        + CHILD_MARKER_STR);
+    parent.add(child);
+    parent.add(middle);
+    middle.add(otherChild);
+    Marker notContained = factory.getMarker(diffPrefix
+        + NOT_CONTAINED_MARKER_STR);
+    assertFalse(parent.contains(notContained));
+
+    // the homonym is a distinct marker, whose modifications are visible
+    otherChild.add(notContained);
+    assertTrue(parent.contains(notContained));
+    assertTrue(parent.contains(notContained.getName()));
+  }
   
+
+  public void testDeepHierarchy() {
+    final String diffPrefix = "deep" + diff;
+    Marker root = factory.getMarker(diffPrefix + "0");
+    Marker parent = root;
+    for (int i = 1; i < 20; i++) {
+      Marker child = factory.getMarker(diffPrefix + i);
+      parent.add(child);
+      parent = child;
+    }
+    Marker leaf = parent;
+    assertTrue(root.contains(diffPrefix + "19"));
+    assertFalse(root.contains(NOT_CONTAINED_MARKER_STR));
+
+    // modifying the leaf is visible from the root
+    Marker notContained = factory.getMarker(diffPrefix
+        + NOT_CONTAINED_MARKER_STR);
+    leaf.add(notContained);
+    assertTrue(root.contains(notContained));
+    assertTrue(leaf.remove(notContained));
+    assertFalse(root.contains(notContained));
+    assertFalse(root.contains(notContained.getName()));
+  }
+
+  public void testIteratorIsASnapshot() {
+    final String diffPrefix = "snapshot" + diff;
+    Marker parent = factory.getMarker(diffPrefix + PARENT_MARKER_STR);
+    Marker child = factory.getMarker(diffPrefix + CHILD_MARKER_STR);
+    parent.add(child);
+    Iterator it = parent.iterator();
+    assertTrue(parent.remove(child));
+    assertTrue(it.hasNext());
+    assertEquals(child, it.next());
+    assertFalse(parent.hasReferences());
+  }
+
+  public void testIds() {
+    IMarkerFactory idFactory = new BasicMarkerFactory();
+    BasicMarker a = (BasicMarker) idFactory.getMarker("a");
+    BasicMarker b = (BasicMarker) idFactory.getMarker("b");
+    BasicMarker c = (BasicMarker) idFactory.getMarker("c");
+    assertEquals(0, a.getId());
+    assertEquals(1, b.getId());
+    assertEquals(2, c.getId());
+    assertSame(b, idFactory.getMarker("b"));
+
+    a.add(b);
+    b.add(c);
+    assertTrue(a.containsId(a.getId()));
+    assertTrue(a.containsId(c.getId()));
+    assertFalse(c.containsId(a.getId()));
+    assertFalse(a.containsId(BasicMarker.DETACHED_ID));
+
+    BasicMarker detached = (BasicMarker) idFactory.getDetachedMarker("d");
+    assertEquals(BasicMarker.DETACHED_ID, detached.getId());
+
+    assertTrue(idFactory.detachMarker("b"));
+    assertFalse(idFactory.exists("b"));
+    // IDs are not reused
+    assertEquals(3, ((BasicMarker) idFactory.getMarker("b")).getId());
+  }
 }
@@ -0,0 +1,137 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.helpers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ * Compares the heap footprint and the throughput of {@link CompactContextMap}
+ * with those of {@link HashMap} for typical MDC contexts.
+ */
+public class CompactContextMapPerfTest extends TestCase {
+
+  static final int MAP_COUNT = 20 * 1000;
+  static final int RUN_LENGTH = 1000 * 1000;
+  static final String[] KEYS = { "requestId", "user", "sessionId", "host",
+      "path", "tenant" };
+
+  public CompactContextMapPerfTest(String name) {
+    super(name);
+  }
+
+  interface MapMaker {
+    Map make();
+  }
+
+  static final MapMaker HASH_MAP_MAKER = new MapMaker() {
+    public Map make() {
+      return new HashMap();
+    }
+  };
+
+  static final MapMaker COMPACT_MAP_MAKER = new MapMaker() {
+    public Map make() {
+      return new CompactContextMap();
+    }
+  };
+
+  public void testFootprint() {
+    for (int keyCount = 2; keyCount <= 6; keyCount += 2) {
+      long hashMapBytes = footprint(HASH_MAP_MAKER, keyCount);
+      long compactBytes = footprint(COMPACT_MAP_MAKER, keyCount);
+      System.out.println(keyCount + " keys: HashMap " + hashMapBytes
+          + " bytes, CompactContextMap " + compactBytes + " bytes");
+    }
+  }
+
+  public void testThroughput() {
+    putGet(HASH_MAP_MAKER, RUN_LENGTH);
+    putGet(COMPACT_MAP_MAKER, RUN_LENGTH);
+    double hashMapDuration = putGet(HASH_MAP_MAKER, RUN_LENGTH);
+    double compactDuration = putGet(COMPACT_MAP_MAKER, RUN_LENGTH);
+    System.out.println("4 puts and 4 gets, " + RUN_LENGTH + " times: HashMap "
+        + hashMapDuration + " millis, CompactContextMap " + compactDuration
+        + " millis");
+  }
+
+  // average number of bytes retained per map holding 'keyCount' keys, the
+  // keys and values themselves excluded
+  long footprint(MapMaker maker, int keyCount) {
+    String[] values = new String[keyCount];
+    for (int k = 0; k < keyCount; k++) {
+      values[k] = "value" + k;
+    }
+    Map[] maps = new Map[MAP_COUNT];
+    // let the heap settle
+    usedMemory();
+    long before = usedMemory();
+    for (int i = 0; i < MAP_COUNT; i++) {
+      maps[i] = maker.make();
+      for (int k = 0; k < keyCount; k++) {
+        maps[i].put(KEYS[k], values[k]);
+      }
+    }
+    long after = usedMemory();
+    assertEquals(keyCount, maps[MAP_COUNT - 1].size());
+    return (after - before) / MAP_COUNT;
+  }
+
+  static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        break;
+      }
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  double putGet(MapMaker maker, int len) {
+    Map map = maker.make();
+    int found = 0;
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      map.put(KEYS[0], "a");
+      map.put(KEYS[1], "b");
+      map.put(KEYS[2], "c");
+      map.put(KEYS[3], "d");
+      for (int k = 0; k < 4; k++) {
+        if (map.get(KEYS[k]) != null) {
+          found++;
+        }
+      }
+      map.remove(KEYS[3]);
+    }
+    long end = System.currentTimeMillis();
+    assertEquals(4 * len, found);
+    return (1.0 * end - start);
+  }
+}
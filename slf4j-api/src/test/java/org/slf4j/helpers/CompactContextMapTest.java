@@ -0,0 +1,138 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.helpers;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class CompactContextMapTest extends TestCase {
+
+  CompactContextMap map = new CompactContextMap();
+
+  public CompactContextMapTest(String name) {
+    super(name);
+  }
+
+  public void testPutGetRemove() {
+    assertTrue(map.isEmpty());
+    assertNull(map.put("a", "1"));
+    assertNull(map.put("b", null));
+    assertEquals("1", map.put("a", "2"));
+    assertEquals("2", map.get("a"));
+    assertNull(map.get("b"));
+    assertTrue(map.containsKey("b"));
+    assertFalse(map.containsKey("c"));
+    assertEquals(2, map.size());
+    assertEquals("2", map.remove("a"));
+    assertNull(map.remove("a"));
+    assertEquals(1, map.size());
+  }
+
+  public void testNonInternedKeys() {
+    map.put(new String("key"), "v");
+    assertEquals("v", map.get("key"));
+    assertEquals("v", map.get(new String("key")));
+  }
+
+  // behaves like a HashMap under a random mix of operations, including ones
+  // growing the map past MAX_FLAT_SIZE
+  public void testAgainstHashMap() {
+    Map reference = new HashMap();
+    MyRandom random = new MyRandom(100);
+    for (int i = 0; i < 100000; i++) {
+      if (i % 1000 == 0) {
+        map = new CompactContextMap();
+        reference.clear();
+      }
+      int bound = (i % 3000 < 2000) ? CompactContextMap.MAX_FLAT_SIZE + 1 : 12;
+      String key = "k" + (Math.abs(random.nextInt()) % bound);
+      switch (Math.abs(random.nextInt()) % 3) {
+      case 0:
+        assertEquals(reference.put(key, "v" + i), map.put(key, "v" + i));
+        break;
+      case 1:
+        assertEquals(reference.remove(key), map.remove(key));
+        break;
+      default:
+        assertEquals(reference.get(key), map.get(key));
+      }
+      assertEquals(reference.size(), map.size());
+    }
+    assertEquals(reference, map);
+    assertEquals(map, reference);
+    assertEquals(reference.hashCode(), map.hashCode());
+  }
+
+  public void testSwitchToHashMap() {
+    for (int i = 0; i < 20; i++) {
+      map.put("k" + i, "v" + i);
+    }
+    assertEquals(20, map.size());
+    for (int i = 0; i < 20; i++) {
+      assertEquals("v" + i, map.get("k" + i));
+    }
+    map.clear();
+    assertEquals(0, map.size());
+    map.put("a", "1");
+    assertEquals("1", map.get("a"));
+  }
+
+  public void testIteratorRemove() {
+    map.put("a", "1");
+    map.put("b", "2");
+    map.put("c", "3");
+    Iterator it = map.entrySet().iterator();
+    int seen = 0;
+    while (it.hasNext()) {
+      Map.Entry entry = (Map.Entry) it.next();
+      seen++;
+      if (!entry.getKey().equals("b")) {
+        it.remove();
+      }
+    }
+    assertEquals(3, seen);
+    assertEquals(1, map.size());
+    assertEquals("2", map.get("b"));
+    assertEquals(new HashMap(map), map);
+  }
+
+  public void testCompactBasicMDCAdapter() {
+    BasicMDCAdapter mdca = new BasicMDCAdapter(false, true);
+    mdca.put("k", "v");
+    assertEquals("v", mdca.get("k"));
+    Map copy = mdca.getCopyOfContextMap();
+    assertEquals(1, copy.size());
+    Map context = new HashMap();
+    context.put("x", "y");
+    mdca.setContextMap(context);
+    assertNull(mdca.get("k"));
+    assertEquals("y", mdca.get("x"));
+    mdca.clear();
+    assertNull(mdca.getKeys());
+  }
+}
@@ -0,0 +1,129 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.helpers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ * Compares lookups in a {@link ConcurrentRegistry} with lookups in a
+ * synchronized map, as performed by logger factories, when many threads
+ * resolve loggers concurrently.
+ */
+public class ConcurrentRegistryPerfTest extends TestCase {
+
+  static final int THREAD_COUNT = 64;
+  static final int NAME_COUNT = 10 * 1000;
+  static final int ROUNDS = 5;
+
+  static final String[] NAMES = new String[NAME_COUNT];
+  static {
+    for (int i = 0; i < NAME_COUNT; i++) {
+      NAMES[i] = "org.slf4j.perf.Component" + i;
+    }
+  }
+
+  public ConcurrentRegistryPerfTest(String name) {
+    super(name);
+  }
+
+  interface Resolver {
+    Object resolve(String name);
+  }
+
+  static class SynchronizedMapResolver implements Resolver {
+    final Map map = new HashMap();
+
+    public synchronized Object resolve(String name) {
+      Object value = map.get(name);
+      if (value == null) {
+        value = new Object();
+        map.put(name, value);
+      }
+      return value;
+    }
+  }
+
+  static class RegistryResolver implements Resolver {
+    final ConcurrentRegistry registry = new ConcurrentRegistry();
+    final ConcurrentRegistry.Creator creator = new ConcurrentRegistry.Creator() {
+      public Object create(String name) {
+        return new Object();
+      }
+    };
+
+    public Object resolve(String name) {
+      return registry.getOrCreate(name, creator);
+    }
+  }
+
+  public void testConcurrentLookups() throws InterruptedException {
+    // warm up
+    resolveConcurrently(new SynchronizedMapResolver());
+    resolveConcurrently(new RegistryResolver());
+
+    double mapDuration = resolveConcurrently(new SynchronizedMapResolver());
+    RegistryResolver registryResolver = new RegistryResolver();
+    double registryDuration = resolveConcurrently(registryResolver);
+    System.out.println(THREAD_COUNT + " threads resolving " + NAME_COUNT
+        + " names: synchronized map " + mapDuration
+        + " millis, registry " + registryDuration + " millis");
+    assertEquals(NAME_COUNT, registryResolver.registry.size());
+  }
+
+  // each thread resolves every name ROUNDS times, starting at a different
+  // offset so that threads both create and look up names
+  double resolveConcurrently(final Resolver resolver)
+      throws InterruptedException {
+    final Object[] failure = new Object[1];
+    Thread[] threads = new Thread[THREAD_COUNT];
+    for (int t = 0; t < THREAD_COUNT; t++) {
+      final int offset = t * (NAME_COUNT / THREAD_COUNT);
+      threads[t] = new Thread() {
+        public void run() {
+          for (int r = 0; r < ROUNDS; r++) {
+            for (int i = 0; i < NAME_COUNT; i++) {
+              if (resolver.resolve(NAMES[(offset + i) % NAME_COUNT]) == null) {
+                failure[0] = NAMES[(offset + i) % NAME_COUNT];
+              }
+            }
+          }
+        }
+      };
+    }
+    long start = System.currentTimeMillis();
+    for (int t = 0; t < THREAD_COUNT; t++) {
+      threads[t].start();
+    }
+    for (int t = 0; t < THREAD_COUNT; t++) {
+      threads[t].join();
+    }
+    long end = System.currentTimeMillis();
+    assertNull(failure[0]);
+    return (1.0 * end - start);
+  }
+}
@@ -0,0 +1,172 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.helpers;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class ConcurrentRegistryTest extends TestCase {
+
+  static final int THREAD_COUNT = 8;
+  static final int NAME_COUNT = 1000;
+
+  ConcurrentRegistry registry = new ConcurrentRegistry(4);
+
+  public ConcurrentRegistryTest(String name) {
+    super(name);
+  }
+
+  public void testPutIfAbsent() {
+    assertNull(registry.get("a"));
+    assertNull(registry.putIfAbsent("a", "A"));
+    assertEquals("A", registry.putIfAbsent("a", "other"));
+    assertEquals("A", registry.get("a"));
+    assertEquals(1, registry.size());
+  }
+
+  public void testResize() {
+    for (int i = 0; i < NAME_COUNT; i++) {
+      registry.putIfAbsent("name" + i, new Integer(i));
+    }
+    assertEquals(NAME_COUNT, registry.size());
+    for (int i = 0; i < NAME_COUNT; i++) {
+      assertEquals(new Integer(i), registry.get("name" + i));
+    }
+    registry.clear();
+    assertEquals(0, registry.size());
+    assertNull(registry.get("name0"));
+  }
+
+  public void testRemove() {
+    for (int i = 0; i < 10; i++) {
+      registry.putIfAbsent("name" + i, new Integer(i));
+    }
+    assertEquals(new Integer(3), registry.remove("name3"));
+    assertNull(registry.remove("name3"));
+    assertNull(registry.get("name3"));
+    assertEquals(9, registry.size());
+    for (int i = 0; i < 10; i++) {
+      if (i != 3) {
+        assertEquals(new Integer(i), registry.get("name" + i));
+      }
+    }
+    assertNull(registry.putIfAbsent("name3", "again"));
+    assertEquals("again", registry.get("name3"));
+  }
+
+  public void testValues() {
+    for (int i = 0; i < 100; i++) {
+      registry.putIfAbsent("name" + i, new Integer(i));
+    }
+    registry.remove("name42");
+    List values = registry.values();
+    assertEquals(99, values.size());
+    assertFalse(values.contains(new Integer(42)));
+    assertTrue(values.contains(new Integer(99)));
+  }
+
+  public void testGetOrCreate() {
+    final int[] creations = new int[1];
+    ConcurrentRegistry.Creator creator = new ConcurrentRegistry.Creator() {
+      public Object create(String name) {
+        creations[0]++;
+        return name.toUpperCase();
+      }
+    };
+    assertEquals("A", registry.getOrCreate("a", creator));
+    assertEquals("A", registry.getOrCreate("a", creator));
+    assertEquals("B", registry.getOrCreate("b", creator));
+    assertEquals(2, creations[0]);
+    assertEquals(2, registry.size());
+  }
+
+  public void testReentrantCreation() {
+    ConcurrentRegistry.Creator creator = new ConcurrentRegistry.Creator() {
+      public Object create(String name) {
+        // registers the same name while being created
+        registry.putIfAbsent(name, "first");
+        return "second";
+      }
+    };
+    assertEquals("first", registry.getOrCreate("a", creator));
+    assertEquals("first", registry.get("a"));
+    assertEquals(1, registry.size());
+  }
+
+  public void testWeakValues() {
+    ConcurrentRegistry weakRegistry = new ConcurrentRegistry(4, true);
+    Object retained = new Object();
+    weakRegistry.putIfAbsent("retained", retained);
+    for (int i = 0; i < NAME_COUNT; i++) {
+      weakRegistry.putIfAbsent("name" + i, new Object());
+    }
+    for (int i = 0; i < 10 && weakRegistry.size() > 1; i++) {
+      System.gc();
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        break;
+      }
+    }
+    assertEquals(1, weakRegistry.size());
+    assertSame(retained, weakRegistry.get("retained"));
+    assertNull(weakRegistry.get("name0"));
+    // a collected name can be registered anew
+    Object replacement = new Object();
+    assertNull(weakRegistry.putIfAbsent("name0", replacement));
+    assertSame(replacement, weakRegistry.get("name0"));
+  }
+
+  public void testConcurrentRegistration() throws InterruptedException {
+    final Object[][] results = new Object[THREAD_COUNT][NAME_COUNT];
+    Thread[] threads = new Thread[THREAD_COUNT];
+    for (int t = 0; t < THREAD_COUNT; t++) {
+      final int threadIndex = t;
+      threads[t] = new Thread() {
+        public void run() {
+          for (int i = 0; i < NAME_COUNT; i++) {
+            String name = "name" + i;
+            Object value = new Object();
+            Object existing = registry.putIfAbsent(name, value);
+            results[threadIndex][i] = (existing == null) ? value : existing;
+          }
+        }
+      };
+      threads[t].start();
+    }
+    for (int t = 0; t < THREAD_COUNT; t++) {
+      threads[t].join();
+    }
+    assertEquals(NAME_COUNT, registry.size());
+    // all threads must agree on the registered instance
+    for (int i = 0; i < NAME_COUNT; i++) {
+      Object expected = registry.get("name" + i);
+      for (int t = 0; t < THREAD_COUNT; t++) {
+        assertSame(expected, results[t][i]);
+      }
+    }
+  }
+}
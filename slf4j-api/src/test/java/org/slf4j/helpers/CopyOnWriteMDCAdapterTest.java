@@ -0,0 +1,140 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.helpers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class CopyOnWriteMDCAdapterTest extends TestCase {
+
+  CopyOnWriteMDCAdapter mdca = new CopyOnWriteMDCAdapter();
+
+  public CopyOnWriteMDCAdapterTest(String name) {
+    super(name);
+  }
+
+  protected void tearDown() throws Exception {
+    mdca.clear();
+    super.tearDown();
+  }
+
+  public void testPutGetRemove() {
+    assertNull(mdca.get("k"));
+    assertNull(mdca.getCopyOfContextMap());
+    assertNull(mdca.getContextSnapshot());
+    mdca.put("k", "v");
+    mdca.put("n", null);
+    assertEquals("v", mdca.get("k"));
+    assertNull(mdca.get("n"));
+    assertEquals(2, mdca.getKeys().size());
+    mdca.remove("k");
+    assertNull(mdca.get("k"));
+    assertEquals(1, mdca.getKeys().size());
+    mdca.remove("n");
+    assertNull(mdca.getKeys());
+  }
+
+  public void testSnapshotIsSharedAndImmutable() {
+    mdca.put("k", "v");
+    Map snapshot = mdca.getContextSnapshot();
+    // taking a snapshot does not copy
+    assertSame(snapshot, mdca.getContextSnapshot());
+
+    mdca.put("k", "w");
+    mdca.put("k2", "v2");
+    assertEquals(1, snapshot.size());
+    assertEquals("v", snapshot.get("k"));
+    assertNotSame(snapshot, mdca.getContextSnapshot());
+
+    try {
+      snapshot.put("k", "x");
+      fail("snapshots should be read-only");
+    } catch (UnsupportedOperationException e) {
+    }
+  }
+
+  public void testCopyOfContextMapIsModifiable() {
+    mdca.put("k", "v");
+    Map copy = mdca.getCopyOfContextMap();
+    assertNotSame(copy, mdca.getContextSnapshot());
+    assertEquals(mdca.getContextSnapshot(), copy);
+    copy.put("k2", "v2");
+    assertNull(mdca.get("k2"));
+    mdca.setContextMap(copy);
+    assertEquals("v2", mdca.get("k2"));
+  }
+
+  public void testSetContextMap() {
+    Map map = new HashMap();
+    map.put("k", "v");
+    mdca.setContextMap(map);
+    map.put("k", "changed");
+    assertEquals("v", mdca.get("k"));
+  }
+
+  public void testSetContextMapAdoptsSnapshots() {
+    mdca.put("k", "v");
+    Map snapshot = mdca.getContextSnapshot();
+    mdca.clear();
+    mdca.setContextMap(snapshot);
+    assertSame(snapshot, mdca.getContextSnapshot());
+    assertEquals("v", mdca.get("k"));
+  }
+
+  public void testChildThreadInheritsContext() throws InterruptedException {
+    mdca.put("k", "v");
+    final String[] seen = new String[2];
+    Thread child = new Thread() {
+      public void run() {
+        seen[0] = mdca.get("k");
+        mdca.put("k", "child");
+      }
+    };
+    child.start();
+    child.join();
+    seen[1] = mdca.get("k");
+    assertEquals("v", seen[0]);
+    // changes made by the child are not visible to the parent
+    assertEquals("v", seen[1]);
+  }
+
+  public void testInheritanceCanBeTurnedOff() throws InterruptedException {
+    final CopyOnWriteMDCAdapter nonInheritable = new CopyOnWriteMDCAdapter(
+        false);
+    nonInheritable.put("k", "v");
+    final String[] seen = new String[] { "not run" };
+    Thread child = new Thread() {
+      public void run() {
+        seen[0] = nonInheritable.get("k");
+      }
+    };
+    child.start();
+    child.join();
+    assertNull(seen[0]);
+    nonInheritable.clear();
+  }
+}
@@ -33,6 +33,42 @@ public class MessageFormatterPerfTest extends TestCase {
     BogoPerf.assertDuration(duration, referencePerf, REFERENCE_BIPS);
   }
 
+  public void testPrimitiveArgPerf() {
+    boxedAppendTo(RUN_LENGTH);
+    primitiveAppendTo(RUN_LENGTH);
+    double boxedDuration = boxedAppendTo(RUN_LENGTH);
+    double primitiveDuration = primitiveAppendTo(RUN_LENGTH);
+    System.out.println("boxed duration = " + boxedDuration
+        + " millis, primitive duration = " + primitiveDuration + " millis");
+    long referencePerf = 140;
+    BogoPerf.assertDuration(primitiveDuration, referencePerf, REFERENCE_BIPS);
+  }
+
+  // two Long instances are created per call
+  public double boxedAppendTo(long len) {
+    StringBuffer sbuf = new StringBuffer(128);
+    long start = System.currentTimeMillis();
+    for (long i = 0; i < len; i++) {
+      sbuf.setLength(0);
+      MessageFormatter.appendTo(sbuf, "latency={} bytes={}", new Long(
+          i * 1000), new Long(i));
+    }
+    long end = System.currentTimeMillis();
+    return (1.0 * end - start);
+  }
+
+  // no objects are created per call
+  public double primitiveAppendTo(long len) {
+    StringBuffer sbuf = new StringBuffer(128);
+    long start = System.currentTimeMillis();
+    for (long i = 0; i < len; i++) {
+      sbuf.setLength(0);
+      MessageFormatter.appendTo(sbuf, "latency={} bytes={}", i * 1000, i);
+    }
+    long end = System.currentTimeMillis();
+    return (1.0 * end - start);
+  }
+
   public double slf4jMessageFormatter(long len) {
     String s = ""; 
     s += ""; // keep compiler happy
@@ -283,4 +283,117 @@ public class MessageFormatterTest extends TestCase {
       assertEquals("1[2, [3, [1, [...]]]]", MessageFormatter.arrayFormat("{}{}", a));
     }
   }
+
+  public void testEscapesAfterLastSubstitutedAnchor() {
+    // once arguments run out, the remainder of the pattern is left untouched
+    result = MessageFormatter.format("{} and \\{} and {}", i1);
+    assertEquals("1 and \\{} and {}", result);
+
+    result = MessageFormatter.format("{} and \\{}", i1, i2);
+    assertEquals("1 and {}", result);
+
+    result = MessageFormatter.format("a \\{} b", i1);
+    assertEquals("a {} b", result);
+  }
+
+  public void testTemplateCache() {
+    String pattern = "Cached {} pattern {}";
+    MessageTemplate t0 = MessageFormatter.getTemplate(pattern);
+    assertEquals(2, t0.getAnchorCount());
+    assertSame(t0, MessageFormatter.getTemplate(new String(pattern)));
+
+    result = MessageFormatter.format(pattern, i1, i2);
+    assertEquals("Cached 1 pattern 2", result);
+    result = MessageFormatter.format(pattern, i3);
+    assertEquals("Cached 3 pattern {}", result);
+  }
+
+  public void testAppendTo() {
+    StringBuffer sbuf = new StringBuffer("prefix ");
+    MessageFormatter.appendTo(sbuf, "Value is {}.", i3);
+    assertEquals("prefix Value is 3.", sbuf.toString());
+
+    sbuf.setLength(0);
+    MessageFormatter.appendTo(sbuf, "Value {} is smaller than {}.", i1, i2);
+    assertEquals("Value 1 is smaller than 2.", sbuf.toString());
+
+    sbuf.setLength(0);
+    MessageFormatter.arrayAppendTo(sbuf, "{}{}{}", ia0);
+    assertEquals("123", sbuf.toString());
+
+    sbuf.setLength(0);
+    MessageFormatter.arrayAppendTo(sbuf, "Val1={}, Val2={", null);
+    assertEquals("Val1={}, Val2={", sbuf.toString());
+
+    sbuf.setLength(0);
+    MessageFormatter.appendTo(sbuf, null, i1);
+    assertEquals("null", sbuf.toString());
+
+    sbuf.setLength(0);
+    MessageFormatter.appendTo(sbuf, "{} and {}", new Object[] { ia0, ia1 });
+    assertEquals("[[1, 2, 3], [10, 20, 30]] and {}", sbuf.toString());
+  }
+
+  public void testPrimitiveAppendTo() {
+    StringBuffer sbuf = new StringBuffer();
+    MessageFormatter.appendTo(sbuf, "Value is {}.", 3);
+    assertEquals("Value is 3.", sbuf.toString());
+
+    sbuf.setLength(0);
+    MessageFormatter.appendTo(sbuf, "Value is {}.", 1.5);
+    assertEquals("Value is 1.5.", sbuf.toString());
+
+    sbuf.setLength(0);
+    MessageFormatter.appendTo(sbuf, "Value is {}.", true);
+    assertEquals("Value is true.", sbuf.toString());
+
+    sbuf.setLength(0);
+    MessageFormatter.appendTo(sbuf, "latency={} bytes={}", 10L, 2048L);
+    assertEquals("latency=10 bytes=2048", sbuf.toString());
+
+    sbuf.setLength(0);
+    MessageFormatter.appendTo(sbuf, "user={} bytes={}", "alice", 2048L);
+    assertEquals("user=alice bytes=2048", sbuf.toString());
+
+    sbuf.setLength(0);
+    MessageFormatter.appendTo(sbuf, "{} only, {} and \\{}", 10L, 20L);
+    assertEquals("10 only, 20 and \\{}", sbuf.toString());
+
+    sbuf.setLength(0);
+    MessageFormatter.appendTo(sbuf, "No subst", 10L, 20L);
+    assertEquals("No subst", sbuf.toString());
+  }
+
+  public void testLazyArgument() {
+    final int[] evaluationCount = new int[1];
+    LazyArgument lazy = new LazyArgument() {
+      public Object evaluate() {
+        evaluationCount[0]++;
+        return ia0;
+      }
+    };
+
+    result = MessageFormatter.format("No subst", lazy);
+    assertEquals("No subst", result);
+    assertEquals(0, evaluationCount[0]);
+
+    result = MessageFormatter.format("Value is {}.", lazy);
+    assertEquals("Value is [1, 2, 3].", result);
+    assertEquals(1, evaluationCount[0]);
+
+    result = MessageFormatter.arrayFormat("{} {}", new Object[] { i1,
+        new Object[] { lazy } });
+    assertEquals("1 [[1, 2, 3]]", result);
+    assertEquals(2, evaluationCount[0]);
+  }
+
+  public void testExceptionInLazyArgument() {
+    LazyArgument lazy = new LazyArgument() {
+      public Object evaluate() {
+        throw new IllegalStateException("a");
+      }
+    };
+    result = MessageFormatter.format("Troublesome argument {}", lazy);
+    assertEquals("Troublesome argument [FAILED evaluate()]", result);
+  }
 }
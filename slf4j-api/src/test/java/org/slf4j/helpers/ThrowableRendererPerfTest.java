@@ -0,0 +1,84 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.helpers;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import junit.framework.TestCase;
+
+/**
+ * Compares the time taken to render a recurring stack trace with
+ * {@link Throwable#printStackTrace()} and with {@link ThrowableRenderer}.
+ */
+public class ThrowableRendererPerfTest extends TestCase {
+
+  static final int RUN_LENGTH = 20 * 1000;
+
+  public ThrowableRendererPerfTest(String name) {
+    super(name);
+  }
+
+  Exception newException(int depth) {
+    if (depth > 0) {
+      return newException(depth - 1);
+    }
+    return new RuntimeException("failure", new Exception("cause"));
+  }
+
+  public void testRenderingTime() {
+    Exception e = newException(30);
+    ThrowableRenderer renderer = new ThrowableRenderer(false);
+    ThrowableRenderer abbreviatingRenderer = new ThrowableRenderer(true);
+    printStackTraceLoop(e, RUN_LENGTH);
+    rendererLoop(renderer, e, RUN_LENGTH);
+    rendererLoop(abbreviatingRenderer, e, RUN_LENGTH);
+    double printDuration = printStackTraceLoop(e, RUN_LENGTH);
+    double renderDuration = rendererLoop(renderer, e, RUN_LENGTH);
+    double abbreviatedDuration = rendererLoop(abbreviatingRenderer, e,
+        RUN_LENGTH);
+    System.out.println(RUN_LENGTH + " stack traces: printStackTrace "
+        + printDuration + " millis, ThrowableRenderer " + renderDuration
+        + " millis, abbreviated " + abbreviatedDuration + " millis");
+  }
+
+  double printStackTraceLoop(Throwable t, int len) {
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      StringWriter sw = new StringWriter();
+      t.printStackTrace(new PrintWriter(sw));
+    }
+    return System.currentTimeMillis() - start;
+  }
+
+  double rendererLoop(ThrowableRenderer renderer, Throwable t, int len) {
+    StringBuffer buf = new StringBuffer();
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      buf.setLength(0);
+      renderer.render(buf, t);
+    }
+    return System.currentTimeMillis() - start;
+  }
+}
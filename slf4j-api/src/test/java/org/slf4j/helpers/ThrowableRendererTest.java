@@ -0,0 +1,146 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.helpers;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import junit.framework.TestCase;
+
+public class ThrowableRendererTest extends TestCase {
+
+  static final String SEP = System.getProperty("line.separator");
+
+  public ThrowableRendererTest(String name) {
+    super(name);
+  }
+
+  static String printStackTrace(Throwable t) {
+    StringWriter sw = new StringWriter();
+    t.printStackTrace(new PrintWriter(sw));
+    return sw.toString();
+  }
+
+  static String render(ThrowableRenderer renderer, Throwable t) {
+    StringBuffer buf = new StringBuffer();
+    renderer.render(buf, t);
+    return buf.toString();
+  }
+
+  Exception newException(String message) {
+    return new Exception(message);
+  }
+
+  Exception newWrappedException(String message) {
+    try {
+      throw newException("root " + message);
+    } catch (Exception e) {
+      return new RuntimeException(message, new IllegalStateException(
+          "middle", e));
+    }
+  }
+
+  public void testSameAsPrintStackTrace() {
+    ThrowableRenderer renderer = new ThrowableRenderer(false);
+    Exception e = newException("simple");
+    assertEquals(printStackTrace(e), render(renderer, e));
+    assertEquals(printStackTrace(e), render(renderer, e));
+  }
+
+  public void testCausesSameAsPrintStackTrace() {
+    ThrowableRenderer renderer = new ThrowableRenderer(false);
+    Exception e = newWrappedException("wrapped");
+    String expected = printStackTrace(e);
+    assertTrue(expected, expected.indexOf("... ") > 0);
+    assertEquals(expected, render(renderer, e));
+    assertEquals(expected, render(renderer, e));
+  }
+
+  public void testCachedTraceWithNewMessages() {
+    ThrowableRenderer renderer = new ThrowableRenderer(false);
+    for (int i = 0; i < 3; i++) {
+      Exception e = newWrappedException("message " + i);
+      assertEquals(printStackTrace(e), render(renderer, e));
+    }
+  }
+
+  public void testAbbreviatedRepeats() {
+    ThrowableRenderer renderer = new ThrowableRenderer(true);
+    Exception[] exceptions = new Exception[3];
+    for (int i = 0; i < exceptions.length; i++) {
+      // same stack trace for each exception
+      exceptions[i] = newException("failure " + i);
+    }
+    String first = render(renderer, exceptions[0]);
+    int idStart = first.indexOf(" [stack trace #");
+    assertEquals("java.lang.Exception: failure 0", first.substring(0, idStart));
+    String id = first.substring(idStart + 15, first.indexOf(']'));
+    assertEquals(printStackTrace(exceptions[0]), first.substring(0, idStart)
+        + first.substring(first.indexOf(']') + 1));
+
+    assertEquals("java.lang.Exception: failure 1 [same stack trace as #" + id
+        + ", seen 2 times]" + SEP, render(renderer, exceptions[1]));
+    assertEquals("java.lang.Exception: failure 2 [same stack trace as #" + id
+        + ", seen 3 times]" + SEP, render(renderer, exceptions[2]));
+  }
+
+  public void testDistinctTraces() {
+    ThrowableRenderer renderer = new ThrowableRenderer(true);
+    Exception e1 = newException("first");
+    Exception e2 = newWrappedException("second");
+    assertTrue(render(renderer, e1).indexOf("[stack trace #") > 0);
+    assertTrue(render(renderer, e2).indexOf("[stack trace #") > 0);
+    assertTrue(render(renderer, e1).indexOf("[same stack trace as #") > 0);
+  }
+
+  public void testEvictedTraceRenderedInFull() {
+    ThrowableRenderer renderer = new ThrowableRenderer(true, 1, 100);
+    Exception e1 = newException("first");
+    Exception e2 = newWrappedException("second");
+    render(renderer, e1);
+    render(renderer, e2);
+    assertTrue(render(renderer, e1).indexOf("[stack trace #") > 0);
+  }
+
+  public void testLeastRecentlyRenderedTraceIsEvicted() {
+    ThrowableRenderer renderer = new ThrowableRenderer(true, 2, 100);
+    Exception e1 = newException("first");
+    Exception e2 = newWrappedException("second");
+    Exception e3 = new Exception("third");
+    render(renderer, e1);
+    render(renderer, e2);
+    render(renderer, e1);
+    render(renderer, e3);
+    assertTrue(render(renderer, e1).indexOf("[same stack trace as #") > 0);
+    assertTrue(render(renderer, e2).indexOf("[stack trace #") > 0);
+  }
+
+  public void testCircularCauses() {
+    ThrowableRenderer renderer = new ThrowableRenderer(true);
+    Exception e1 = new Exception("first");
+    Exception e2 = new Exception("second", e1);
+    e1.initCause(e2);
+    assertEquals(printStackTrace(e2), render(renderer, e2));
+  }
+}
@@ -0,0 +1,325 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.ext;
+
+import java.util.Iterator;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import org.slf4j.spi.LocationAwareLogger;
+
+/**
+ * Limits the rate of log events per call pattern, so that a failing
+ * dependency cannot flood the log with the same message.
+ * 
+ * <p>
+ * Events are grouped by logger name, level and message pattern, the pattern
+ * being the format string of parameterized messages and the message itself
+ * otherwise. Each group is given a token bucket allowing a sustained rate of
+ * events and bursts of a given size. Events in excess are dropped and
+ * counted, and a {@link SummaryHandler} is told at regular intervals how many
+ * events of each group were dropped.
+ * 
+ * <p>
+ * Deciding whether an event may pass takes no lock. The bucket is a single
+ * {@link AtomicLong} updated by compare-and-set, following the generic cell
+ * rate algorithm, and is only written to when an event passes. Dropped events
+ * are counted in striped counters, so that threads hitting the same bucket
+ * during a storm do not contend on a single memory location.
+ * 
+ * <p>
+ * To keep memory bounded, at most {@value #MAX_PATTERNS} patterns are tracked
+ * individually. Beyond that, e.g. when messages are built by concatenation,
+ * events share one bucket per logger and level. Buckets which saw no event for
+ * several summary intervals are discarded.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+public class LogStormSuppressor {
+
+  /**
+   * Receives the number of events dropped by the suppressor.
+   */
+  public interface SummaryHandler {
+    /**
+     * Called from the suppressor's timer thread for each group of events with
+     * dropped events since the previous call.
+     * 
+     * @param level
+     *          one of the level constants of {@link LocationAwareLogger}
+     * @param pattern
+     *          the message pattern of the group, null for the group shared by
+     *          the events of untracked patterns
+     */
+    void suppressed(String loggerName, int level, String pattern, long count);
+  }
+
+  static final int MAX_PATTERNS = 10000;
+
+  // number of summary intervals a bucket may remain idle before removal
+  private static final int IDLE_INTERVALS = 10;
+
+  private static final int LEVEL_COUNT = LocationAwareLogger.ERROR_INT / 10 + 1;
+
+  private static final int STRIPES;
+  static {
+    int stripes = 1;
+    while (stripes < Runtime.getRuntime().availableProcessors()
+        && stripes < 64) {
+      stripes <<= 1;
+    }
+    STRIPES = stripes;
+  }
+  // counters are spaced by a cache line to avoid false sharing
+  private static final int PADDING = 8;
+
+  /**
+   * A count of dropped events, spread over several cells.
+   */
+  static final class StripedCounter {
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES
+        * PADDING);
+
+    void increment() {
+      int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+      cells.incrementAndGet(stripe * PADDING);
+    }
+
+    long getAndReset() {
+      long sum = 0;
+      for (int i = 0; i < STRIPES; i++) {
+        sum += cells.getAndSet(i * PADDING, 0);
+      }
+      return sum;
+    }
+  }
+
+  /**
+   * The token bucket of a group of events.
+   */
+  final class Bucket {
+    final String loggerName;
+    final int level;
+    final String pattern;
+    // theoretical arrival time of the next event, in nanoseconds
+    final AtomicLong arrivalTime;
+    // created upon the first dropped event
+    volatile StripedCounter dropped;
+
+    Bucket(String loggerName, int level, String pattern) {
+      this.loggerName = loggerName;
+      this.level = level;
+      this.pattern = pattern;
+      this.arrivalTime = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    boolean permit() {
+      long now = System.nanoTime();
+      while (true) {
+        long tat = arrivalTime.get();
+        long base = Math.max(tat, now);
+        if (base - burstNanos > now) {
+          StripedCounter counter = dropped;
+          if (counter == null) {
+            droppedUpdater.compareAndSet(this, null, new StripedCounter());
+            counter = dropped;
+          }
+          counter.increment();
+          return false;
+        }
+        if (arrivalTime.compareAndSet(tat, base + intervalNanos)) {
+          return true;
+        }
+      }
+    }
+
+    boolean isIdle(long now) {
+      return arrivalTime.get() < now - idleNanos;
+    }
+  }
+
+  private static final AtomicReferenceFieldUpdater<Bucket, StripedCounter> droppedUpdater = AtomicReferenceFieldUpdater
+      .newUpdater(Bucket.class, StripedCounter.class, "dropped");
+
+  /**
+   * The buckets of one logger, by level and pattern.
+   */
+  final class LoggerBuckets {
+    final String loggerName;
+    final ConcurrentMap<String, Bucket>[] byLevel;
+    // shared by the patterns which are not tracked individually
+    final Bucket[] overflow = new Bucket[LEVEL_COUNT];
+
+    @SuppressWarnings("unchecked")
+    LoggerBuckets(String loggerName) {
+      this.loggerName = loggerName;
+      this.byLevel = new ConcurrentMap[LEVEL_COUNT];
+      for (int i = 0; i < LEVEL_COUNT; i++) {
+        byLevel[i] = new ConcurrentHashMap<String, Bucket>(4);
+        overflow[i] = new Bucket(loggerName, i * 10, null);
+      }
+    }
+
+    /**
+     * Return whether an event of the given level and pattern may be logged.
+     */
+    boolean permit(int level, String pattern) {
+      int index = level / 10;
+      if (pattern == null) {
+        return overflow[index].permit();
+      }
+      ConcurrentMap<String, Bucket> buckets = byLevel[index];
+      Bucket bucket = buckets.get(pattern);
+      if (bucket == null) {
+        if (patternCount.get() >= MAX_PATTERNS) {
+          return overflow[index].permit();
+        }
+        Bucket newBucket = new Bucket(loggerName, level, pattern);
+        bucket = buckets.putIfAbsent(pattern, newBucket);
+        if (bucket == null) {
+          patternCount.incrementAndGet();
+          bucket = newBucket;
+        }
+      }
+      return bucket.permit();
+    }
+  }
+
+  private final long intervalNanos;
+  private final long burstNanos;
+  private final long idleNanos;
+  private final SummaryHandler handler;
+  private final ConcurrentMap<String, LoggerBuckets> loggers = new ConcurrentHashMap<String, LoggerBuckets>();
+  private final AtomicInteger patternCount = new AtomicInteger();
+  private final Timer timer;
+
+  /**
+   * @param eventsPerSecond
+   *          the sustained rate of events allowed per group
+   * @param burst
+   *          the number of events of a group which may be logged in a row
+   * @param summaryIntervalMillis
+   *          how often 'handler' is told about dropped events
+   * @param handler
+   *          receives the number of dropped events
+   */
+  public LogStormSuppressor(double eventsPerSecond, int burst,
+      long summaryIntervalMillis, SummaryHandler handler) {
+    if (eventsPerSecond <= 0 || burst < 1 || summaryIntervalMillis <= 0) {
+      throw new IllegalArgumentException("Invalid rate [" + eventsPerSecond
+          + "/s], burst [" + burst + "] or summary interval ["
+          + summaryIntervalMillis + " ms]");
+    }
+    this.intervalNanos = (long) (1000000000L / eventsPerSecond);
+    // 'burst' events may arrive at once before the next one is dropped
+    this.burstNanos = intervalNanos * (burst - 1);
+    this.idleNanos = burstNanos + intervalNanos + summaryIntervalMillis
+        * 1000000L * IDLE_INTERVALS;
+    this.handler = handler;
+    this.timer = new Timer("LogStormSuppressor", true);
+    timer.schedule(new TimerTask() {
+      public void run() {
+        summarize();
+      }
+    }, summaryIntervalMillis, summaryIntervalMillis);
+  }
+
+  /**
+   * Return whether an event may be logged.
+   * 
+   * @param level
+   *          one of the level constants of {@link LocationAwareLogger}
+   * @param pattern
+   *          the message pattern, may be null
+   */
+  public boolean permit(String loggerName, int level, String pattern) {
+    return bucketsFor(loggerName).permit(level, pattern);
+  }
+
+  LoggerBuckets bucketsFor(String loggerName) {
+    LoggerBuckets buckets = loggers.get(loggerName);
+    if (buckets == null) {
+      LoggerBuckets newBuckets = new LoggerBuckets(loggerName);
+      buckets = loggers.putIfAbsent(loggerName, newBuckets);
+      if (buckets == null) {
+        buckets = newBuckets;
+      }
+    }
+    return buckets;
+  }
+
+  /**
+   * Report dropped events to the summary handler and discard idle buckets.
+   */
+  void summarize() {
+    long now = System.nanoTime();
+    for (LoggerBuckets buckets : loggers.values()) {
+      for (int i = 0; i < LEVEL_COUNT; i++) {
+        report(buckets.overflow[i]);
+        Iterator<Bucket> it = buckets.byLevel[i].values().iterator();
+        while (it.hasNext()) {
+          Bucket bucket = it.next();
+          report(bucket);
+          if (bucket.isIdle(now)) {
+            it.remove();
+            patternCount.decrementAndGet();
+            // events dropped since the report above, if any
+            report(bucket);
+          }
+        }
+      }
+    }
+  }
+
+  private void report(Bucket bucket) {
+    StripedCounter counter = bucket.dropped;
+    if (counter == null) {
+      return;
+    }
+    long count = counter.getAndReset();
+    if (count > 0) {
+      try {
+        handler.suppressed(bucket.loggerName, bucket.level, bucket.pattern,
+            count);
+      } catch (RuntimeException e) {
+        // keep the timer alive
+      }
+    }
+  }
+
+  /**
+   * Report the remaining dropped events and stop the summary timer.
+   */
+  public void stop() {
+    timer.cancel();
+    summarize();
+  }
+}
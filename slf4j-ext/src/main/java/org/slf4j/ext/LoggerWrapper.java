@@ -2,6 +2,7 @@ package org.slf4j.ext;
 
 import org.slf4j.Logger;
 import org.slf4j.Marker;
+import org.slf4j.helpers.LazyArgument;
 import org.slf4j.helpers.MessageFormatter;
 import org.slf4j.spi.LocationAwareLogger;
 
@@ -114,6 +115,22 @@ public class LoggerWrapper implements Logger {
     }
   }
 
+  /**
+   * Delegate to the appropriate method of the underlying logger. The argument
+   * is evaluated only if the TRACE level is enabled.
+   */
+  public void trace(String format, LazyArgument arg) {
+    trace(format, (Object) arg);
+  }
+
+  /**
+   * Delegate to the appropriate method of the underlying logger. The arguments
+   * are evaluated only if the TRACE level is enabled.
+   */
+  public void trace(String format, LazyArgument arg1, LazyArgument arg2) {
+    trace(format, (Object) arg1, (Object) arg2);
+  }
+
   /**
    * Delegate to the appropriate method of the underlying logger.
    */
@@ -279,6 +296,22 @@ public class LoggerWrapper implements Logger {
     }
   }
 
+  /**
+   * Delegate to the appropriate method of the underlying logger. The argument
+   * is evaluated only if the DEBUG level is enabled.
+   */
+  public void debug(String format, LazyArgument arg) {
+    debug(format, (Object) arg);
+  }
+
+  /**
+   * Delegate to the appropriate method of the underlying logger. The arguments
+   * are evaluated only if the DEBUG level is enabled.
+   */
+  public void debug(String format, LazyArgument arg1, LazyArgument arg2) {
+    debug(format, (Object) arg1, (Object) arg2);
+  }
+
   /**
    * Delegate to the appropriate method of the underlying logger.
    */
@@ -444,6 +477,22 @@ public class LoggerWrapper implements Logger {
     }
   }
 
+  /**
+   * Delegate to the appropriate method of the underlying logger. The argument
+   * is evaluated only if the INFO level is enabled.
+   */
+  public void info(String format, LazyArgument arg) {
+    info(format, (Object) arg);
+  }
+
+  /**
+   * Delegate to the appropriate method of the underlying logger. The arguments
+   * are evaluated only if the INFO level is enabled.
+   */
+  public void info(String format, LazyArgument arg1, LazyArgument arg2) {
+    info(format, (Object) arg1, (Object) arg2);
+  }
+
   /**
    * Delegate to the appropriate method of the underlying logger.
    */
@@ -606,6 +655,22 @@ public class LoggerWrapper implements Logger {
     }
   }
 
+  /**
+   * Delegate to the appropriate method of the underlying logger. The argument
+   * is evaluated only if the WARN level is enabled.
+   */
+  public void warn(String format, LazyArgument arg) {
+    warn(format, (Object) arg);
+  }
+
+  /**
+   * Delegate to the appropriate method of the underlying logger. The arguments
+   * are evaluated only if the WARN level is enabled.
+   */
+  public void warn(String format, LazyArgument arg1, LazyArgument arg2) {
+    warn(format, (Object) arg1, (Object) arg2);
+  }
+
   /**
    * Delegate to the appropriate method of the underlying logger.
    */
@@ -771,6 +836,22 @@ public class LoggerWrapper implements Logger {
     }
   }
 
+  /**
+   * Delegate to the appropriate method of the underlying logger. The argument
+   * is evaluated only if the ERROR level is enabled.
+   */
+  public void error(String format, LazyArgument arg) {
+    error(format, (Object) arg);
+  }
+
+  /**
+   * Delegate to the appropriate method of the underlying logger. The arguments
+   * are evaluated only if the ERROR level is enabled.
+   */
+  public void error(String format, LazyArgument arg1, LazyArgument arg2) {
+    error(format, (Object) arg1, (Object) arg2);
+  }
+
   /**
    * Delegate to the appropriate method of the underlying logger.
    */
@@ -0,0 +1,335 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.ext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.MDC;
+import org.slf4j.helpers.BasicMDCAdapter;
+import org.slf4j.helpers.CopyOnWriteMDCAdapter;
+import org.slf4j.spi.MDCAdapter;
+
+/**
+ * Decorators propagating the {@link MDC} context of the thread submitting a
+ * task to the thread executing it.
+ * 
+ * <p>
+ * A snapshot of the submitting thread's context is taken when a task is
+ * wrapped or submitted. The snapshot is installed in the executing thread for
+ * the duration of the task, after which the executing thread's previous
+ * context is restored. Thus, pooled threads see the context of whoever
+ * submitted their current task, which inheritance of the context at thread
+ * creation time cannot achieve.
+ * 
+ * <p>
+ * At most one snapshot is taken per task, and a single one for all the tasks
+ * submitted by one <code>invokeAll</code> or <code>invokeAny</code> call. The
+ * executing thread's previous context is only saved if it is not empty, as
+ * far as the MDC adapter in use can tell without copying it. With
+ * {@link CopyOnWriteMDCAdapter}, neither taking nor installing a snapshot
+ * copies the context at all.
+ * 
+ * <p>
+ * These decorators only rely on the {@link MDC} class and thus work with
+ * whatever MDC adapter the underlying binding provides.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+public class MDCExecutors {
+
+  private MDCExecutors() {
+  }
+
+  /**
+   * Return a runnable which runs 'task' with the current thread's MDC
+   * context.
+   */
+  public static Runnable wrap(Runnable task) {
+    return new MDCRunnable(task, snapshot());
+  }
+
+  /**
+   * Return a callable which calls 'task' with the current thread's MDC
+   * context.
+   */
+  public static <V> Callable<V> wrap(Callable<V> task) {
+    return new MDCCallable<V>(task, snapshot());
+  }
+
+  /**
+   * Return an executor running the tasks submitted to it through 'executor',
+   * each with the MDC context of the thread submitting it.
+   */
+  public static Executor wrap(Executor executor) {
+    return new MDCExecutor(executor);
+  }
+
+  /**
+   * Return an executor service running the tasks submitted to it through
+   * 'executorService', each with the MDC context of the thread submitting it.
+   */
+  public static ExecutorService wrap(ExecutorService executorService) {
+    return new MDCExecutorService(executorService);
+  }
+
+  /**
+   * Return a scheduled executor service running the tasks submitted to it
+   * through 'executorService', each with the MDC context of the thread
+   * submitting it. Periodic tasks run with the same context each time.
+   */
+  public static ScheduledExecutorService wrap(
+      ScheduledExecutorService executorService) {
+    return new MDCScheduledExecutorService(executorService);
+  }
+
+  /**
+   * Return the current thread's context, without copying it if the MDC
+   * adapter in use is a {@link CopyOnWriteMDCAdapter}.
+   */
+  static Map snapshot() {
+    MDCAdapter mdcAdapter = MDC.getMDCAdapter();
+    if (mdcAdapter instanceof CopyOnWriteMDCAdapter) {
+      return ((CopyOnWriteMDCAdapter) mdcAdapter).getContextSnapshot();
+    }
+    return MDC.getCopyOfContextMap();
+  }
+
+  /**
+   * Return whether the current thread's context is known to be empty, which
+   * can be told without copying it for the adapters of this module.
+   */
+  static boolean isContextEmpty() {
+    MDCAdapter mdcAdapter = MDC.getMDCAdapter();
+    if (mdcAdapter instanceof CopyOnWriteMDCAdapter) {
+      Map contextMap = ((CopyOnWriteMDCAdapter) mdcAdapter)
+          .getContextSnapshot();
+      return contextMap == null || contextMap.isEmpty();
+    }
+    if (mdcAdapter instanceof BasicMDCAdapter) {
+      Set keys = ((BasicMDCAdapter) mdcAdapter).getKeys();
+      return keys == null || keys.isEmpty();
+    }
+    return false;
+  }
+
+  /**
+   * Install 'contextMap' as the current thread's context, returning the
+   * previous context. An empty previous context, the usual case of pooled
+   * threads, is returned as null rather than saved.
+   */
+  static Map install(Map contextMap) {
+    Map previous = isContextEmpty() ? null : snapshot();
+    restore(contextMap);
+    return previous;
+  }
+
+  static void restore(Map contextMap) {
+    if (contextMap == null || contextMap.isEmpty()) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(contextMap);
+    }
+  }
+
+  static final class MDCRunnable implements Runnable {
+    final Runnable task;
+    final Map contextMap;
+
+    MDCRunnable(Runnable task, Map contextMap) {
+      if (task == null) {
+        throw new NullPointerException();
+      }
+      this.task = task;
+      this.contextMap = contextMap;
+    }
+
+    public void run() {
+      Map previous = install(contextMap);
+      try {
+        task.run();
+      } finally {
+        restore(previous);
+      }
+    }
+  }
+
+  static final class MDCCallable<V> implements Callable<V> {
+    final Callable<V> task;
+    final Map contextMap;
+
+    MDCCallable(Callable<V> task, Map contextMap) {
+      if (task == null) {
+        throw new NullPointerException();
+      }
+      this.task = task;
+      this.contextMap = contextMap;
+    }
+
+    public V call() throws Exception {
+      Map previous = install(contextMap);
+      try {
+        return task.call();
+      } finally {
+        restore(previous);
+      }
+    }
+  }
+
+  static class MDCExecutor implements Executor {
+    final Executor delegate;
+
+    MDCExecutor(Executor delegate) {
+      if (delegate == null) {
+        throw new NullPointerException();
+      }
+      this.delegate = delegate;
+    }
+
+    public void execute(Runnable command) {
+      delegate.execute(wrap(command));
+    }
+  }
+
+  static class MDCExecutorService extends MDCExecutor implements
+      ExecutorService {
+    final ExecutorService delegate;
+
+    MDCExecutorService(ExecutorService delegate) {
+      super(delegate);
+      this.delegate = delegate;
+    }
+
+    // all tasks of a batch share a single snapshot
+    static <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> tasks) {
+      Map contextMap = snapshot();
+      List<Callable<T>> wrapped = new ArrayList<Callable<T>>(tasks.size());
+      for (Callable<T> task : tasks) {
+        wrapped.add(new MDCCallable<T>(task, contextMap));
+      }
+      return wrapped;
+    }
+
+    public void shutdown() {
+      delegate.shutdown();
+    }
+
+    public List<Runnable> shutdownNow() {
+      return delegate.shutdownNow();
+    }
+
+    public boolean isShutdown() {
+      return delegate.isShutdown();
+    }
+
+    public boolean isTerminated() {
+      return delegate.isTerminated();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+      return delegate.awaitTermination(timeout, unit);
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+      return delegate.submit(wrap(task));
+    }
+
+    public <T> Future<T> submit(Runnable task, T result) {
+      return delegate.submit(wrap(task), result);
+    }
+
+    public Future<?> submit(Runnable task) {
+      return delegate.submit(wrap(task));
+    }
+
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks)
+        throws InterruptedException {
+      return delegate.invokeAll(wrapAll(tasks));
+    }
+
+    public <T> List<Future<T>> invokeAll(
+        Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+        throws InterruptedException {
+      return delegate.invokeAll(wrapAll(tasks), timeout, unit);
+    }
+
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+        throws InterruptedException, ExecutionException {
+      return delegate.invokeAny(wrapAll(tasks));
+    }
+
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks,
+        long timeout, TimeUnit unit) throws InterruptedException,
+        ExecutionException, TimeoutException {
+      return delegate.invokeAny(wrapAll(tasks), timeout, unit);
+    }
+  }
+
+  static final class MDCScheduledExecutorService extends MDCExecutorService
+      implements ScheduledExecutorService {
+    final ScheduledExecutorService delegate;
+
+    MDCScheduledExecutorService(ScheduledExecutorService delegate) {
+      super(delegate);
+      this.delegate = delegate;
+    }
+
+    public ScheduledFuture<?> schedule(Runnable command, long delay,
+        TimeUnit unit) {
+      return delegate.schedule(wrap(command), delay, unit);
+    }
+
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay,
+        TimeUnit unit) {
+      return delegate.schedule(wrap(callable), delay, unit);
+    }
+
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+        long initialDelay, long period, TimeUnit unit) {
+      return delegate.scheduleAtFixedRate(wrap(command), initialDelay, period,
+          unit);
+    }
+
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+        long initialDelay, long delay, TimeUnit unit) {
+      return delegate.scheduleWithFixedDelay(wrap(command), initialDelay,
+          delay, unit);
+    }
+  }
+}
@@ -0,0 +1,1155 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.ext;
+
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.helpers.LazyArgument;
+import org.slf4j.spi.LocationAwareLogger;
+import org.slf4j.spi.PrimitiveArgLogger;
+
+/**
+ * A logger dropping the events refused by a {@link LogStormSuppressor}, as
+ * returned by {@link SuppressingLoggerFactory}.
+ * 
+ * <p>
+ * Events are submitted to the suppressor only if their level is enabled, so
+ * that disabled events do not use up the rate allowed for their pattern.
+ * Disabled events are passed on to the underlying logger, which may still
+ * make use of them, as does the flight recorder of slf4j-simple. Disabled
+ * events with primitive arguments are passed on only to underlying loggers
+ * implementing {@link PrimitiveArgLogger}, so as not to box their arguments.
+ * 
+ * <p>
+ * Primitive arguments are passed as is to underlying loggers implementing
+ * {@link PrimitiveArgLogger}, unless they are location aware, in which case
+ * they are boxed once the event is known to be enabled and permitted.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+public class SuppressingLogger extends LoggerWrapper implements
+    PrimitiveArgLogger {
+
+  private final LogStormSuppressor.LoggerBuckets buckets;
+  // the underlying logger, if primitive arguments can be passed to it as is
+  private final PrimitiveArgLogger primitiveArgLogger;
+
+  SuppressingLogger(Logger logger, LogStormSuppressor suppressor) {
+    super(logger, SuppressingLogger.class.getName());
+    this.buckets = suppressor.bucketsFor(logger.getName());
+    // location aware loggers are given boxed arguments through LoggerWrapper,
+    // so that the location of the caller is preserved
+    if (logger instanceof PrimitiveArgLogger && !instanceofLAL) {
+      this.primitiveArgLogger = (PrimitiveArgLogger) logger;
+    } else {
+      this.primitiveArgLogger = null;
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(String msg) {
+    if (!logger.isTraceEnabled()) {
+      logger.trace(msg);
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, msg)) {
+      super.trace(msg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(String format, Object arg) {
+    if (!logger.isTraceEnabled()) {
+      logger.trace(format, arg);
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      super.trace(format, arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(String format, Object arg1, Object arg2) {
+    if (!logger.isTraceEnabled()) {
+      logger.trace(format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      super.trace(format, arg1, arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(String format, Object[] argArray) {
+    if (!logger.isTraceEnabled()) {
+      logger.trace(format, argArray);
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      super.trace(format, argArray);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(String format, LazyArgument arg) {
+    if (!logger.isTraceEnabled()) {
+      logger.trace(format, arg);
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      super.trace(format, (Object) arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(String format, LazyArgument arg1, LazyArgument arg2) {
+    if (!logger.isTraceEnabled()) {
+      logger.trace(format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      super.trace(format, (Object) arg1, (Object) arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(String msg, Throwable t) {
+    if (!logger.isTraceEnabled()) {
+      logger.trace(msg, t);
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, msg)) {
+      super.trace(msg, t);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(Marker marker, String msg) {
+    if (!logger.isTraceEnabled(marker)) {
+      logger.trace(marker, msg);
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, msg)) {
+      super.trace(marker, msg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(Marker marker, String format, Object arg) {
+    if (!logger.isTraceEnabled(marker)) {
+      logger.trace(marker, format, arg);
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      super.trace(marker, format, arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(Marker marker, String format, Object arg1, Object arg2) {
+    if (!logger.isTraceEnabled(marker)) {
+      logger.trace(marker, format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      super.trace(marker, format, arg1, arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(Marker marker, String format, Object[] argArray) {
+    if (!logger.isTraceEnabled(marker)) {
+      logger.trace(marker, format, argArray);
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      super.trace(marker, format, argArray);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(Marker marker, String msg, Throwable t) {
+    if (!logger.isTraceEnabled(marker)) {
+      logger.trace(marker, msg, t);
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, msg)) {
+      super.trace(marker, msg, t);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(String msg) {
+    if (!logger.isDebugEnabled()) {
+      logger.debug(msg);
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, msg)) {
+      super.debug(msg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(String format, Object arg) {
+    if (!logger.isDebugEnabled()) {
+      logger.debug(format, arg);
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      super.debug(format, arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(String format, Object arg1, Object arg2) {
+    if (!logger.isDebugEnabled()) {
+      logger.debug(format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      super.debug(format, arg1, arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(String format, Object[] argArray) {
+    if (!logger.isDebugEnabled()) {
+      logger.debug(format, argArray);
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      super.debug(format, argArray);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(String format, LazyArgument arg) {
+    if (!logger.isDebugEnabled()) {
+      logger.debug(format, arg);
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      super.debug(format, (Object) arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(String format, LazyArgument arg1, LazyArgument arg2) {
+    if (!logger.isDebugEnabled()) {
+      logger.debug(format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      super.debug(format, (Object) arg1, (Object) arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(String msg, Throwable t) {
+    if (!logger.isDebugEnabled()) {
+      logger.debug(msg, t);
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, msg)) {
+      super.debug(msg, t);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(Marker marker, String msg) {
+    if (!logger.isDebugEnabled(marker)) {
+      logger.debug(marker, msg);
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, msg)) {
+      super.debug(marker, msg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(Marker marker, String format, Object arg) {
+    if (!logger.isDebugEnabled(marker)) {
+      logger.debug(marker, format, arg);
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      super.debug(marker, format, arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(Marker marker, String format, Object arg1, Object arg2) {
+    if (!logger.isDebugEnabled(marker)) {
+      logger.debug(marker, format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      super.debug(marker, format, arg1, arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(Marker marker, String format, Object[] argArray) {
+    if (!logger.isDebugEnabled(marker)) {
+      logger.debug(marker, format, argArray);
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      super.debug(marker, format, argArray);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(Marker marker, String msg, Throwable t) {
+    if (!logger.isDebugEnabled(marker)) {
+      logger.debug(marker, msg, t);
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, msg)) {
+      super.debug(marker, msg, t);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(String msg) {
+    if (!logger.isInfoEnabled()) {
+      logger.info(msg);
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, msg)) {
+      super.info(msg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(String format, Object arg) {
+    if (!logger.isInfoEnabled()) {
+      logger.info(format, arg);
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      super.info(format, arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(String format, Object arg1, Object arg2) {
+    if (!logger.isInfoEnabled()) {
+      logger.info(format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      super.info(format, arg1, arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(String format, Object[] argArray) {
+    if (!logger.isInfoEnabled()) {
+      logger.info(format, argArray);
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      super.info(format, argArray);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(String format, LazyArgument arg) {
+    if (!logger.isInfoEnabled()) {
+      logger.info(format, arg);
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      super.info(format, (Object) arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(String format, LazyArgument arg1, LazyArgument arg2) {
+    if (!logger.isInfoEnabled()) {
+      logger.info(format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      super.info(format, (Object) arg1, (Object) arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(String msg, Throwable t) {
+    if (!logger.isInfoEnabled()) {
+      logger.info(msg, t);
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, msg)) {
+      super.info(msg, t);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(Marker marker, String msg) {
+    if (!logger.isInfoEnabled(marker)) {
+      logger.info(marker, msg);
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, msg)) {
+      super.info(marker, msg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(Marker marker, String format, Object arg) {
+    if (!logger.isInfoEnabled(marker)) {
+      logger.info(marker, format, arg);
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      super.info(marker, format, arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(Marker marker, String format, Object arg1, Object arg2) {
+    if (!logger.isInfoEnabled(marker)) {
+      logger.info(marker, format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      super.info(marker, format, arg1, arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(Marker marker, String format, Object[] argArray) {
+    if (!logger.isInfoEnabled(marker)) {
+      logger.info(marker, format, argArray);
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      super.info(marker, format, argArray);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(Marker marker, String msg, Throwable t) {
+    if (!logger.isInfoEnabled(marker)) {
+      logger.info(marker, msg, t);
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, msg)) {
+      super.info(marker, msg, t);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(String msg) {
+    if (!logger.isWarnEnabled()) {
+      logger.warn(msg);
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, msg)) {
+      super.warn(msg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(String format, Object arg) {
+    if (!logger.isWarnEnabled()) {
+      logger.warn(format, arg);
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      super.warn(format, arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(String format, Object arg1, Object arg2) {
+    if (!logger.isWarnEnabled()) {
+      logger.warn(format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      super.warn(format, arg1, arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(String format, Object[] argArray) {
+    if (!logger.isWarnEnabled()) {
+      logger.warn(format, argArray);
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      super.warn(format, argArray);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(String format, LazyArgument arg) {
+    if (!logger.isWarnEnabled()) {
+      logger.warn(format, arg);
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      super.warn(format, (Object) arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(String format, LazyArgument arg1, LazyArgument arg2) {
+    if (!logger.isWarnEnabled()) {
+      logger.warn(format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      super.warn(format, (Object) arg1, (Object) arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(String msg, Throwable t) {
+    if (!logger.isWarnEnabled()) {
+      logger.warn(msg, t);
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, msg)) {
+      super.warn(msg, t);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(Marker marker, String msg) {
+    if (!logger.isWarnEnabled(marker)) {
+      logger.warn(marker, msg);
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, msg)) {
+      super.warn(marker, msg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(Marker marker, String format, Object arg) {
+    if (!logger.isWarnEnabled(marker)) {
+      logger.warn(marker, format, arg);
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      super.warn(marker, format, arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(Marker marker, String format, Object arg1, Object arg2) {
+    if (!logger.isWarnEnabled(marker)) {
+      logger.warn(marker, format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      super.warn(marker, format, arg1, arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(Marker marker, String format, Object[] argArray) {
+    if (!logger.isWarnEnabled(marker)) {
+      logger.warn(marker, format, argArray);
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      super.warn(marker, format, argArray);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(Marker marker, String msg, Throwable t) {
+    if (!logger.isWarnEnabled(marker)) {
+      logger.warn(marker, msg, t);
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, msg)) {
+      super.warn(marker, msg, t);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(String msg) {
+    if (!logger.isErrorEnabled()) {
+      logger.error(msg);
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, msg)) {
+      super.error(msg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(String format, Object arg) {
+    if (!logger.isErrorEnabled()) {
+      logger.error(format, arg);
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      super.error(format, arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(String format, Object arg1, Object arg2) {
+    if (!logger.isErrorEnabled()) {
+      logger.error(format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      super.error(format, arg1, arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(String format, Object[] argArray) {
+    if (!logger.isErrorEnabled()) {
+      logger.error(format, argArray);
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      super.error(format, argArray);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(String format, LazyArgument arg) {
+    if (!logger.isErrorEnabled()) {
+      logger.error(format, arg);
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      super.error(format, (Object) arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(String format, LazyArgument arg1, LazyArgument arg2) {
+    if (!logger.isErrorEnabled()) {
+      logger.error(format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      super.error(format, (Object) arg1, (Object) arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(String msg, Throwable t) {
+    if (!logger.isErrorEnabled()) {
+      logger.error(msg, t);
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, msg)) {
+      super.error(msg, t);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(Marker marker, String msg) {
+    if (!logger.isErrorEnabled(marker)) {
+      logger.error(marker, msg);
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, msg)) {
+      super.error(marker, msg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(Marker marker, String format, Object arg) {
+    if (!logger.isErrorEnabled(marker)) {
+      logger.error(marker, format, arg);
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      super.error(marker, format, arg);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(Marker marker, String format, Object arg1, Object arg2) {
+    if (!logger.isErrorEnabled(marker)) {
+      logger.error(marker, format, arg1, arg2);
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      super.error(marker, format, arg1, arg2);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(Marker marker, String format, Object[] argArray) {
+    if (!logger.isErrorEnabled(marker)) {
+      logger.error(marker, format, argArray);
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      super.error(marker, format, argArray);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(Marker marker, String msg, Throwable t) {
+    if (!logger.isErrorEnabled(marker)) {
+      logger.error(marker, msg, t);
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, msg)) {
+      super.error(marker, msg, t);
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(String format, long arg) {
+    if (!logger.isTraceEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.trace(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.trace(format, arg);
+      } else {
+        super.trace(format, new Long(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(String format, double arg) {
+    if (!logger.isTraceEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.trace(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.trace(format, arg);
+      } else {
+        super.trace(format, new Double(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(String format, boolean arg) {
+    if (!logger.isTraceEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.trace(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.trace(format, arg);
+      } else {
+        super.trace(format, Boolean.valueOf(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(String format, long arg1, long arg2) {
+    if (!logger.isTraceEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.trace(format, arg1, arg2);
+      }
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.trace(format, arg1, arg2);
+      } else {
+        super.trace(format, new Long(arg1), new Long(arg2));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void trace(String format, Object arg1, long arg2) {
+    if (!logger.isTraceEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.trace(format, arg1, arg2);
+      }
+    } else if (buckets.permit(LocationAwareLogger.TRACE_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.trace(format, arg1, arg2);
+      } else {
+        super.trace(format, arg1, new Long(arg2));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(String format, long arg) {
+    if (!logger.isDebugEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.debug(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.debug(format, arg);
+      } else {
+        super.debug(format, new Long(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(String format, double arg) {
+    if (!logger.isDebugEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.debug(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.debug(format, arg);
+      } else {
+        super.debug(format, new Double(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(String format, boolean arg) {
+    if (!logger.isDebugEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.debug(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.debug(format, arg);
+      } else {
+        super.debug(format, Boolean.valueOf(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(String format, long arg1, long arg2) {
+    if (!logger.isDebugEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.debug(format, arg1, arg2);
+      }
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.debug(format, arg1, arg2);
+      } else {
+        super.debug(format, new Long(arg1), new Long(arg2));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void debug(String format, Object arg1, long arg2) {
+    if (!logger.isDebugEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.debug(format, arg1, arg2);
+      }
+    } else if (buckets.permit(LocationAwareLogger.DEBUG_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.debug(format, arg1, arg2);
+      } else {
+        super.debug(format, arg1, new Long(arg2));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(String format, long arg) {
+    if (!logger.isInfoEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.info(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.info(format, arg);
+      } else {
+        super.info(format, new Long(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(String format, double arg) {
+    if (!logger.isInfoEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.info(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.info(format, arg);
+      } else {
+        super.info(format, new Double(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(String format, boolean arg) {
+    if (!logger.isInfoEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.info(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.info(format, arg);
+      } else {
+        super.info(format, Boolean.valueOf(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(String format, long arg1, long arg2) {
+    if (!logger.isInfoEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.info(format, arg1, arg2);
+      }
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.info(format, arg1, arg2);
+      } else {
+        super.info(format, new Long(arg1), new Long(arg2));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void info(String format, Object arg1, long arg2) {
+    if (!logger.isInfoEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.info(format, arg1, arg2);
+      }
+    } else if (buckets.permit(LocationAwareLogger.INFO_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.info(format, arg1, arg2);
+      } else {
+        super.info(format, arg1, new Long(arg2));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(String format, long arg) {
+    if (!logger.isWarnEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.warn(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.warn(format, arg);
+      } else {
+        super.warn(format, new Long(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(String format, double arg) {
+    if (!logger.isWarnEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.warn(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.warn(format, arg);
+      } else {
+        super.warn(format, new Double(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(String format, boolean arg) {
+    if (!logger.isWarnEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.warn(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.warn(format, arg);
+      } else {
+        super.warn(format, Boolean.valueOf(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(String format, long arg1, long arg2) {
+    if (!logger.isWarnEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.warn(format, arg1, arg2);
+      }
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.warn(format, arg1, arg2);
+      } else {
+        super.warn(format, new Long(arg1), new Long(arg2));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void warn(String format, Object arg1, long arg2) {
+    if (!logger.isWarnEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.warn(format, arg1, arg2);
+      }
+    } else if (buckets.permit(LocationAwareLogger.WARN_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.warn(format, arg1, arg2);
+      } else {
+        super.warn(format, arg1, new Long(arg2));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(String format, long arg) {
+    if (!logger.isErrorEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.error(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.error(format, arg);
+      } else {
+        super.error(format, new Long(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(String format, double arg) {
+    if (!logger.isErrorEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.error(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.error(format, arg);
+      } else {
+        super.error(format, new Double(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(String format, boolean arg) {
+    if (!logger.isErrorEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.error(format, arg);
+      }
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.error(format, arg);
+      } else {
+        super.error(format, Boolean.valueOf(arg));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(String format, long arg1, long arg2) {
+    if (!logger.isErrorEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.error(format, arg1, arg2);
+      }
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.error(format, arg1, arg2);
+      } else {
+        super.error(format, new Long(arg1), new Long(arg2));
+      }
+    }
+  }
+
+  /**
+   * Delegate to the underlying logger, unless the event is suppressed.
+   */
+  public void error(String format, Object arg1, long arg2) {
+    if (!logger.isErrorEnabled()) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.error(format, arg1, arg2);
+      }
+    } else if (buckets.permit(LocationAwareLogger.ERROR_INT, format)) {
+      if (primitiveArgLogger != null) {
+        primitiveArgLogger.error(format, arg1, arg2);
+      } else {
+        super.error(format, arg1, new Long(arg2));
+      }
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.ext;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.spi.LocationAwareLogger;
+
+/**
+ * An {@link ILoggerFactory} wrapping the loggers of another factory into
+ * {@link SuppressingLogger} instances, so as to limit the rate of events per
+ * call pattern, see {@link LogStormSuppressor}.
+ * 
+ * <p>
+ * Dropped events are summarized periodically by a message such as "Suppressed
+ * 1234 events similar to [Connection to {} failed]", logged at the level of
+ * the dropped events by the logger they were destined to.
+ * 
+ * <p>
+ * Example:
+ * 
+ * <pre>
+ * ILoggerFactory factory = new SuppressingLoggerFactory(LoggerFactory
+ *     .getILoggerFactory(), 10, 100, 10000);
+ * Logger logger = factory.getLogger(&quot;com.foo.Bar&quot;);
+ * </pre>
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+public class SuppressingLoggerFactory implements ILoggerFactory {
+
+  private final ILoggerFactory delegate;
+  private final LogStormSuppressor suppressor;
+  private final ConcurrentMap<String, Logger> loggers = new ConcurrentHashMap<String, Logger>();
+
+  /**
+   * @param delegate
+   *          the factory providing the loggers to wrap
+   * @param eventsPerSecond
+   *          the sustained rate of events allowed per call pattern
+   * @param burst
+   *          the number of events of a call pattern which may be logged in a
+   *          row
+   * @param summaryIntervalMillis
+   *          how often dropped events are summarized
+   */
+  public SuppressingLoggerFactory(ILoggerFactory delegate,
+      double eventsPerSecond, int burst, long summaryIntervalMillis) {
+    this.delegate = delegate;
+    this.suppressor = new LogStormSuppressor(eventsPerSecond, burst,
+        summaryIntervalMillis, new LogStormSuppressor.SummaryHandler() {
+          public void suppressed(String loggerName, int level, String pattern,
+              long count) {
+            logSummary(loggerName, level, pattern, count);
+          }
+        });
+  }
+
+  public Logger getLogger(String name) {
+    Logger logger = loggers.get(name);
+    if (logger == null) {
+      Logger newLogger = new SuppressingLogger(delegate.getLogger(name),
+          suppressor);
+      logger = loggers.putIfAbsent(name, newLogger);
+      if (logger == null) {
+        logger = newLogger;
+      }
+    }
+    return logger;
+  }
+
+  /**
+   * Return the factory whose loggers are wrapped.
+   */
+  public ILoggerFactory getDelegate() {
+    return delegate;
+  }
+
+  public LogStormSuppressor getSuppressor() {
+    return suppressor;
+  }
+
+  void logSummary(String loggerName, int level, String pattern, long count) {
+    Logger logger = delegate.getLogger(loggerName);
+    String format = (pattern == null) ? "Suppressed {} events of various patterns"
+        : "Suppressed {} events similar to [{}]";
+    Long countObject = new Long(count);
+    switch (level) {
+    case LocationAwareLogger.TRACE_INT:
+      logger.trace(format, countObject, pattern);
+      break;
+    case LocationAwareLogger.DEBUG_INT:
+      logger.debug(format, countObject, pattern);
+      break;
+    case LocationAwareLogger.INFO_INT:
+      logger.info(format, countObject, pattern);
+      break;
+    case LocationAwareLogger.WARN_INT:
+      logger.warn(format, countObject, pattern);
+      break;
+    default:
+      logger.error(format, countObject, pattern);
+    }
+  }
+}
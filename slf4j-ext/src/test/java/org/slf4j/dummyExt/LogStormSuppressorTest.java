@@ -0,0 +1,133 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.dummyExt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.slf4j.ext.LogStormSuppressor;
+import org.slf4j.spi.LocationAwareLogger;
+
+public class LogStormSuppressorTest extends TestCase {
+
+  static final int ERROR = LocationAwareLogger.ERROR_INT;
+  static final int WARN = LocationAwareLogger.WARN_INT;
+
+  final List<String> summaries = new ArrayList<String>();
+
+  final LogStormSuppressor.SummaryHandler handler = new LogStormSuppressor.SummaryHandler() {
+    public void suppressed(String loggerName, int level, String pattern,
+        long count) {
+      synchronized (summaries) {
+        summaries.add(loggerName + " " + level + " " + pattern + " " + count);
+      }
+    }
+  };
+
+  LogStormSuppressor suppressor;
+
+  public LogStormSuppressorTest(String name) {
+    super(name);
+  }
+
+  protected void tearDown() throws Exception {
+    if (suppressor != null) {
+      suppressor.stop();
+    }
+    super.tearDown();
+  }
+
+  int permitted(String loggerName, int level, String pattern, int events) {
+    int count = 0;
+    for (int i = 0; i < events; i++) {
+      if (suppressor.permit(loggerName, level, pattern)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  public void testBurstThenSuppression() {
+    suppressor = new LogStormSuppressor(0.001, 5, 60000, handler);
+    assertEquals(5, permitted("a", ERROR, "failed {}", 1000));
+    // other patterns, levels and loggers have buckets of their own
+    assertEquals(5, permitted("a", ERROR, "other {}", 1000));
+    assertEquals(5, permitted("a", WARN, "failed {}", 1000));
+    assertEquals(5, permitted("b", ERROR, "failed {}", 1000));
+    assertEquals(5, permitted("a", ERROR, null, 1000));
+
+    suppressor.stop();
+    suppressor = null;
+    assertEquals(5, summaries.size());
+    assertTrue(summaries.contains("a 40 failed {} 995"));
+    assertTrue(summaries.contains("a 30 failed {} 995"));
+    assertTrue(summaries.contains("a 40 null 995"));
+  }
+
+  public void testRateIsRestored() throws InterruptedException {
+    suppressor = new LogStormSuppressor(100, 1, 60000, handler);
+    assertEquals(1, permitted("a", ERROR, "failed", 10));
+    Thread.sleep(50);
+    assertEquals(1, permitted("a", ERROR, "failed", 10));
+  }
+
+  public void testPeriodicSummary() throws InterruptedException {
+    suppressor = new LogStormSuppressor(0.001, 1, 50, handler);
+    permitted("a", ERROR, "failed", 11);
+    Thread.sleep(500);
+    synchronized (summaries) {
+      assertEquals(1, summaries.size());
+      assertEquals("a 40 failed 10", summaries.get(0));
+    }
+  }
+
+  public void testConcurrentStorm() throws InterruptedException {
+    suppressor = new LogStormSuppressor(0.001, 10, 60000, handler);
+    final int threadCount = 8;
+    final int eventsPerThread = 20000;
+    final AtomicInteger permitted = new AtomicInteger();
+    Thread[] threads = new Thread[threadCount];
+    for (int i = 0; i < threadCount; i++) {
+      threads[i] = new Thread() {
+        public void run() {
+          permitted.addAndGet(permitted("storm", ERROR, "Connection to {} failed",
+              eventsPerThread));
+        }
+      };
+      threads[i].start();
+    }
+    for (int i = 0; i < threadCount; i++) {
+      threads[i].join();
+    }
+    assertEquals(10, permitted.get());
+    suppressor.stop();
+    suppressor = null;
+    assertEquals(1, summaries.size());
+    assertEquals("storm 40 Connection to {} failed "
+        + (threadCount * eventsPerThread - 10), summaries.get(0));
+  }
+}
@@ -0,0 +1,145 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.dummyExt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.slf4j.MDC;
+import org.slf4j.ext.MDCExecutors;
+
+public class MDCExecutorsTest extends TestCase {
+
+  ExecutorService pool;
+
+  public MDCExecutorsTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    // a single pooled thread, created before any context is set
+    pool = Executors.newSingleThreadExecutor();
+    pool.submit(new Runnable() {
+      public void run() {
+      }
+    }).get();
+  }
+
+  protected void tearDown() throws Exception {
+    pool.shutdownNow();
+    MDC.clear();
+    super.tearDown();
+  }
+
+  static final Callable<String> GET_K = new Callable<String>() {
+    public String call() {
+      return MDC.get("k");
+    }
+  };
+
+  public void testExecutorService() throws Exception {
+    ExecutorService executor = MDCExecutors.wrap(pool);
+    MDC.put("k", "v1");
+    Future<String> first = executor.submit(GET_K);
+    MDC.put("k", "v2");
+    Future<String> second = executor.submit(GET_K);
+    assertEquals("v1", first.get());
+    assertEquals("v2", second.get());
+
+    // the pooled thread's context is restored after each task
+    assertNull(pool.submit(GET_K).get());
+  }
+
+  public void testInvokeAll() throws Exception {
+    ExecutorService executor = MDCExecutors.wrap(pool);
+    MDC.put("k", "v");
+    List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+    tasks.add(GET_K);
+    tasks.add(GET_K);
+    List<Future<String>> futures = executor.invokeAll(tasks);
+    assertEquals("v", futures.get(0).get());
+    assertEquals("v", futures.get(1).get());
+    assertEquals("v", executor.invokeAny(tasks));
+  }
+
+  public void testWrappedRunnable() throws Exception {
+    final String[] seen = new String[1];
+    MDC.put("k", "v");
+    Runnable task = MDCExecutors.wrap(new Runnable() {
+      public void run() {
+        seen[0] = MDC.get("k");
+      }
+    });
+    MDC.put("k", "changed");
+    pool.submit(task).get();
+    assertEquals("v", seen[0]);
+  }
+
+  public void testScheduledExecutorService() throws Exception {
+    ScheduledExecutorService scheduler = Executors
+        .newSingleThreadScheduledExecutor();
+    try {
+      ScheduledExecutorService executor = MDCExecutors.wrap(scheduler);
+      MDC.put("k", "scheduled");
+      assertEquals("scheduled", executor.schedule(GET_K, 1,
+          TimeUnit.MILLISECONDS).get());
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  public void testExecutingThreadContextIsRestored() {
+    MDC.put("k", "submitter");
+    Runnable task = MDCExecutors.wrap(new Runnable() {
+      public void run() {
+        MDC.put("k2", "task");
+      }
+    });
+    MDC.put("k", "executor");
+    task.run();
+    assertEquals("executor", MDC.get("k"));
+    assertNull(MDC.get("k2"));
+
+    MDC.clear();
+    task.run();
+    assertNull(MDC.get("k"));
+    assertNull(MDC.get("k2"));
+  }
+
+  public void testNullContext() throws Exception {
+    MDC.clear();
+    ExecutorService executor = MDCExecutors.wrap(pool);
+    assertNull(executor.submit(GET_K).get());
+  }
+}
@@ -9,6 +9,9 @@ public class PackageTest extends TestCase {
     suite.addTestSuite(MDCStrLookupTest.class);
     suite.addTestSuite(XLoggerTest.class);
     suite.addTestSuite(EventLoggerTest.class);
+    suite.addTestSuite(MDCExecutorsTest.class);
+    suite.addTestSuite(LogStormSuppressorTest.class);
+    suite.addTestSuite(SuppressingLoggerFactoryTest.class);
     return suite;
   }
 }
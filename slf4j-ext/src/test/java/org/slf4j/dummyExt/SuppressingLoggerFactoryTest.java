@@ -0,0 +1,152 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.dummyExt;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.log4j.spi.LoggingEvent;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.ext.SuppressingLoggerFactory;
+import org.slf4j.spi.PrimitiveArgLogger;
+
+public class SuppressingLoggerFactoryTest extends TestCase {
+
+  ListAppender listAppender;
+  org.apache.log4j.Logger log4jRoot;
+  SuppressingLoggerFactory factory;
+
+  public SuppressingLoggerFactoryTest(String name) {
+    super(name);
+  }
+
+  public void setUp() throws Exception {
+    super.setUp();
+    listAppender = new ListAppender();
+    listAppender.extractLocationInfo = true;
+    log4jRoot = org.apache.log4j.Logger.getRootLogger();
+    log4jRoot.addAppender(listAppender);
+    log4jRoot.setLevel(org.apache.log4j.Level.INFO);
+    factory = new SuppressingLoggerFactory(LoggerFactory.getILoggerFactory(),
+        0.001, 3, 60000);
+  }
+
+  public void tearDown() throws Exception {
+    factory.getSuppressor().stop();
+    log4jRoot.removeAppender(listAppender);
+    super.tearDown();
+  }
+
+  public void testStormIsSuppressedAndSummarized() {
+    Logger logger = factory.getLogger("storm");
+    assertSame(logger, factory.getLogger("storm"));
+    for (int i = 0; i < 1000; i++) {
+      logger.error("Connection to {} failed", "db" + i);
+    }
+    assertEquals(3, listAppender.list.size());
+    LoggingEvent first = (LoggingEvent) listAppender.list.get(0);
+    assertEquals("Connection to db0 failed", first.getMessage());
+    assertEquals("SuppressingLoggerFactoryTest.java", first
+        .getLocationInformation().getFileName());
+
+    factory.getSuppressor().stop();
+    assertEquals(4, listAppender.list.size());
+    LoggingEvent summary = (LoggingEvent) listAppender.list.get(3);
+    assertEquals("Suppressed 997 events similar to [Connection to {} failed]",
+        summary.getMessage());
+    assertEquals(org.apache.log4j.Level.ERROR, summary.getLevel());
+  }
+
+  public void testPrimitiveArguments() {
+    Logger logger = factory.getLogger("primitive");
+    assertTrue(logger instanceof PrimitiveArgLogger);
+    PrimitiveArgLogger primitiveArgLogger = (PrimitiveArgLogger) logger;
+    for (int i = 0; i < 10; i++) {
+      primitiveArgLogger.info("value={}", 42L);
+    }
+    primitiveArgLogger.debug("disabled={}", 1.5);
+    primitiveArgLogger.warn("pair={} {}", "a", 7L);
+    assertEquals(4, listAppender.list.size());
+    LoggingEvent first = (LoggingEvent) listAppender.list.get(0);
+    assertEquals("value=42", first.getMessage());
+    assertEquals("SuppressingLoggerFactoryTest.java", first
+        .getLocationInformation().getFileName());
+    assertEquals("pair=a 7", ((LoggingEvent) listAppender.list.get(3))
+        .getMessage());
+  }
+
+  public void testDisabledEventsDoNotUseTheRate() {
+    Logger logger = factory.getLogger("quiet");
+    for (int i = 0; i < 100; i++) {
+      logger.debug("not enabled");
+    }
+    logger.info("not enabled");
+    logger.info("not enabled");
+    assertEquals(2, listAppender.list.size());
+  }
+
+  public void testDisabledEventsArePassedOn() {
+    final List calls = new ArrayList();
+    // a logger with all levels disabled, recording the logging calls
+    final Logger disabled = (Logger) Proxy.newProxyInstance(Logger.class
+        .getClassLoader(), new Class[] { Logger.class },
+        new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getName().equals("getName")) {
+              return "disabled";
+            }
+            if (method.getReturnType() == Boolean.TYPE) {
+              return Boolean.FALSE;
+            }
+            calls.add(method.getName() + " " + args[0]);
+            return null;
+          }
+        });
+    SuppressingLoggerFactory disabledFactory = new SuppressingLoggerFactory(
+        new ILoggerFactory() {
+          public Logger getLogger(String name) {
+            return disabled;
+          }
+        }, 0.001, 3, 60000);
+    try {
+      Logger logger = disabledFactory.getLogger("disabled");
+      for (int i = 0; i < 10; i++) {
+        logger.debug("event {}", new Integer(i));
+      }
+      logger.error("error");
+      assertEquals(11, calls.size());
+      assertEquals("debug event {}", calls.get(0));
+      assertEquals("error error", calls.get(10));
+    } finally {
+      disabledFactory.getSuppressor().stop();
+    }
+  }
+}
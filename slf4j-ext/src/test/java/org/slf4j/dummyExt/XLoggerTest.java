@@ -154,4 +154,30 @@ public class XLoggerTest extends TestCase {
     }
 
   }
+
+  public void testLazyArguments() {
+    XLogger logger = XLoggerFactory.getXLogger("UnitTest");
+    final int[] evaluationCount = new int[1];
+    org.slf4j.helpers.LazyArgument lazy =
+        new org.slf4j.helpers.LazyArgument() {
+      public Object evaluate() {
+        evaluationCount[0]++;
+        return "computed";
+      }
+    };
+
+    log4jRoot.setLevel(org.apache.log4j.Level.INFO);
+    logger.debug("value={}", lazy);
+    logger.debug("value={} value={}", lazy, lazy);
+    assertEquals(0, evaluationCount[0]);
+    assertEquals(0, listAppender.list.size());
+
+    logger.info("value={}", lazy);
+    logger.info("value={} value={}", lazy, lazy);
+    assertEquals(3, evaluationCount[0]);
+    assertEquals(2, listAppender.list.size());
+    verify((LoggingEvent) listAppender.list.get(0), "value=computed");
+    verify((LoggingEvent) listAppender.list.get(1),
+        "value=computed value=computed");
+  }
 }
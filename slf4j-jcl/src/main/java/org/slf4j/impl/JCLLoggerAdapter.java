@@ -29,6 +29,7 @@ import org.apache.commons.logging.Log;
 import org.slf4j.Logger;
 import org.slf4j.helpers.MarkerIgnoringBase;
 import org.slf4j.helpers.MessageFormatter;
+import org.slf4j.spi.PrimitiveArgLogger;
 
 /**
  * A wrapper over {@link org.apache.commons.logging.Log
@@ -37,7 +38,8 @@ import org.slf4j.helpers.MessageFormatter;
  * 
  * @author Ceki G&uuml;lc&uuml;
  */
-public final class JCLLoggerAdapter extends MarkerIgnoringBase {
+public final class JCLLoggerAdapter extends MarkerIgnoringBase implements
+    PrimitiveArgLogger {
 
   private static final long serialVersionUID = 4141593417490482209L;
   final Log log;
@@ -532,4 +534,308 @@ public final class JCLLoggerAdapter extends MarkerIgnoringBase {
     log.error(msg, t);
   }
 
+  /**
+   * Delegates to the {@link Log#trace(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>long</code> argument.
+   */
+  public void trace(String format, long arg) {
+    if (log.isTraceEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.trace(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#trace(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>double</code> argument.
+   */
+  public void trace(String format, double arg) {
+    if (log.isTraceEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.trace(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#trace(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>boolean</code> argument.
+   */
+  public void trace(String format, boolean arg) {
+    if (log.isTraceEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.trace(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#trace(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of two <code>long</code> arguments.
+   */
+  public void trace(String format, long arg1, long arg2) {
+    if (log.isTraceEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log.trace(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#trace(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of an object and a <code>long</code> argument.
+   */
+  public void trace(String format, Object arg1, long arg2) {
+    if (log.isTraceEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log.trace(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#debug(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>long</code> argument.
+   */
+  public void debug(String format, long arg) {
+    if (log.isDebugEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.debug(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#debug(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>double</code> argument.
+   */
+  public void debug(String format, double arg) {
+    if (log.isDebugEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.debug(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#debug(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>boolean</code> argument.
+   */
+  public void debug(String format, boolean arg) {
+    if (log.isDebugEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.debug(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#debug(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of two <code>long</code> arguments.
+   */
+  public void debug(String format, long arg1, long arg2) {
+    if (log.isDebugEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log.debug(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#debug(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of an object and a <code>long</code> argument.
+   */
+  public void debug(String format, Object arg1, long arg2) {
+    if (log.isDebugEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log.debug(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#info(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>long</code> argument.
+   */
+  public void info(String format, long arg) {
+    if (log.isInfoEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.info(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#info(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>double</code> argument.
+   */
+  public void info(String format, double arg) {
+    if (log.isInfoEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.info(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#info(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>boolean</code> argument.
+   */
+  public void info(String format, boolean arg) {
+    if (log.isInfoEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.info(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#info(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of two <code>long</code> arguments.
+   */
+  public void info(String format, long arg1, long arg2) {
+    if (log.isInfoEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log.info(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#info(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of an object and a <code>long</code> argument.
+   */
+  public void info(String format, Object arg1, long arg2) {
+    if (log.isInfoEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log.info(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#warn(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>long</code> argument.
+   */
+  public void warn(String format, long arg) {
+    if (log.isWarnEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.warn(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#warn(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>double</code> argument.
+   */
+  public void warn(String format, double arg) {
+    if (log.isWarnEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.warn(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#warn(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>boolean</code> argument.
+   */
+  public void warn(String format, boolean arg) {
+    if (log.isWarnEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.warn(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#warn(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of two <code>long</code> arguments.
+   */
+  public void warn(String format, long arg1, long arg2) {
+    if (log.isWarnEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log.warn(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#warn(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of an object and a <code>long</code> argument.
+   */
+  public void warn(String format, Object arg1, long arg2) {
+    if (log.isWarnEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log.warn(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#error(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>long</code> argument.
+   */
+  public void error(String format, long arg) {
+    if (log.isErrorEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.error(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#error(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>double</code> argument.
+   */
+  public void error(String format, double arg) {
+    if (log.isErrorEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.error(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#error(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of a <code>boolean</code> argument.
+   */
+  public void error(String format, boolean arg) {
+    if (log.isErrorEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      log.error(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#error(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of two <code>long</code> arguments.
+   */
+  public void error(String format, long arg1, long arg2) {
+    if (log.isErrorEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log.error(msgStr);
+    }
+  }
+
+  /**
+   * Delegates to the {@link Log#error(java.lang.Object)} method of the underlying
+   * {@link Log} instance, after substitution of an object and a <code>long</code> argument.
+   */
+  public void error(String format, Object arg1, long arg2) {
+    if (log.isErrorEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log.error(msgStr);
+    }
+  }
+
+  private static String formatMessage(String format, long arg) {
+    StringBuffer sbuf = new StringBuffer();
+    MessageFormatter.appendTo(sbuf, format, arg);
+    return sbuf.toString();
+  }
+
+  private static String formatMessage(String format, double arg) {
+    StringBuffer sbuf = new StringBuffer();
+    MessageFormatter.appendTo(sbuf, format, arg);
+    return sbuf.toString();
+  }
+
+  private static String formatMessage(String format, boolean arg) {
+    StringBuffer sbuf = new StringBuffer();
+    MessageFormatter.appendTo(sbuf, format, arg);
+    return sbuf.toString();
+  }
+
+  private static String formatMessage(String format, long arg1, long arg2) {
+    StringBuffer sbuf = new StringBuffer();
+    MessageFormatter.appendTo(sbuf, format, arg1, arg2);
+    return sbuf.toString();
+  }
+
+  private static String formatMessage(String format, Object arg1, long arg2) {
+    StringBuffer sbuf = new StringBuffer();
+    MessageFormatter.appendTo(sbuf, format, arg1, arg2);
+    return sbuf.toString();
+  }
 }
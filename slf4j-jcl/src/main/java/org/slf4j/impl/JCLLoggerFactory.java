@@ -33,12 +33,11 @@
 
 package org.slf4j.impl;
 
-import java.util.HashMap;
-import java.util.Map;
 
 import org.apache.commons.logging.LogFactory;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.Logger;
+import org.slf4j.helpers.ConcurrentRegistry;
 import org.slf4j.helpers.Util;
 
 /**
@@ -68,10 +67,16 @@ public class JCLLoggerFactory implements ILoggerFactory {
   }
 
   // key: name (String), value: a JCLLoggerAdapter;
-  Map loggerMap;
+  final ConcurrentRegistry loggerRegistry = new ConcurrentRegistry();
+
+  private final ConcurrentRegistry.Creator loggerCreator = new ConcurrentRegistry.Creator() {
+    public Object create(String name) {
+      org.apache.commons.logging.Log jclLogger = LogFactory.getLog(name);
+      return new JCLLoggerAdapter(jclLogger, name);
+    }
+  };
 
   public JCLLoggerFactory() {
-    loggerMap = new HashMap();
   }
 
   /*
@@ -80,16 +85,6 @@ public class JCLLoggerFactory implements ILoggerFactory {
    * @see org.slf4j.ILoggerFactory#getLogger(java.lang.String)
    */
   public Logger getLogger(String name) {
-    Logger logger = null;
-    // protect against concurrent access of loggerMap
-    synchronized (this) {
-      logger = (Logger) loggerMap.get(name);
-      if (logger == null) {
-        org.apache.commons.logging.Log jclLogger = LogFactory.getLog(name);
-        logger = new JCLLoggerAdapter(jclLogger, name);
-        loggerMap.put(name, logger);
-      }
-    }
-    return logger;
+    return (Logger) loggerRegistry.getOrCreate(name, loggerCreator);
   }
 }
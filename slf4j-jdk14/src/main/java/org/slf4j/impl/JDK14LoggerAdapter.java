@@ -41,6 +41,7 @@ import org.slf4j.Marker;
 import org.slf4j.helpers.MarkerIgnoringBase;
 import org.slf4j.helpers.MessageFormatter;
 import org.slf4j.spi.LocationAwareLogger;
+import org.slf4j.spi.PrimitiveArgLogger;
 
 /**
  * A wrapper over {@link java.util.logging.Logger java.util.logging.Logger} in
@@ -52,7 +53,7 @@ import org.slf4j.spi.LocationAwareLogger;
  * @author Peter Royal
  */
 public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
-    LocationAwareLogger {
+    LocationAwareLogger, PrimitiveArgLogger {
 
   private static final long serialVersionUID = -8053026990503422791L;
 
@@ -102,7 +103,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void trace(String format, Object arg) {
     if (logger.isLoggable(Level.FINEST)) {
-      String msgStr = MessageFormatter.format(format, arg);
+      String msgStr = formatMessage(format, arg);
       log(SELF, Level.FINEST, msgStr, null);
     }
   }
@@ -125,7 +126,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void trace(String format, Object arg1, Object arg2) {
     if (logger.isLoggable(Level.FINEST)) {
-      String msgStr = MessageFormatter.format(format, arg1, arg2);
+      String msgStr = formatMessage(format, arg1, arg2);
       log(SELF, Level.FINEST, msgStr, null);
     }
   }
@@ -146,7 +147,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void trace(String format, Object[] argArray) {
     if (logger.isLoggable(Level.FINEST)) {
-      String msgStr = MessageFormatter.arrayFormat(format, argArray);
+      String msgStr = arrayFormatMessage(format, argArray);
       log(SELF, Level.FINEST, msgStr, null);
     }
   }
@@ -201,7 +202,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void debug(String format, Object arg) {
     if (logger.isLoggable(Level.FINE)) {
-      String msgStr = MessageFormatter.format(format, arg);
+      String msgStr = formatMessage(format, arg);
       log(SELF, Level.FINE, msgStr, null);
     }
   }
@@ -224,7 +225,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void debug(String format, Object arg1, Object arg2) {
     if (logger.isLoggable(Level.FINE)) {
-      String msgStr = MessageFormatter.format(format, arg1, arg2);
+      String msgStr = formatMessage(format, arg1, arg2);
       log(SELF, Level.FINE, msgStr, null);
     }
   }
@@ -245,7 +246,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void debug(String format, Object[] argArray) {
     if (logger.isLoggable(Level.FINE)) {
-      String msgStr = MessageFormatter.arrayFormat(format, argArray);
+      String msgStr = arrayFormatMessage(format, argArray);
       log(SELF, Level.FINE, msgStr, null);
     }
   }
@@ -300,7 +301,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void info(String format, Object arg) {
     if (logger.isLoggable(Level.INFO)) {
-      String msgStr = MessageFormatter.format(format, arg);
+      String msgStr = formatMessage(format, arg);
       log(SELF, Level.INFO, msgStr, null);
     }
   }
@@ -323,7 +324,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void info(String format, Object arg1, Object arg2) {
     if (logger.isLoggable(Level.INFO)) {
-      String msgStr = MessageFormatter.format(format, arg1, arg2);
+      String msgStr = formatMessage(format, arg1, arg2);
       log(SELF, Level.INFO, msgStr, null);
     }
   }
@@ -344,7 +345,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void info(String format, Object[] argArray) {
     if (logger.isLoggable(Level.INFO)) {
-      String msgStr = MessageFormatter.arrayFormat(format, argArray);
+      String msgStr = arrayFormatMessage(format, argArray);
       log(SELF, Level.INFO, msgStr, null);
     }
   }
@@ -402,7 +403,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void warn(String format, Object arg) {
     if (logger.isLoggable(Level.WARNING)) {
-      String msgStr = MessageFormatter.format(format, arg);
+      String msgStr = formatMessage(format, arg);
       log(SELF, Level.WARNING, msgStr, null);
     }
   }
@@ -425,7 +426,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void warn(String format, Object arg1, Object arg2) {
     if (logger.isLoggable(Level.WARNING)) {
-      String msgStr = MessageFormatter.format(format, arg1, arg2);
+      String msgStr = formatMessage(format, arg1, arg2);
       log(SELF, Level.WARNING, msgStr, null);
     }
   }
@@ -446,7 +447,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void warn(String format, Object[] argArray) {
     if (logger.isLoggable(Level.WARNING)) {
-      String msgStr = MessageFormatter.arrayFormat(format, argArray);
+      String msgStr = arrayFormatMessage(format, argArray);
       log(SELF, Level.WARNING, msgStr, null);
     }
   }
@@ -503,7 +504,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void error(String format, Object arg) {
     if (logger.isLoggable(Level.SEVERE)) {
-      String msgStr = MessageFormatter.format(format, arg);
+      String msgStr = formatMessage(format, arg);
       log(SELF, Level.SEVERE, msgStr, null);
     }
   }
@@ -526,7 +527,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void error(String format, Object arg1, Object arg2) {
     if (logger.isLoggable(Level.SEVERE)) {
-      String msgStr = MessageFormatter.format(format, arg1, arg2);
+      String msgStr = formatMessage(format, arg1, arg2);
       log(SELF, Level.SEVERE, msgStr, null);
     }
   }
@@ -547,7 +548,7 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
    */
   public void error(String format, Object[] argArray) {
     if (logger.isLoggable(Level.SEVERE)) {
-      String msgStr = MessageFormatter.arrayFormat(format, argArray);
+      String msgStr = arrayFormatMessage(format, argArray);
       log(SELF, Level.SEVERE, msgStr, null);
     }
   }
@@ -567,6 +568,281 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
     }
   }
 
+  /**
+   * Log a message at level FINEST according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   */
+  public void trace(String format, long arg) {
+    if (logger.isLoggable(Level.FINEST)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.FINEST, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level FINEST according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   */
+  public void trace(String format, double arg) {
+    if (logger.isLoggable(Level.FINEST)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.FINEST, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level FINEST according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   */
+  public void trace(String format, boolean arg) {
+    if (logger.isLoggable(Level.FINEST)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.FINEST, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level FINEST according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   */
+  public void trace(String format, long arg1, long arg2) {
+    if (logger.isLoggable(Level.FINEST)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log(SELF, Level.FINEST, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level FINEST according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   */
+  public void trace(String format, Object arg1, long arg2) {
+    if (logger.isLoggable(Level.FINEST)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log(SELF, Level.FINEST, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level FINE according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   */
+  public void debug(String format, long arg) {
+    if (logger.isLoggable(Level.FINE)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.FINE, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level FINE according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   */
+  public void debug(String format, double arg) {
+    if (logger.isLoggable(Level.FINE)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.FINE, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level FINE according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   */
+  public void debug(String format, boolean arg) {
+    if (logger.isLoggable(Level.FINE)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.FINE, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level FINE according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   */
+  public void debug(String format, long arg1, long arg2) {
+    if (logger.isLoggable(Level.FINE)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log(SELF, Level.FINE, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level FINE according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   */
+  public void debug(String format, Object arg1, long arg2) {
+    if (logger.isLoggable(Level.FINE)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log(SELF, Level.FINE, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level INFO according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   */
+  public void info(String format, long arg) {
+    if (logger.isLoggable(Level.INFO)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.INFO, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level INFO according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   */
+  public void info(String format, double arg) {
+    if (logger.isLoggable(Level.INFO)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.INFO, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level INFO according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   */
+  public void info(String format, boolean arg) {
+    if (logger.isLoggable(Level.INFO)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.INFO, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level INFO according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   */
+  public void info(String format, long arg1, long arg2) {
+    if (logger.isLoggable(Level.INFO)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log(SELF, Level.INFO, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level INFO according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   */
+  public void info(String format, Object arg1, long arg2) {
+    if (logger.isLoggable(Level.INFO)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log(SELF, Level.INFO, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level WARNING according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   */
+  public void warn(String format, long arg) {
+    if (logger.isLoggable(Level.WARNING)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.WARNING, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level WARNING according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   */
+  public void warn(String format, double arg) {
+    if (logger.isLoggable(Level.WARNING)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.WARNING, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level WARNING according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   */
+  public void warn(String format, boolean arg) {
+    if (logger.isLoggable(Level.WARNING)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.WARNING, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level WARNING according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   */
+  public void warn(String format, long arg1, long arg2) {
+    if (logger.isLoggable(Level.WARNING)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log(SELF, Level.WARNING, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level WARNING according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   */
+  public void warn(String format, Object arg1, long arg2) {
+    if (logger.isLoggable(Level.WARNING)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log(SELF, Level.WARNING, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level SEVERE according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   */
+  public void error(String format, long arg) {
+    if (logger.isLoggable(Level.SEVERE)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.SEVERE, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level SEVERE according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   */
+  public void error(String format, double arg) {
+    if (logger.isLoggable(Level.SEVERE)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.SEVERE, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level SEVERE according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   */
+  public void error(String format, boolean arg) {
+    if (logger.isLoggable(Level.SEVERE)) {
+      String msgStr = formatMessage(format, arg);
+      log(SELF, Level.SEVERE, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level SEVERE according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   */
+  public void error(String format, long arg1, long arg2) {
+    if (logger.isLoggable(Level.SEVERE)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log(SELF, Level.SEVERE, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level SEVERE according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   */
+  public void error(String format, Object arg1, long arg2) {
+    if (logger.isLoggable(Level.SEVERE)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      log(SELF, Level.SEVERE, msgStr, null);
+    }
+  }
+
   /**
    * Log the message at the specified level with the specified throwable if any.
    * This method creates a LogRecord and fills in caller date before calling
@@ -588,6 +864,132 @@ public final class JDK14LoggerAdapter extends MarkerIgnoringBase implements
 
   }
 
+  private static final int INITIAL_BUFFER_SIZE = 256;
+  private static final int MAX_RETAINED_BUFFER_SIZE = 8 * 1024;
+  /**
+   * Per-thread buffer which messages are formatted into, so that formatting
+   * does not need to allocate a new buffer on each call.
+   */
+  private static final ThreadLocal BUFFER = new ThreadLocal();
+
+  private static String formatMessage(String format, Object arg) {
+    StringBuffer buf = getBuffer();
+    try {
+      MessageFormatter.appendTo(buf, format, arg);
+      return buf.toString();
+    } finally {
+      releaseBuffer(buf);
+    }
+  }
+
+  private static String formatMessage(String format, Object arg1, Object arg2) {
+    StringBuffer buf = getBuffer();
+    try {
+      MessageFormatter.appendTo(buf, format, arg1, arg2);
+      return buf.toString();
+    } finally {
+      releaseBuffer(buf);
+    }
+  }
+
+  private static String arrayFormatMessage(String format, Object[] argArray) {
+    StringBuffer buf = getBuffer();
+    try {
+      MessageFormatter.arrayAppendTo(buf, format, argArray);
+      return buf.toString();
+    } finally {
+      releaseBuffer(buf);
+    }
+  }
+
+  private static String formatMessage(String format, long arg) {
+    StringBuffer buf = getBuffer();
+    try {
+      MessageFormatter.appendTo(buf, format, arg);
+      return buf.toString();
+    } finally {
+      releaseBuffer(buf);
+    }
+  }
+
+  private static String formatMessage(String format, double arg) {
+    StringBuffer buf = getBuffer();
+    try {
+      MessageFormatter.appendTo(buf, format, arg);
+      return buf.toString();
+    } finally {
+      releaseBuffer(buf);
+    }
+  }
+
+  private static String formatMessage(String format, boolean arg) {
+    StringBuffer buf = getBuffer();
+    try {
+      MessageFormatter.appendTo(buf, format, arg);
+      return buf.toString();
+    } finally {
+      releaseBuffer(buf);
+    }
+  }
+
+  private static String formatMessage(String format, long arg1, long arg2) {
+    StringBuffer buf = getBuffer();
+    try {
+      MessageFormatter.appendTo(buf, format, arg1, arg2);
+      return buf.toString();
+    } finally {
+      releaseBuffer(buf);
+    }
+  }
+
+  private static String formatMessage(String format, Object arg1, long arg2) {
+    StringBuffer buf = getBuffer();
+    try {
+      MessageFormatter.appendTo(buf, format, arg1, arg2);
+      return buf.toString();
+    } finally {
+      releaseBuffer(buf);
+    }
+  }
+
+  /**
+   * The formatting buffer of a thread, and whether it is in use.
+   */
+  private static final class ThreadBuffer {
+    StringBuffer buf = new StringBuffer(INITIAL_BUFFER_SIZE);
+    boolean inUse;
+  }
+
+  /**
+   * Return the calling thread's formatting buffer. Should the buffer already be
+   * in use, e.g. because an argument's toString() method logs in turn, a fresh
+   * buffer is returned instead.
+   */
+  private static StringBuffer getBuffer() {
+    ThreadBuffer threadBuffer = (ThreadBuffer) BUFFER.get();
+    if (threadBuffer == null) {
+      threadBuffer = new ThreadBuffer();
+      BUFFER.set(threadBuffer);
+    } else if (threadBuffer.inUse) {
+      // re-entrant call
+      return new StringBuffer(INITIAL_BUFFER_SIZE);
+    }
+    threadBuffer.inUse = true;
+    return threadBuffer.buf;
+  }
+
+  private static void releaseBuffer(StringBuffer buf) {
+    buf.setLength(0);
+    ThreadBuffer threadBuffer = (ThreadBuffer) BUFFER.get();
+    if (threadBuffer.buf == buf) {
+      if (buf.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+        // do not hold on to the memory of an exceptionally long message
+        threadBuffer.buf = new StringBuffer(INITIAL_BUFFER_SIZE);
+      }
+      threadBuffer.inUse = false;
+    }
+  }
+
   static String SELF = JDK14LoggerAdapter.class.getName();
   static String SUPER = MarkerIgnoringBase.class.getName();
 
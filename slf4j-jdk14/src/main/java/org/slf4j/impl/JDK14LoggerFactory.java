@@ -35,9 +35,7 @@ package org.slf4j.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.ILoggerFactory;
-
-import java.util.HashMap;
-import java.util.Map;
+import org.slf4j.helpers.ConcurrentRegistry;
 
 /**
  * JDK14LoggerFactory is an implementation of {@link ILoggerFactory} returning
@@ -48,10 +46,17 @@ import java.util.Map;
 public class JDK14LoggerFactory implements ILoggerFactory {
 
   // key: name (String), value: a JDK14LoggerAdapter;
-  Map loggerMap;
+  final ConcurrentRegistry loggerRegistry = new ConcurrentRegistry();
+
+  private final ConcurrentRegistry.Creator loggerCreator = new ConcurrentRegistry.Creator() {
+    public Object create(String name) {
+      java.util.logging.Logger logger = java.util.logging.Logger
+          .getLogger(name);
+      return new JDK14LoggerAdapter(logger);
+    }
+  };
 
   public JDK14LoggerFactory() {
-    loggerMap = new HashMap();
   }
 
   /*
@@ -59,22 +64,11 @@ public class JDK14LoggerFactory implements ILoggerFactory {
    * 
    * @see org.slf4j.ILoggerFactory#getLogger(java.lang.String)
    */
-  public synchronized Logger getLogger(String name) {
-    Logger ulogger = null;
-    // protect against concurrent access of loggerMap
-    synchronized (this) {
-      // the root logger is called "" in JUL
-      if(name.equalsIgnoreCase(Logger.ROOT_LOGGER_NAME)) {
-        name = "";
-      }
-      ulogger = (Logger) loggerMap.get(name);
-      if (ulogger == null) {
-        java.util.logging.Logger logger = java.util.logging.Logger
-            .getLogger(name);
-        ulogger = new JDK14LoggerAdapter(logger);
-        loggerMap.put(name, ulogger);
-      }
+  public Logger getLogger(String name) {
+    // the root logger is called "" in JUL
+    if (name.equalsIgnoreCase(Logger.ROOT_LOGGER_NAME)) {
+      name = "";
     }
-    return ulogger;
+    return (Logger) loggerRegistry.getOrCreate(name, loggerCreator);
   }
 }
@@ -1,36 +1,80 @@
 package org.slf4j.impl;
 
 import org.slf4j.helpers.BasicMDCAdapter;
+import org.slf4j.helpers.CopyOnWriteMDCAdapter;
 import org.slf4j.spi.MDCAdapter;
 
 
 /**
- * This implementation is bound to {@link BasicMDCAdapter}.
+ * This implementation is bound to {@link BasicMDCAdapter}, or to
+ * {@link CopyOnWriteMDCAdapter} if the system property
+ * {@value #COPY_ON_WRITE_MDC_KEY} is set to "true". Child threads inherit the
+ * MDC context of their parent unless the system property
+ * {@value #INHERITABLE_MDC_KEY} is set to "false". Setting the system property
+ * {@value #COMPACT_MDC_KEY} to "true" selects a compact representation of the
+ * context maps of {@link BasicMDCAdapter}.
  *
  * @author Ceki G&uuml;lc&uuml;
  */
 public class StaticMDCBinder {
 
+  /**
+   * The name of the system property selecting {@link CopyOnWriteMDCAdapter}.
+   */
+  public static final String COPY_ON_WRITE_MDC_KEY = "slf4j.mdc.copyOnWrite";
+
+  /**
+   * The name of the system property controlling inheritance of the MDC
+   * context by child threads.
+   */
+  public static final String INHERITABLE_MDC_KEY = "slf4j.mdc.inheritable";
+
+  /**
+   * The name of the system property selecting compact context maps.
+   */
+  public static final String COMPACT_MDC_KEY = "slf4j.mdc.compact";
   
   /**
    * The unique instance of this class.
    */
   public static final StaticMDCBinder SINGLETON = new StaticMDCBinder();
 
+  private final boolean copyOnWrite;
+  private final boolean inheritable;
+  private final boolean compact;
+
   private StaticMDCBinder() {
+    copyOnWrite = "true".equalsIgnoreCase(getSystemProperty(COPY_ON_WRITE_MDC_KEY));
+    inheritable = !"false".equalsIgnoreCase(getSystemProperty(INHERITABLE_MDC_KEY));
+    compact = "true".equalsIgnoreCase(getSystemProperty(COMPACT_MDC_KEY));
+  }
+
+  private static String getSystemProperty(String key) {
+    try {
+      return System.getProperty(key);
+    } catch (SecurityException e) {
+      // Ignore
+      return null;
+    }
   }
   
   /**
-   * Currently this method always returns an instance of 
-   * {@link BasicMDCAdapter}.
+   * Returns an instance of {@link BasicMDCAdapter}, or of
+   * {@link CopyOnWriteMDCAdapter} if so requested.
    */
   public MDCAdapter getMDCA() {
     // note that this method is invoked only from within the static initializer of 
     // the org.slf4j.MDC class.
-    return new BasicMDCAdapter();
+    if (copyOnWrite) {
+      return new CopyOnWriteMDCAdapter(inheritable);
+    }
+    return new BasicMDCAdapter(inheritable, compact);
   }
   
   public String  getMDCAdapterClassStr() {
+    if (copyOnWrite) {
+      return CopyOnWriteMDCAdapter.class.getName();
+    }
     return BasicMDCAdapter.class.getName();
   }
 }
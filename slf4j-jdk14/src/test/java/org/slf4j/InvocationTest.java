@@ -37,6 +37,8 @@ import java.util.logging.Level;
 
 import junit.framework.TestCase;
 
+import org.slf4j.spi.PrimitiveArgLogger;
+
 
 /**
  * Test whether invoking the SLF4J API causes problems or not.
@@ -146,4 +148,15 @@ public class InvocationTest extends TestCase {
     } catch (IllegalArgumentException e) {
     }
   }
+
+  public void testPrimitiveArgs() {
+    Logger logger = LoggerFactory.getLogger("testPrimitiveArgs");
+    assertTrue(logger instanceof PrimitiveArgLogger);
+    PrimitiveArgLogger pLogger = (PrimitiveArgLogger) logger;
+    pLogger.debug("latency={}", 10L);
+    pLogger.info("ratio={}", 0.5);
+    pLogger.warn("enabled={}", true);
+    pLogger.error("latency={} bytes={}", 10L, 2048);
+    pLogger.error("user={} bytes={}", "alice", 2048);
+  }
 }
@@ -0,0 +1,107 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import junit.framework.TestCase;
+
+public class JDK14LoggerAdapterTest extends TestCase {
+
+  static final String LOGGER_NAME = "JDK14LoggerAdapterTest";
+
+  List messages = new ArrayList();
+  Handler handler = new Handler() {
+    public void publish(LogRecord record) {
+      messages.add(record.getMessage());
+    }
+
+    public void flush() {
+    }
+
+    public void close() {
+    }
+  };
+  Logger julLogger = Logger.getLogger(LOGGER_NAME);
+  org.slf4j.Logger logger = new JDK14LoggerFactory().getLogger(LOGGER_NAME);
+
+  public JDK14LoggerAdapterTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    julLogger.setUseParentHandlers(false);
+    julLogger.addHandler(handler);
+  }
+
+  protected void tearDown() throws Exception {
+    julLogger.removeHandler(handler);
+    julLogger.setUseParentHandlers(true);
+    super.tearDown();
+  }
+
+  /**
+   * An argument logging a message of the given length when rendered.
+   */
+  class LoggingArgument {
+    final int length;
+
+    LoggingArgument(int length) {
+      this.length = length;
+    }
+
+    public String toString() {
+      StringBuffer inner = new StringBuffer(length);
+      for (int i = 0; i < length; i++) {
+        inner.append('z');
+      }
+      logger.info("{}", inner.toString());
+      return "X";
+    }
+  }
+
+  public void testArgumentLoggingWhenFormatted() {
+    logger.info("{}", new LoggingArgument(10));
+    logger.info("outer {} {}", new LoggingArgument(10), "tail");
+    assertEquals(4, messages.size());
+    assertEquals("zzzzzzzzzz", messages.get(0));
+    assertEquals("X", messages.get(1));
+    assertEquals("outer X tail", messages.get(3));
+  }
+
+  public void testArgumentLoggingLongMessageWhenFormatted() {
+    logger.info("{}", new LoggingArgument(10000));
+    logger.info("{}", "after");
+    assertEquals(3, messages.size());
+    assertEquals(10000, ((String) messages.get(0)).length());
+    assertEquals("X", messages.get(1));
+    assertEquals("after", messages.get(2));
+  }
+}
@@ -33,6 +33,7 @@ import org.slf4j.Marker;
 import org.slf4j.helpers.MarkerIgnoringBase;
 import org.slf4j.helpers.MessageFormatter;
 import org.slf4j.spi.LocationAwareLogger;
+import org.slf4j.spi.PrimitiveArgLogger;
 
 /**
  * A wrapper over {@link org.apache.log4j.Logger org.apache.log4j.Logger} in
@@ -51,7 +52,7 @@ import org.slf4j.spi.LocationAwareLogger;
  * @author Ceki G&uuml;lc&uuml;
  */
 public final class Log4jLoggerAdapter extends MarkerIgnoringBase implements
-    LocationAwareLogger, Serializable {
+    LocationAwareLogger, PrimitiveArgLogger, Serializable {
 
   private static final long serialVersionUID = 6182834493563598289L;
 
@@ -571,6 +572,311 @@ public final class Log4jLoggerAdapter extends MarkerIgnoringBase implements
     logger.log(FQCN, Level.ERROR, msg, t);
   }
 
+  /**
+   * Log a message at level TRACE according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   */
+  public void trace(String format, long arg) {
+    if (isTraceEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, traceCapable ? Level.TRACE : Level.DEBUG, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level TRACE according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   */
+  public void trace(String format, double arg) {
+    if (isTraceEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, traceCapable ? Level.TRACE : Level.DEBUG, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level TRACE according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   */
+  public void trace(String format, boolean arg) {
+    if (isTraceEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, traceCapable ? Level.TRACE : Level.DEBUG, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level TRACE according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   */
+  public void trace(String format, long arg1, long arg2) {
+    if (isTraceEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      logger.log(FQCN, traceCapable ? Level.TRACE : Level.DEBUG, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level TRACE according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   */
+  public void trace(String format, Object arg1, long arg2) {
+    if (isTraceEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      logger.log(FQCN, traceCapable ? Level.TRACE : Level.DEBUG, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level DEBUG according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   */
+  public void debug(String format, long arg) {
+    if (logger.isDebugEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, Level.DEBUG, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level DEBUG according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   */
+  public void debug(String format, double arg) {
+    if (logger.isDebugEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, Level.DEBUG, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level DEBUG according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   */
+  public void debug(String format, boolean arg) {
+    if (logger.isDebugEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, Level.DEBUG, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level DEBUG according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   */
+  public void debug(String format, long arg1, long arg2) {
+    if (logger.isDebugEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      logger.log(FQCN, Level.DEBUG, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level DEBUG according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   */
+  public void debug(String format, Object arg1, long arg2) {
+    if (logger.isDebugEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      logger.log(FQCN, Level.DEBUG, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level INFO according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   */
+  public void info(String format, long arg) {
+    if (logger.isInfoEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, Level.INFO, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level INFO according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   */
+  public void info(String format, double arg) {
+    if (logger.isInfoEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, Level.INFO, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level INFO according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   */
+  public void info(String format, boolean arg) {
+    if (logger.isInfoEnabled()) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, Level.INFO, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level INFO according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   */
+  public void info(String format, long arg1, long arg2) {
+    if (logger.isInfoEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      logger.log(FQCN, Level.INFO, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level INFO according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   */
+  public void info(String format, Object arg1, long arg2) {
+    if (logger.isInfoEnabled()) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      logger.log(FQCN, Level.INFO, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level WARN according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   */
+  public void warn(String format, long arg) {
+    if (logger.isEnabledFor(Level.WARN)) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, Level.WARN, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level WARN according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   */
+  public void warn(String format, double arg) {
+    if (logger.isEnabledFor(Level.WARN)) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, Level.WARN, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level WARN according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   */
+  public void warn(String format, boolean arg) {
+    if (logger.isEnabledFor(Level.WARN)) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, Level.WARN, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level WARN according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   */
+  public void warn(String format, long arg1, long arg2) {
+    if (logger.isEnabledFor(Level.WARN)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      logger.log(FQCN, Level.WARN, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level WARN according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   */
+  public void warn(String format, Object arg1, long arg2) {
+    if (logger.isEnabledFor(Level.WARN)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      logger.log(FQCN, Level.WARN, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level ERROR according to the specified format and
+   * a <code>long</code> argument, without boxing.
+   */
+  public void error(String format, long arg) {
+    if (logger.isEnabledFor(Level.ERROR)) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, Level.ERROR, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level ERROR according to the specified format and
+   * a <code>double</code> argument, without boxing.
+   */
+  public void error(String format, double arg) {
+    if (logger.isEnabledFor(Level.ERROR)) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, Level.ERROR, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level ERROR according to the specified format and
+   * a <code>boolean</code> argument, without boxing.
+   */
+  public void error(String format, boolean arg) {
+    if (logger.isEnabledFor(Level.ERROR)) {
+      String msgStr = formatMessage(format, arg);
+      logger.log(FQCN, Level.ERROR, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level ERROR according to the specified format and
+   * two <code>long</code> arguments, without boxing.
+   */
+  public void error(String format, long arg1, long arg2) {
+    if (logger.isEnabledFor(Level.ERROR)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      logger.log(FQCN, Level.ERROR, msgStr, null);
+    }
+  }
+
+  /**
+   * Log a message at level ERROR according to the specified format and
+   * an object and a <code>long</code> argument, without boxing.
+   */
+  public void error(String format, Object arg1, long arg2) {
+    if (logger.isEnabledFor(Level.ERROR)) {
+      String msgStr = formatMessage(format, arg1, arg2);
+      logger.log(FQCN, Level.ERROR, msgStr, null);
+    }
+  }
+
+  private static String formatMessage(String format, long arg) {
+    StringBuffer sbuf = new StringBuffer();
+    MessageFormatter.appendTo(sbuf, format, arg);
+    return sbuf.toString();
+  }
+
+  private static String formatMessage(String format, double arg) {
+    StringBuffer sbuf = new StringBuffer();
+    MessageFormatter.appendTo(sbuf, format, arg);
+    return sbuf.toString();
+  }
+
+  private static String formatMessage(String format, boolean arg) {
+    StringBuffer sbuf = new StringBuffer();
+    MessageFormatter.appendTo(sbuf, format, arg);
+    return sbuf.toString();
+  }
+
+  private static String formatMessage(String format, long arg1, long arg2) {
+    StringBuffer sbuf = new StringBuffer();
+    MessageFormatter.appendTo(sbuf, format, arg1, arg2);
+    return sbuf.toString();
+  }
+
+  private static String formatMessage(String format, Object arg1, long arg2) {
+    StringBuffer sbuf = new StringBuffer();
+    MessageFormatter.appendTo(sbuf, format, arg1, arg2);
+    return sbuf.toString();
+  }
+
   public void log(Marker marker, String callerFQCN, int level, String msg,
       Throwable t) {
     Level log4jLevel;
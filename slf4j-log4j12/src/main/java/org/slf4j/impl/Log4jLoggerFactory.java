@@ -33,12 +33,10 @@
 
 package org.slf4j.impl;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.apache.log4j.LogManager;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.Logger;
+import org.slf4j.helpers.ConcurrentRegistry;
 
 /**
  * Log4jLoggerFactory is an implementation of {@link ILoggerFactory} returning
@@ -49,10 +47,21 @@ import org.slf4j.Logger;
 public class Log4jLoggerFactory implements ILoggerFactory {
 
   // key: name (String), value: a Log4jLoggerAdapter;
-  Map loggerMap;
+  final ConcurrentRegistry loggerRegistry = new ConcurrentRegistry();
+
+  private final ConcurrentRegistry.Creator loggerCreator = new ConcurrentRegistry.Creator() {
+    public Object create(String name) {
+      org.apache.log4j.Logger log4jLogger;
+      if (name.equalsIgnoreCase(Logger.ROOT_LOGGER_NAME)) {
+        log4jLogger = LogManager.getRootLogger();
+      } else {
+        log4jLogger = LogManager.getLogger(name);
+      }
+      return new Log4jLoggerAdapter(log4jLogger);
+    }
+  };
 
   public Log4jLoggerFactory() {
-    loggerMap = new HashMap();
   }
 
   /*
@@ -61,21 +70,6 @@ public class Log4jLoggerFactory implements ILoggerFactory {
    * @see org.slf4j.ILoggerFactory#getLogger(java.lang.String)
    */
   public Logger getLogger(String name) {
-    Logger slf4jLogger = null;
-    // protect against concurrent access of loggerMap
-    synchronized (this) {
-        slf4jLogger = (Logger) loggerMap.get(name);
-      if (slf4jLogger == null) {
-        org.apache.log4j.Logger log4jLogger;
-        if(name.equalsIgnoreCase(Logger.ROOT_LOGGER_NAME)) {
-           log4jLogger = LogManager.getRootLogger();
-        } else {
-          log4jLogger = LogManager.getLogger(name);
-        }
-        slf4jLogger = new Log4jLoggerAdapter(log4jLogger);
-        loggerMap.put(name, slf4jLogger);
-      }
-    }
-    return slf4jLogger;
+    return (Logger) loggerRegistry.getOrCreate(name, loggerCreator);
   }
 }
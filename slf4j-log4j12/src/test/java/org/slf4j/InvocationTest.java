@@ -40,6 +40,8 @@ import org.apache.log4j.spi.LoggingEvent;
 
 import junit.framework.TestCase;
 
+import org.slf4j.spi.PrimitiveArgLogger;
+
 /**
  * Test whether invoking the SLF4J API causes problems or not.
  * 
@@ -179,5 +181,15 @@ public class InvocationTest extends TestCase {
     assertEquals("va", MDC.get("ka"));
     assertEquals("vb", MDC.get("kb"));
   }
-  
+
+  public void testPrimitiveArgs() {
+    Logger logger = LoggerFactory.getLogger("testPrimitiveArgs");
+    assertTrue(logger instanceof PrimitiveArgLogger);
+    PrimitiveArgLogger pLogger = (PrimitiveArgLogger) logger;
+    pLogger.debug("latency={}", 10L);
+    pLogger.info("ratio={}", 0.5);
+    pLogger.warn("enabled={}", true);
+    pLogger.error("latency={} bytes={}", 10L, 2048);
+    pLogger.error("user={} bytes={}", "alice", 2048);
+  }
 }
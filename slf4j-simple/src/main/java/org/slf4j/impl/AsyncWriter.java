@@ -0,0 +1,360 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.impl;
+
+import java.util.Map;
+
+import org.slf4j.helpers.MessageFormatter;
+import org.slf4j.helpers.Util;
+
+/**
+ * Writes the log lines of {@link SimpleLogger} from a background thread.
+ * 
+ * <p>
+ * Logging threads claim a slot in a preallocated ring buffer and fill in the
+ * fields of the event, which a single writer thread later renders and
+ * writes. Messages whose arguments are all immutable, e.g. strings or
+ * numbers, are even formatted by the writer thread. Other messages are
+ * formatted by the logging thread, as their arguments may change by the time
+ * the writer gets to them.
+ * 
+ * <p>
+ * The writer lets its {@link LogOutput} flush once per batch of events rather
+ * than once per event. When the buffer is full, logging threads either wait for the
+ * writer to catch up, drop the event, or drop it only if its level is below
+ * WARN, depending on the configured policy. The number of dropped events is
+ * reported in the output.
+ * 
+ * <p>
+ * Pending events are written out when the JVM shuts down.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+final class AsyncWriter implements Runnable {
+
+  static final int DEFAULT_BUFFER_SIZE = 1024;
+
+  /**
+   * Logging threads wait until a slot becomes available.
+   */
+  static final int BLOCK = 0;
+  /**
+   * Events are dropped while the buffer is full.
+   */
+  static final int DROP = 1;
+  /**
+   * Events of level INFO or below are dropped while the buffer is full,
+   * logging threads wait for WARN and ERROR events.
+   */
+  static final int DROP_BELOW_WARN = 2;
+
+  static final class Slot {
+    long timeStamp;
+    String threadName;
+    int level;
+    String loggerName;
+    // the message, or the format if 'deferred' is set
+    String message;
+    boolean deferred;
+    Object arg1;
+    Object arg2;
+    Object[] argArray;
+    Throwable throwable;
+    // the MDC of the logging thread, if rendered
+    Map context;
+
+    void clear() {
+      threadName = null;
+      loggerName = null;
+      message = null;
+      arg1 = null;
+      arg2 = null;
+      argArray = null;
+      throwable = null;
+      context = null;
+    }
+  }
+
+  private final Slot[] slots;
+  private final int mask;
+  private final int fullPolicy;
+  private final LogOutput output;
+
+  private final Object lock = new Object();
+  // the following fields are guarded by 'lock'
+  private long head; // sequence number of the next slot to claim
+  private long tail; // sequence number of the next slot to write
+  private int droppedCount;
+  private boolean stopped;
+
+  private Thread writerThread;
+
+  /**
+   * @param bufferSize
+   *          the minimal number of events which can be queued
+   * @param fullPolicy
+   *          one of {@link #BLOCK}, {@link #DROP} and {@link #DROP_BELOW_WARN}
+   * @param output
+   *          where to write the events
+   */
+  AsyncWriter(int bufferSize, int fullPolicy, LogOutput output) {
+    int capacity = 1;
+    while (capacity < bufferSize) {
+      capacity <<= 1;
+    }
+    slots = new Slot[capacity];
+    for (int i = 0; i < capacity; i++) {
+      slots[i] = new Slot();
+    }
+    mask = capacity - 1;
+    this.fullPolicy = fullPolicy;
+    this.output = output;
+  }
+
+  static int parseFullPolicy(String policy) {
+    if (policy == null || "block".equalsIgnoreCase(policy.trim())) {
+      return BLOCK;
+    } else if ("drop".equalsIgnoreCase(policy.trim())) {
+      return DROP;
+    } else if ("dropBelowWarn".equalsIgnoreCase(policy.trim())) {
+      return DROP_BELOW_WARN;
+    }
+    Util.reportFailure("Unknown value [" + policy + "] for "
+        + SimpleLogger.ASYNC_FULL_POLICY_KEY + ", using \"block\"");
+    return BLOCK;
+  }
+
+  void start() {
+    writerThread = new Thread(this, "slf4j-simple-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /**
+   * Queue a preformatted message.
+   * 
+   * @return false if the caller should write the event itself, as this
+   *         writer is stopped
+   */
+  boolean enqueue(int level, String loggerName, String message, Throwable t) {
+    return offer(System.currentTimeMillis(), Thread.currentThread().getName(),
+        SimpleLogger.currentContext(), level, loggerName, message, false,
+        null, null, null, t);
+  }
+
+  /**
+   * Queue a preformatted message of an event which occurred earlier, such as
+   * the events kept by {@link FlightRecorder}.
+   * 
+   * @return false if the caller should write the event itself, as this
+   *         writer is stopped
+   */
+  boolean enqueue(long timeStamp, String threadName, Map context, int level,
+      String loggerName, String message, Throwable t) {
+    return offer(timeStamp, threadName, context, level, loggerName, message,
+        false, null, null, null, t);
+  }
+
+  /**
+   * Queue a message to be formatted by the writer thread, provided its
+   * arguments are immutable.
+   * 
+   * @return false if the caller should format and write the message itself
+   */
+  boolean enqueue(int level, String loggerName, String format, Object arg1,
+      Object arg2, Object[] argArray) {
+    if (!isImmutable(arg1) || !isImmutable(arg2)) {
+      return false;
+    }
+    if (argArray != null) {
+      for (int i = 0; i < argArray.length; i++) {
+        if (!isImmutable(argArray[i])) {
+          return false;
+        }
+      }
+      // the caller may reuse its array
+      argArray = (Object[]) argArray.clone();
+    }
+    return offer(System.currentTimeMillis(), Thread.currentThread().getName(),
+        SimpleLogger.currentContext(), level, loggerName, format, true, arg1,
+        arg2, argArray, null);
+  }
+
+  private static boolean isImmutable(Object o) {
+    if (o == null) {
+      return true;
+    }
+    Class c = o.getClass();
+    return c == String.class || c == Integer.class || c == Long.class
+        || c == Boolean.class || c == Double.class || c == Float.class
+        || c == Character.class || c == Short.class || c == Byte.class;
+  }
+
+  /**
+   * Claim the next slot and fill it in.
+   * 
+   * @return true if the event was queued or dropped, false if the caller
+   *         should write it itself
+   */
+  private boolean offer(long timeStamp, String threadName, Map context,
+      int level, String loggerName, String message, boolean deferred,
+      Object arg1, Object arg2, Object[] argArray, Throwable t) {
+    Thread currentThread = Thread.currentThread();
+    if (currentThread == writerThread) {
+      // e.g. the writer printing a stack trace which logs, waiting for a free
+      // slot would deadlock
+      return false;
+    }
+    synchronized (lock) {
+      while (head - tail == slots.length && !stopped) {
+        if (fullPolicy == DROP
+            || (fullPolicy == DROP_BELOW_WARN && level < SimpleLogger.LOG_LEVEL_WARN)) {
+          droppedCount++;
+          return true;
+        }
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          // keep the interruption visible to the caller, drop the event
+          currentThread.interrupt();
+          droppedCount++;
+          return true;
+        }
+      }
+      if (stopped) {
+        return false;
+      }
+      Slot slot = slots[(int) head & mask];
+      slot.timeStamp = timeStamp;
+      slot.threadName = threadName;
+      slot.level = level;
+      slot.loggerName = loggerName;
+      slot.message = message;
+      slot.deferred = deferred;
+      slot.arg1 = arg1;
+      slot.arg2 = arg2;
+      slot.argArray = argArray;
+      slot.throwable = t;
+      slot.context = context;
+      if (head++ == tail) {
+        // the writer may be waiting for an event
+        lock.notifyAll();
+      }
+      return true;
+    }
+  }
+
+  public void run() {
+    StringBuffer buf = new StringBuffer(256);
+    while (true) {
+      long end;
+      int dropped;
+      synchronized (lock) {
+        while (head == tail && !stopped) {
+          try {
+            lock.wait();
+          } catch (InterruptedException e) {
+            // only stop() ends this thread
+          }
+        }
+        if (head == tail) {
+          // stopped and drained
+          lock.notifyAll();
+          return;
+        }
+        end = head;
+        dropped = droppedCount;
+        droppedCount = 0;
+      }
+      if (dropped > 0) {
+        writeDroppedCount(buf, dropped);
+      }
+      for (long sequence = tail; sequence < end; sequence++) {
+        Slot slot = slots[(int) sequence & mask];
+        write(slot, buf, sequence == end - 1);
+        slot.clear();
+      }
+      synchronized (lock) {
+        tail = end;
+        // logging threads may be waiting for a free slot
+        lock.notifyAll();
+      }
+    }
+  }
+
+  private void writeDroppedCount(StringBuffer buf, int dropped) {
+    buf.setLength(0);
+    int messageStart = 0;
+    if (SimpleLogger.JSON) {
+      // keep the output parseable
+      messageStart = SimpleLogger.appendPrefix(buf, System.currentTimeMillis(),
+          writerThread.getName(), SimpleLogger.LOG_LEVEL_WARN, "SLF4J");
+    } else {
+      buf.append("SLF4J: ");
+    }
+    buf.append(dropped).append(
+        " log events were dropped as the log buffer was full.");
+    SimpleLogger.appendSuffix(buf, messageStart, null, null);
+    output.write(buf, null, SimpleLogger.LOG_LEVEL_WARN, false);
+  }
+
+  private void write(Slot slot, StringBuffer buf, boolean endOfBatch) {
+    buf.setLength(0);
+    int messageStart = SimpleLogger.appendPrefix(buf, slot.timeStamp,
+        slot.threadName, slot.level, slot.loggerName);
+    if (!slot.deferred) {
+      buf.append(slot.message);
+    } else if (slot.argArray != null) {
+      MessageFormatter.arrayAppendTo(buf, slot.message, slot.argArray);
+    } else {
+      MessageFormatter.appendTo(buf, slot.message, slot.arg1, slot.arg2);
+    }
+    Throwable t = SimpleLogger.appendSuffix(buf, messageStart, slot.context,
+        slot.throwable);
+    output.write(buf, t, slot.level, endOfBatch);
+  }
+
+  /**
+   * Stop accepting events and wait for pending ones to be written. Events
+   * logged after this method is called are written by the logging thread.
+   * 
+   * @param timeoutMillis
+   *          how long to wait for pending events to be written
+   */
+  void stop(long timeoutMillis) {
+    synchronized (lock) {
+      stopped = true;
+      lock.notifyAll();
+    }
+    if (writerThread != null && Thread.currentThread() != writerThread) {
+      try {
+        writerThread.join(timeoutMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,312 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * Renders the log files written by {@link BinaryOutput} as text, in the same
+ * format as {@link SimpleLogger}.
+ * 
+ * <p>
+ * Usage:
+ * 
+ * <pre>
+ * java -cp slf4j-api.jar:slf4j-simple.jar org.slf4j.impl.BinaryLogDecoder [-d datePattern] file...
+ * </pre>
+ * 
+ * Lines are written to <code>System.out</code>. Times are rendered relative
+ * to the start of the logging application unless a
+ * {@link java.text.SimpleDateFormat} pattern is given with the -d option.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+public class BinaryLogDecoder {
+
+  private final CachedDateFormat dateFormat;
+  private final StringBuffer buf = new StringBuffer(256);
+
+  // the dictionaries of the current file section, indexed by identifier
+  private final List patterns = new ArrayList();
+  private final List loggers = new ArrayList();
+  private final List threads = new ArrayList();
+  private long startTime;
+
+  /**
+   * @param dateFormat
+   *          renders timestamps, null to render them relative to the start
+   *          time of the logging application
+   */
+  BinaryLogDecoder(CachedDateFormat dateFormat) {
+    this.dateFormat = dateFormat;
+  }
+
+  public static void main(String[] args) {
+    int first = 0;
+    CachedDateFormat dateFormat = null;
+    if (args.length >= 2 && "-d".equals(args[0])) {
+      try {
+        dateFormat = new CachedDateFormat(args[1]);
+      } catch (IllegalArgumentException e) {
+        System.err.println("Invalid date pattern [" + args[1] + "]: "
+            + e.getMessage());
+        System.exit(1);
+      }
+      first = 2;
+    }
+    if (first == args.length) {
+      System.err.println("Usage: java " + BinaryLogDecoder.class.getName()
+          + " [-d datePattern] file...");
+      System.exit(1);
+    }
+    BinaryLogDecoder decoder = new BinaryLogDecoder(dateFormat);
+    for (int i = first; i < args.length; i++) {
+      try {
+        InputStream in = new FileInputStream(args[i]);
+        try {
+          decoder.decode(in, System.out);
+        } finally {
+          in.close();
+        }
+      } catch (IOException e) {
+        System.err.println("Could not decode [" + args[i] + "]: " + e);
+        System.exit(2);
+      }
+    }
+    System.out.flush();
+  }
+
+  /**
+   * Render the records of 'in' to 'out'. A record cut short by the end of
+   * the stream, as happens when the logging application is killed, is
+   * ignored.
+   * 
+   * @return the number of lines rendered
+   */
+  int decode(InputStream in, PrintStream out) throws IOException {
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    int count = 0;
+    while (true) {
+      int type = data.read();
+      if (type == -1) {
+        return count;
+      }
+      try {
+        if (decodeRecord((byte) type, data, out)) {
+          count++;
+        }
+      } catch (EOFException e) {
+        System.err.println("Ignoring truncated record at end of file");
+        return count;
+      }
+    }
+  }
+
+  /**
+   * @return true if a line was rendered
+   */
+  private boolean decodeRecord(byte type, DataInputStream in, PrintStream out)
+      throws IOException {
+    switch (type) {
+    case BinaryOutput.HEADER:
+      if (in.readInt() != BinaryOutput.MAGIC) {
+        throw new IOException("Not a binary log file");
+      }
+      int version = in.readShort();
+      if (version != BinaryOutput.VERSION) {
+        throw new IOException("Unsupported version " + version);
+      }
+      startTime = in.readLong();
+      patterns.clear();
+      loggers.clear();
+      threads.clear();
+      return false;
+    case BinaryOutput.PATTERN_DEFINITION:
+      define(patterns, in);
+      return false;
+    case BinaryOutput.LOGGER_DEFINITION:
+      define(loggers, in);
+      return false;
+    case BinaryOutput.THREAD_DEFINITION:
+      define(threads, in);
+      return false;
+    case BinaryOutput.EVENT:
+    case BinaryOutput.MESSAGE: {
+      long timeStamp = in.readLong();
+      int level = in.readByte();
+      String loggerName = readReference(loggers, in);
+      String threadName = readReference(threads, in);
+      String pattern = readReference(patterns, in);
+      buf.setLength(0);
+      if (dateFormat != null) {
+        dateFormat.appendTo(buf, timeStamp);
+      } else {
+        buf.append(timeStamp - startTime);
+      }
+      buf.append(" [").append(threadName).append("] ");
+      buf.append(SimpleLogger.levelString(level)).append(' ');
+      buf.append(loggerName).append(" - ");
+      if (type == BinaryOutput.EVENT) {
+        appendMessage(pattern, in);
+      } else {
+        buf.append(pattern);
+      }
+      writeLine(in, out);
+      return true;
+    }
+    case BinaryOutput.LINE:
+      buf.setLength(0);
+      buf.append(readString(in));
+      writeLine(in, out);
+      return true;
+    default:
+      throw new IOException("Unknown record type " + type);
+    }
+  }
+
+  private void appendMessage(String pattern, DataInputStream in)
+      throws IOException {
+    byte shape = in.readByte();
+    switch (shape) {
+    case BinaryOutput.SHAPE_OBJECT_OBJECT: {
+      Object arg1 = readArgument(in);
+      Object arg2 = readArgument(in);
+      MessageFormatter.appendTo(buf, pattern, arg1, arg2);
+      break;
+    }
+    case BinaryOutput.SHAPE_ARRAY: {
+      int length = in.readInt();
+      Object[] argArray = null;
+      if (length >= 0) {
+        argArray = new Object[length];
+        for (int i = 0; i < length; i++) {
+          argArray[i] = readArgument(in);
+        }
+      }
+      MessageFormatter.arrayAppendTo(buf, pattern, argArray);
+      break;
+    }
+    case BinaryOutput.SHAPE_LONG:
+      MessageFormatter.appendTo(buf, pattern, in.readLong());
+      break;
+    case BinaryOutput.SHAPE_DOUBLE:
+      MessageFormatter.appendTo(buf, pattern, in.readDouble());
+      break;
+    case BinaryOutput.SHAPE_BOOLEAN:
+      MessageFormatter.appendTo(buf, pattern, in.readBoolean());
+      break;
+    case BinaryOutput.SHAPE_LONG_LONG: {
+      long arg1 = in.readLong();
+      long arg2 = in.readLong();
+      MessageFormatter.appendTo(buf, pattern, arg1, arg2);
+      break;
+    }
+    case BinaryOutput.SHAPE_OBJECT_LONG: {
+      Object arg1 = readArgument(in);
+      long arg2 = in.readLong();
+      MessageFormatter.appendTo(buf, pattern, arg1, arg2);
+      break;
+    }
+    default:
+      throw new IOException("Unknown event shape " + shape);
+    }
+  }
+
+  private void writeLine(DataInputStream in, PrintStream out)
+      throws IOException {
+    buf.append(SimpleLogger.LINE_SEPARATOR);
+    if (in.readBoolean()) {
+      // the stack trace ends with a line separator
+      buf.append(readString(in));
+    }
+    out.print(buf);
+  }
+
+  private static void define(List dictionary, DataInputStream in)
+      throws IOException {
+    int id = in.readInt();
+    String s = readString(in);
+    while (dictionary.size() <= id) {
+      dictionary.add(null);
+    }
+    dictionary.set(id, s);
+  }
+
+  private static String readReference(List dictionary, DataInputStream in)
+      throws IOException {
+    int id = in.readInt();
+    if (id == BinaryOutput.INLINE) {
+      return in.readBoolean() ? readString(in) : null;
+    }
+    if (id < 0 || id >= dictionary.size()) {
+      throw new IOException("Undefined identifier " + id);
+    }
+    return (String) dictionary.get(id);
+  }
+
+  private static Object readArgument(DataInputStream in) throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+    case BinaryOutput.ARG_NULL:
+      return null;
+    case BinaryOutput.ARG_STRING:
+      return readString(in);
+    case BinaryOutput.ARG_LONG:
+      return new Long(in.readLong());
+    case BinaryOutput.ARG_INTEGER:
+      return new Integer(in.readInt());
+    case BinaryOutput.ARG_DOUBLE:
+      return new Double(in.readDouble());
+    case BinaryOutput.ARG_FLOAT:
+      return new Float(in.readFloat());
+    case BinaryOutput.ARG_BOOLEAN:
+      return Boolean.valueOf(in.readBoolean());
+    default:
+      throw new IOException("Unknown argument tag " + tag);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length <= BinaryOutput.MAX_UTF_CHUNK) {
+      return in.readUTF();
+    }
+    StringBuffer sb = new StringBuffer(length);
+    while (sb.length() < length) {
+      sb.append(in.readUTF());
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,606 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.io.DataInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.slf4j.helpers.MessageFormatter;
+import org.slf4j.helpers.Util;
+
+/**
+ * Appends log events to a file in a compact binary format, leaving the
+ * rendering of log lines to {@link BinaryLogDecoder}.
+ * 
+ * <p>
+ * Instead of a rendered line, an event consists of its timestamp, its level,
+ * the identifiers of its logger, thread and message pattern, and the raw
+ * values of its arguments. Logger names, thread names and patterns are
+ * written once, in a definition record assigning them an identifier. Past
+ * {@value #MAX_DICTIONARY_SIZE} entries, e.g. when messages are built by
+ * concatenation, further strings are written inline.
+ * 
+ * <p>
+ * Arguments of type String, Boolean and the primitive wrappers are written as
+ * such. Other arguments, as well as throwables, are rendered to a string at
+ * the time of logging, as the decoder would otherwise not know about them.
+ * Rendering takes place before the record is begun, so that an argument whose
+ * <code>toString()</code> method logs in turn does not interleave its own
+ * record with the one being written.
+ * 
+ * <p>
+ * The file is a sequence of records, each starting with a type byte, whose
+ * fields can be read with a {@link DataInputStream}. Every time the file is
+ * opened for appending, a {@link #HEADER} record is written and identifiers
+ * are assigned anew. Records are encoded directly into a byte buffer, which
+ * is written to the file when full, when an event of level ERROR is logged,
+ * and at the flush interval.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+class BinaryOutput extends LogOutput {
+
+  static final int MAGIC = 0x534C4642; // "SLFB"
+  static final int VERSION = 1;
+
+  // record types
+  /** MAGIC (int), VERSION (short), start time (long) */
+  static final byte HEADER = 0;
+  /** identifier (int), pattern (string) */
+  static final byte PATTERN_DEFINITION = 1;
+  /** identifier (int), logger name (string) */
+  static final byte LOGGER_DEFINITION = 2;
+  /** identifier (int), thread name (string) */
+  static final byte THREAD_DEFINITION = 3;
+  /**
+   * time stamp (long), level (byte), logger (ref), thread (ref), pattern
+   * (ref), shape (byte), arguments according to the shape, throwable
+   */
+  static final byte EVENT = 4;
+  /**
+   * time stamp (long), level (byte), logger (ref), thread (ref), message
+   * (ref), throwable
+   */
+  static final byte MESSAGE = 5;
+  /** an already rendered line (string), throwable */
+  static final byte LINE = 6;
+
+  // event shapes, telling which MessageFormatter method renders the event
+  /** two arguments */
+  static final byte SHAPE_OBJECT_OBJECT = 0;
+  /** argument count (int, -1 for a null array), arguments */
+  static final byte SHAPE_ARRAY = 1;
+  /** long (long) */
+  static final byte SHAPE_LONG = 2;
+  /** double (double) */
+  static final byte SHAPE_DOUBLE = 3;
+  /** boolean (boolean) */
+  static final byte SHAPE_BOOLEAN = 4;
+  /** long (long), long (long) */
+  static final byte SHAPE_LONG_LONG = 5;
+  /** argument, long (long) */
+  static final byte SHAPE_OBJECT_LONG = 6;
+
+  // argument tags, each followed by the value unless null
+  static final byte ARG_NULL = 0;
+  static final byte ARG_STRING = 1;
+  static final byte ARG_LONG = 2;
+  static final byte ARG_INTEGER = 3;
+  static final byte ARG_DOUBLE = 4;
+  static final byte ARG_FLOAT = 5;
+  static final byte ARG_BOOLEAN = 6;
+
+  /**
+   * A reference is the identifier of a definition, or {@link #INLINE}
+   * followed by the string itself.
+   */
+  static final int INLINE = -1;
+
+  /**
+   * Strings are written as their length (int) followed by chunks of at most
+   * this many characters, each in the format read by
+   * {@link DataInputStream#readUTF()}.
+   */
+  static final int MAX_UTF_CHUNK = 65535 / 3;
+
+  static final int MAX_DICTIONARY_SIZE = 64 * 1024;
+
+  // room for the fixed size fields of any record
+  private static final int MIN_BUFFER_SIZE = 1024;
+  private static final int MAX_FIXED_SIZE = 64;
+
+  private final String fileName;
+  private final FileOutputStream fileOutputStream;
+  private final FileChannel channel;
+  private final Timer timer;
+
+  // the following fields are guarded by this
+  private final ByteBuffer out;
+  private final Map patterns = new HashMap();
+  private final Map loggers = new HashMap();
+  private final Map threads = new HashMap();
+  private boolean closed;
+  private boolean failureReported;
+
+  /**
+   * @param fileName
+   *          the file to append to
+   * @param startTime
+   *          the time relative timestamps are computed from
+   * @param bufferSize
+   *          the size of the buffer, in bytes
+   * @param flushIntervalMillis
+   *          how often buffered events should be written, or 0 if only when
+   *          the buffer is full
+   */
+  BinaryOutput(String fileName, long startTime, int bufferSize,
+      long flushIntervalMillis) throws IOException {
+    this.fileName = fileName;
+    this.fileOutputStream = new FileOutputStream(fileName, true);
+    this.channel = fileOutputStream.getChannel();
+    this.out = ByteBuffer.allocate(Math.max(bufferSize, MIN_BUFFER_SIZE));
+    out.put(HEADER);
+    out.putInt(MAGIC);
+    out.putShort((short) VERSION);
+    out.putLong(startTime);
+    if (flushIntervalMillis > 0) {
+      timer = new Timer(true);
+      timer.schedule(new TimerTask() {
+        public void run() {
+          flush();
+        }
+      }, flushIntervalMillis, flushIntervalMillis);
+    } else {
+      timer = null;
+    }
+  }
+
+  /**
+   * Write an event whose arguments are objects, as passed to
+   * {@link MessageFormatter#appendTo(StringBuffer, String, Object, Object)}.
+   */
+  void writeEvent(int level, String loggerName, String pattern, Object arg1,
+      Object arg2) {
+    arg1 = toWritable(arg1);
+    arg2 = toWritable(arg2);
+    synchronized (this) {
+      try {
+        if (beginEvent(EVENT, level, loggerName, pattern)) {
+          out.put(SHAPE_OBJECT_OBJECT);
+          writeArgument(arg1);
+          writeArgument(arg2);
+          endEvent(level, null);
+        }
+      } catch (IOException e) {
+        reportFailure(e);
+      }
+    }
+  }
+
+  /**
+   * Write an event whose arguments are passed as an array.
+   */
+  void writeEvent(int level, String loggerName, String pattern,
+      Object[] argArray) {
+    argArray = toWritable(argArray);
+    synchronized (this) {
+      try {
+        if (beginEvent(EVENT, level, loggerName, pattern)) {
+          out.put(SHAPE_ARRAY);
+          if (argArray == null) {
+            out.putInt(-1);
+          } else {
+            out.putInt(argArray.length);
+            for (int i = 0; i < argArray.length; i++) {
+              writeArgument(argArray[i]);
+            }
+          }
+          endEvent(level, null);
+        }
+      } catch (IOException e) {
+        reportFailure(e);
+      }
+    }
+  }
+
+  synchronized void writeEvent(int level, String loggerName, String pattern,
+      long arg) {
+    try {
+      if (beginEvent(EVENT, level, loggerName, pattern)) {
+        out.put(SHAPE_LONG);
+        out.putLong(arg);
+        endEvent(level, null);
+      }
+    } catch (IOException e) {
+      reportFailure(e);
+    }
+  }
+
+  synchronized void writeEvent(int level, String loggerName, String pattern,
+      double arg) {
+    try {
+      if (beginEvent(EVENT, level, loggerName, pattern)) {
+        out.put(SHAPE_DOUBLE);
+        out.putDouble(arg);
+        endEvent(level, null);
+      }
+    } catch (IOException e) {
+      reportFailure(e);
+    }
+  }
+
+  synchronized void writeEvent(int level, String loggerName, String pattern,
+      boolean arg) {
+    try {
+      if (beginEvent(EVENT, level, loggerName, pattern)) {
+        out.put(SHAPE_BOOLEAN);
+        putBoolean(arg);
+        endEvent(level, null);
+      }
+    } catch (IOException e) {
+      reportFailure(e);
+    }
+  }
+
+  synchronized void writeEvent(int level, String loggerName, String pattern,
+      long arg1, long arg2) {
+    try {
+      if (beginEvent(EVENT, level, loggerName, pattern)) {
+        out.put(SHAPE_LONG_LONG);
+        out.putLong(arg1);
+        out.putLong(arg2);
+        endEvent(level, null);
+      }
+    } catch (IOException e) {
+      reportFailure(e);
+    }
+  }
+
+  void writeEvent(int level, String loggerName, String pattern, Object arg1,
+      long arg2) {
+    arg1 = toWritable(arg1);
+    synchronized (this) {
+      try {
+        if (beginEvent(EVENT, level, loggerName, pattern)) {
+          out.put(SHAPE_OBJECT_LONG);
+          writeArgument(arg1);
+          ensure(8);
+          out.putLong(arg2);
+          endEvent(level, null);
+        }
+      } catch (IOException e) {
+        reportFailure(e);
+      }
+    }
+  }
+
+  /**
+   * Write an event whose message is not a pattern.
+   */
+  void writeMessage(int level, String loggerName, String message, Throwable t) {
+    String stackTrace = renderStackTrace(t);
+    synchronized (this) {
+      try {
+        if (beginEvent(MESSAGE, level, loggerName, message)) {
+          endEvent(level, stackTrace);
+        }
+      } catch (IOException e) {
+        reportFailure(e);
+      }
+    }
+  }
+
+  /**
+   * Write an already rendered line. Used for lines which do not originate
+   * from a logger, such as reports of dropped events.
+   */
+  void write(StringBuffer line, Throwable t, int level, boolean endOfBatch) {
+    String stackTrace = renderStackTrace(t);
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      try {
+        ensure(1);
+        out.put(LINE);
+        writeString(line.toString());
+        endEvent(level, stackTrace);
+      } catch (IOException e) {
+        reportFailure(e);
+      }
+    }
+  }
+
+  /**
+   * Return 'arg' if it is written as such, and its rendering otherwise.
+   */
+  private static Object toWritable(Object arg) {
+    if (arg == null || arg instanceof String || arg instanceof Long
+        || arg instanceof Integer || arg instanceof Short
+        || arg instanceof Byte || arg instanceof Double
+        || arg instanceof Float || arg instanceof Boolean) {
+      return arg;
+    }
+    // rendered the way MessageFormatter renders arguments, arrays included
+    return MessageFormatter.format("{}", arg);
+  }
+
+  /**
+   * Return 'argArray' if its elements are written as such, and a copy holding
+   * their renderings otherwise.
+   */
+  private static Object[] toWritable(Object[] argArray) {
+    if (argArray == null) {
+      return null;
+    }
+    Object[] writable = argArray;
+    for (int i = 0; i < argArray.length; i++) {
+      Object arg = toWritable(argArray[i]);
+      if (arg != argArray[i]) {
+        if (writable == argArray) {
+          writable = (Object[]) argArray.clone();
+        }
+        writable[i] = arg;
+      }
+    }
+    return writable;
+  }
+
+  private static String renderStackTrace(Throwable t) {
+    if (t == null) {
+      return null;
+    }
+    StringBuffer stackTrace = new StringBuffer(1024);
+    SimpleLogger.THROWABLE_RENDERER.render(stackTrace, t);
+    return stackTrace.toString();
+  }
+
+  /**
+   * Write the common part of EVENT and MESSAGE records, up to and including
+   * the pattern or message. On return, the buffer has room for
+   * {@link #MAX_FIXED_SIZE} bytes.
+   * 
+   * @return false if this output is closed
+   */
+  private boolean beginEvent(byte type, int level, String loggerName,
+      String pattern) throws IOException {
+    if (closed) {
+      return false;
+    }
+    String threadName = Thread.currentThread().getName();
+    // definitions must precede the event
+    int loggerId = define(loggers, LOGGER_DEFINITION, loggerName);
+    int threadId = define(threads, THREAD_DEFINITION, threadName);
+    int patternId = define(patterns, PATTERN_DEFINITION, pattern);
+    ensure(10);
+    out.put(type);
+    out.putLong(System.currentTimeMillis());
+    out.put((byte) level);
+    writeReference(loggerId, loggerName);
+    writeReference(threadId, threadName);
+    writeReference(patternId, pattern);
+    ensure(MAX_FIXED_SIZE);
+    return true;
+  }
+
+  /**
+   * @param stackTrace
+   *          the rendered throwable of the event, if any
+   */
+  private void endEvent(int level, String stackTrace) throws IOException {
+    ensure(1);
+    if (stackTrace == null) {
+      putBoolean(false);
+    } else {
+      putBoolean(true);
+      writeString(stackTrace);
+    }
+    if (level >= SimpleLogger.LOG_LEVEL_ERROR) {
+      drain();
+    }
+  }
+
+  /**
+   * Return the identifier of 's' in 'dictionary', writing a definition record
+   * if 's' is not known yet, or {@link #INLINE} if the dictionary is full.
+   */
+  private int define(Map dictionary, byte definitionType, String s)
+      throws IOException {
+    if (s == null) {
+      return INLINE;
+    }
+    Integer id = (Integer) dictionary.get(s);
+    if (id != null) {
+      return id.intValue();
+    }
+    if (dictionary.size() >= MAX_DICTIONARY_SIZE) {
+      return INLINE;
+    }
+    int newId = dictionary.size();
+    dictionary.put(s, new Integer(newId));
+    ensure(5);
+    out.put(definitionType);
+    out.putInt(newId);
+    writeString(s);
+    return newId;
+  }
+
+  private void writeReference(int id, String s) throws IOException {
+    ensure(5);
+    out.putInt(id);
+    if (id == INLINE) {
+      putBoolean(s != null);
+      if (s != null) {
+        writeString(s);
+      }
+    }
+  }
+
+  /**
+   * Write an argument returned by {@link #toWritable(Object)}.
+   */
+  private void writeArgument(Object arg) throws IOException {
+    ensure(9);
+    if (arg == null) {
+      out.put(ARG_NULL);
+    } else if (arg instanceof String) {
+      out.put(ARG_STRING);
+      writeString((String) arg);
+    } else if (arg instanceof Long) {
+      out.put(ARG_LONG);
+      out.putLong(((Long) arg).longValue());
+    } else if (arg instanceof Integer || arg instanceof Short
+        || arg instanceof Byte) {
+      out.put(ARG_INTEGER);
+      out.putInt(((Number) arg).intValue());
+    } else if (arg instanceof Double) {
+      out.put(ARG_DOUBLE);
+      out.putDouble(((Double) arg).doubleValue());
+    } else if (arg instanceof Float) {
+      out.put(ARG_FLOAT);
+      out.putFloat(((Float) arg).floatValue());
+    } else {
+      out.put(ARG_BOOLEAN);
+      putBoolean(((Boolean) arg).booleanValue());
+    }
+  }
+
+  private void writeString(String s) throws IOException {
+    int length = s.length();
+    ensure(4);
+    out.putInt(length);
+    for (int i = 0; i < length; i += MAX_UTF_CHUNK) {
+      writeUTF(s, i, Math.min(length, i + MAX_UTF_CHUNK));
+    }
+  }
+
+  /**
+   * Write the characters of 's' from 'begin' to 'end' the way
+   * {@link java.io.DataOutputStream#writeUTF(String)} does.
+   */
+  private void writeUTF(String s, int begin, int end) throws IOException {
+    int utfLength = 0;
+    for (int i = begin; i < end; i++) {
+      char c = s.charAt(i);
+      if (c >= 0x0001 && c <= 0x007F) {
+        utfLength++;
+      } else if (c <= 0x07FF) {
+        utfLength += 2;
+      } else {
+        utfLength += 3;
+      }
+    }
+    ensure(2);
+    out.putShort((short) utfLength);
+    boolean fits = out.remaining() >= utfLength;
+    for (int i = begin; i < end; i++) {
+      if (!fits) {
+        ensure(3);
+      }
+      char c = s.charAt(i);
+      if (c >= 0x0001 && c <= 0x007F) {
+        out.put((byte) c);
+      } else if (c <= 0x07FF) {
+        out.put((byte) (0xC0 | ((c >> 6) & 0x1F)));
+        out.put((byte) (0x80 | (c & 0x3F)));
+      } else {
+        out.put((byte) (0xE0 | ((c >> 12) & 0x0F)));
+        out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+        out.put((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+  }
+
+  private void putBoolean(boolean b) {
+    out.put((byte) (b ? 1 : 0));
+  }
+
+  /**
+   * Make room for 'n' bytes in the buffer.
+   */
+  private void ensure(int n) throws IOException {
+    if (out.remaining() < n) {
+      drain();
+    }
+  }
+
+  /**
+   * Write the contents of the buffer to the file.
+   */
+  private void drain() throws IOException {
+    out.flip();
+    try {
+      while (out.hasRemaining()) {
+        channel.write(out);
+      }
+    } finally {
+      out.clear();
+    }
+  }
+
+  private void reportFailure(IOException e) {
+    if (!failureReported) {
+      failureReported = true;
+      Util.reportFailure("Could not write to log file [" + fileName + "]", e);
+    }
+  }
+
+  /**
+   * Write out the buffered events.
+   */
+  synchronized void flush() {
+    if (closed) {
+      return;
+    }
+    try {
+      drain();
+    } catch (IOException e) {
+      reportFailure(e);
+    }
+  }
+
+  synchronized void close() {
+    if (closed) {
+      return;
+    }
+    flush();
+    closed = true;
+    if (timer != null) {
+      timer.cancel();
+    }
+    try {
+      fileOutputStream.close();
+    } catch (IOException e) {
+      Util.reportFailure("Could not close log file [" + fileName + "]", e);
+    }
+  }
+}
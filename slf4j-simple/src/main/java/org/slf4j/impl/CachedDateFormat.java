@@ -0,0 +1,155 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Renders timestamps according to a {@link SimpleDateFormat} pattern,
+ * formatting the date only once per second.
+ * 
+ * <p>
+ * The text of the current second is cached. When the pattern contains
+ * milliseconds as "SSS", rendering a timestamp within the cached second
+ * amounts to copying the cached text and writing the three millisecond
+ * digits in place. Other patterns involving milliseconds are formatted on
+ * each call, with a per-thread {@link SimpleDateFormat}.
+ * 
+ * <p>
+ * The cache is an immutable object published through a volatile field, so
+ * that threads never wait for each other. Threads racing at the turn of a
+ * second may each format that second, the last one winning.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+class CachedDateFormat {
+
+  private static final class CachedSecond {
+    final long second;
+    final char[] text;
+
+    CachedSecond(long second, char[] text) {
+      this.second = second;
+      this.text = text;
+    }
+  }
+
+  private final String pattern;
+  private final ThreadLocal formats = new ThreadLocal();
+  // index of the "SSS" digits in the rendered text, -1 if the pattern does
+  // not involve milliseconds
+  private final int millisIndex;
+  // whether the rendered text depends on the milliseconds in a way which
+  // the cache cannot handle
+  private final boolean uncacheable;
+  private volatile CachedSecond cached = new CachedSecond(Long.MIN_VALUE,
+      null);
+
+  /**
+   * @throws IllegalArgumentException
+   *           if 'pattern' is not a valid {@link SimpleDateFormat} pattern
+   */
+  CachedDateFormat(String pattern) {
+    this.pattern = pattern;
+    DateFormat format = getFormat();
+    // Find where the milliseconds are rendered by formatting two instants
+    // of the same second which differ in their milliseconds only
+    long second = (System.currentTimeMillis() / 1000) * 1000;
+    String text987 = format.format(new Date(second + 987));
+    String text123 = format.format(new Date(second + 123));
+    String text000 = format.format(new Date(second));
+    if (text987.equals(text000)) {
+      millisIndex = -1;
+      uncacheable = false;
+    } else {
+      int index = text987.indexOf("987");
+      boolean sameLength = text987.length() == text123.length()
+          && text987.length() == text000.length();
+      if (index >= 0 && sameLength && index == text123.indexOf("123")
+          && index == text000.indexOf("000")
+          && text987.regionMatches(0, text123, 0, index)
+          && text987.regionMatches(index + 3, text123, index + 3, text123
+              .length()
+              - index - 3)) {
+        millisIndex = index;
+        uncacheable = false;
+      } else {
+        millisIndex = -1;
+        uncacheable = true;
+      }
+    }
+  }
+
+  String getPattern() {
+    return pattern;
+  }
+
+  private DateFormat getFormat() {
+    DateFormat format = (DateFormat) formats.get();
+    if (format == null) {
+      format = new SimpleDateFormat(pattern);
+      formats.set(format);
+    }
+    return format;
+  }
+
+  /**
+   * Append the rendering of 'timeStamp' to 'buf'.
+   */
+  void appendTo(StringBuffer buf, long timeStamp) {
+    if (uncacheable) {
+      buf.append(getFormat().format(new Date(timeStamp)));
+      return;
+    }
+    long second = floorDiv(timeStamp, 1000);
+    CachedSecond c = cached;
+    if (c.second != second) {
+      char[] text = getFormat().format(new Date(second * 1000)).toCharArray();
+      c = new CachedSecond(second, text);
+      cached = c;
+    }
+    if (millisIndex < 0) {
+      buf.append(c.text);
+    } else {
+      int millis = (int) (timeStamp - second * 1000);
+      buf.append(c.text, 0, millisIndex);
+      buf.append((char) ('0' + millis / 100));
+      buf.append((char) ('0' + (millis / 10) % 10));
+      buf.append((char) ('0' + millis % 10));
+      int rest = millisIndex + 3;
+      buf.append(c.text, rest, c.text.length - rest);
+    }
+  }
+
+  private static long floorDiv(long x, long y) {
+    long q = x / y;
+    if ((x % y) < 0) {
+      q--;
+    }
+    return q;
+  }
+}
@@ -0,0 +1,106 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.impl;
+
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+
+/**
+ * Writes log lines to a {@link PrintStream}, by default to
+ * <code>System.err</code>, flushing after each line or batch of lines.
+ * 
+ * <p>
+ * Lines are encoded by this class, see {@link EncodingOutput}, and handed
+ * over to the stream as bytes. This avoids copying each line into a String,
+ * as {@link PrintStream#print(String)} would require.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+class ConsoleOutput extends EncodingOutput {
+
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  // null if System.err should be used
+  private final PrintStream fixedOut;
+  // the stream being written to, guarded by this
+  private PrintStream out;
+
+  /**
+   * Write to <code>System.err</code>, as set at the time of writing.
+   */
+  ConsoleOutput() {
+    this(null);
+  }
+
+  ConsoleOutput(PrintStream out) {
+    super(consoleCharset(), BUFFER_SIZE, false);
+    this.fixedOut = out;
+  }
+
+  /**
+   * The charset <code>System.err</code> encodes characters with.
+   */
+  static Charset consoleCharset() {
+    String[] keys = { "stderr.encoding", "sun.stderr.encoding",
+        "file.encoding" };
+    for (int i = 0; i < keys.length; i++) {
+      String name = SimpleLoggerConfiguration.getSystemProperty(keys[i]);
+      if (name != null) {
+        try {
+          return Charset.forName(name);
+        } catch (IllegalArgumentException e) {
+          // try the next one
+        }
+      }
+    }
+    return Charset.forName("UTF-8");
+  }
+
+  synchronized void write(StringBuffer line, Throwable t, int level,
+      boolean endOfBatch) {
+    out = (fixedOut != null) ? fixedOut : System.err;
+    line.append(SimpleLogger.LINE_SEPARATOR);
+    if (t != null) {
+      SimpleLogger.THROWABLE_RENDERER.render(line, t);
+    }
+    encode(line);
+    drain();
+    if (endOfBatch) {
+      out.flush();
+    }
+  }
+
+  void drain() {
+    out.write(byteBuffer.array(), byteBuffer.arrayOffset(), byteBuffer
+        .position());
+    byteBuffer.clear();
+  }
+
+  void close() {
+    PrintStream out = (fixedOut != null) ? fixedOut : System.err;
+    out.flush();
+  }
+}
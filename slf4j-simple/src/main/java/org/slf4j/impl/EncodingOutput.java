@@ -0,0 +1,110 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Base class of the outputs which encode log lines into a byte buffer of
+ * their own. The encoder, the byte buffer and the char array lines are copied
+ * into are reused from one line to the next, so that encoding a line does not
+ * allocate memory.
+ * 
+ * <p>
+ * Subclasses must hold the lock of this object when calling
+ * {@link #encode(StringBuffer)}.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+abstract class EncodingOutput extends LogOutput {
+
+  private static final int INITIAL_CHAR_BUFFER_SIZE = 256;
+
+  private final CharsetEncoder encoder;
+  /**
+   * Encoded lines not yet handed over to {@link #drain()}.
+   */
+  final ByteBuffer byteBuffer;
+
+  // the following fields are guarded by this
+  private char[] chars = new char[INITIAL_CHAR_BUFFER_SIZE];
+  private CharBuffer charBuffer = CharBuffer.wrap(chars);
+
+  /**
+   * @param charset
+   *          the charset to encode lines with
+   * @param bufferSize
+   *          the size of the byte buffer
+   * @param direct
+   *          whether the byte buffer should be allocated outside of the heap
+   */
+  EncodingOutput(Charset charset, int bufferSize, boolean direct) {
+    this.encoder = charset.newEncoder().onMalformedInput(
+        CodingErrorAction.REPLACE).onUnmappableCharacter(
+        CodingErrorAction.REPLACE);
+    // room for at least one encoded character
+    int size = Math.max(bufferSize, (int) Math.ceil(encoder
+        .maxBytesPerChar()) * 16);
+    this.byteBuffer = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer
+        .allocate(size);
+  }
+
+  /**
+   * Encode the contents of 'sb' at the end of {@link #byteBuffer}, calling
+   * {@link #drain()} whenever the byte buffer fills up.
+   */
+  final void encode(StringBuffer sb) {
+    int length = sb.length();
+    if (chars.length < length) {
+      chars = new char[Math.max(length, chars.length * 2)];
+      charBuffer = CharBuffer.wrap(chars);
+    }
+    sb.getChars(0, length, chars, 0);
+    charBuffer.clear();
+    charBuffer.limit(length);
+
+    encoder.reset();
+    CoderResult result = encoder.encode(charBuffer, byteBuffer, true);
+    while (result.isOverflow()) {
+      drain();
+      result = encoder.encode(charBuffer, byteBuffer, true);
+    }
+    result = encoder.flush(byteBuffer);
+    while (result.isOverflow()) {
+      drain();
+      result = encoder.flush(byteBuffer);
+    }
+  }
+
+  /**
+   * Write out the contents of {@link #byteBuffer} and clear it.
+   */
+  abstract void drain();
+}
@@ -0,0 +1,166 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.impl;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.slf4j.helpers.Util;
+
+/**
+ * Appends log lines to a file.
+ * 
+ * <p>
+ * Lines are encoded into a direct byte buffer, see {@link EncodingOutput}.
+ * The byte buffer is written to the file when it is full, when a line of
+ * level ERROR is logged, and when the oldest unwritten line is older than the
+ * flush interval. Under load, a single write thus covers hundreds of lines.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+class FileOutput extends EncodingOutput {
+
+  static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+  private final String fileName;
+  private final FileOutputStream fileOutputStream;
+  private final FileChannel channel;
+  private final long flushIntervalMillis;
+  private final Timer timer;
+
+  // the following fields are guarded by this
+  // time at which the oldest unwritten line was written into byteBuffer
+  private long oldestUnwrittenTime;
+  private boolean closed;
+  private boolean failureReported;
+  // number of writes to the channel, for testing purposes
+  int writeCount;
+
+  /**
+   * @param fileName
+   *          the file to append to
+   * @param charset
+   *          the charset to encode lines with
+   * @param bufferSize
+   *          the size of the buffer, in bytes
+   * @param flushIntervalMillis
+   *          the maximum time a line may remain in the buffer, or 0 for no
+   *          limit
+   */
+  FileOutput(String fileName, Charset charset, int bufferSize,
+      long flushIntervalMillis) throws IOException {
+    super(charset, bufferSize, true);
+    this.fileName = fileName;
+    this.fileOutputStream = new FileOutputStream(fileName, true);
+    this.channel = fileOutputStream.getChannel();
+    this.flushIntervalMillis = flushIntervalMillis;
+    if (flushIntervalMillis > 0) {
+      timer = new Timer(true);
+      timer.schedule(new TimerTask() {
+        public void run() {
+          flushIfOlderThan(FileOutput.this.flushIntervalMillis);
+        }
+      }, flushIntervalMillis, flushIntervalMillis);
+    } else {
+      timer = null;
+    }
+  }
+
+  synchronized void write(StringBuffer line, Throwable t, int level,
+      boolean endOfBatch) {
+    if (closed) {
+      return;
+    }
+    if (byteBuffer.position() == 0) {
+      oldestUnwrittenTime = System.currentTimeMillis();
+    }
+    line.append(SimpleLogger.LINE_SEPARATOR);
+    if (t != null) {
+      SimpleLogger.THROWABLE_RENDERER.render(line, t);
+    }
+    encode(line);
+    if (level >= SimpleLogger.LOG_LEVEL_ERROR) {
+      flush();
+    } else if (flushIntervalMillis > 0) {
+      flushIfOlderThan(flushIntervalMillis);
+    }
+  }
+
+  void drain() {
+    byteBuffer.flip();
+    try {
+      while (byteBuffer.hasRemaining()) {
+        channel.write(byteBuffer);
+      }
+      writeCount++;
+    } catch (IOException e) {
+      if (!failureReported) {
+        failureReported = true;
+        Util.reportFailure("Could not write to log file [" + fileName + "]",
+            e);
+      }
+    }
+    byteBuffer.clear();
+    oldestUnwrittenTime = System.currentTimeMillis();
+  }
+
+  synchronized void flushIfOlderThan(long ageMillis) {
+    if (!closed && byteBuffer.position() > 0
+        && System.currentTimeMillis() - oldestUnwrittenTime >= ageMillis) {
+      drain();
+    }
+  }
+
+  /**
+   * Write out the buffered lines.
+   */
+  synchronized void flush() {
+    if (!closed && byteBuffer.position() > 0) {
+      drain();
+    }
+  }
+
+  synchronized void close() {
+    if (closed) {
+      return;
+    }
+    flush();
+    closed = true;
+    if (timer != null) {
+      timer.cancel();
+    }
+    try {
+      fileOutputStream.close();
+    } catch (IOException e) {
+      Util.reportFailure("Could not close log file [" + fileName + "]", e);
+    }
+  }
+}
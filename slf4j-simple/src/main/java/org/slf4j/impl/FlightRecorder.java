@@ -0,0 +1,240 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Keeps the most recent events of disabled levels in a ring of fixed size per
+ * thread, so that they can be written out when the thread logs an error.
+ * 
+ * <p>
+ * Recording an event stores its pattern and arguments in the ring without
+ * formatting them. Arguments are kept by reference, thus an argument modified
+ * after being logged is rendered in its modified state. Events are rendered
+ * only when an error is logged, after which the ring is emptied.
+ * 
+ * <p>
+ * Events are recorded only when they reach the logger's logging methods. Code
+ * which tests <code>isDebugEnabled()</code> before logging contributes no
+ * events.
+ * 
+ * <p>
+ * In asynchronous mode, the recorded events are queued to the writer ahead
+ * of the error, keeping their original time stamps, so that they appear in
+ * order with the lines queued before them.
+ * 
+ * <p>
+ * Reading the system clock would dominate the cost of recording an event.
+ * Recorded events are thus stamped with a clock updated every
+ * {@value #CLOCK_RESOLUTION_MILLIS} milliseconds by a background thread.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+class FlightRecorder {
+
+  static final long CLOCK_RESOLUTION_MILLIS = 10;
+
+  /**
+   * The events of one thread, in parallel arrays indexed modulo the size of
+   * the ring.
+   */
+  private static final class Ring {
+    final long[] timeStamps;
+    final byte[] kinds;
+    final int[] levels;
+    final String[] loggerNames;
+    final String[] patterns;
+    final Object[] args1;
+    final Object[] args2;
+    final Object[][] argArrays;
+    // primitive arguments, doubles and booleans being stored as longs
+    final long[] values1;
+    final long[] values2;
+    final Throwable[] throwables;
+    // index of the next event to record
+    int next;
+    int count;
+
+    Ring(int size) {
+      timeStamps = new long[size];
+      kinds = new byte[size];
+      levels = new int[size];
+      loggerNames = new String[size];
+      patterns = new String[size];
+      args1 = new Object[size];
+      args2 = new Object[size];
+      argArrays = new Object[size][];
+      values1 = new long[size];
+      values2 = new long[size];
+      throwables = new Throwable[size];
+    }
+
+    /**
+     * Claim the slot of a new event, dropping the oldest event if the ring is
+     * full, and return its index.
+     */
+    int claim(long timeStamp, byte kind, int level, String loggerName,
+        String pattern) {
+      int i = next;
+      next = (i + 1 == kinds.length) ? 0 : i + 1;
+      if (count < kinds.length) {
+        count++;
+      }
+      timeStamps[i] = timeStamp;
+      kinds[i] = kind;
+      levels[i] = level;
+      loggerNames[i] = loggerName;
+      patterns[i] = pattern;
+      return i;
+    }
+
+    void clear(int i) {
+      loggerNames[i] = null;
+      patterns[i] = null;
+      args1[i] = null;
+      args2[i] = null;
+      argArrays[i] = null;
+      throwables[i] = null;
+    }
+  }
+
+  private final int size;
+  private final int minLevel;
+  private final ThreadLocal rings = new ThreadLocal();
+  private final Timer clock = new Timer(true);
+  private volatile long currentTime = System.currentTimeMillis();
+
+  /**
+   * @param size
+   *          the number of events kept per thread
+   * @param minLevel
+   *          the lowest level of the events to record
+   */
+  FlightRecorder(int size, int minLevel) {
+    this.size = size;
+    this.minLevel = minLevel;
+    clock.schedule(new TimerTask() {
+      public void run() {
+        currentTime = System.currentTimeMillis();
+      }
+    }, CLOCK_RESOLUTION_MILLIS, CLOCK_RESOLUTION_MILLIS);
+  }
+
+  /**
+   * Stop the thread updating the clock.
+   */
+  void stop() {
+    clock.cancel();
+  }
+
+  private Ring ring() {
+    Ring ring = (Ring) rings.get();
+    if (ring == null) {
+      ring = new Ring(size);
+      rings.set(ring);
+    }
+    return ring;
+  }
+
+  /**
+   * Record an event of one of the kinds of {@link SimpleLogger}, see
+   * {@link SimpleLogger#appendMessage}.
+   */
+  void record(int level, String loggerName, byte kind, String pattern,
+      Object arg1, Object arg2, Object[] argArray, long value1, long value2,
+      Throwable t) {
+    if (level >= minLevel) {
+      Ring ring = ring();
+      int i = ring.claim(currentTime, kind, level, loggerName, pattern);
+      ring.args1[i] = arg1;
+      ring.args2[i] = arg2;
+      ring.argArrays[i] = argArray;
+      ring.values1[i] = value1;
+      ring.values2[i] = value2;
+      ring.throwables[i] = t;
+    }
+  }
+
+  /**
+   * Write out the events recorded by the calling thread, oldest first, and
+   * empty the ring. The events are queued to 'asyncWriter' if not null, so
+   * that they follow the lines queued before them, and are otherwise
+   * rendered to 'output'.
+   */
+  void dump(AsyncWriter asyncWriter, LogOutput output) {
+    Ring ring = (Ring) rings.get();
+    if (ring == null || ring.count == 0) {
+      return;
+    }
+    String threadName = Thread.currentThread().getName();
+    // the context at the time of the error, which is likely to be that of
+    // the recorded events
+    Map context = SimpleLogger.currentContext();
+    StringBuffer buf = new StringBuffer(256);
+    int i = ring.next - ring.count;
+    if (i < 0) {
+      i += size;
+    }
+    for (int n = ring.count; n > 0; n--) {
+      buf.setLength(0);
+      if (asyncWriter == null
+          || !enqueue(asyncWriter, buf, ring, i, threadName, context)) {
+        buf.setLength(0);
+        int messageStart = SimpleLogger.appendPrefix(buf, ring.timeStamps[i],
+            threadName, ring.levels[i], ring.loggerNames[i]);
+        appendMessage(buf, ring, i);
+        Throwable t = SimpleLogger.appendSuffix(buf, messageStart, context,
+            ring.throwables[i]);
+        output.write(buf, t, ring.levels[i], false);
+      }
+      ring.clear(i);
+      i = (i + 1 == size) ? 0 : i + 1;
+    }
+    ring.count = 0;
+  }
+
+  /**
+   * Queue the event at index 'i' to 'asyncWriter', formatting its message in
+   * this thread as its arguments may be mutable.
+   * 
+   * @return false if the event should be written by the calling thread
+   */
+  private static boolean enqueue(AsyncWriter asyncWriter, StringBuffer buf,
+      Ring ring, int i, String threadName, Map context) {
+    appendMessage(buf, ring, i);
+    return asyncWriter.enqueue(ring.timeStamps[i], threadName, context,
+        ring.levels[i], ring.loggerNames[i], buf.toString(),
+        ring.throwables[i]);
+  }
+
+  private static void appendMessage(StringBuffer buf, Ring ring, int i) {
+    SimpleLogger.appendMessage(buf, ring.kinds[i], ring.patterns[i],
+        ring.args1[i], ring.args2[i], ring.argArrays[i], ring.values1[i],
+        ring.values2[i]);
+  }
+}
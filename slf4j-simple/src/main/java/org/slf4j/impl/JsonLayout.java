@@ -0,0 +1,298 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Renders events as JSON objects, one per line, e.g. (wrapped here)
+ * 
+ * <pre>
+ * {"timestamp":1262304000000,"level":"INFO","logger":"a.b","thread":"main",
+ *  "message":"Hello","mdc":{"user":"alice"},"throwable":"java.lang..."}
+ * </pre>
+ * 
+ * <p>
+ * The timestamp is the number of milliseconds since the epoch, or a string
+ * if a date format is configured. The "mdc" and "throwable" fields are
+ * omitted when empty.
+ * 
+ * <p>
+ * Events are rendered in the same buffer as text lines. The message is
+ * formatted first and then escaped in place, which leaves it untouched in the
+ * common case where it contains no character requiring escaping.
+ * 
+ * <p>
+ * Context maps are expected not to change once passed to this class, as is
+ * the case of the snapshots of {@link org.slf4j.helpers.CopyOnWriteMDCAdapter}.
+ * The rendering of the last map seen by each thread is kept, since a thread
+ * usually logs several events with the same context.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+final class JsonLayout {
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private static final int MAX_RETAINED_SCRATCH_SIZE = 8 * 1024;
+
+  // the level field and the key of the logger field, by level
+  private static final String[] LEVEL_FIELDS = new String[5];
+
+  static {
+    for (int i = 0; i < LEVEL_FIELDS.length; i++) {
+      LEVEL_FIELDS[i] = ",\"level\":\"" + SimpleLogger.levelString(i * 10)
+          + "\",\"logger\":\"";
+    }
+  }
+
+  private static final class ThreadState {
+    // copy of the message being escaped
+    char[] scratch = new char[256];
+    // the fields from the thread name to the opening quote of the message
+    String lastThreadName;
+    String lastThreadFields;
+    Map lastContext;
+    String lastContextJson;
+  }
+
+  private static final ThreadLocal THREAD_STATE = new ThreadLocal();
+
+  private JsonLayout() {
+  }
+
+  /**
+   * Append the fields preceding the message, up to and including the opening
+   * quote of the message.
+   * 
+   * @return the index in 'buf' where the message starts
+   */
+  static int appendPrefix(StringBuffer buf, long timeStamp, String threadName,
+      int level, String loggerName) {
+    buf.append("{\"timestamp\":");
+    if (SimpleLogger.DATE_FORMAT != null) {
+      buf.append('"');
+      SimpleLogger.DATE_FORMAT.appendTo(buf, timeStamp);
+      buf.append('"');
+    } else {
+      buf.append(timeStamp);
+    }
+    buf.append(LEVEL_FIELDS[level / 10]);
+    appendEscaped(buf, loggerName);
+    ThreadState state = getThreadState();
+    if (threadName != state.lastThreadName) {
+      StringBuffer fields = new StringBuffer(64);
+      fields.append("\",\"thread\":\"");
+      appendEscaped(fields, threadName);
+      fields.append("\",\"message\":\"");
+      state.lastThreadFields = fields.toString();
+      state.lastThreadName = threadName;
+    }
+    buf.append(state.lastThreadFields);
+    return buf.length();
+  }
+
+  /**
+   * Escape the message starting at 'messageStart' and append the fields
+   * following it.
+   * 
+   * @param context
+   *          the MDC of the event, may be null
+   * @param t
+   *          a throwable, may be null
+   */
+  static void appendSuffix(StringBuffer buf, int messageStart, Map context,
+      Throwable t) {
+    ThreadState state = getThreadState();
+    escapeTail(buf, messageStart, state);
+    if (context == null || context.isEmpty()) {
+      buf.append('"');
+    } else {
+      if (context != state.lastContext) {
+        state.lastContextJson = renderContext(context);
+        state.lastContext = context;
+      }
+      buf.append(state.lastContextJson);
+    }
+    if (t != null) {
+      StringBuffer trace = new StringBuffer(1024);
+      SimpleLogger.THROWABLE_RENDERER.render(trace, t);
+      int length = trace.length();
+      // drop the trailing line separator
+      while (length > 0 && isLineEnd(trace.charAt(length - 1))) {
+        length--;
+      }
+      char[] chars = new char[length];
+      trace.getChars(0, length, chars, 0);
+      buf.append(",\"throwable\":\"");
+      appendEscaped(buf, chars, 0, length);
+      buf.append('"');
+    }
+    buf.append('}');
+  }
+
+  /**
+   * Render the closing quote of the message followed by the "mdc" field.
+   */
+  private static String renderContext(Map context) {
+    StringBuffer buf = new StringBuffer(64);
+    buf.append("\",\"mdc\":{");
+    Iterator it = context.entrySet().iterator();
+    for (boolean first = true; it.hasNext(); first = false) {
+      Map.Entry entry = (Map.Entry) it.next();
+      if (!first) {
+        buf.append(',');
+      }
+      buf.append('"');
+      appendEscaped(buf, String.valueOf(entry.getKey()));
+      buf.append("\":");
+      if (entry.getValue() == null) {
+        buf.append("null");
+      } else {
+        buf.append('"');
+        appendEscaped(buf, entry.getValue().toString());
+        buf.append('"');
+      }
+    }
+    buf.append('}');
+    return buf.toString();
+  }
+
+  private static boolean isLineEnd(char c) {
+    return c == '\n' || c == '\r';
+  }
+
+  private static boolean needsEscaping(char c) {
+    return c < 0x20 || c == '"' || c == '\\';
+  }
+
+  /**
+   * Append 's', escaped as the content of a JSON string.
+   */
+  static void appendEscaped(StringBuffer buf, String s) {
+    int length = s.length();
+    int i = 0;
+    while (i < length && !needsEscaping(s.charAt(i))) {
+      i++;
+    }
+    if (i == length) {
+      buf.append(s);
+      return;
+    }
+    char[] chars = s.toCharArray();
+    buf.append(chars, 0, i);
+    appendEscaped(buf, chars, i, length);
+  }
+
+  /**
+   * Escape the characters of 'buf' from index 'start' on, as the content of a
+   * JSON string.
+   */
+  static void escapeTail(StringBuffer buf, int start) {
+    escapeTail(buf, start, getThreadState());
+  }
+
+  private static void escapeTail(StringBuffer buf, int start,
+      ThreadState state) {
+    int length = buf.length() - start;
+    if (length == 0) {
+      return;
+    }
+    char[] chars = state.scratch;
+    if (chars.length < length) {
+      chars = new char[length];
+      if (length <= MAX_RETAINED_SCRATCH_SIZE) {
+        state.scratch = chars;
+      }
+    }
+    buf.getChars(start, start + length, chars, 0);
+    int i = 0;
+    while (i < length && !needsEscaping(chars[i])) {
+      i++;
+    }
+    if (i < length) {
+      buf.setLength(start + i);
+      appendEscaped(buf, chars, i, length);
+    }
+  }
+
+  private static ThreadState getThreadState() {
+    ThreadState state = (ThreadState) THREAD_STATE.get();
+    if (state == null) {
+      state = new ThreadState();
+      THREAD_STATE.set(state);
+    }
+    return state;
+  }
+
+  /**
+   * Append chars[from] to chars[to - 1], escaping the characters which need
+   * to be, while copying runs of other characters at once.
+   */
+  private static void appendEscaped(StringBuffer buf, char[] chars, int from,
+      int to) {
+    int runStart = from;
+    for (int i = from; i < to; i++) {
+      char c = chars[i];
+      if (!needsEscaping(c)) {
+        continue;
+      }
+      if (i > runStart) {
+        buf.append(chars, runStart, i - runStart);
+      }
+      runStart = i + 1;
+      buf.append('\\');
+      switch (c) {
+      case '"':
+      case '\\':
+        buf.append(c);
+        break;
+      case '\n':
+        buf.append('n');
+        break;
+      case '\r':
+        buf.append('r');
+        break;
+      case '\t':
+        buf.append('t');
+        break;
+      case '\b':
+        buf.append('b');
+        break;
+      case '\f':
+        buf.append('f');
+        break;
+      default:
+        buf.append("u00");
+        buf.append(HEX_DIGITS[c >> 4]);
+        buf.append(HEX_DIGITS[c & 0xF]);
+      }
+    }
+    if (to > runStart) {
+      buf.append(chars, runStart, to - runStart);
+    }
+  }
+}
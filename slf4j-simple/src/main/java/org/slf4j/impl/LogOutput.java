@@ -0,0 +1,58 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.impl;
+
+/**
+ * A destination for the log lines of {@link SimpleLogger}.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+abstract class LogOutput {
+
+  /**
+   * Write a log line, followed by the stack trace of 't' if any.
+   * 
+   * @param line
+   *          the log line, without a line separator. Implementations may
+   *          modify it.
+   * @param t
+   *          a throwable, may be null
+   * @param level
+   *          the level of the event
+   * @param endOfBatch
+   *          false if more lines are about to be written, as is the case
+   *          when several events are written by {@link AsyncWriter} at
+   *          once, which lets implementations defer flushing
+   */
+  abstract void write(StringBuffer line, Throwable t, int level,
+      boolean endOfBatch);
+
+  /**
+   * Write out any buffered data and release resources. Lines written
+   * afterwards are lost.
+   */
+  abstract void close();
+}
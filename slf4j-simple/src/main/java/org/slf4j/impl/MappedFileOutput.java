@@ -0,0 +1,343 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import org.slf4j.helpers.Util;
+
+/**
+ * Writes log lines into memory-mapped segments of preallocated files, leaving
+ * the write-back to the operating system.
+ * 
+ * <p>
+ * Segments are named after the log file, followed by a dot and a sequence
+ * number, e.g. "app.log.0", "app.log.1". A new segment is started when the
+ * current one is full, as well as on startup, existing segments being left
+ * untouched. Segments are forced to disk and truncated to their actual
+ * contents once they have been filled, or on close, and every line reserved
+ * in them has been copied.
+ * 
+ * <p>
+ * Each thread encodes its lines into a buffer of its own. Writing a line then
+ * amounts to reserving space in the current segment, which takes a short lock
+ * on the segment's position, and copying the encoded bytes into the reserved
+ * space, which is done without holding any lock. The duplicates of the
+ * segment's buffer used for copying are pooled by the segment, so that no
+ * thread holds on to a segment once it is finished. A line and the stack
+ * trace following it are written as a whole. Lines longer than a segment are
+ * truncated.
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+class MappedFileOutput extends LogOutput {
+
+  static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+  static final int MIN_SEGMENT_SIZE = 64 * 1024;
+
+  private static final int INITIAL_BUFFER_SIZE = 256;
+
+  private static final class Segment {
+    final File file;
+    final RandomAccessFile randomAccessFile;
+    final MappedByteBuffer buffer;
+    // the following fields are guarded by the lock of the MappedFileOutput
+    int position;
+    // the number of threads copying into space reserved in this segment
+    int writers;
+    // the duplicates of 'buffer' not in use by any writer
+    ByteBuffer[] views = new ByteBuffer[4];
+    int viewCount;
+    // no more space is reserved in a retired segment
+    boolean retired;
+    boolean finished;
+
+    Segment(File file, int size) throws IOException {
+      this.file = file;
+      this.randomAccessFile = new RandomAccessFile(file, "rw");
+      this.randomAccessFile.setLength(size);
+      this.buffer = randomAccessFile.getChannel().map(
+          FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    ByteBuffer acquireView() {
+      writers++;
+      if (viewCount == 0) {
+        return buffer.duplicate();
+      }
+      ByteBuffer view = views[--viewCount];
+      views[viewCount] = null;
+      return view;
+    }
+
+    void releaseView(ByteBuffer view) {
+      writers--;
+      if (viewCount == views.length) {
+        ByteBuffer[] larger = new ByteBuffer[views.length * 2];
+        System.arraycopy(views, 0, larger, 0, viewCount);
+        views = larger;
+      }
+      views[viewCount++] = view;
+    }
+
+    boolean canFinish() {
+      return retired && writers == 0 && !finished;
+    }
+
+    /**
+     * Write the segment out and shrink it to its contents.
+     */
+    void finish() throws IOException {
+      finished = true;
+      views = null;
+      viewCount = 0;
+      buffer.force();
+      FileChannel channel = randomAccessFile.getChannel();
+      try {
+        channel.truncate(position);
+      } catch (IOException e) {
+        // some platforms do not allow truncating a mapped file, the segment
+        // is then left padded with zeros
+      }
+      randomAccessFile.close();
+    }
+  }
+
+  /**
+   * The per-thread state used to encode lines.
+   */
+  private final class Encoder {
+    final CharsetEncoder encoder = charset.newEncoder().onMalformedInput(
+        CodingErrorAction.REPLACE).onUnmappableCharacter(
+        CodingErrorAction.REPLACE);
+    char[] chars = new char[INITIAL_BUFFER_SIZE];
+    CharBuffer charBuffer = CharBuffer.wrap(chars);
+    ByteBuffer bytes = ByteBuffer.allocate(INITIAL_BUFFER_SIZE * 2);
+
+    void encode(StringBuffer sb) {
+      int length = sb.length();
+      if (chars.length < length) {
+        chars = new char[Math.max(length, chars.length * 2)];
+        charBuffer = CharBuffer.wrap(chars);
+      }
+      sb.getChars(0, length, chars, 0);
+      charBuffer.clear();
+      charBuffer.limit(length);
+
+      encoder.reset();
+      CoderResult result = encoder.encode(charBuffer, bytes, true);
+      while (result.isOverflow()) {
+        grow();
+        result = encoder.encode(charBuffer, bytes, true);
+      }
+      result = encoder.flush(bytes);
+      while (result.isOverflow()) {
+        grow();
+        result = encoder.flush(bytes);
+      }
+    }
+
+    private void grow() {
+      ByteBuffer larger = ByteBuffer.allocate(bytes.capacity() * 2);
+      bytes.flip();
+      larger.put(bytes);
+      bytes = larger;
+    }
+  }
+
+  private final String fileName;
+  private final Charset charset;
+  private final int segmentSize;
+  private final ThreadLocal encoders = new ThreadLocal();
+
+  // the following fields are guarded by this
+  private Segment current;
+  private int nextSegmentNumber;
+  private boolean closed;
+  private boolean failureReported;
+
+  /**
+   * @param fileName
+   *          the name segment files are derived from
+   * @param charset
+   *          the charset to encode lines with
+   * @param segmentSize
+   *          the size of each segment, in bytes
+   */
+  MappedFileOutput(String fileName, Charset charset, int segmentSize)
+      throws IOException {
+    this.fileName = fileName;
+    this.charset = charset;
+    this.segmentSize = Math.max(segmentSize, MIN_SEGMENT_SIZE);
+    this.current = newSegment();
+  }
+
+  private Segment newSegment() throws IOException {
+    File file;
+    do {
+      file = new File(fileName + "." + nextSegmentNumber++);
+    } while (file.exists());
+    return new Segment(file, segmentSize);
+  }
+
+  void write(StringBuffer line, Throwable t, int level, boolean endOfBatch) {
+    Encoder encoder = (Encoder) encoders.get();
+    if (encoder == null) {
+      encoder = new Encoder();
+      encoders.set(encoder);
+    }
+    encoder.bytes.clear();
+    line.append(SimpleLogger.LINE_SEPARATOR);
+    if (t != null) {
+      SimpleLogger.THROWABLE_RENDERER.render(line, t);
+    }
+    encoder.encode(line);
+    ByteBuffer bytes = encoder.bytes;
+    int length = Math.min(bytes.position(), segmentSize);
+
+    Segment segment;
+    int offset;
+    ByteBuffer view;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      if (current.position + length > segmentSize) {
+        roll();
+        if (current == null) {
+          return;
+        }
+      }
+      segment = current;
+      offset = segment.position;
+      segment.position += length;
+      view = segment.acquireView();
+    }
+
+    // copy outside of the lock, into space no other thread writes to
+    try {
+      view.clear();
+      view.position(offset);
+      bytes.flip();
+      bytes.limit(length);
+      view.put(bytes);
+    } finally {
+      synchronized (this) {
+        segment.releaseView(view);
+        if (segment.canFinish()) {
+          finish(segment);
+        }
+      }
+    }
+  }
+
+  /**
+   * Finish 'segment', which no thread writes to any more. Must be called with
+   * the lock held.
+   */
+  private void finish(Segment segment) {
+    try {
+      segment.finish();
+    } catch (IOException e) {
+      reportFailure("Could not close log file segment [" + segment.file + "]",
+          e);
+    }
+    notifyAll();
+  }
+
+  /**
+   * Replace the current segment, which is full, by a new one. The full
+   * segment is finished by the last thread copying into it, if any.
+   */
+  private void roll() {
+    Segment full = current;
+    current = null;
+    full.retired = true;
+    if (full.canFinish()) {
+      finish(full);
+    }
+    try {
+      current = newSegment();
+    } catch (IOException e) {
+      reportFailure("Could not create a new log file segment for ["
+          + fileName + "], log lines will be lost", e);
+      closed = true;
+    }
+  }
+
+  private void reportFailure(String msg, IOException e) {
+    if (!failureReported) {
+      failureReported = true;
+      Util.reportFailure(msg, e);
+    }
+  }
+
+  /**
+   * Return the segment being written to, null once closed.
+   */
+  synchronized File getCurrentFile() {
+    return current == null ? null : current.file;
+  }
+
+  /**
+   * Close this output, waiting for the threads still copying into the current
+   * segment to be done.
+   */
+  synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (current != null) {
+      Segment last = current;
+      current = null;
+      last.retired = true;
+      if (last.canFinish()) {
+        finish(last);
+      }
+      boolean interrupted = false;
+      while (!last.finished) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
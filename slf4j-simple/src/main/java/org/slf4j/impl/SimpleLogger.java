@@ -33,17 +33,37 @@
 
 package org.slf4j.impl;
 
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+import org.slf4j.MDC;
+import org.slf4j.helpers.CopyOnWriteMDCAdapter;
 import org.slf4j.helpers.MarkerIgnoringBase;
 import org.slf4j.helpers.MessageFormatter;
+import org.slf4j.helpers.ThrowableRenderer;
+import org.slf4j.helpers.Util;
+import org.slf4j.spi.MDCAdapter;
+import org.slf4j.spi.PrimitiveArgLogger;
 
 /**
  * A simple (and direct) implementation that logs messages of level
- * INFO or higher on the console (<code>System.err<code>).
+ * INFO or higher on the console (<code>System.err<code>). The level of each
+ * logger can be configured, see {@link SimpleLoggerConfiguration}.
  *
  * <p>The output includes the relative time in milliseconds, thread
  * name, the level, logger name, and the message followed by the line
  * separator for the host.  In log4j terms it amounts to the "%r [%t]
- * %level %logger - %m%n" pattern. </p>
+ * %level %logger - %m%n" pattern. Setting {@value #DATE_TIME_FORMAT_KEY}
+ * replaces the relative time with the date and time. </p>
+ *
+ * <p>Setting the system property {@value #ASYNC_KEY} to "true" moves the
+ * writing of log lines to a background thread, see {@link AsyncWriter}.
+ * Setting {@value #LOG_FILE_KEY} directs log lines to a file instead of the
+ * console, see {@link FileOutput} and {@link MappedFileOutput}, and
+ * {@value #LOG_FILE_FORMAT_KEY} selects a binary format for that file, see
+ * {@link BinaryOutput}. Setting {@value #LINE_FORMAT_KEY} to "json" writes
+ * each event as a JSON object instead, see {@link JsonLayout}.</p>
  *
  * <p>Sample output follows.</p>
 <pre>
@@ -61,9 +81,16 @@ import org.slf4j.helpers.MessageFormatter;
  *
  * @author Ceki G&uuml;lc&uuml;
  */
-public class SimpleLogger extends MarkerIgnoringBase {
+public class SimpleLogger extends MarkerIgnoringBase implements
+    PrimitiveArgLogger {
   
   private static final long serialVersionUID = -6560244151660620173L;
+
+  /**
+   * The effective level of this logger, resolved once from the configuration
+   * so that checking whether a level is enabled is a single comparison.
+   */
+  private transient volatile int currentLogLevel;
  
   /**
    * Mark the time when this class gets loaded into memory.
@@ -71,107 +98,471 @@ public class SimpleLogger extends MarkerIgnoringBase {
   private static long startTime = System.currentTimeMillis();
   public static final String LINE_SEPARATOR =
     System.getProperty("line.separator");
+
+  static final int LOG_LEVEL_TRACE = 0;
+  static final int LOG_LEVEL_DEBUG = 10;
+  static final int LOG_LEVEL_INFO = 20;
+  static final int LOG_LEVEL_WARN = 30;
+  static final int LOG_LEVEL_ERROR = 40;
+  static final int LOG_LEVEL_OFF = 50;
+
+  private static String TRACE_STR = "TRACE";
+  private static String DEBUG_STR = "DEBUG";
   private static String INFO_STR = "INFO";
   private static String WARN_STR = "WARN";
   private static String ERROR_STR = "ERROR";
 
+  private static final String SYSTEM_PREFIX = "org.slf4j.simpleLogger.";
+
+  /**
+   * The level of loggers which are not assigned one explicitly, "info" by
+   * default, see {@link SimpleLoggerConfiguration}.
+   */
+  public static final String DEFAULT_LOG_LEVEL_KEY = SYSTEM_PREFIX
+      + "defaultLogLevel";
+  /**
+   * Prefix of the settings assigning a level to a logger and its
+   * descendants, e.g. "org.slf4j.simpleLogger.log.com.foo=debug".
+   */
+  public static final String LOG_KEY_PREFIX = SYSTEM_PREFIX + "log.";
+
+  /**
+   * Set this system property to "true" in order to write log lines from a
+   * background thread, see {@link AsyncWriter}.
+   */
+  public static final String ASYNC_KEY = SYSTEM_PREFIX + "async";
+  /**
+   * The number of log events which can be queued in asynchronous mode,
+   * {@value AsyncWriter#DEFAULT_BUFFER_SIZE} by default.
+   */
+  public static final String ASYNC_BUFFER_SIZE_KEY = SYSTEM_PREFIX
+      + "asyncBufferSize";
+  /**
+   * What to do in asynchronous mode when the queue is full: "block" (the
+   * default), "drop", or "dropBelowWarn".
+   */
+  public static final String ASYNC_FULL_POLICY_KEY = SYSTEM_PREFIX
+      + "asyncFullPolicy";
+
+  /**
+   * The file log lines should be appended to, instead of
+   * <code>System.err</code>, see {@link FileOutput}. The value "System.err"
+   * designates the console.
+   */
+  public static final String LOG_FILE_KEY = SYSTEM_PREFIX + "logFile";
+  /**
+   * The size in bytes of the buffer holding the lines to be written to the log
+   * file, {@value FileOutput#DEFAULT_BUFFER_SIZE} by default.
+   */
+  public static final String LOG_FILE_BUFFER_SIZE_KEY = SYSTEM_PREFIX
+      + "logFileBufferSize";
+  /**
+   * The maximum number of milliseconds a line may remain in the log file
+   * buffer, {@value FileOutput#DEFAULT_FLUSH_INTERVAL_MILLIS} by default.
+   * Lines of level ERROR are written immediately.
+   */
+  public static final String LOG_FILE_FLUSH_INTERVAL_KEY = SYSTEM_PREFIX
+      + "logFileFlushInterval";
+  /**
+   * The charset of the log file, the platform's default charset by default.
+   */
+  public static final String LOG_FILE_CHARSET_KEY = SYSTEM_PREFIX
+      + "logFileCharset";
+
+  /**
+   * A {@link java.text.SimpleDateFormat} pattern, e.g. "yyyy-MM-dd
+   * HH:mm:ss.SSS". When set, log lines start with the current date and time
+   * rendered according to this pattern instead of the number of milliseconds
+   * elapsed since startup, see {@link CachedDateFormat}.
+   */
+  public static final String DATE_TIME_FORMAT_KEY = SYSTEM_PREFIX
+      + "dateTimeFormat";
+
+  /**
+   * The format of the log file: "text" (the default), or "binary" for the
+   * compact format of {@link BinaryOutput}, which can be rendered as text with
+   * {@link BinaryLogDecoder}.
+   */
+  public static final String LOG_FILE_FORMAT_KEY = SYSTEM_PREFIX
+      + "logFileFormat";
+  /**
+   * The format of log lines: "text" (the default), or "json" for one JSON
+   * object per event, see {@link JsonLayout}. Does not apply to the binary
+   * log file format.
+   */
+  public static final String LINE_FORMAT_KEY = SYSTEM_PREFIX + "lineFormat";
+
+  /**
+   * Set this system property to "true" in order to write the log file through
+   * memory-mapped segments, see {@link MappedFileOutput}.
+   */
+  public static final String LOG_FILE_MAPPED_KEY = SYSTEM_PREFIX
+      + "logFileMapped";
+  /**
+   * The size in bytes of each memory-mapped segment of the log file,
+   * {@value MappedFileOutput#DEFAULT_SEGMENT_SIZE} by default.
+   */
+  public static final String LOG_FILE_SEGMENT_SIZE_KEY = SYSTEM_PREFIX
+      + "logFileSegmentSize";
+
+  /**
+   * The number of events per second allowed for each combination of logger,
+   * level and message pattern, e.g. "0.1" for one event every ten seconds
+   * once the burst is used up. Setting it enables the suppression of log
+   * storms provided by <code>org.slf4j.ext.SuppressingLoggerFactory</code>,
+   * which requires slf4j-ext on the class path.
+   */
+  public static final String SUPPRESSION_RATE_KEY = SYSTEM_PREFIX
+      + "suppressionRate";
+  /**
+   * The number of events of one pattern which may be logged in a row before
+   * suppression kicks in, {@value SimpleLoggerFactory#DEFAULT_SUPPRESSION_BURST}
+   * by default.
+   */
+  public static final String SUPPRESSION_BURST_KEY = SYSTEM_PREFIX
+      + "suppressionBurst";
+  /**
+   * How often, in milliseconds, the number of suppressed events is logged,
+   * {@value SimpleLoggerFactory#DEFAULT_SUPPRESSION_SUMMARY_INTERVAL_MILLIS} by
+   * default.
+   */
+  public static final String SUPPRESSION_SUMMARY_INTERVAL_KEY = SYSTEM_PREFIX
+      + "suppressionSummaryInterval";
+
+  /**
+   * The number of events of disabled levels kept per thread and written out
+   * when the thread logs an error, see {@link FlightRecorder}. Set to 0, the
+   * default, in order to disable the recorder.
+   */
+  public static final String FLIGHT_RECORDER_SIZE_KEY = SYSTEM_PREFIX
+      + "flightRecorderSize";
+  /**
+   * The lowest level of the events kept by the flight recorder, "debug" by
+   * default.
+   */
+  public static final String FLIGHT_RECORDER_LEVEL_KEY = SYSTEM_PREFIX
+      + "flightRecorderLevel";
+
+  /**
+   * Set this system property to "true" in order to print repeats of a stack
+   * trace as a one-line reference to its first occurrence, see
+   * {@link ThrowableRenderer}.
+   */
+  public static final String ABBREVIATE_STACK_TRACES_KEY = SYSTEM_PREFIX
+      + "abbreviateRepeatedStackTraces";
+
+  // the kinds of events, i.e. the shapes of the logging calls, see
+  // appendMessage
+  static final byte KIND_MESSAGE = 0;
+  static final byte KIND_OBJECT_OBJECT = 1;
+  static final byte KIND_ARRAY = 2;
+  static final byte KIND_LONG = 3;
+  static final byte KIND_DOUBLE = 4;
+  static final byte KIND_BOOLEAN = 5;
+  static final byte KIND_LONG_LONG = 6;
+  static final byte KIND_OBJECT_LONG = 7;
+
+  // how long the shutdown hook waits for pending events to be written
+  private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+  private static final int INITIAL_BUFFER_SIZE = 256;
+  private static final int MAX_RETAINED_BUFFER_SIZE = 8 * 1024;
+  /**
+   * Per-thread buffer which log lines are rendered into, so that formatting
+   * does not need to allocate a new buffer on each call.
+   */
+  private static final ThreadLocal BUFFER = new ThreadLocal();
+
+  /**
+   * Renders the date and time of log lines, null if the relative time should
+   * be rendered instead.
+   */
+  static final CachedDateFormat DATE_FORMAT = createDateFormat();
+
+  /**
+   * Renders the stack traces of logged throwables.
+   */
+  static final ThrowableRenderer THROWABLE_RENDERER = new ThrowableRenderer(
+      "true".equalsIgnoreCase(SimpleLoggerConfiguration
+          .getProperty(ABBREVIATE_STACK_TRACES_KEY)));
+
+  /**
+   * Where log lines are written.
+   */
+  static final LogOutput OUTPUT = createOutput();
+
+  /**
+   * The output, if log events are written in binary form, null otherwise.
+   */
+  static final BinaryOutput BINARY_OUTPUT = (OUTPUT instanceof BinaryOutput)
+      ? (BinaryOutput) OUTPUT : null;
+
+  /**
+   * Whether events are rendered as JSON objects rather than text lines.
+   */
+  static final boolean JSON = isJson();
+
+  /**
+   * Writes the log lines in asynchronous mode, null otherwise.
+   */
+  static final AsyncWriter ASYNC_WRITER = createAsyncWriter();
+
+  /**
+   * Keeps recent events of disabled levels, null if disabled.
+   */
+  static final FlightRecorder FLIGHT_RECORDER = createFlightRecorder();
+
+  static {
+    if (ASYNC_WRITER != null || !(OUTPUT instanceof ConsoleOutput)) {
+      registerShutdownHook();
+    }
+  }
+
+  private static CachedDateFormat createDateFormat() {
+    String pattern = SimpleLoggerConfiguration
+        .getProperty(DATE_TIME_FORMAT_KEY);
+    if (pattern == null) {
+      return null;
+    }
+    try {
+      return new CachedDateFormat(pattern);
+    } catch (IllegalArgumentException e) {
+      Util.reportFailure("Invalid date format [" + pattern
+          + "], rendering the relative time instead", e);
+      return null;
+    }
+  }
+
+  private static LogOutput createOutput() {
+    String fileName = SimpleLoggerConfiguration.getProperty(LOG_FILE_KEY);
+    if (fileName == null || "System.err".equals(fileName)) {
+      return new ConsoleOutput();
+    }
+    int bufferSize = SimpleLoggerConfiguration.getIntProperty(
+        LOG_FILE_BUFFER_SIZE_KEY, FileOutput.DEFAULT_BUFFER_SIZE);
+    long flushInterval = SimpleLoggerConfiguration.getIntProperty(
+        LOG_FILE_FLUSH_INTERVAL_KEY,
+        (int) FileOutput.DEFAULT_FLUSH_INTERVAL_MILLIS);
+    String charsetName = SimpleLoggerConfiguration
+        .getProperty(LOG_FILE_CHARSET_KEY);
+    if (charsetName == null) {
+      charsetName = SimpleLoggerConfiguration
+          .getSystemProperty("file.encoding");
+    }
+    Charset charset;
+    try {
+      charset = Charset.forName(charsetName == null ? "UTF-8" : charsetName);
+    } catch (IllegalArgumentException e) {
+      Util.reportFailure("Unsupported charset [" + charsetName
+          + "], using UTF-8");
+      charset = Charset.forName("UTF-8");
+    }
+    try {
+      if ("binary".equalsIgnoreCase(SimpleLoggerConfiguration
+          .getProperty(LOG_FILE_FORMAT_KEY))) {
+        return new BinaryOutput(fileName, startTime, bufferSize,
+            flushInterval);
+      }
+      if ("true".equalsIgnoreCase(SimpleLoggerConfiguration
+          .getProperty(LOG_FILE_MAPPED_KEY))) {
+        int segmentSize = SimpleLoggerConfiguration.getIntProperty(
+            LOG_FILE_SEGMENT_SIZE_KEY, MappedFileOutput.DEFAULT_SEGMENT_SIZE);
+        return new MappedFileOutput(fileName, charset, segmentSize);
+      }
+      return new FileOutput(fileName, charset, bufferSize, flushInterval);
+    } catch (IOException e) {
+      Util.reportFailure("Could not open log file [" + fileName
+          + "], logging to System.err instead", e);
+      return new ConsoleOutput();
+    }
+  }
+
+  private static boolean isJson() {
+    if (!"json".equalsIgnoreCase(SimpleLoggerConfiguration
+        .getProperty(LINE_FORMAT_KEY))) {
+      return false;
+    }
+    if (BINARY_OUTPUT != null) {
+      Util.reportFailure("The json line format does not apply to the binary "
+          + "log file format");
+      return false;
+    }
+    return true;
+  }
+
+  private static AsyncWriter createAsyncWriter() {
+    if (!"true".equalsIgnoreCase(SimpleLoggerConfiguration
+        .getProperty(ASYNC_KEY))) {
+      return null;
+    }
+    if (BINARY_OUTPUT != null) {
+      // events are not rendered in binary mode, which leaves little for a
+      // background thread to do
+      Util.reportFailure("Asynchronous mode is not supported with the binary "
+          + "log file format, writing events synchronously");
+      return null;
+    }
+    int bufferSize = SimpleLoggerConfiguration.getIntProperty(
+        ASYNC_BUFFER_SIZE_KEY, AsyncWriter.DEFAULT_BUFFER_SIZE);
+    int fullPolicy = AsyncWriter.parseFullPolicy(SimpleLoggerConfiguration
+        .getProperty(ASYNC_FULL_POLICY_KEY));
+    AsyncWriter writer = new AsyncWriter(bufferSize, fullPolicy, OUTPUT);
+    writer.start();
+    return writer;
+  }
+
+  private static FlightRecorder createFlightRecorder() {
+    int size = SimpleLoggerConfiguration.getIntProperty(
+        FLIGHT_RECORDER_SIZE_KEY, 0);
+    if (size <= 0) {
+      return null;
+    }
+    if (BINARY_OUTPUT != null) {
+      // recorded events could be written in binary form as well, but the
+      // decoder would then need to tell them apart from regular events
+      Util.reportFailure("The flight recorder is not supported with the "
+          + "binary log file format");
+      return null;
+    }
+    String value = SimpleLoggerConfiguration
+        .getProperty(FLIGHT_RECORDER_LEVEL_KEY);
+    int level = value == null ? LOG_LEVEL_DEBUG : SimpleLoggerConfiguration
+        .stringToLevel(value, FLIGHT_RECORDER_LEVEL_KEY);
+    return new FlightRecorder(size, level);
+  }
+
+  /**
+   * Write out pending log lines when the JVM shuts down.
+   */
+  private static void registerShutdownHook() {
+    try {
+      Runtime.getRuntime().addShutdownHook(new Thread() {
+        public void run() {
+          if (ASYNC_WRITER != null) {
+            ASYNC_WRITER.stop(SHUTDOWN_TIMEOUT_MILLIS);
+          }
+          OUTPUT.close();
+        }
+      });
+    } catch (SecurityException e) {
+      Util.reportFailure("Could not register shutdown hook, pending log "
+          + "events may be lost on exit");
+    }
+  }
+
   /**
    * Package access allows only {@link SimpleLoggerFactory} to instantiate
    * SimpleLogger instances.
    */
   SimpleLogger(String name) {
     this.name = name;
+    this.currentLogLevel = SimpleLoggerConfiguration.resolveLevel(name);
+  }
+
+  /**
+   * Recompute the level of this logger from the current configuration.
+   */
+  void resolveLevel() {
+    currentLogLevel = SimpleLoggerConfiguration.resolveLevel(name);
+  }
+
+  int getLogLevel() {
+    return currentLogLevel;
   }
 
   /**
-   * Always returns false.
-   * @return always false
+   * Is this logger enabled for the TRACE level?
    */
   public boolean isTraceEnabled() {
-    return false;
+    return currentLogLevel <= LOG_LEVEL_TRACE;
   }
 
   /**
-   * A NOP implementation, as this logger is permanently disabled for
-   * the TRACE level.
+   * A simple implementation which logs messages of level TRACE according
+   * to the format outlined above.
    */
   public void trace(String msg) {
-    // NOP
+    log(LOG_LEVEL_TRACE, msg, null);
   }
 
   /**
-   * A NOP implementation, as this logger is permanently disabled for
-   * the TRACE level.
+   * Perform single parameter substitution before logging the message of level
+   * TRACE according to the format outlined above.
    */
   public void trace(String format, Object param1) {
-    // NOP
+    formatAndLog(LOG_LEVEL_TRACE, format, param1, null);
   }
 
   
   /**
-   * A NOP implementation, as this logger is permanently disabled for
-   * the TRACE level.
+   * Perform double parameter substitution before logging the message of level
+   * TRACE according to the format outlined above.
    */
   public void trace(String format, Object param1, Object param2) {
-    // NOP
+    formatAndLog(LOG_LEVEL_TRACE, format, param1, param2);
   }
 
+  /**
+   * Perform substitution of an array of arguments before logging the message
+   * of level TRACE according to the format outlined above.
+   */
   public void trace(String format, Object[] argArray) {
-    // NOP
+    formatAndLog(LOG_LEVEL_TRACE, format, argArray);
   }
   
   /**
-   * A NOP implementation, as this logger is permanently disabled for
-   * the TRACE level.
+   * Log a message of level TRACE, including an exception.
    */
   public void trace(String msg, Throwable t) {
-    // NOP
+    log(LOG_LEVEL_TRACE, msg, t);
   }
 
   
   /**
-   * Always returns false.
-   * @return always false
+   * Is this logger enabled for the DEBUG level?
    */
   public boolean isDebugEnabled() {
-    return false;
+    return currentLogLevel <= LOG_LEVEL_DEBUG;
   }
 
   /**
-   * A NOP implementation, as this logger is permanently disabled for
-   * the DEBUG level.
+   * A simple implementation which logs messages of level DEBUG according
+   * to the format outlined above.
    */
   public void debug(String msg) {
-    // NOP
+    log(LOG_LEVEL_DEBUG, msg, null);
   }
 
   /**
-   * A NOP implementation, as this logger is permanently disabled for
-   * the DEBUG level.
+   * Perform single parameter substitution before logging the message of level
+   * DEBUG according to the format outlined above.
    */
   public void debug(String format, Object param1) {
-    // NOP
+    formatAndLog(LOG_LEVEL_DEBUG, format, param1, null);
   }
 
   
   /**
-   * A NOP implementation, as this logger is permanently disabled for
-   * the DEBUG level.
+   * Perform double parameter substitution before logging the message of level
+   * DEBUG according to the format outlined above.
    */
   public void debug(String format, Object param1, Object param2) {
-    // NOP
+    formatAndLog(LOG_LEVEL_DEBUG, format, param1, param2);
   }
 
+  /**
+   * Perform substitution of an array of arguments before logging the message
+   * of level DEBUG according to the format outlined above.
+   */
   public void debug(String format, Object[] argArray) {
-    // NOP
+    formatAndLog(LOG_LEVEL_DEBUG, format, argArray);
   }
   
   /**
-   * A NOP implementation, as this logger is permanently disabled for
-   * the DEBUG level.
+   * Log a message of level DEBUG, including an exception.
    */
   public void debug(String msg, Throwable t) {
-    // NOP
+    log(LOG_LEVEL_DEBUG, msg, t);
   }
 
   /**
@@ -182,35 +573,13 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * @param message
    * @param t
    */
-  private void log(String level, String message, Throwable t) {
-    StringBuffer buf = new StringBuffer();
-
-    long millis = System.currentTimeMillis();
-    buf.append(millis - startTime);
-
-    buf.append(" [");
-    buf.append(Thread.currentThread().getName());
-    buf.append("] ");
-
-    buf.append(level);
-    buf.append(" ");
-
-    buf.append(name);
-    buf.append(" - ");
-
-    buf.append(message);
-
-    buf.append(LINE_SEPARATOR);
-
-    System.err.print(buf.toString());
-    if (t != null) {
-      t.printStackTrace(System.err);
-    }
-    System.err.flush();
+  private void log(int level, String message, Throwable t) {
+    log(level, KIND_MESSAGE, message, null, null, null, 0, 0, t);
   }
 
   /**
-   * For formatted messages, first substitute arguments and then log.
+   * For formatted messages, substitute arguments directly in the output
+   * buffer and then log.
    *
    * @param level
    * @param format
@@ -218,36 +587,314 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * @param param2
    */
   private void formatAndLog(
-    String level, String format, Object arg1, Object arg2) {
-    String message = MessageFormatter.format(format, arg1, arg2);
-    log(level, message, null);
+    int level, String format, Object arg1, Object arg2) {
+    log(level, KIND_OBJECT_OBJECT, format, arg1, arg2, null, 0, 0, null);
   }
   
   /**
-   * For formatted messages, first substitute arguments and then log.
+   * For formatted messages, substitute arguments directly in the output
+   * buffer and then log.
    * 
    * @param level
    * @param format
    * @param argArray
    */
-  private void formatAndLog(String level, String format, Object[] argArray) {
-    String message = MessageFormatter.arrayFormat(format, argArray);
-    log(level, message, null);
+  private void formatAndLog(int level, String format, Object[] argArray) {
+    log(level, KIND_ARRAY, format, null, null, argArray, 0, 0, null);
+  }
+
+  private void formatAndLog(int level, String format, long arg) {
+    log(level, KIND_LONG, format, null, null, null, arg, 0, null);
+  }
+
+  private void formatAndLog(int level, String format, double arg) {
+    log(level, KIND_DOUBLE, format, null, null, null, Double
+        .doubleToRawLongBits(arg), 0, null);
+  }
+
+  private void formatAndLog(int level, String format, boolean arg) {
+    log(level, KIND_BOOLEAN, format, null, null, null, arg ? 1 : 0, 0, null);
+  }
+
+  private void formatAndLog(int level, String format, long arg1, long arg2) {
+    log(level, KIND_LONG_LONG, format, null, null, null, arg1, arg2, null);
+  }
+
+  private void formatAndLog(int level, String format, Object arg1, long arg2) {
+    log(level, KIND_OBJECT_LONG, format, arg1, null, null, 0, arg2, null);
   }
 
   /**
-   * Always returns true.
+   * Log an event of any kind, see {@link #appendMessage}. A disabled event is
+   * handed to the flight recorder. An enabled one is written in binary form,
+   * queued for the asynchronous writer or rendered by the calling thread, in
+   * that order of preference.
+   */
+  private void log(int level, byte kind, String pattern, Object arg1,
+      Object arg2, Object[] argArray, long value1, long value2, Throwable t) {
+    if (level < currentLogLevel) {
+      if (FLIGHT_RECORDER != null) {
+        FLIGHT_RECORDER.record(level, name, kind, pattern, arg1, arg2,
+            argArray, value1, value2, t);
+      }
+      return;
+    }
+    if (level == LOG_LEVEL_ERROR && FLIGHT_RECORDER != null) {
+      FLIGHT_RECORDER.dump(ASYNC_WRITER, OUTPUT);
+    }
+    if (BINARY_OUTPUT != null) {
+      writeBinary(level, kind, pattern, arg1, arg2, argArray, value1, value2,
+          t);
+      return;
+    }
+    if (ASYNC_WRITER != null) {
+      if (kind == KIND_MESSAGE) {
+        if (ASYNC_WRITER.enqueue(level, name, pattern, t)) {
+          return;
+        }
+      } else if (kind == KIND_OBJECT_OBJECT || kind == KIND_ARRAY) {
+        if (ASYNC_WRITER.enqueue(level, name, pattern, arg1, arg2, argArray)) {
+          return;
+        }
+      }
+    }
+    StringBuffer buf = getBuffer();
+    try {
+      int messageStart = beginLine(buf, level);
+      appendMessage(buf, kind, pattern, arg1, arg2, argArray, value1, value2);
+      endLine(buf, messageStart, level, t);
+    } finally {
+      releaseBuffer(buf);
+    }
+  }
+
+  private void writeBinary(int level, byte kind, String pattern, Object arg1,
+      Object arg2, Object[] argArray, long value1, long value2, Throwable t) {
+    switch (kind) {
+    case KIND_MESSAGE:
+      BINARY_OUTPUT.writeMessage(level, name, pattern, t);
+      break;
+    case KIND_OBJECT_OBJECT:
+      BINARY_OUTPUT.writeEvent(level, name, pattern, arg1, arg2);
+      break;
+    case KIND_ARRAY:
+      BINARY_OUTPUT.writeEvent(level, name, pattern, argArray);
+      break;
+    case KIND_LONG:
+      BINARY_OUTPUT.writeEvent(level, name, pattern, value1);
+      break;
+    case KIND_DOUBLE:
+      BINARY_OUTPUT.writeEvent(level, name, pattern, Double
+          .longBitsToDouble(value1));
+      break;
+    case KIND_BOOLEAN:
+      BINARY_OUTPUT.writeEvent(level, name, pattern, value1 != 0);
+      break;
+    case KIND_LONG_LONG:
+      BINARY_OUTPUT.writeEvent(level, name, pattern, value1, value2);
+      break;
+    default:
+      BINARY_OUTPUT.writeEvent(level, name, pattern, arg1, value2);
+    }
+  }
+
+  /**
+   * Render the message of an event of the given kind, one of the KIND_XXX
+   * constants. Primitive arguments are passed as longs, doubles as their raw
+   * bits and booleans as 1 or 0.
+   */
+  static void appendMessage(StringBuffer buf, byte kind, String pattern,
+      Object arg1, Object arg2, Object[] argArray, long value1, long value2) {
+    switch (kind) {
+    case KIND_MESSAGE:
+      buf.append(pattern);
+      break;
+    case KIND_OBJECT_OBJECT:
+      MessageFormatter.appendTo(buf, pattern, arg1, arg2);
+      break;
+    case KIND_ARRAY:
+      MessageFormatter.arrayAppendTo(buf, pattern, argArray);
+      break;
+    case KIND_LONG:
+      MessageFormatter.appendTo(buf, pattern, value1);
+      break;
+    case KIND_DOUBLE:
+      MessageFormatter.appendTo(buf, pattern, Double.longBitsToDouble(value1));
+      break;
+    case KIND_BOOLEAN:
+      MessageFormatter.appendTo(buf, pattern, value1 != 0);
+      break;
+    case KIND_LONG_LONG:
+      MessageFormatter.appendTo(buf, pattern, value1, value2);
+      break;
+    default:
+      MessageFormatter.appendTo(buf, pattern, arg1, value2);
+    }
+  }
+
+  /**
+   * Start a log line in 'buf'. In asynchronous mode, only the message is
+   * rendered into 'buf', the rest of the line being rendered by the writer.
+   */
+  private int beginLine(StringBuffer buf, int level) {
+    if (ASYNC_WRITER == null) {
+      return appendPrefix(buf, level);
+    }
+    return 0;
+  }
+
+  /**
+   * Complete the log line started by {@link #beginLine} and write it, or hand
+   * the message over to the asynchronous writer.
+   */
+  private void endLine(StringBuffer buf, int messageStart, int level,
+      Throwable t) {
+    if (ASYNC_WRITER != null) {
+      String message = buf.toString();
+      if (ASYNC_WRITER.enqueue(level, name, message, t)) {
+        return;
+      }
+      // the writer is stopped
+      buf.setLength(0);
+      messageStart = appendPrefix(buf, level);
+      buf.append(message);
+    }
+    t = appendSuffix(buf, messageStart, currentContext(), t);
+    OUTPUT.write(buf, t, level, true);
+  }
+
+  private int appendPrefix(StringBuffer buf, int level) {
+    return appendPrefix(buf, System.currentTimeMillis(), Thread
+        .currentThread().getName(), level, name);
+  }
+
+  static String levelString(int level) {
+    switch (level) {
+    case LOG_LEVEL_TRACE:
+      return TRACE_STR;
+    case LOG_LEVEL_DEBUG:
+      return DEBUG_STR;
+    case LOG_LEVEL_INFO:
+      return INFO_STR;
+    case LOG_LEVEL_WARN:
+      return WARN_STR;
+    default:
+      return ERROR_STR;
+    }
+  }
+
+  /**
+   * Append the beginning of a log line, up to and including the separator
+   * preceding the message.
+   * 
+   * @return the index in 'buf' where the message starts
+   */
+  static int appendPrefix(StringBuffer buf, long timeStamp,
+      String threadName, int level, String loggerName) {
+    if (JSON) {
+      return JsonLayout.appendPrefix(buf, timeStamp, threadName, level,
+          loggerName);
+    }
+    if (DATE_FORMAT != null) {
+      DATE_FORMAT.appendTo(buf, timeStamp);
+    } else {
+      buf.append(timeStamp - startTime);
+    }
+
+    buf.append(" [");
+    buf.append(threadName);
+    buf.append("] ");
+
+    buf.append(levelString(level));
+    buf.append(" ");
+
+    buf.append(loggerName);
+    buf.append(" - ");
+    return buf.length();
+  }
+
+  /**
+   * Complete a log line whose message starts at 'messageStart'.
+   * 
+   * @param context
+   *          the MDC of the event, see {@link #currentContext()}
+   * @return the throwable which remains to be written after the line, that
+   *         is 't' for text lines and null for JSON objects, which embed it
+   */
+  static Throwable appendSuffix(StringBuffer buf, int messageStart,
+      Map context, Throwable t) {
+    if (!JSON) {
+      return t;
+    }
+    JsonLayout.appendSuffix(buf, messageStart, context, t);
+    return null;
+  }
+
+  /**
+   * Return the MDC of the calling thread if it is rendered, null otherwise.
+   */
+  static Map currentContext() {
+    if (!JSON) {
+      return null;
+    }
+    MDCAdapter mdcAdapter = MDC.getMDCAdapter();
+    if (mdcAdapter instanceof CopyOnWriteMDCAdapter) {
+      return ((CopyOnWriteMDCAdapter) mdcAdapter).getContextSnapshot();
+    }
+    return MDC.getCopyOfContextMap();
+  }
+
+  /**
+   * The output buffer of a thread, and whether it is in use.
+   */
+  private static final class ThreadBuffer {
+    StringBuffer buf = new StringBuffer(INITIAL_BUFFER_SIZE);
+    boolean inUse;
+  }
+
+  /**
+   * Return the calling thread's output buffer. Should the buffer already be
+   * in use, e.g. because an argument's toString() method logs in turn, a fresh
+   * buffer is returned instead.
+   */
+  private static StringBuffer getBuffer() {
+    ThreadBuffer threadBuffer = (ThreadBuffer) BUFFER.get();
+    if (threadBuffer == null) {
+      threadBuffer = new ThreadBuffer();
+      BUFFER.set(threadBuffer);
+    } else if (threadBuffer.inUse) {
+      // re-entrant call
+      return new StringBuffer(INITIAL_BUFFER_SIZE);
+    }
+    threadBuffer.inUse = true;
+    return threadBuffer.buf;
+  }
+
+  private static void releaseBuffer(StringBuffer buf) {
+    buf.setLength(0);
+    ThreadBuffer threadBuffer = (ThreadBuffer) BUFFER.get();
+    if (threadBuffer.buf == buf) {
+      if (buf.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+        // do not hold on to the memory of an exceptionally long message
+        threadBuffer.buf = new StringBuffer(INITIAL_BUFFER_SIZE);
+      }
+      threadBuffer.inUse = false;
+    }
+  }
+
+  /**
+   * Is this logger enabled for the INFO level?
    */
   public boolean isInfoEnabled() {
-    return true;
+    return currentLogLevel <= LOG_LEVEL_INFO;
   }
 
   /**
-   * A simple implementation which always logs messages of level INFO according
+   * A simple implementation which logs messages of level INFO according
    * to the format outlined above.
    */
   public void info(String msg) {
-    log(INFO_STR, msg, null);
+    log(LOG_LEVEL_INFO, msg, null);
   }
 
   /**
@@ -255,7 +902,7 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * INFO according to the format outlined above.
    */
   public void info(String format, Object arg) {
-    formatAndLog(INFO_STR, format, arg, null);
+    formatAndLog(LOG_LEVEL_INFO, format, arg, null);
   }
 
   /**
@@ -263,7 +910,7 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * INFO according to the format outlined above.
    */
   public void info(String format, Object arg1, Object arg2) {
-    formatAndLog(INFO_STR, format, arg1, arg2);
+    formatAndLog(LOG_LEVEL_INFO, format, arg1, arg2);
   }
 
   /**
@@ -271,7 +918,7 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * INFO according to the format outlined above.
    */
   public void info(String format, Object[] argArray) {
-    formatAndLog(INFO_STR, format, argArray);
+    formatAndLog(LOG_LEVEL_INFO, format, argArray);
   }
 
 
@@ -279,22 +926,22 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * Log a message of level INFO, including an exception.
    */
   public void info(String msg, Throwable t) {
-    log(INFO_STR, msg, t);
+    log(LOG_LEVEL_INFO, msg, t);
   }
 
   /**
-   * Always returns true.
+   * Is this logger enabled for the WARN level?
    */
   public boolean isWarnEnabled() {
-    return true;
+    return currentLogLevel <= LOG_LEVEL_WARN;
   }
   
   /**
-   * A simple implementation which always logs messages of level WARN according
+   * A simple implementation which logs messages of level WARN according
    * to the format outlined above.
   */
   public void warn(String msg) {
-    log(WARN_STR, msg, null);
+    log(LOG_LEVEL_WARN, msg, null);
   }
 
   /**
@@ -302,7 +949,7 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * WARN according to the format outlined above.
    */
   public void warn(String format, Object arg) {
-    formatAndLog(WARN_STR, format, arg, null);
+    formatAndLog(LOG_LEVEL_WARN, format, arg, null);
   }
 
   /**
@@ -310,7 +957,7 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * WARN according to the format outlined above.
    */
   public void warn(String format, Object arg1, Object arg2) {
-    formatAndLog(WARN_STR, format, arg1, arg2);
+    formatAndLog(LOG_LEVEL_WARN, format, arg1, arg2);
   }
 
   /**
@@ -318,29 +965,29 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * WARN according to the format outlined above.
    */
   public void warn(String format, Object[] argArray) {
-    formatAndLog(WARN_STR, format, argArray);
+    formatAndLog(LOG_LEVEL_WARN, format, argArray);
   }
 
   /**
    * Log a message of level WARN, including an exception.
    */
   public void warn(String msg, Throwable t) {
-    log(WARN_STR, msg, t);
+    log(LOG_LEVEL_WARN, msg, t);
   }
 
   /**
-   * Always returns true.
+   * Is this logger enabled for the ERROR level?
    */
   public boolean isErrorEnabled() {
-    return true;
+    return currentLogLevel <= LOG_LEVEL_ERROR;
   }
 
   /**
-   * A simple implementation which always logs messages of level ERROR according
+   * A simple implementation which logs messages of level ERROR according
    * to the format outlined above.
    */
   public void error(String msg) {
-    log(ERROR_STR, msg, null);
+    log(LOG_LEVEL_ERROR, msg, null);
   }
 
   /**
@@ -348,7 +995,7 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * ERROR according to the format outlined above.
    */
   public void error(String format, Object arg) {
-    formatAndLog(ERROR_STR, format, arg, null);
+    formatAndLog(LOG_LEVEL_ERROR, format, arg, null);
   }
 
   /**
@@ -356,7 +1003,7 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * ERROR according to the format outlined above.
    */
   public void error(String format, Object arg1, Object arg2) {
-    formatAndLog(ERROR_STR, format, arg1, arg2);
+    formatAndLog(LOG_LEVEL_ERROR, format, arg1, arg2);
   }
 
   /**
@@ -364,7 +1011,7 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * ERROR according to the format outlined above.
    */
   public void error(String format, Object[] argArray) {
-    formatAndLog(ERROR_STR, format, argArray);
+    formatAndLog(LOG_LEVEL_ERROR, format, argArray);
   }
 
   
@@ -372,6 +1019,206 @@ public class SimpleLogger extends MarkerIgnoringBase {
    * Log a message of level ERROR, including an exception.
    */
   public void error(String msg, Throwable t) {
-    log(ERROR_STR, msg, t);
+    log(LOG_LEVEL_ERROR, msg, t);
+  }
+
+  /**
+   * Perform substitution of a <code>long</code> argument before logging the message
+   * of level TRACE according to the format outlined above.
+   */
+  public void trace(String format, long arg) {
+    formatAndLog(LOG_LEVEL_TRACE, format, arg);
+  }
+
+  /**
+   * Perform substitution of a <code>double</code> argument before logging the message
+   * of level TRACE according to the format outlined above.
+   */
+  public void trace(String format, double arg) {
+    formatAndLog(LOG_LEVEL_TRACE, format, arg);
+  }
+
+  /**
+   * Perform substitution of a <code>boolean</code> argument before logging the message
+   * of level TRACE according to the format outlined above.
+   */
+  public void trace(String format, boolean arg) {
+    formatAndLog(LOG_LEVEL_TRACE, format, arg);
+  }
+
+  /**
+   * Perform substitution of two <code>long</code> arguments before logging the
+   * message of level TRACE according to the format outlined above.
+   */
+  public void trace(String format, long arg1, long arg2) {
+    formatAndLog(LOG_LEVEL_TRACE, format, arg1, arg2);
+  }
+
+  /**
+   * Perform substitution of an object and a <code>long</code> argument before
+   * logging the message of level TRACE according to the format outlined above.
+   */
+  public void trace(String format, Object arg1, long arg2) {
+    formatAndLog(LOG_LEVEL_TRACE, format, arg1, arg2);
+  }
+
+  /**
+   * Perform substitution of a <code>long</code> argument before logging the message
+   * of level DEBUG according to the format outlined above.
+   */
+  public void debug(String format, long arg) {
+    formatAndLog(LOG_LEVEL_DEBUG, format, arg);
+  }
+
+  /**
+   * Perform substitution of a <code>double</code> argument before logging the message
+   * of level DEBUG according to the format outlined above.
+   */
+  public void debug(String format, double arg) {
+    formatAndLog(LOG_LEVEL_DEBUG, format, arg);
+  }
+
+  /**
+   * Perform substitution of a <code>boolean</code> argument before logging the message
+   * of level DEBUG according to the format outlined above.
+   */
+  public void debug(String format, boolean arg) {
+    formatAndLog(LOG_LEVEL_DEBUG, format, arg);
+  }
+
+  /**
+   * Perform substitution of two <code>long</code> arguments before logging the
+   * message of level DEBUG according to the format outlined above.
+   */
+  public void debug(String format, long arg1, long arg2) {
+    formatAndLog(LOG_LEVEL_DEBUG, format, arg1, arg2);
+  }
+
+  /**
+   * Perform substitution of an object and a <code>long</code> argument before
+   * logging the message of level DEBUG according to the format outlined above.
+   */
+  public void debug(String format, Object arg1, long arg2) {
+    formatAndLog(LOG_LEVEL_DEBUG, format, arg1, arg2);
+  }
+
+  /**
+   * Perform substitution of a <code>long</code> argument before logging the message
+   * of level INFO according to the format outlined above.
+   */
+  public void info(String format, long arg) {
+    formatAndLog(LOG_LEVEL_INFO, format, arg);
+  }
+
+  /**
+   * Perform substitution of a <code>double</code> argument before logging the message
+   * of level INFO according to the format outlined above.
+   */
+  public void info(String format, double arg) {
+    formatAndLog(LOG_LEVEL_INFO, format, arg);
+  }
+
+  /**
+   * Perform substitution of a <code>boolean</code> argument before logging the message
+   * of level INFO according to the format outlined above.
+   */
+  public void info(String format, boolean arg) {
+    formatAndLog(LOG_LEVEL_INFO, format, arg);
+  }
+
+  /**
+   * Perform substitution of two <code>long</code> arguments before logging the message
+   * of level INFO according to the format outlined above.
+   */
+  public void info(String format, long arg1, long arg2) {
+    formatAndLog(LOG_LEVEL_INFO, format, arg1, arg2);
+  }
+
+  /**
+   * Perform substitution of an object and a <code>long</code> argument before logging the message
+   * of level INFO according to the format outlined above.
+   */
+  public void info(String format, Object arg1, long arg2) {
+    formatAndLog(LOG_LEVEL_INFO, format, arg1, arg2);
+  }
+
+  /**
+   * Perform substitution of a <code>long</code> argument before logging the message
+   * of level WARN according to the format outlined above.
+   */
+  public void warn(String format, long arg) {
+    formatAndLog(LOG_LEVEL_WARN, format, arg);
+  }
+
+  /**
+   * Perform substitution of a <code>double</code> argument before logging the message
+   * of level WARN according to the format outlined above.
+   */
+  public void warn(String format, double arg) {
+    formatAndLog(LOG_LEVEL_WARN, format, arg);
+  }
+
+  /**
+   * Perform substitution of a <code>boolean</code> argument before logging the message
+   * of level WARN according to the format outlined above.
+   */
+  public void warn(String format, boolean arg) {
+    formatAndLog(LOG_LEVEL_WARN, format, arg);
+  }
+
+  /**
+   * Perform substitution of two <code>long</code> arguments before logging the message
+   * of level WARN according to the format outlined above.
+   */
+  public void warn(String format, long arg1, long arg2) {
+    formatAndLog(LOG_LEVEL_WARN, format, arg1, arg2);
+  }
+
+  /**
+   * Perform substitution of an object and a <code>long</code> argument before logging the message
+   * of level WARN according to the format outlined above.
+   */
+  public void warn(String format, Object arg1, long arg2) {
+    formatAndLog(LOG_LEVEL_WARN, format, arg1, arg2);
+  }
+
+  /**
+   * Perform substitution of a <code>long</code> argument before logging the message
+   * of level ERROR according to the format outlined above.
+   */
+  public void error(String format, long arg) {
+    formatAndLog(LOG_LEVEL_ERROR, format, arg);
+  }
+
+  /**
+   * Perform substitution of a <code>double</code> argument before logging the message
+   * of level ERROR according to the format outlined above.
+   */
+  public void error(String format, double arg) {
+    formatAndLog(LOG_LEVEL_ERROR, format, arg);
+  }
+
+  /**
+   * Perform substitution of a <code>boolean</code> argument before logging the message
+   * of level ERROR according to the format outlined above.
+   */
+  public void error(String format, boolean arg) {
+    formatAndLog(LOG_LEVEL_ERROR, format, arg);
+  }
+
+  /**
+   * Perform substitution of two <code>long</code> arguments before logging the message
+   * of level ERROR according to the format outlined above.
+   */
+  public void error(String format, long arg1, long arg2) {
+    formatAndLog(LOG_LEVEL_ERROR, format, arg1, arg2);
+  }
+
+  /**
+   * Perform substitution of an object and a <code>long</code> argument before logging the message
+   * of level ERROR according to the format outlined above.
+   */
+  public void error(String format, Object arg1, long arg2) {
+    formatAndLog(LOG_LEVEL_ERROR, format, arg1, arg2);
   }
 }
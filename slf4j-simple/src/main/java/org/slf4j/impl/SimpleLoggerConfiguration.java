@@ -0,0 +1,182 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.slf4j.helpers.Util;
+
+/**
+ * The configuration of {@link SimpleLogger}. Each setting is read from the
+ * system property of the same name if it is set, and from the
+ * {@value #CONFIGURATION_FILE} resource otherwise.
+ * 
+ * <p>The level of a logger is given by the "org.slf4j.simpleLogger.log."
+ * property bearing its name or, failing that, the name of its closest
+ * ancestor. For example, the level of "a.b.c" is taken from
+ * "org.slf4j.simpleLogger.log.a.b.c", "org.slf4j.simpleLogger.log.a.b" or
+ * "org.slf4j.simpleLogger.log.a", in that order, and defaults to the value of
+ * {@value SimpleLogger#DEFAULT_LOG_LEVEL_KEY}, itself "info" by default.
+ * Recognized levels are "trace", "debug", "info", "warn", "error" and "off".
+ * </p>
+ * 
+ * @author Ceki G&uuml;lc&uuml;
+ * @since 1.5.11
+ */
+class SimpleLoggerConfiguration {
+
+  static final String CONFIGURATION_FILE = "simplelogger.properties";
+
+  private static volatile Properties properties = loadProperties();
+
+  private SimpleLoggerConfiguration() {
+  }
+
+  /**
+   * Read the configuration file again. The levels of existing loggers are
+   * left untouched, see {@link SimpleLoggerFactory#reconfigure()}.
+   */
+  static void reload() {
+    properties = loadProperties();
+  }
+
+  private static Properties loadProperties() {
+    Properties props = new Properties();
+    InputStream in = null;
+    try {
+      ClassLoader classLoader = SimpleLoggerConfiguration.class
+          .getClassLoader();
+      if (classLoader != null) {
+        in = classLoader.getResourceAsStream(CONFIGURATION_FILE);
+      } else {
+        in = ClassLoader.getSystemResourceAsStream(CONFIGURATION_FILE);
+      }
+      if (in != null) {
+        props.load(in);
+      }
+    } catch (IOException e) {
+      Util.reportFailure("Could not read " + CONFIGURATION_FILE, e);
+    } catch (SecurityException e) {
+      // Ignore
+    } finally {
+      if (in != null) {
+        try {
+          in.close();
+        } catch (IOException e) {
+          // Ignore
+        }
+      }
+    }
+    return props;
+  }
+
+  /**
+   * Return the value of the setting 'key', or null if it is not set.
+   */
+  static String getProperty(String key) {
+    String value = getSystemProperty(key);
+    if (value == null) {
+      value = properties.getProperty(key);
+    }
+    return value;
+  }
+
+  static int getIntProperty(String key, int defaultValue) {
+    String value = getProperty(key);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      Util.reportFailure("Invalid value [" + value + "] for " + key);
+      return defaultValue;
+    }
+  }
+
+  static double getDoubleProperty(String key, double defaultValue) {
+    String value = getProperty(key);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      Util.reportFailure("Invalid value [" + value + "] for " + key);
+      return defaultValue;
+    }
+  }
+
+  static String getSystemProperty(String key) {
+    try {
+      return System.getProperty(key);
+    } catch (SecurityException e) {
+      // Ignore
+      return null;
+    }
+  }
+
+  /**
+   * Return the effective level of the logger named 'loggerName', one of the
+   * LOG_LEVEL_XXX constants of {@link SimpleLogger}.
+   */
+  static int resolveLevel(String loggerName) {
+    String name = loggerName;
+    while (name != null) {
+      String value = getProperty(SimpleLogger.LOG_KEY_PREFIX + name);
+      if (value != null) {
+        return stringToLevel(value, SimpleLogger.LOG_KEY_PREFIX + name);
+      }
+      int i = name.lastIndexOf('.');
+      name = i < 0 ? null : name.substring(0, i);
+    }
+    String value = getProperty(SimpleLogger.DEFAULT_LOG_LEVEL_KEY);
+    if (value != null) {
+      return stringToLevel(value, SimpleLogger.DEFAULT_LOG_LEVEL_KEY);
+    }
+    return SimpleLogger.LOG_LEVEL_INFO;
+  }
+
+  static int stringToLevel(String value, String key) {
+    String level = value.trim();
+    if ("trace".equalsIgnoreCase(level)) {
+      return SimpleLogger.LOG_LEVEL_TRACE;
+    } else if ("debug".equalsIgnoreCase(level)) {
+      return SimpleLogger.LOG_LEVEL_DEBUG;
+    } else if ("info".equalsIgnoreCase(level)) {
+      return SimpleLogger.LOG_LEVEL_INFO;
+    } else if ("warn".equalsIgnoreCase(level)) {
+      return SimpleLogger.LOG_LEVEL_WARN;
+    } else if ("error".equalsIgnoreCase(level)) {
+      return SimpleLogger.LOG_LEVEL_ERROR;
+    } else if ("off".equalsIgnoreCase(level)) {
+      return SimpleLogger.LOG_LEVEL_OFF;
+    }
+    Util.reportFailure("Unknown level [" + value + "] for " + key
+        + ", using INFO");
+    return SimpleLogger.LOG_LEVEL_INFO;
+  }
+}
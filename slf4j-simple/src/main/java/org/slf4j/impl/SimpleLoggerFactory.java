@@ -33,11 +33,13 @@
 
 package org.slf4j.impl;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.reflect.Constructor;
+import java.util.Iterator;
 
 import org.slf4j.Logger;
 import org.slf4j.ILoggerFactory;
+import org.slf4j.helpers.ConcurrentRegistry;
+import org.slf4j.helpers.Util;
 
 /**
  * An implementation of {@link ILoggerFactory} which always returns
@@ -49,25 +51,78 @@ public class SimpleLoggerFactory implements ILoggerFactory {
 
   final static SimpleLoggerFactory INSTANCE = new SimpleLoggerFactory();
 
-  Map loggerMap;
+  static final int DEFAULT_SUPPRESSION_BURST = 100;
+  static final int DEFAULT_SUPPRESSION_SUMMARY_INTERVAL_MILLIS = 10000;
+  private static final String SUPPRESSING_FACTORY_CLASS = "org.slf4j.ext.SuppressingLoggerFactory";
+
+  // key: name (String), value: a SimpleLogger
+  final ConcurrentRegistry loggerRegistry = new ConcurrentRegistry();
+
+  private final ConcurrentRegistry.Creator loggerCreator = new ConcurrentRegistry.Creator() {
+    public Object create(String name) {
+      return new SimpleLogger(name);
+    }
+  };
 
   public SimpleLoggerFactory() {
-    loggerMap = new HashMap();
   }
 
   /**
    * Return an appropriate {@link SimpleLogger} instance by name.
    */
   public Logger getLogger(String name) {
-    Logger slogger = null;
-    // protect against concurrent access of the loggerMap
-    synchronized (this) {
-      slogger = (Logger) loggerMap.get(name);
-      if (slogger == null) {
-        slogger = new SimpleLogger(name);
-        loggerMap.put(name, slogger);
+    return (Logger) loggerRegistry.getOrCreate(name, loggerCreator);
+  }
+
+  /**
+   * Wrap 'factory' so as to suppress log storms, if so configured by
+   * {@link SimpleLogger#SUPPRESSION_RATE_KEY}. The wrapper is loaded by
+   * reflection, as it belongs to slf4j-ext.
+   */
+  static ILoggerFactory wrapForSuppression(ILoggerFactory factory) {
+    double rate = SimpleLoggerConfiguration.getDoubleProperty(
+        SimpleLogger.SUPPRESSION_RATE_KEY, 0);
+    if (rate <= 0) {
+      return factory;
+    }
+    int burst = SimpleLoggerConfiguration.getIntProperty(
+        SimpleLogger.SUPPRESSION_BURST_KEY, DEFAULT_SUPPRESSION_BURST);
+    int summaryInterval = SimpleLoggerConfiguration.getIntProperty(
+        SimpleLogger.SUPPRESSION_SUMMARY_INTERVAL_KEY,
+        DEFAULT_SUPPRESSION_SUMMARY_INTERVAL_MILLIS);
+    try {
+      Class wrapperClass = Class.forName(SUPPRESSING_FACTORY_CLASS);
+      Constructor constructor = wrapperClass.getConstructor(new Class[] {
+          ILoggerFactory.class, double.class, int.class, long.class });
+      return (ILoggerFactory) constructor.newInstance(new Object[] { factory,
+          new Double(rate), new Integer(burst), new Long(summaryInterval) });
+    } catch (ClassNotFoundException e) {
+      Util.reportFailure(SimpleLogger.SUPPRESSION_RATE_KEY
+          + " requires slf4j-ext on the class path, log storms will not be "
+          + "suppressed");
+    } catch (Exception e) {
+      Util.reportFailure("Could not create " + SUPPRESSING_FACTORY_CLASS, e);
+    }
+    return factory;
+  }
+
+  /**
+   * Read the configuration again and recompute the level of every logger
+   * created so far, see {@link SimpleLoggerConfiguration}. The factory bound
+   * to {@link org.slf4j.LoggerFactory} is returned by
+   * {@link StaticLoggerBinder#getSimpleLoggerFactory()}, even when
+   * {@link org.slf4j.LoggerFactory#getILoggerFactory()} returns a wrapper
+   * suppressing log storms.
+   */
+  public void reconfigure() {
+    // loggers are created while holding the registry's lock, so none can be
+    // created with the old configuration and missed by the iteration below
+    synchronized (loggerRegistry) {
+      SimpleLoggerConfiguration.reload();
+      Iterator it = loggerRegistry.values().iterator();
+      while (it.hasNext()) {
+        ((SimpleLogger) it.next()).resolveLevel();
       }
     }
-    return slogger;
   }
 }
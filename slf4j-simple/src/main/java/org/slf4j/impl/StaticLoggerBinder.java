@@ -67,14 +67,26 @@ public class StaticLoggerBinder implements LoggerFactoryBinder {
    * method should always be the same object
    */
   private final ILoggerFactory loggerFactory;
+  private final SimpleLoggerFactory simpleLoggerFactory;
   
   private StaticLoggerBinder() {
-    loggerFactory = new SimpleLoggerFactory();
+    simpleLoggerFactory = new SimpleLoggerFactory();
+    loggerFactory = SimpleLoggerFactory
+        .wrapForSuppression(simpleLoggerFactory);
   }
   
   public ILoggerFactory getLoggerFactory() {
     return loggerFactory;
   }
+
+  /**
+   * Return the factory creating the {@link SimpleLogger} instances, which is
+   * the one returned by {@link #getLoggerFactory()} unless log storms are
+   * suppressed, see {@link SimpleLogger#SUPPRESSION_RATE_KEY}.
+   */
+  public SimpleLoggerFactory getSimpleLoggerFactory() {
+    return simpleLoggerFactory;
+  }
   
   public String getLoggerFactoryClassStr() {
     return loggerFactoryClassStr;
@@ -24,12 +24,16 @@
 
 package org.slf4j.impl;
 
+import org.slf4j.helpers.CopyOnWriteMDCAdapter;
 import org.slf4j.helpers.NOPMakerAdapter;
 import org.slf4j.spi.MDCAdapter;
 
 
 /**
- * This implementation is bound to {@link NOPMakerAdapter}.
+ * This implementation is bound to {@link NOPMakerAdapter}, unless events are
+ * rendered in the JSON line format of {@link SimpleLogger}, which includes
+ * the MDC. It is then bound to {@link CopyOnWriteMDCAdapter}, whose context
+ * maps can be captured for each event at no cost.
  *
  * @author Ceki G&uuml;lc&uuml;
  */
@@ -44,15 +48,26 @@ public class StaticMDCBinder {
   private StaticMDCBinder() {
   }
   
+  private static boolean isMDCRendered() {
+    return "json".equalsIgnoreCase(SimpleLoggerConfiguration
+        .getProperty(SimpleLogger.LINE_FORMAT_KEY));
+  }
+
   /**
-   * Currently this method always returns an instance of 
-   * {@link StaticMDCBinder}.
+   * Return an instance of {@link CopyOnWriteMDCAdapter} if the MDC is
+   * rendered, of {@link NOPMakerAdapter} otherwise.
    */
   public MDCAdapter getMDCA() {
-     return new NOPMakerAdapter();
+    if (isMDCRendered()) {
+      return new CopyOnWriteMDCAdapter();
+    }
+    return new NOPMakerAdapter();
   }
   
   public String  getMDCAdapterClassStr() {
+    if (isMDCRendered()) {
+      return CopyOnWriteMDCAdapter.class.getName();
+    }
     return NOPMakerAdapter.class.getName();
   }
 }
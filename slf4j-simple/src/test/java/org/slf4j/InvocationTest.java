@@ -36,6 +36,8 @@ import java.io.PrintStream;
 
 import junit.framework.TestCase;
 
+import org.slf4j.spi.PrimitiveArgLogger;
+
 
 /**
  * Test whether invoking the SLF4J API causes problems or not.
@@ -66,6 +68,12 @@ public class InvocationTest extends TestCase {
     logger.debug("Hello world.");
   }
   
+  public void testSameInstance() {
+    Logger logger = LoggerFactory.getLogger("testSameInstance");
+    assertSame(logger, LoggerFactory.getLogger("testSameInstance"));
+    assertSame(logger, LoggerFactory.getLogger(new String("testSameInstance")));
+  }
+
   public void test2() {
     Integer i1 = new Integer(1);
     Integer i2 = new Integer(2);
@@ -139,4 +147,15 @@ public class InvocationTest extends TestCase {
     assertNull(MDC.get("k"));
     MDC.clear();
   }
+
+  public void testPrimitiveArgs() {
+    Logger logger = LoggerFactory.getLogger("testPrimitiveArgs");
+    assertTrue(logger instanceof PrimitiveArgLogger);
+    PrimitiveArgLogger pLogger = (PrimitiveArgLogger) logger;
+    pLogger.debug("latency={}", 10L);
+    pLogger.info("ratio={}", 0.5);
+    pLogger.warn("enabled={}", true);
+    pLogger.error("latency={} bytes={}", 10L, 2048);
+    pLogger.error("user={} bytes={}", "alice", 2048);
+  }
 }
@@ -0,0 +1,119 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j;
+
+import junit.framework.TestCase;
+
+import org.slf4j.impl.SimpleLogger;
+
+public class LoggerFactoryInitializationTest extends TestCase {
+
+  public LoggerFactoryInitializationTest(String name) {
+    super(name);
+  }
+
+  protected void tearDown() throws Exception {
+    LoggerFactory.reset();
+    super.tearDown();
+  }
+
+  /**
+   * Put LoggerFactory in the state it is in while the current thread binds.
+   */
+  void beginInitialization() {
+    LoggerFactory.getILoggerFactory();
+    LoggerFactory.reset();
+    synchronized (LoggerFactory.class) {
+      LoggerFactory.INITIALIZATION_STATE = LoggerFactory.ONGOING_INITILIZATION;
+      LoggerFactory.INITIALIZING_THREAD = Thread.currentThread();
+    }
+  }
+
+  void endInitialization() {
+    synchronized (LoggerFactory.class) {
+      LoggerFactory.INITIALIZATION_STATE = LoggerFactory.SUCCESSFUL_INITILIZATION;
+      LoggerFactory.resolveSubstituteLoggers();
+      LoggerFactory.INITIALIZING_THREAD = null;
+      LoggerFactory.class.notifyAll();
+    }
+  }
+
+  public void testReentrantCallGetsSubstitute() {
+    Logger substitute;
+    beginInitialization();
+    try {
+      substitute = LoggerFactory.getLogger("reentrant");
+      assertEquals("reentrant", substitute.getName());
+      assertFalse(substitute.isInfoEnabled());
+      assertEquals(1, LoggerFactory.TEMP_FACTORY.getLoggerNameList().size());
+    } finally {
+      endInitialization();
+    }
+    assertTrue(LoggerFactory.getLogger("reentrant") instanceof SimpleLogger);
+    // resolved to the SimpleLogger
+    assertTrue(substitute.isInfoEnabled());
+  }
+
+  public void testOtherThreadsWaitForInitialization()
+      throws InterruptedException {
+    final Logger[] loggers = new Logger[1];
+    Thread other = new Thread() {
+      public void run() {
+        loggers[0] = LoggerFactory.getLogger("other");
+      }
+    };
+    beginInitialization();
+    try {
+      other.start();
+      other.join(200);
+      assertTrue(other.isAlive());
+    } finally {
+      endInitialization();
+    }
+    other.join();
+    assertTrue(loggers[0] instanceof SimpleLogger);
+    assertEquals(0, LoggerFactory.TEMP_FACTORY.getLoggerNameList().size());
+  }
+
+  public void testOtherThreadsStopWaitingAfterTimeout()
+      throws InterruptedException {
+    final Logger[] loggers = new Logger[1];
+    Thread other = new Thread() {
+      public void run() {
+        loggers[0] = LoggerFactory.getLogger("timedOut");
+      }
+    };
+    beginInitialization();
+    try {
+      other.start();
+      other.join(LoggerFactory.INITIALIZATION_TIMEOUT_MILLIS * 5);
+      assertFalse(other.isAlive());
+      assertEquals("timedOut", loggers[0].getName());
+      assertFalse(loggers[0].isInfoEnabled());
+    } finally {
+      endInitialization();
+    }
+    assertTrue(loggers[0].isInfoEnabled());
+  }
+}
@@ -0,0 +1,145 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import junit.framework.TestCase;
+
+public class AsyncWriterTest extends TestCase {
+
+  static final int BUFFER_SIZE = 4;
+
+  ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  PrintStream out = new PrintStream(bytes);
+  LogOutput output = new ConsoleOutput(out);
+
+  public AsyncWriterTest(String name) {
+    super(name);
+  }
+
+  String output() {
+    out.flush();
+    return bytes.toString();
+  }
+
+  int lineCount() {
+    String output = output();
+    int count = 0;
+    for (int i = output.indexOf('\n'); i >= 0; i = output.indexOf('\n', i + 1)) {
+      count++;
+    }
+    return count;
+  }
+
+  public void testWritesInOrder() {
+    AsyncWriter writer = new AsyncWriter(BUFFER_SIZE, AsyncWriter.BLOCK, output);
+    writer.start();
+    for (int i = 0; i < 100; i++) {
+      assertTrue(writer.enqueue(SimpleLogger.LOG_LEVEL_INFO, "logger",
+          "message {} of {}", new Integer(i), "100", null));
+    }
+    assertTrue(writer.enqueue(SimpleLogger.LOG_LEVEL_ERROR, "logger",
+        "array {} {} {}", null, null, new Object[] { "a", "b", "c" }));
+    writer.stop(5000);
+
+    String output = output();
+    assertEquals(101, lineCount());
+    int previous = -1;
+    for (int i = 0; i < 100; i++) {
+      int index = output.indexOf("INFO logger - message " + i + " of 100");
+      assertTrue(index > previous);
+      previous = index;
+    }
+    assertTrue(output.indexOf("ERROR logger - array a b c") > previous);
+  }
+
+  public void testMutableArgumentsAreNotDeferred() {
+    AsyncWriter writer = new AsyncWriter(BUFFER_SIZE, AsyncWriter.BLOCK, output);
+    assertFalse(writer.enqueue(SimpleLogger.LOG_LEVEL_INFO, "logger", "{}",
+        new StringBuffer("mutable"), null, null));
+    assertFalse(writer.enqueue(SimpleLogger.LOG_LEVEL_INFO, "logger", "{}",
+        null, null, new Object[] { new int[0] }));
+  }
+
+  public void testDrop() {
+    // not started, so that the buffer fills up
+    AsyncWriter writer = new AsyncWriter(BUFFER_SIZE, AsyncWriter.DROP, output);
+    for (int i = 0; i < BUFFER_SIZE + 3; i++) {
+      assertTrue(writer.enqueue(SimpleLogger.LOG_LEVEL_ERROR, "logger", "m",
+          null));
+    }
+    writer.start();
+    writer.stop(5000);
+    assertEquals(BUFFER_SIZE + 1, lineCount());
+    assertTrue(output().indexOf("3 log events were dropped") >= 0);
+  }
+
+  public void testDropBelowWarn() throws InterruptedException {
+    final AsyncWriter writer = new AsyncWriter(BUFFER_SIZE,
+        AsyncWriter.DROP_BELOW_WARN, output);
+    for (int i = 0; i < BUFFER_SIZE; i++) {
+      writer.enqueue(SimpleLogger.LOG_LEVEL_INFO, "logger", "m", null);
+    }
+    // dropped
+    assertTrue(writer.enqueue(SimpleLogger.LOG_LEVEL_INFO, "logger", "m",
+        null));
+
+    Thread warnThread = new Thread() {
+      public void run() {
+        writer.enqueue(SimpleLogger.LOG_LEVEL_WARN, "logger", "warning", null);
+      }
+    };
+    warnThread.start();
+    warnThread.join(100);
+    // waits for a free slot
+    assertTrue(warnThread.isAlive());
+
+    writer.start();
+    warnThread.join(5000);
+    assertFalse(warnThread.isAlive());
+    writer.stop(5000);
+    assertTrue(output().indexOf("WARN logger - warning") >= 0);
+    assertTrue(output().indexOf("1 log events were dropped") >= 0);
+  }
+
+  public void testStopped() {
+    AsyncWriter writer = new AsyncWriter(BUFFER_SIZE, AsyncWriter.BLOCK, output);
+    writer.start();
+    writer.enqueue(SimpleLogger.LOG_LEVEL_INFO, "logger", "before", null);
+    writer.stop(5000);
+    assertTrue(output().indexOf("before") >= 0);
+    assertFalse(writer.enqueue(SimpleLogger.LOG_LEVEL_INFO, "logger", "after",
+        null));
+  }
+
+  public void testParseFullPolicy() {
+    assertEquals(AsyncWriter.BLOCK, AsyncWriter.parseFullPolicy(null));
+    assertEquals(AsyncWriter.DROP, AsyncWriter.parseFullPolicy("drop"));
+    assertEquals(AsyncWriter.DROP_BELOW_WARN, AsyncWriter
+        .parseFullPolicy(" dropBelowWarn "));
+  }
+}
@@ -0,0 +1,96 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.io.File;
+import java.nio.charset.Charset;
+
+import org.slf4j.helpers.MessageFormatter;
+
+import junit.framework.TestCase;
+
+/**
+ * Compares the time taken to write events through {@link BinaryOutput} with
+ * the time taken to render them and write them through {@link FileOutput}.
+ */
+public class BinaryOutputPerfTest extends TestCase {
+
+  static final int RUN_LENGTH = 500 * 1000;
+  static final String LOGGER = "com.foo.Bar";
+  static final String PATTERN = "Processed request {} for customer {}";
+  static final Integer ID = new Integer(42);
+
+  File file;
+
+  public BinaryOutputPerfTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    file = File.createTempFile("slf4j-simple", ".log");
+  }
+
+  protected void tearDown() throws Exception {
+    file.delete();
+    super.tearDown();
+  }
+
+  public void testThroughput() throws Exception {
+    textLoop(RUN_LENGTH);
+    binaryLoop(RUN_LENGTH);
+    double textDuration = textLoop(RUN_LENGTH);
+    double binaryDuration = binaryLoop(RUN_LENGTH);
+    System.out.println(RUN_LENGTH + " events: text " + textDuration
+        + " millis, binary " + binaryDuration + " millis");
+  }
+
+  double textLoop(int len) throws Exception {
+    FileOutput output = new FileOutput(file.getPath(), Charset
+        .forName("UTF-8"), FileOutput.DEFAULT_BUFFER_SIZE, 0);
+    StringBuffer buf = new StringBuffer();
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      buf.setLength(0);
+      SimpleLogger.appendPrefix(buf, System.currentTimeMillis(), Thread
+          .currentThread().getName(), SimpleLogger.LOG_LEVEL_INFO, LOGGER);
+      MessageFormatter.appendTo(buf, PATTERN, ID, "acme");
+      output.write(buf, null, SimpleLogger.LOG_LEVEL_INFO, true);
+    }
+    output.close();
+    return System.currentTimeMillis() - start;
+  }
+
+  double binaryLoop(int len) throws Exception {
+    BinaryOutput output = new BinaryOutput(file.getPath(), 0,
+        FileOutput.DEFAULT_BUFFER_SIZE, 0);
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      output.writeEvent(SimpleLogger.LOG_LEVEL_INFO, LOGGER, PATTERN, ID,
+          "acme");
+    }
+    output.close();
+    return System.currentTimeMillis() - start;
+  }
+}
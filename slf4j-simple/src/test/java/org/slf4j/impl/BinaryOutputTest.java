@@ -0,0 +1,199 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class BinaryOutputTest extends TestCase {
+
+  static final String LOGGER = "org.slf4j.impl.BinaryOutputTest";
+
+  File file;
+  BinaryOutput output;
+
+  public BinaryOutputTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    file = File.createTempFile("slf4j-simple", ".bin");
+    output = new BinaryOutput(file.getPath(), System.currentTimeMillis(),
+        1024, 0);
+  }
+
+  protected void tearDown() throws Exception {
+    output.close();
+    file.delete();
+    super.tearDown();
+  }
+
+  List decode() throws IOException {
+    output.flush();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    InputStream in = new FileInputStream(file);
+    try {
+      new BinaryLogDecoder(null).decode(in, new PrintStream(bytes,
+          true, "UTF-8"));
+    } finally {
+      in.close();
+    }
+    BufferedReader reader = new BufferedReader(new StringReader(bytes
+        .toString("UTF-8")));
+    List lines = new ArrayList();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      lines.add(line);
+    }
+    return lines;
+  }
+
+  /**
+   * Return the message of a rendered line, after checking its prefix.
+   */
+  String message(String line, String level) {
+    String prefix = " [" + Thread.currentThread().getName() + "] " + level
+        + " " + LOGGER + " - ";
+    int index = line.indexOf(prefix);
+    assertTrue(line, index > 0);
+    return line.substring(index + prefix.length());
+  }
+
+  public void testEventsAreRenderedAsText() throws IOException {
+    int info = SimpleLogger.LOG_LEVEL_INFO;
+    output.writeEvent(info, LOGGER, "Hello {} and {}", "world", new Integer(
+        42));
+    output.writeEvent(info, LOGGER, "Hello {} and {}", new Float(1.1f),
+        null);
+    output.writeEvent(SimpleLogger.LOG_LEVEL_WARN, LOGGER, "{} {} {} {}",
+        new Object[] { Boolean.TRUE, new Long(-1), new int[] { 1, 2 },
+            new Double(0.5) });
+    output.writeEvent(info, LOGGER, "long {}", 123456789012L);
+    output.writeEvent(info, LOGGER, "double {}", 2.5d);
+    output.writeEvent(info, LOGGER, "boolean {}", false);
+    output.writeEvent(info, LOGGER, "{} + {}", 1L, 2L);
+    output.writeEvent(info, LOGGER, "{} + {}", "one", 2L);
+    output.writeMessage(info, LOGGER, "no {} substitution", null);
+
+    List lines = decode();
+    assertEquals(9, lines.size());
+    assertEquals("Hello world and 42", message((String) lines.get(0), "INFO"));
+    assertEquals("Hello 1.1 and null", message((String) lines.get(1), "INFO"));
+    assertEquals("true -1 [1, 2] 0.5", message((String) lines.get(2), "WARN"));
+    assertEquals("long 123456789012", message((String) lines.get(3), "INFO"));
+    assertEquals("double 2.5", message((String) lines.get(4), "INFO"));
+    assertEquals("boolean false", message((String) lines.get(5), "INFO"));
+    assertEquals("1 + 2", message((String) lines.get(6), "INFO"));
+    assertEquals("one + 2", message((String) lines.get(7), "INFO"));
+    assertEquals("no {} substitution", message((String) lines.get(8), "INFO"));
+  }
+
+  public void testPatternsAreWrittenOnce() throws IOException {
+    String pattern = "Processed the request {} of the customer {} successfully";
+    Integer id = new Integer(42);
+    output.writeEvent(SimpleLogger.LOG_LEVEL_INFO, LOGGER, pattern, id, "x");
+    output.flush();
+    long firstEventLength = file.length();
+    for (int i = 0; i < 100; i++) {
+      output.writeEvent(SimpleLogger.LOG_LEVEL_INFO, LOGGER, pattern, id, "x");
+    }
+    output.flush();
+    long eventLength = (file.length() - firstEventLength) / 100;
+    // type, timestamp, level, 3 references, shape, arguments, no throwable
+    assertEquals(1 + 8 + 1 + 3 * 4 + 1 + (1 + 4) + (1 + 4 + 2 + 1) + 1,
+        eventLength);
+    assertEquals(101, decode().size());
+  }
+
+  public void testThrowableAndLongStrings() throws IOException {
+    StringBuffer longString = new StringBuffer();
+    for (int i = 0; i < 10000; i++) {
+      longString.append("\u00e9abc");
+    }
+    output.writeEvent(SimpleLogger.LOG_LEVEL_INFO, LOGGER, "{}", longString
+        .toString(), null);
+    output.writeMessage(SimpleLogger.LOG_LEVEL_ERROR, LOGGER, "failure",
+        new Exception("boom"));
+    List lines = decode();
+    assertEquals(longString.toString(), message((String) lines.get(0), "INFO"));
+    assertEquals("failure", message((String) lines.get(1), "ERROR"));
+    assertEquals("java.lang.Exception: boom", lines.get(2));
+  }
+
+  /**
+   * An argument logging to the output when rendered.
+   */
+  class LoggingArgument {
+    public String toString() {
+      output.writeEvent(SimpleLogger.LOG_LEVEL_INFO, LOGGER, "inner {}", "x",
+          null);
+      return "arg";
+    }
+  }
+
+  public void testArgumentLoggingWhenRendered() throws IOException {
+    int info = SimpleLogger.LOG_LEVEL_INFO;
+    output.writeEvent(info, LOGGER, "outer {} {}", new LoggingArgument(),
+        "tail");
+    output.writeEvent(info, LOGGER, "array {} {}", new Object[] { "a",
+        new LoggingArgument() });
+    output.writeMessage(info, LOGGER, "last", null);
+
+    List lines = decode();
+    assertEquals(5, lines.size());
+    assertEquals("inner x", message((String) lines.get(0), "INFO"));
+    assertEquals("outer arg tail", message((String) lines.get(1), "INFO"));
+    assertEquals("inner x", message((String) lines.get(2), "INFO"));
+    assertEquals("array a arg", message((String) lines.get(3), "INFO"));
+    assertEquals("last", message((String) lines.get(4), "INFO"));
+  }
+
+  public void testAppendingAndTruncatedRecord() throws IOException {
+    output.writeMessage(SimpleLogger.LOG_LEVEL_INFO, LOGGER, "first", null);
+    output.close();
+    output = new BinaryOutput(file.getPath(), System.currentTimeMillis(),
+        1024, 0);
+    output.writeMessage(SimpleLogger.LOG_LEVEL_INFO, LOGGER, "second", null);
+    output.close();
+    // simulate a crash in the middle of a record
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    raf.setLength(raf.length() - 3);
+    raf.close();
+    List lines = decode();
+    assertEquals(1, lines.size());
+    assertEquals("first", message((String) lines.get(0), "INFO"));
+  }
+}
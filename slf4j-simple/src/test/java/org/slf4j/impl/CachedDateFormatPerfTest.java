@@ -0,0 +1,77 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import junit.framework.TestCase;
+
+/**
+ * Compares the time taken to render timestamps with {@link CachedDateFormat}
+ * and with a {@link SimpleDateFormat} per event.
+ */
+public class CachedDateFormatPerfTest extends TestCase {
+
+  static final String PATTERN = "yyyy-MM-dd HH:mm:ss.SSS";
+  static final int RUN_LENGTH = 200 * 1000;
+
+  public CachedDateFormatPerfTest(String name) {
+    super(name);
+  }
+
+  public void testRenderingTime() {
+    simpleDateFormatLoop(RUN_LENGTH);
+    cachedDateFormatLoop(RUN_LENGTH);
+    double simpleDuration = simpleDateFormatLoop(RUN_LENGTH);
+    double cachedDuration = cachedDateFormatLoop(RUN_LENGTH);
+    System.out.println(RUN_LENGTH + " timestamps: SimpleDateFormat "
+        + simpleDuration + " millis, CachedDateFormat " + cachedDuration
+        + " millis");
+  }
+
+  double simpleDateFormatLoop(int len) {
+    StringBuffer buf = new StringBuffer();
+    long base = System.currentTimeMillis();
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      buf.setLength(0);
+      // a new format per event, as a SimpleDateFormat is not thread-safe
+      buf.append(new SimpleDateFormat(PATTERN).format(new Date(base + i / 10)));
+    }
+    return System.currentTimeMillis() - start;
+  }
+
+  double cachedDateFormatLoop(int len) {
+    CachedDateFormat format = new CachedDateFormat(PATTERN);
+    StringBuffer buf = new StringBuffer();
+    long base = System.currentTimeMillis();
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      buf.setLength(0);
+      format.appendTo(buf, base + i / 10);
+    }
+    return System.currentTimeMillis() - start;
+  }
+}
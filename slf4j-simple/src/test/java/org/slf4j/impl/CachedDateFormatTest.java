@@ -0,0 +1,107 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import junit.framework.TestCase;
+
+public class CachedDateFormatTest extends TestCase {
+
+  // 2010-01-01 00:00:00 UTC
+  static final long START = 1262304000000L;
+
+  public CachedDateFormatTest(String name) {
+    super(name);
+  }
+
+  void assertRendersLikeSimpleDateFormat(String pattern) {
+    CachedDateFormat cached = new CachedDateFormat(pattern);
+    SimpleDateFormat reference = new SimpleDateFormat(pattern);
+    StringBuffer buf = new StringBuffer();
+    // steps of 7 milliseconds cross many second boundaries
+    for (long t = START; t < START + 5000; t += 7) {
+      buf.setLength(0);
+      cached.appendTo(buf, t);
+      assertEquals(pattern + " at " + t, reference.format(new Date(t)), buf
+          .toString());
+    }
+    // going back in time must work as well
+    buf.setLength(0);
+    cached.appendTo(buf, START + 999);
+    assertEquals(reference.format(new Date(START + 999)), buf.toString());
+  }
+
+  public void testMillisecondPattern() {
+    assertRendersLikeSimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+    assertRendersLikeSimpleDateFormat("HH:mm:ss,SSS Z");
+  }
+
+  public void testPatternWithoutMilliseconds() {
+    assertRendersLikeSimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+  }
+
+  public void testUncacheablePatterns() {
+    assertRendersLikeSimpleDateFormat("ss.S");
+    assertRendersLikeSimpleDateFormat("SSSS");
+    assertRendersLikeSimpleDateFormat("'987' HH:mm:ss.SSS '987'");
+  }
+
+  public void testInvalidPattern() {
+    try {
+      new CachedDateFormat("yyyy-MM-dd qq");
+      fail("expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
+  public void testConcurrentRendering() throws InterruptedException {
+    final CachedDateFormat cached = new CachedDateFormat("HH:mm:ss.SSS");
+    final String[] failure = new String[1];
+    Thread[] threads = new Thread[8];
+    for (int i = 0; i < threads.length; i++) {
+      final long offset = i * 333;
+      threads[i] = new Thread() {
+        public void run() {
+          SimpleDateFormat reference = new SimpleDateFormat("HH:mm:ss.SSS");
+          StringBuffer buf = new StringBuffer();
+          for (long t = START + offset; t < START + offset + 20000; t += 3) {
+            buf.setLength(0);
+            cached.appendTo(buf, t);
+            String expected = reference.format(new Date(t));
+            if (!expected.equals(buf.toString())) {
+              failure[0] = expected + " rendered as " + buf;
+            }
+          }
+        }
+      };
+      threads[i].start();
+    }
+    for (int i = 0; i < threads.length; i++) {
+      threads[i].join();
+    }
+    assertNull(failure[0], failure[0]);
+  }
+}
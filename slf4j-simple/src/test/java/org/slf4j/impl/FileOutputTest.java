@@ -0,0 +1,136 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.slf4j.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import junit.framework.TestCase;
+
+public class FileOutputTest extends TestCase {
+
+  static final Charset UTF_8 = Charset.forName("UTF-8");
+  static final String LINE = "0 [main] INFO logger - a line of about sixty characters";
+
+  File file;
+  FileOutput output;
+
+  public FileOutputTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    file = File.createTempFile("slf4j-simple", ".log");
+  }
+
+  protected void tearDown() throws Exception {
+    if (output != null) {
+      output.close();
+    }
+    file.delete();
+    super.tearDown();
+  }
+
+  String fileContents() throws IOException {
+    InputStream in = new FileInputStream(file);
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      byte[] buf = new byte[4096];
+      int n;
+      while ((n = in.read(buf)) != -1) {
+        bytes.write(buf, 0, n);
+      }
+      return new String(bytes.toByteArray(), "UTF-8");
+    } finally {
+      in.close();
+    }
+  }
+
+  void write(String line, int level) {
+    output.write(new StringBuffer(line), null, level, true);
+  }
+
+  public void testLinesAreBatched() throws IOException {
+    output = new FileOutput(file.getPath(), UTF_8,
+        FileOutput.DEFAULT_BUFFER_SIZE, 0);
+    int lineCount = 1000;
+    for (int i = 0; i < lineCount; i++) {
+      write(LINE, SimpleLogger.LOG_LEVEL_INFO);
+    }
+    // 1000 lines of about 60 bytes fit in one buffer
+    assertEquals(0, output.writeCount);
+    assertEquals(0, file.length());
+    output.close();
+    assertEquals(1, output.writeCount);
+    String expected = LINE + SimpleLogger.LINE_SEPARATOR;
+    assertEquals(lineCount * expected.length(), fileContents().length());
+  }
+
+  public void testBufferSizeThreshold() throws IOException {
+    output = new FileOutput(file.getPath(), UTF_8, 1024, 0);
+    for (int i = 0; i < 100; i++) {
+      write(LINE, SimpleLogger.LOG_LEVEL_INFO);
+    }
+    // each write covers about 1024 / 60 lines
+    assertTrue(output.writeCount >= 5);
+    assertTrue(output.writeCount <= 6);
+  }
+
+  public void testErrorIsWrittenImmediately() throws IOException {
+    output = new FileOutput(file.getPath(), UTF_8,
+        FileOutput.DEFAULT_BUFFER_SIZE, 0);
+    write("info", SimpleLogger.LOG_LEVEL_INFO);
+    assertEquals(0, file.length());
+    write("error", SimpleLogger.LOG_LEVEL_ERROR);
+    String sep = SimpleLogger.LINE_SEPARATOR;
+    assertEquals("info" + sep + "error" + sep, fileContents());
+  }
+
+  public void testFlushInterval() throws Exception {
+    output = new FileOutput(file.getPath(), UTF_8,
+        FileOutput.DEFAULT_BUFFER_SIZE, 50);
+    write("info", SimpleLogger.LOG_LEVEL_INFO);
+    for (int i = 0; i < 100 && file.length() == 0; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals("info" + SimpleLogger.LINE_SEPARATOR, fileContents());
+  }
+
+  public void testEncodingAndStackTrace() throws IOException {
+    output = new FileOutput(file.getPath(), UTF_8, 64, 0);
+    String line = "caf\u00e9 \u65e5\u672c";
+    output.write(new StringBuffer(line), new Exception("boom"),
+        SimpleLogger.LOG_LEVEL_WARN, true);
+    output.close();
+    String contents = fileContents();
+    assertTrue(contents.startsWith(line + SimpleLogger.LINE_SEPARATOR));
+    assertTrue(contents.indexOf("java.lang.Exception: boom") > 0);
+  }
+}
@@ -0,0 +1,74 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import junit.framework.TestCase;
+
+import org.slf4j.helpers.NOPLogger;
+
+/**
+ * Compares the cost of recording a disabled event in a {@link FlightRecorder}
+ * with that of a call to a {@link NOPLogger}.
+ */
+public class FlightRecorderPerfTest extends TestCase {
+
+  static final int RUN_LENGTH = 1000 * 1000;
+
+  public FlightRecorderPerfTest(String name) {
+    super(name);
+  }
+
+  public void testRecordingTime() {
+    FlightRecorder recorder = new FlightRecorder(256,
+        SimpleLogger.LOG_LEVEL_DEBUG);
+    nopLoop(RUN_LENGTH);
+    recorderLoop(recorder, RUN_LENGTH);
+    double nopDuration = nopLoop(RUN_LENGTH);
+    double recorderDuration = recorderLoop(recorder, RUN_LENGTH);
+    recorder.stop();
+    System.out.println(RUN_LENGTH + " debug calls: NOPLogger " + nopDuration
+        + " millis, FlightRecorder " + recorderDuration + " millis");
+  }
+
+  double nopLoop(int len) {
+    NOPLogger logger = NOPLogger.NOP_LOGGER;
+    Integer arg = new Integer(1);
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      logger.debug("event {} of {}", arg, "test");
+    }
+    return System.currentTimeMillis() - start;
+  }
+
+  double recorderLoop(FlightRecorder recorder, int len) {
+    Integer arg = new Integer(1);
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      recorder.record(SimpleLogger.LOG_LEVEL_DEBUG, "test",
+          SimpleLogger.KIND_OBJECT_OBJECT, "event {} of {}", arg, "test", null,
+          0, 0, null);
+    }
+    return System.currentTimeMillis() - start;
+  }
+}
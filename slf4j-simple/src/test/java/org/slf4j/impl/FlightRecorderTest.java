@@ -0,0 +1,189 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class FlightRecorderTest extends TestCase {
+
+  static final int DEBUG = SimpleLogger.LOG_LEVEL_DEBUG;
+  static final int TRACE = SimpleLogger.LOG_LEVEL_TRACE;
+
+  /**
+   * Keeps the messages written to it, stripped of their prefix.
+   */
+  static class ListOutput extends LogOutput {
+    List messages = new ArrayList();
+    List throwables = new ArrayList();
+
+    void write(StringBuffer line, Throwable t, int level, boolean endOfBatch) {
+      String s = line.toString();
+      messages.add(s.substring(s.indexOf(" - ") + 3));
+      throwables.add(t);
+    }
+
+    void close() {
+    }
+  }
+
+  ListOutput output = new ListOutput();
+  FlightRecorder recorder;
+
+  public FlightRecorderTest(String name) {
+    super(name);
+  }
+
+  protected void tearDown() throws Exception {
+    if (recorder != null) {
+      recorder.stop();
+    }
+    super.tearDown();
+  }
+
+  void recordMessage(int level, String message, Throwable t) {
+    recorder.record(level, "a", SimpleLogger.KIND_MESSAGE, message, null,
+        null, null, 0, 0, t);
+  }
+
+  void record(byte kind, String pattern, Object arg1, Object arg2,
+      Object[] argArray, long value1, long value2) {
+    recorder.record(DEBUG, "a", kind, pattern, arg1, arg2, argArray, value1,
+        value2, null);
+  }
+
+  public void testEmpty() {
+    recorder = new FlightRecorder(4, DEBUG);
+    recorder.dump(null, output);
+    assertEquals(0, output.messages.size());
+  }
+
+  public void testAllShapes() {
+    recorder = new FlightRecorder(16, DEBUG);
+    Exception e = new Exception("test");
+    recordMessage(DEBUG, "message", e);
+    record(SimpleLogger.KIND_OBJECT_OBJECT, "{} and {}", "x", new Integer(1),
+        null, 0, 0);
+    record(SimpleLogger.KIND_ARRAY, "{}{}{}", null, null, new Object[] { "x",
+        "y", "z" }, 0, 0);
+    record(SimpleLogger.KIND_LONG, "long {}", null, null, null, 12, 0);
+    record(SimpleLogger.KIND_DOUBLE, "double {}", null, null, null, Double
+        .doubleToRawLongBits(1.5), 0);
+    record(SimpleLogger.KIND_BOOLEAN, "boolean {}", null, null, null, 1, 0);
+    record(SimpleLogger.KIND_LONG_LONG, "{}-{}", null, null, null, 1, 2);
+    record(SimpleLogger.KIND_OBJECT_LONG, "{}={}", "k", null, null, 0, 3);
+    recorder.dump(null, output);
+
+    assertEquals(8, output.messages.size());
+    assertEquals("message", output.messages.get(0));
+    assertSame(e, output.throwables.get(0));
+    assertEquals("x and 1", output.messages.get(1));
+    assertNull(output.throwables.get(1));
+    assertEquals("xyz", output.messages.get(2));
+    assertEquals("long 12", output.messages.get(3));
+    assertEquals("double 1.5", output.messages.get(4));
+    assertEquals("boolean true", output.messages.get(5));
+    assertEquals("1-2", output.messages.get(6));
+    assertEquals("k=3", output.messages.get(7));
+  }
+
+  public void testKeepsMostRecentEvents() {
+    recorder = new FlightRecorder(3, DEBUG);
+    for (int i = 0; i < 10; i++) {
+      record(SimpleLogger.KIND_LONG, "event {}", null, null, null, i, 0);
+    }
+    recorder.dump(null, output);
+    assertEquals(3, output.messages.size());
+    assertEquals("event 7", output.messages.get(0));
+    assertEquals("event 8", output.messages.get(1));
+    assertEquals("event 9", output.messages.get(2));
+  }
+
+  public void testDumpEmptiesRing() {
+    recorder = new FlightRecorder(3, DEBUG);
+    recordMessage(DEBUG, "first", null);
+    recorder.dump(null, output);
+    recordMessage(DEBUG, "second", null);
+    recorder.dump(null, output);
+    assertEquals(2, output.messages.size());
+    assertEquals("first", output.messages.get(0));
+    assertEquals("second", output.messages.get(1));
+  }
+
+  public void testMinLevel() {
+    recorder = new FlightRecorder(3, DEBUG);
+    recordMessage(TRACE, "trace", null);
+    recordMessage(DEBUG, "debug", null);
+    recorder.dump(null, output);
+    assertEquals(1, output.messages.size());
+    assertEquals("debug", output.messages.get(0));
+  }
+
+  public void testDumpIsQueuedToAsyncWriter() {
+    recorder = new FlightRecorder(3, DEBUG);
+    AsyncWriter writer = new AsyncWriter(4, AsyncWriter.BLOCK, output);
+    writer.start();
+    assertTrue(writer.enqueue(SimpleLogger.LOG_LEVEL_INFO, "a", "before",
+        null));
+    recordMessage(DEBUG, "recorded", null);
+    recorder.dump(writer, output);
+    assertTrue(writer.enqueue(SimpleLogger.LOG_LEVEL_ERROR, "a", "error",
+        null));
+    writer.stop(5000);
+    assertEquals(3, output.messages.size());
+    assertEquals("before", output.messages.get(0));
+    assertEquals("recorded", output.messages.get(1));
+    assertEquals("error", output.messages.get(2));
+  }
+
+  public void testDumpAfterAsyncWriterStopped() {
+    recorder = new FlightRecorder(3, DEBUG);
+    AsyncWriter writer = new AsyncWriter(4, AsyncWriter.BLOCK, output);
+    writer.start();
+    writer.stop(5000);
+    recordMessage(DEBUG, "recorded", null);
+    recorder.dump(writer, output);
+    assertEquals(1, output.messages.size());
+    assertEquals("recorded", output.messages.get(0));
+  }
+
+  public void testRingsArePerThread() throws InterruptedException {
+    recorder = new FlightRecorder(3, DEBUG);
+    recordMessage(DEBUG, "main", null);
+    final FlightRecorder recorder = this.recorder;
+    Thread other = new Thread() {
+      public void run() {
+        recorder.record(DEBUG, "a", SimpleLogger.KIND_MESSAGE, "other", null,
+            null, null, 0, 0, null);
+      }
+    };
+    other.start();
+    other.join();
+    recorder.dump(null, output);
+    assertEquals(1, output.messages.size());
+    assertEquals("main", output.messages.get(0));
+  }
+}
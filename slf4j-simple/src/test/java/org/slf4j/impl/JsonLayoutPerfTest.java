@@ -0,0 +1,108 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * Compares the time taken to render and write events as text lines and as
+ * JSON objects. JSON objects being about twice as long, the number of bytes
+ * written is reported as well.
+ */
+public class JsonLayoutPerfTest extends TestCase {
+
+  static final int RUN_LENGTH = 1000 * 1000;
+
+  Map context = new HashMap();
+  long byteCount;
+  LogOutput output = new ConsoleOutput(new PrintStream(new OutputStream() {
+    public void write(int b) {
+      byteCount++;
+    }
+
+    public void write(byte[] b, int off, int len) {
+      byteCount += len;
+    }
+  }));
+
+  public JsonLayoutPerfTest(String name) {
+    super(name);
+  }
+
+  public void testRenderingTime() {
+    context.put("user", "alice");
+    context.put("request", "1234");
+    for (int i = 0; i < 3; i++) {
+      textLoop(RUN_LENGTH);
+      jsonLoop(RUN_LENGTH);
+    }
+    byteCount = 0;
+    double textDuration = textLoop(RUN_LENGTH);
+    long textBytes = byteCount;
+    byteCount = 0;
+    double jsonDuration = jsonLoop(RUN_LENGTH);
+    long jsonBytes = byteCount;
+    System.out.println(RUN_LENGTH + " events: text " + textDuration
+        + " millis (" + textBytes + " bytes), JSON " + jsonDuration
+        + " millis (" + jsonBytes + " bytes)");
+  }
+
+  double textLoop(int len) {
+    StringBuffer buf = new StringBuffer(256);
+    Integer arg = new Integer(42);
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      buf.setLength(0);
+      SimpleLogger.appendPrefix(buf, start, "main",
+          SimpleLogger.LOG_LEVEL_INFO, "org.slf4j.impl.JsonLayoutPerfTest");
+      MessageFormatter.appendTo(buf, "Processed request {} for user {}", arg,
+          "alice");
+      output.write(buf, null, SimpleLogger.LOG_LEVEL_INFO, true);
+    }
+    return System.currentTimeMillis() - start;
+  }
+
+  double jsonLoop(int len) {
+    StringBuffer buf = new StringBuffer(256);
+    Integer arg = new Integer(42);
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < len; i++) {
+      buf.setLength(0);
+      int messageStart = JsonLayout.appendPrefix(buf, start, "main",
+          SimpleLogger.LOG_LEVEL_INFO, "org.slf4j.impl.JsonLayoutPerfTest");
+      MessageFormatter.appendTo(buf, "Processed request {} for user {}", arg,
+          "alice");
+      JsonLayout.appendSuffix(buf, messageStart, context, null);
+      output.write(buf, null, SimpleLogger.LOG_LEVEL_INFO, true);
+    }
+    return System.currentTimeMillis() - start;
+  }
+}
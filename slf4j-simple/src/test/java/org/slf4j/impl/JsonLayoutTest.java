@@ -0,0 +1,108 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.slf4j.helpers.MessageFormatter;
+
+public class JsonLayoutTest extends TestCase {
+
+  static final String PREFIX = "{\"timestamp\":1000,\"level\":\"INFO\","
+      + "\"logger\":\"a.b\",\"thread\":\"main\",\"message\":\"";
+
+  StringBuffer buf = new StringBuffer();
+
+  public JsonLayoutTest(String name) {
+    super(name);
+  }
+
+  String render(String format, Object arg, Map context, Throwable t) {
+    buf.setLength(0);
+    int messageStart = JsonLayout.appendPrefix(buf, 1000, "main",
+        SimpleLogger.LOG_LEVEL_INFO, "a.b");
+    MessageFormatter.appendTo(buf, format, arg, null);
+    JsonLayout.appendSuffix(buf, messageStart, context, t);
+    return buf.toString();
+  }
+
+  public void testPlainMessage() {
+    assertEquals(PREFIX + "hello world\"}", render("hello {}", "world", null,
+        null));
+  }
+
+  public void testEscapedMessage() {
+    assertEquals(PREFIX + "say \\\"hi\\\"\\n\\tto C:\\\\ \\u0001\"}", render(
+        "say {}", "\"hi\"\n\tto C:\\ \u0001", null, null));
+  }
+
+  public void testEscapingStartsAfterPrefix() {
+    buf.append("previous \" content");
+    int messageStart = buf.length();
+    buf.append("a\"b");
+    JsonLayout.escapeTail(buf, messageStart);
+    assertEquals("previous \" contenta\\\"b", buf.toString());
+  }
+
+  public void testEscapedNames() {
+    buf.setLength(0);
+    JsonLayout.appendPrefix(buf, 1000, "pool\"1", SimpleLogger.LOG_LEVEL_WARN,
+        "x\\y");
+    assertEquals("{\"timestamp\":1000,\"level\":\"WARN\",\"logger\":\"x\\\\y\","
+        + "\"thread\":\"pool\\\"1\",\"message\":\"", buf.toString());
+  }
+
+  public void testContext() {
+    Map context = new LinkedHashMap();
+    context.put("user", "al\"ice");
+    context.put("request", null);
+    assertEquals(PREFIX + "m\",\"mdc\":{\"user\":\"al\\\"ice\","
+        + "\"request\":null}}", render("m", null, context, null));
+  }
+
+  public void testEmptyContext() {
+    assertEquals(PREFIX + "m\"}", render("m", null, new LinkedHashMap(), null));
+  }
+
+  public void testThrowable() {
+    String json = render("m", null, null, new Exception("bad \"thing\""));
+    assertTrue(json, json.startsWith(PREFIX
+        + "m\",\"throwable\":\"java.lang.Exception: bad \\\"thing\\\"\\n\\tat "
+        + getClass().getName() + ".testThrowable("));
+    assertTrue(json, json.endsWith("\"}"));
+    assertEquals(-1, json.indexOf('\n'));
+  }
+
+  public void testLongMessage() {
+    StringBuffer message = new StringBuffer();
+    for (int i = 0; i < 2000; i++) {
+      message.append("ab\"");
+    }
+    String json = render(message.toString(), null, null, null);
+    assertEquals(PREFIX.length() + 8000 + 2, json.length());
+  }
+}
@@ -0,0 +1,123 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+
+import junit.framework.TestCase;
+
+/**
+ * Compares the time taken by several threads to write log lines through
+ * {@link MappedFileOutput} and through a {@link PrintStream} on a file, as
+ * {@link ConsoleOutput} does.
+ */
+public class MappedFileOutputPerfTest extends TestCase {
+
+  static final int THREAD_COUNT = 4;
+  static final int LINES_PER_THREAD = 100 * 1000;
+  static final String LINE = "1234 [worker-1] INFO com.foo.Bar - Processed request 42 for customer acme";
+
+  File dir;
+
+  public MappedFileOutputPerfTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    dir = File.createTempFile("slf4j-simple", "");
+    dir.delete();
+    dir.mkdir();
+  }
+
+  protected void tearDown() throws Exception {
+    File[] files = dir.listFiles();
+    for (int i = 0; i < files.length; i++) {
+      files[i].delete();
+    }
+    dir.delete();
+    super.tearDown();
+  }
+
+  public void testThroughput() throws Exception {
+    printStreamRun("warmup-print");
+    mappedRun("warmup-mapped");
+    double printStreamDuration = printStreamRun("print");
+    double mappedDuration = mappedRun("mapped");
+    System.out.println(THREAD_COUNT + " threads x " + LINES_PER_THREAD
+        + " lines: PrintStream " + printStreamDuration
+        + " millis, MappedFileOutput " + mappedDuration + " millis");
+  }
+
+  double printStreamRun(String name) throws Exception {
+    PrintStream out = new PrintStream(new BufferedOutputStream(
+        new FileOutputStream(new File(dir, name)), 8 * 1024));
+    LogOutput output = new ConsoleOutput(out);
+    try {
+      return run(output);
+    } finally {
+      out.close();
+    }
+  }
+
+  double mappedRun(String name) throws Exception {
+    LogOutput output = new MappedFileOutput(new File(dir, name).getPath(),
+        Charset.forName("UTF-8"), MappedFileOutput.DEFAULT_SEGMENT_SIZE);
+    try {
+      return run(output);
+    } finally {
+      output.close();
+    }
+  }
+
+  double run(final LogOutput output) throws InterruptedException,
+      IOException {
+    Thread[] threads = new Thread[THREAD_COUNT];
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      threads[i] = new Thread() {
+        public void run() {
+          StringBuffer buf = new StringBuffer();
+          for (int j = 0; j < LINES_PER_THREAD; j++) {
+            buf.setLength(0);
+            buf.append(LINE);
+            output.write(buf, null, SimpleLogger.LOG_LEVEL_INFO, true);
+          }
+        }
+      };
+    }
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      threads[i].start();
+    }
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      threads[i].join();
+    }
+    return System.currentTimeMillis() - start;
+  }
+}
@@ -0,0 +1,199 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+public class MappedFileOutputTest extends TestCase {
+
+  static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  File dir;
+  String fileName;
+  MappedFileOutput output;
+
+  public MappedFileOutputTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    dir = File.createTempFile("slf4j-simple", "");
+    dir.delete();
+    dir.mkdir();
+    fileName = new File(dir, "test.log").getPath();
+  }
+
+  protected void tearDown() throws Exception {
+    if (output != null) {
+      output.close();
+    }
+    File[] files = dir.listFiles();
+    for (int i = 0; i < files.length; i++) {
+      files[i].delete();
+    }
+    dir.delete();
+    super.tearDown();
+  }
+
+  void write(String line) {
+    output.write(new StringBuffer(line), null, SimpleLogger.LOG_LEVEL_INFO,
+        true);
+  }
+
+  /**
+   * Return the lines of all segments, in segment order.
+   */
+  List readLines() throws IOException {
+    List lines = new ArrayList();
+    for (int i = 0;; i++) {
+      File segment = new File(fileName + "." + i);
+      if (!segment.exists()) {
+        return lines;
+      }
+      BufferedReader reader = new BufferedReader(new InputStreamReader(
+          new FileInputStream(segment), "UTF-8"));
+      try {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          lines.add(line);
+        }
+      } finally {
+        reader.close();
+      }
+    }
+  }
+
+  public void testLinesAreWrittenAndTruncatedOnClose() throws IOException {
+    output = new MappedFileOutput(fileName, UTF_8,
+        MappedFileOutput.DEFAULT_SEGMENT_SIZE);
+    write("first line");
+    write("second line \u00e9");
+    output.close();
+    List lines = readLines();
+    assertEquals(2, lines.size());
+    assertEquals("first line", lines.get(0));
+    assertEquals("second line \u00e9", lines.get(1));
+    int expectedLength = ("first line" + SimpleLogger.LINE_SEPARATOR
+        + "second line \u00e9" + SimpleLogger.LINE_SEPARATOR).getBytes("UTF-8").length;
+    assertEquals(expectedLength, new File(fileName + ".0").length());
+  }
+
+  public void testSegmentsRoll() throws IOException {
+    output = new MappedFileOutput(fileName, UTF_8,
+        MappedFileOutput.MIN_SEGMENT_SIZE);
+    int count = 5000;
+    for (int i = 0; i < count; i++) {
+      write("line number " + i + " of a test of rolling segments");
+    }
+    assertFalse(new File(fileName + ".0").equals(output.getCurrentFile()));
+    output.close();
+    assertTrue(new File(fileName + ".2").exists());
+    List lines = readLines();
+    assertEquals(count, lines.size());
+    for (int i = 0; i < count; i++) {
+      assertEquals("line number " + i + " of a test of rolling segments",
+          lines.get(i));
+    }
+  }
+
+  public void testRolledSegmentIsTruncated() throws IOException {
+    output = new MappedFileOutput(fileName, UTF_8,
+        MappedFileOutput.MIN_SEGMENT_SIZE);
+    String line = "a line of a test of truncation of rolled segments";
+    int lineLength = (line + SimpleLogger.LINE_SEPARATOR).getBytes("UTF-8").length;
+    int linesPerSegment = MappedFileOutput.MIN_SEGMENT_SIZE / lineLength;
+    for (int i = 0; i <= linesPerSegment; i++) {
+      write(line);
+    }
+    assertEquals(new File(fileName + ".1"), output.getCurrentFile());
+    // finished while the output is still open
+    assertEquals(linesPerSegment * lineLength, new File(fileName + ".0")
+        .length());
+  }
+
+  public void testExistingSegmentsAreKept() throws IOException {
+    output = new MappedFileOutput(fileName, UTF_8,
+        MappedFileOutput.MIN_SEGMENT_SIZE);
+    write("from the first run");
+    output.close();
+    output = new MappedFileOutput(fileName, UTF_8,
+        MappedFileOutput.MIN_SEGMENT_SIZE);
+    assertEquals(new File(fileName + ".1"), output.getCurrentFile());
+    write("from the second run");
+    output.close();
+    List lines = readLines();
+    assertEquals(2, lines.size());
+  }
+
+  public void testStackTraceFollowsLine() throws IOException {
+    output = new MappedFileOutput(fileName, UTF_8,
+        MappedFileOutput.DEFAULT_SEGMENT_SIZE);
+    output.write(new StringBuffer("failure"), new Exception("boom"),
+        SimpleLogger.LOG_LEVEL_ERROR, true);
+    output.close();
+    List lines = readLines();
+    assertEquals("failure", lines.get(0));
+    assertEquals("java.lang.Exception: boom", lines.get(1));
+  }
+
+  public void testConcurrentWriters() throws Exception {
+    output = new MappedFileOutput(fileName, UTF_8,
+        MappedFileOutput.MIN_SEGMENT_SIZE);
+    final int threadCount = 8;
+    final int linesPerThread = 5000;
+    Thread[] threads = new Thread[threadCount];
+    for (int i = 0; i < threadCount; i++) {
+      final int threadIndex = i;
+      threads[i] = new Thread() {
+        public void run() {
+          for (int j = 0; j < linesPerThread; j++) {
+            write("thread " + threadIndex + " line " + j);
+          }
+        }
+      };
+      threads[i].start();
+    }
+    for (int i = 0; i < threadCount; i++) {
+      threads[i].join();
+    }
+    output.close();
+    List lines = readLines();
+    assertEquals(threadCount * linesPerThread, lines.size());
+    Set distinct = new HashSet(lines);
+    assertEquals(threadCount * linesPerThread, distinct.size());
+    assertTrue(distinct.contains("thread 7 line 4999"));
+  }
+}
@@ -0,0 +1,111 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that rendering and writing a log line does not allocate memory once
+ * the per-thread buffers are in place. Relies on the
+ * com.sun.management.ThreadMXBean extension, and passes trivially on JVMs
+ * which do not provide it.
+ */
+public class SimpleLoggerAllocationTest extends TestCase {
+
+  static final int WARM_UP_CALLS = 20000;
+  static final int MEASURED_CALLS = 10000;
+
+  PrintStream old;
+  SimpleLogger logger;
+  Object threadMXBean;
+  Method getThreadAllocatedBytes;
+
+  public SimpleLoggerAllocationTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    old = System.err;
+    System.setErr(new PrintStream(new OutputStream() {
+      public void write(int b) {
+      }
+
+      public void write(byte[] b, int off, int len) {
+      }
+    }));
+    logger = (SimpleLogger) new SimpleLoggerFactory()
+        .getLogger("org.slf4j.impl.SimpleLoggerAllocationTest");
+    try {
+      Class factoryClass = Class.forName("java.lang.management.ManagementFactory");
+      threadMXBean = factoryClass.getMethod("getThreadMXBean", null).invoke(
+          null, null);
+      getThreadAllocatedBytes = Class.forName(
+          "com.sun.management.ThreadMXBean").getMethod(
+          "getThreadAllocatedBytes", new Class[] { long.class });
+    } catch (Exception e) {
+      threadMXBean = null;
+    }
+  }
+
+  protected void tearDown() throws Exception {
+    System.setErr(old);
+    super.tearDown();
+  }
+
+  long allocatedBytes() throws Exception {
+    Long threadId = new Long(Thread.currentThread().getId());
+    return ((Long) getThreadAllocatedBytes.invoke(threadMXBean,
+        new Object[] { threadId })).longValue();
+  }
+
+  void logLines(int count) {
+    for (int i = 0; i < count; i++) {
+      logger.info("Processed {} items for {}", "some", "customer");
+      logger.info("A plain message");
+      logger.info("Item {}", 123456789L);
+      logger.debug("Disabled {}", "debug");
+    }
+  }
+
+  public void testSteadyStateLoggingDoesNotAllocate() throws Exception {
+    if (threadMXBean == null || !getThreadAllocatedBytes.getDeclaringClass()
+        .isInstance(threadMXBean)) {
+      return;
+    }
+    logLines(WARM_UP_CALLS);
+    // the first reading may itself allocate
+    allocatedBytes();
+    long before = allocatedBytes();
+    logLines(MEASURED_CALLS);
+    long allocated = allocatedBytes() - before;
+    // a single allocated object per call would amount to at least 16 bytes
+    // per call, leave some room for incidental allocations of the JVM
+    assertTrue("allocated " + allocated + " bytes", allocated < MEASURED_CALLS);
+  }
+}
@@ -0,0 +1,106 @@
+/* 
+ * Copyright (c) 2004-2010 QOS.ch
+ * All rights reserved.
+ * 
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ * 
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.slf4j.impl;
+
+import junit.framework.TestCase;
+
+public class SimpleLoggerLevelTest extends TestCase {
+
+  static final String[] KEYS = { SimpleLogger.DEFAULT_LOG_LEVEL_KEY,
+      SimpleLogger.LOG_KEY_PREFIX + "a", SimpleLogger.LOG_KEY_PREFIX + "a.b",
+      SimpleLogger.LOG_KEY_PREFIX + "x.y" };
+
+  SimpleLoggerFactory factory = new SimpleLoggerFactory();
+
+  public SimpleLoggerLevelTest(String name) {
+    super(name);
+  }
+
+  protected void tearDown() throws Exception {
+    for (int i = 0; i < KEYS.length; i++) {
+      System.getProperties().remove(KEYS[i]);
+    }
+    SimpleLoggerConfiguration.reload();
+    super.tearDown();
+  }
+
+  int level(String name) {
+    return ((SimpleLogger) factory.getLogger(name)).getLogLevel();
+  }
+
+  public void testDefaultLevelIsInfo() {
+    SimpleLogger logger = (SimpleLogger) factory.getLogger("default");
+    assertEquals(SimpleLogger.LOG_LEVEL_INFO, logger.getLogLevel());
+    assertFalse(logger.isTraceEnabled());
+    assertFalse(logger.isDebugEnabled());
+    assertTrue(logger.isInfoEnabled());
+    assertTrue(logger.isWarnEnabled());
+    assertTrue(logger.isErrorEnabled());
+  }
+
+  public void testLevelIsInherited() {
+    System.setProperty(SimpleLogger.DEFAULT_LOG_LEVEL_KEY, "warn");
+    System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "a", "debug");
+    System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "a.b", "ERROR");
+    assertEquals(SimpleLogger.LOG_LEVEL_WARN, level("other"));
+    assertEquals(SimpleLogger.LOG_LEVEL_WARN, level("ab"));
+    assertEquals(SimpleLogger.LOG_LEVEL_DEBUG, level("a"));
+    assertEquals(SimpleLogger.LOG_LEVEL_DEBUG, level("a.c"));
+    assertEquals(SimpleLogger.LOG_LEVEL_ERROR, level("a.b"));
+    assertEquals(SimpleLogger.LOG_LEVEL_ERROR, level("a.b.c.d"));
+  }
+
+  public void testOffAndUnknownLevels() {
+    System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "a", "off");
+    System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "x.y", "verbose");
+    SimpleLogger logger = (SimpleLogger) factory.getLogger("a.b");
+    assertFalse(logger.isErrorEnabled());
+    assertEquals(SimpleLogger.LOG_LEVEL_INFO, level("x.y"));
+  }
+
+  public void testReconfigure() {
+    SimpleLogger logger = (SimpleLogger) factory.getLogger("x.y.z");
+    assertFalse(logger.isDebugEnabled());
+    System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "x.y", "trace");
+    // the level is resolved once, when the logger is created
+    assertFalse(logger.isDebugEnabled());
+    factory.reconfigure();
+    assertTrue(logger.isTraceEnabled());
+    assertSame(logger, factory.getLogger("x.y.z"));
+  }
+
+  public void testDisabledLevelsAreNotLogged() {
+    System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "a", "error");
+    SimpleLogger logger = (SimpleLogger) factory.getLogger("a");
+    // would throw if formatting took place
+    Object bomb = new Object() {
+      public String toString() {
+        throw new IllegalStateException();
+      }
+    };
+    logger.debug("{}", bomb);
+    logger.info("{}", bomb);
+    logger.warn("{} {}", bomb, bomb);
+  }
+}